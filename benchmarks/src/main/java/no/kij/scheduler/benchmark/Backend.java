@@ -0,0 +1,102 @@
+package no.kij.scheduler.benchmark;
+
+import no.kij.scheduler.DatabaseConnector;
+import no.kij.scheduler.JsonImporter;
+import no.kij.scheduler.dao.DAOUtil;
+import no.kij.scheduler.dao.LecturerDAO;
+import no.kij.scheduler.dao.LecturerRepository;
+import no.kij.scheduler.dao.RoomDAO;
+import no.kij.scheduler.dao.RoomRepository;
+import no.kij.scheduler.dao.SubjectDAO;
+import no.kij.scheduler.dao.SubjectRepository;
+import no.kij.scheduler.dao.memory.InMemoryLecturerRepository;
+import no.kij.scheduler.dao.memory.InMemoryRoomRepository;
+import no.kij.scheduler.dao.memory.InMemoryStore;
+import no.kij.scheduler.dao.memory.InMemorySubjectRepository;
+import no.kij.scheduler.index.AvailabilityIndex;
+import no.kij.scheduler.index.RoomIndex;
+import no.kij.scheduler.index.TrigramIndex;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+/**
+ * The lecturer, subject and room repositories of one storage backend, holding the same {@link Dataset}, so the
+ * backends can be compared on the same workload.
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public final class Backend {
+    private final LecturerRepository lecturers;
+    private final SubjectRepository subjects;
+    private final RoomRepository rooms;
+
+    private Backend(LecturerRepository lecturers, SubjectRepository subjects, RoomRepository rooms) {
+        this.lecturers = lecturers;
+        this.subjects = subjects;
+        this.rooms = rooms;
+    }
+
+    /**
+     * Opens the backend the scheduler is set up with for the given storage setting.
+     *
+     * @param storage "jdbc" for the DAOs over the seeded database, "memory" for the in-memory repositories
+     * @param db Seeded database, whose dataset the in-memory repositories are seeded with
+     * @return The backend
+     * @throws IOException If the dataset could not be imported
+     */
+    public static Backend open(String storage, SeededDatabase db) throws IOException {
+        switch (storage) {
+            case "jdbc":
+                return jdbc(db.getDatabase());
+            case "memory":
+                return memory(db.getDataset());
+            default:
+                throw new IllegalArgumentException("Unknown storage '" + storage + "', use jdbc or memory.");
+        }
+    }
+
+    /**
+     * @param connector Seeded database
+     * @return The DAOs over the database, without a cache but with their indexes, like the scheduler sets them up
+     */
+    public static Backend jdbc(DatabaseConnector connector) {
+        return new Backend(new LecturerDAO(connector, null, new AvailabilityIndex()),
+                new SubjectDAO(connector, null, new TrigramIndex()),
+                new RoomDAO(connector, null, new RoomIndex()));
+    }
+
+    /**
+     * @param dataset Dataset to seed the repositories with
+     * @return In-memory repositories holding the dataset
+     * @throws IOException If the dataset could not be imported
+     */
+    public static Backend memory(Dataset dataset) throws IOException {
+        InMemoryStore store = new InMemoryStore();
+        Backend backend = new Backend(new InMemoryLecturerRepository(store), new InMemorySubjectRepository(store),
+                new InMemoryRoomRepository(store));
+        JsonImporter importer = new JsonImporter(backend.lecturers, backend.rooms, backend.subjects,
+                DAOUtil.DEFAULT_BATCH_SIZE);
+        importer.importLecturers(new StringReader(dataset.getLecturers()));
+        importer.importRooms(new StringReader(dataset.getRooms()));
+        importer.importSubjects(new StringReader(dataset.getSubjects()));
+        if (store.lecturerCount() != dataset.getSize() || store.subjectCount() != dataset.getSize()
+                || store.roomCount() != dataset.getSize()) {
+            throw new IllegalStateException("Expected " + dataset.getSize() + " rows of each kind in memory.");
+        }
+        return backend;
+    }
+
+    public LecturerRepository getLecturers() {
+        return lecturers;
+    }
+
+    public SubjectRepository getSubjects() {
+        return subjects;
+    }
+
+    public RoomRepository getRooms() {
+        return rooms;
+    }
+}
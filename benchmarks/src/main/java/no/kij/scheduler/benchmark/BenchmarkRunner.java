@@ -0,0 +1,60 @@
+package no.kij.scheduler.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Runs the benchmarks and writes the results as JSON, so runs can be compared and regressions spotted, for example
+ * by loading two result files into a JMH visualizer.
+ *
+ * <p>Takes the usual JMH options. Unless they say otherwise, the results are written to
+ * {@value #RESULT_FILE}:</p>
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar                      every benchmark, dataset sizes 100 and 1000
+ * java -jar benchmarks/target/benchmarks.jar DAOBenchmark -p size=10000
+ * java -jar benchmarks/target/benchmarks.jar -rff baseline.json
+ * </pre>
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public class BenchmarkRunner {
+    /**
+     * File the results are written to unless another one is given with -rff.
+     */
+    public static final String RESULT_FILE = "target/jmh-result.json";
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        CommandLineOptions cmdOptions;
+        try {
+            cmdOptions = new CommandLineOptions(args);
+        } catch (CommandLineOptionException e) {
+            System.err.println("Error parsing command line: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        if (cmdOptions.shouldHelp() || cmdOptions.shouldList() || cmdOptions.shouldListWithParams()) {
+            // listing and help are left to JMH's own main
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cmdOptions);
+        if (!cmdOptions.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cmdOptions.getResult().hasValue()) {
+            new File(RESULT_FILE).getParentFile().mkdirs();
+            options.result(RESULT_FILE);
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,75 @@
+package no.kij.scheduler.benchmark;
+
+import no.kij.scheduler.CommandLineApp;
+import no.kij.scheduler.dao.AsyncDAO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the list commands, from reading the rows to formatting the table. The table is printed to a stream
+ * that discards it, so the terminal is left out of the numbers. Each command runs against both storage backends.
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CommandLineAppBenchmark {
+    @Param({ "jdbc", "memory" })
+    public String storage;
+
+    private AsyncDAO asyncDAO;
+    private CommandLineApp app;
+
+    @Setup
+    public void setUp(SeededDatabase db) throws IOException {
+        Backend backend = Backend.open(storage, db);
+        asyncDAO = new AsyncDAO(backend.getLecturers(), backend.getSubjects(), backend.getRooms(),
+                db.getDatabase().getPoolSettings().getMaxSize(), 100, 0);
+        app = new CommandLineApp(backend.getSubjects(), backend.getLecturers(), backend.getRooms(), asyncDAO);
+        Output.discard();
+    }
+
+    @TearDown
+    public void tearDown() {
+        Output.restore();
+        asyncDAO.close();
+    }
+
+    @Benchmark
+    public void listRooms() {
+        app.runCommand("list room");
+    }
+
+    @Benchmark
+    public void listSubjects() {
+        app.runCommand("list subject");
+    }
+
+    @Benchmark
+    public void listLecturers() {
+        app.runCommand("list lecturer");
+    }
+
+    @Benchmark
+    public void listLecturerPage() {
+        app.runCommand("list lecturer --limit 50");
+    }
+}
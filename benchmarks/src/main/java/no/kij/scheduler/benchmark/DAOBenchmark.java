@@ -0,0 +1,124 @@
+package no.kij.scheduler.benchmark;
+
+import static no.kij.scheduler.dao.DAOUtil.*;
+import static no.kij.scheduler.dao.RowMappers.*;
+
+import no.kij.scheduler.dao.ColumnMapper;
+import no.kij.scheduler.dao.LecturerDAO;
+import no.kij.scheduler.dao.RoomDAO;
+import no.kij.scheduler.dao.SubjectDAO;
+import no.kij.scheduler.dto.LecturerDTO;
+import no.kij.scheduler.dto.RoomDTO;
+import no.kij.scheduler.dto.SubjectDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of reading rows through the DAOs: mapping the rows of a query with the row mappers, listing every row
+ * with its details, and finding a single row by name. The DAOs run without a cache, so every call reads the
+ * database.
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DAOBenchmark {
+    private LecturerDAO lecturerDAO;
+    private RoomDAO roomDAO;
+    private SubjectDAO subjectDAO;
+    private String lecturerName;
+    private String roomName;
+    private String subjectCode;
+
+    @Setup
+    public void setUp(SeededDatabase db) {
+        lecturerDAO = new LecturerDAO(db.getDatabase());
+        roomDAO = new RoomDAO(db.getDatabase());
+        subjectDAO = new SubjectDAO(db.getDatabase());
+        // rows from the middle, so lookups that scan are not flattered
+        int middle = db.getDataset().getSize() / 2;
+        lecturerName = Dataset.lecturerName(middle);
+        roomName = Dataset.roomName(middle);
+        subjectCode = Dataset.subjectCode(middle);
+    }
+
+    @Benchmark
+    public void bindRooms(SeededDatabase db, Blackhole bh) throws SQLException {
+        mapAll(db, "SELECT id, name, capacity, campus FROM Room", ROOM, bh);
+    }
+
+    @Benchmark
+    public void bindLecturers(SeededDatabase db, Blackhole bh) throws SQLException {
+        mapAll(db, "SELECT id, name FROM Lecturer", LECTURER, bh);
+    }
+
+    @Benchmark
+    public void bindSubjects(SeededDatabase db, Blackhole bh) throws SQLException {
+        mapAll(db, "SELECT id, name, shortname, enrolled FROM Subject", SUBJECT, bh);
+    }
+
+    @Benchmark
+    public List<RoomDTO> listRooms() {
+        return roomDAO.list();
+    }
+
+    @Benchmark
+    public List<LecturerDTO> listLecturers() {
+        return lecturerDAO.list();
+    }
+
+    @Benchmark
+    public List<SubjectDTO> listSubjects() {
+        return subjectDAO.list();
+    }
+
+    @Benchmark
+    public RoomDTO findRoom() {
+        return roomDAO.find(roomName);
+    }
+
+    @Benchmark
+    public LecturerDTO findLecturer() {
+        return lecturerDAO.find(lecturerName);
+    }
+
+    @Benchmark
+    public SubjectDTO findSubject() {
+        return subjectDAO.find(subjectCode);
+    }
+
+    private static <T> void mapAll(SeededDatabase db, String query, ColumnMapper<T> mapper, Blackhole bh)
+            throws SQLException {
+        try (
+            Connection conn = db.getDatabase().getConnection();
+            PreparedStatement stmt = prepareStatement(conn, query, false);
+            ResultSet rs = stmt.executeQuery()
+        ) {
+            RowMapper<T> rows = mapper.bind(rs);
+            while (rs.next()) {
+                bh.consume(rows.map(rs));
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package no.kij.scheduler.benchmark;
+
+import static no.kij.scheduler.dao.DAOUtil.*;
+
+import no.kij.scheduler.PoolSettings;
+import no.kij.scheduler.migration.Migrator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of preparing a statement and binding its values, on a connection that is held for the whole trial, with
+ * and without the pool's statement cache.
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DAOUtilBenchmark {
+    private static final String FIND_ROOM = "SELECT id, name, capacity, campus FROM Room WHERE name = ?";
+    private static final String INSERT_ROOM = "INSERT INTO Room(name, capacity, campus) VALUES (?, ?, ?)";
+
+    @Param({ "0", "64" })
+    public int statementCacheSize;
+
+    private EmbeddedDatabase database;
+    private Connection conn;
+
+    @Setup
+    public void setUp() throws SQLException {
+        PoolSettings settings = new PoolSettings(1, 1);
+        settings.setStatementCacheSize(statementCacheSize);
+        database = new EmbeddedDatabase(settings);
+        new Migrator(database).migrate();
+        conn = database.getConnection();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        conn.close();
+        database.close();
+    }
+
+    @Benchmark
+    public PreparedStatement prepareQuery() throws SQLException {
+        try (PreparedStatement stmt = prepareStatement(conn, FIND_ROOM, false, "R1")) {
+            return stmt;
+        }
+    }
+
+    @Benchmark
+    public PreparedStatement prepareInsert() throws SQLException {
+        try (PreparedStatement stmt = prepareStatement(conn, INSERT_ROOM, true, "R1", 30, "Fjerdingen")) {
+            return stmt;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package no.kij.scheduler.benchmark;
+
+import no.kij.scheduler.DatabaseInitializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of initializing an empty database: running the migrations and inserting the rows of the seed files,
+ * which is what {@code DatabaseInitializer.initializeRows} does on the first start. Every invocation gets a new
+ * database, so each one is timed on its own.
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Thread)
+public class DatabaseInitializerBenchmark {
+    @Param({ "100", "1000" })
+    public int size;
+
+    private File seedDirectory;
+    private EmbeddedDatabase database;
+
+    @Setup(Level.Trial)
+    public void writeSeedFiles() throws IOException {
+        seedDirectory = new Dataset(size).writeSeedDirectory();
+    }
+
+    @Setup(Level.Invocation)
+    public void createDatabase() {
+        database = new EmbeddedDatabase();
+        Output.discard();
+    }
+
+    @TearDown(Level.Invocation)
+    public void dropDatabase() throws SQLException {
+        Output.restore();
+        try {
+            // the initializer only reports its errors, so make sure the rows made it in
+            int rows = database.count("Subject");
+            if (rows != size) {
+                throw new IllegalStateException("Expected " + size + " subjects, found " + rows + ".");
+            }
+        } finally {
+            database.close();
+        }
+    }
+
+    @Benchmark
+    public Boolean initializeDatabase() {
+        return new DatabaseInitializer(database, seedDirectory.getPath()).initializeDatabase(false);
+    }
+}
@@ -0,0 +1,183 @@
+package no.kij.scheduler.benchmark;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+
+/**
+ * Generated seed files of a given size, in the format of the lecturers.json, rooms.json and subjects.json in the
+ * resources. The same size always gives the same data, so runs can be compared.
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public class Dataset {
+    private static final String[] CAMPUSES = { "Fjerdingen", "Kvadraturen", "Vulkan", "Galleriet" };
+    private static final int MAX_LECTURERS_PER_SUBJECT = 3;
+
+    private final int size;
+    private final String lecturers;
+    private final String rooms;
+    private final String subjects;
+
+    /**
+     * Generates a dataset.
+     *
+     * @param size Number of lecturers, of rooms and of subjects
+     */
+    public Dataset(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Dataset size must be at least 1.");
+        }
+        this.size = size;
+        Random random = new Random(size);
+        try {
+            lecturers = writeLecturers(random);
+            rooms = writeRooms(random);
+            subjects = writeSubjects(random);
+        } catch (IOException e) {
+            // only writes to a string
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return JSON array of lecturers, each with two contacts and two available times
+     */
+    public String getLecturers() {
+        return lecturers;
+    }
+
+    /**
+     * @return JSON array of rooms
+     */
+    public String getRooms() {
+        return rooms;
+    }
+
+    /**
+     * @return JSON array of subjects, each taught by up to three of the lecturers
+     */
+    public String getSubjects() {
+        return subjects;
+    }
+
+    /**
+     * @param index Index of a lecturer, from 0 up to the size
+     * @return Name of the lecturer
+     */
+    public static String lecturerName(int index) {
+        return "Lecturer " + index;
+    }
+
+    /**
+     * @param index Index of a room, from 0 up to the size
+     * @return Name of the room
+     */
+    public static String roomName(int index) {
+        return "R" + index;
+    }
+
+    /**
+     * @param index Index of a subject, from 0 up to the size
+     * @return Code of the subject
+     */
+    public static String subjectCode(int index) {
+        return "PGR" + index;
+    }
+
+    /**
+     * Writes the seed files to a new temporary directory, for {@link no.kij.scheduler.DatabaseInitializer}.
+     *
+     * @return The directory
+     * @throws IOException If the files could not be written
+     */
+    public File writeSeedDirectory() throws IOException {
+        File directory = Files.createTempDirectory("scheduler-seed-" + size).toFile();
+        directory.deleteOnExit();
+        write(new File(directory, "lecturers.json"), lecturers);
+        write(new File(directory, "rooms.json"), rooms);
+        write(new File(directory, "subjects.json"), subjects);
+        return directory;
+    }
+
+    private static void write(File file, String json) throws IOException {
+        Files.write(file.toPath(), json.getBytes(StandardCharsets.UTF_8));
+        file.deleteOnExit();
+    }
+
+    private String writeLecturers(Random random) throws IOException {
+        StringWriter out = new StringWriter();
+        try (JsonWriter json = new JsonWriter(out)) {
+            json.beginArray();
+            for (int i = 0; i < size; i++) {
+                json.beginObject().name("name").value(lecturerName(i));
+                json.name("contact").beginArray();
+                for (int c = 0; c < 2; c++) {
+                    json.beginObject()
+                            .name("number").value(String.valueOf(55500000 + random.nextInt(100000)))
+                            .name("email").value("lecturer" + i + "." + c + "@example.com")
+                            .endObject();
+                }
+                json.endArray();
+                json.name("available").beginArray();
+                int start = 8 + random.nextInt(4);
+                json.beginObject().name("start").value(start).name("end").value(start + 2).endObject();
+                start = 13 + random.nextInt(3);
+                json.beginObject().name("start").value(start).name("end").value(start + 3).endObject();
+                json.endArray();
+                json.endObject();
+            }
+            json.endArray();
+        }
+        return out.toString();
+    }
+
+    private String writeRooms(Random random) throws IOException {
+        StringWriter out = new StringWriter();
+        try (JsonWriter json = new JsonWriter(out)) {
+            json.beginArray();
+            for (int i = 0; i < size; i++) {
+                json.beginObject()
+                        .name("name").value(roomName(i))
+                        .name("capacity").value(10 + random.nextInt(291))
+                        .name("campus").value(CAMPUSES[random.nextInt(CAMPUSES.length)])
+                        .endObject();
+            }
+            json.endArray();
+        }
+        return out.toString();
+    }
+
+    private String writeSubjects(Random random) throws IOException {
+        StringWriter out = new StringWriter();
+        try (JsonWriter json = new JsonWriter(out)) {
+            json.beginArray();
+            for (int i = 0; i < size; i++) {
+                json.beginObject()
+                        .name("name").value("Subject " + i)
+                        .name("shortName").value(subjectCode(i))
+                        .name("enrolled").value(10 + random.nextInt(241));
+                json.name("lecturers").beginArray();
+                int lecturers = 1 + random.nextInt(Math.min(MAX_LECTURERS_PER_SUBJECT, size));
+                int first = random.nextInt(size);
+                for (int l = 0; l < lecturers; l++) {
+                    json.beginObject().name("name").value(lecturerName((first + l) % size)).endObject();
+                }
+                json.endArray();
+                json.endObject();
+            }
+            json.endArray();
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,168 @@
+package no.kij.scheduler.benchmark;
+
+import no.kij.scheduler.ConnectionPool;
+import no.kij.scheduler.DatabaseConnector;
+import no.kij.scheduler.PoolSettings;
+import no.kij.scheduler.PoolStats;
+import org.h2.jdbcx.JdbcDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An in-memory H2 database standing in for MySQL, so the DAOs can be benchmarked without a database server.
+ *
+ * <p>H2 runs in its MySQL compatibility mode, and the few MySQL specifics the scheduler relies on are translated
+ * on the way in: {@code end} is not a keyword, the streaming fetch size is treated as the default fetch size, and foreign key checks are
+ * switched with H2's referential integrity setting. Connections come from the scheduler's own
+ * {@link ConnectionPool}, so statement caching works as it does against MySQL.</p>
+ *
+ * <p>The numbers measure the scheduler's own overhead plus an in-process database, not network round trips, so
+ * they are for comparing runs against each other rather than for sizing a MySQL server.</p>
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public class EmbeddedDatabase extends DatabaseConnector {
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private final ConnectionPool pool;
+
+    /**
+     * Creates a new, empty database, with a pool of up to 4 connections caching 64 statements each.
+     */
+    public EmbeddedDatabase() {
+        this(new PoolSettings(1, 4));
+    }
+
+    /**
+     * Creates a new, empty database.
+     *
+     * @param settings Settings for the connection pool
+     */
+    public EmbeddedDatabase(PoolSettings settings) {
+        super("sa", "", "localhost", "scheduler");
+        JdbcDataSource h2 = new JdbcDataSource();
+        // every instance gets its own database, kept alive until it is closed
+        h2.setURL("jdbc:h2:mem:scheduler" + DATABASES.incrementAndGet()
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE;NON_KEYWORDS=END;DB_CLOSE_DELAY=-1");
+        h2.setUser("sa");
+        DataSource ds = (DataSource) wrap(h2, DataSource.class);
+        pool = new ConnectionPool(ds, settings);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return pool.getConnection();
+    }
+
+    @Override
+    public boolean isPooled() {
+        return true;
+    }
+
+    @Override
+    public PoolSettings getPoolSettings() {
+        return pool.getSettings();
+    }
+
+    @Override
+    public PoolStats getPoolStats() {
+        return pool.getStats();
+    }
+
+    /**
+     * @param table Name of a table
+     * @return Number of rows in the table
+     * @throws SQLException If the table could not be read
+     */
+    public int count(String table) throws SQLException {
+        try (
+            Connection conn = getConnection();
+            Statement stmt = conn.createStatement();
+            ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + table)
+        ) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    /**
+     * Drops the database and closes the pool.
+     */
+    @Override
+    public void close() {
+        try (Connection conn = pool.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("SHUTDOWN");
+        } catch (SQLException e) {
+            System.err.println("Something went wrong while shutting down the embedded database.");
+            System.err.println(e.getMessage());
+        }
+        pool.close();
+    }
+
+    private static Object wrap(Object target, Class<?> type) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, new Translator(target));
+    }
+
+    /**
+     * Translates the calls on a data source, connection or statement, and wraps the connections and statements
+     * it hands out.
+     */
+    private static class Translator implements InvocationHandler {
+        private final Object target;
+
+        Translator(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "setFetchSize":
+                    // MySQL's row by row streaming, H2 reads the rows lazily on its own
+                    if ((Integer) args[0] < 0) {
+                        args[0] = 0;
+                    }
+                    break;
+                case "execute":
+                case "executeUpdate":
+                    if (args != null && args[0] instanceof String) {
+                        args[0] = translate((String) args[0]);
+                    }
+                    break;
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            Class<?> type = method.getReturnType();
+            if (result != null && (type == Connection.class || Statement.class.isAssignableFrom(type))) {
+                return wrap(result, type);
+            }
+            return result;
+        }
+
+        private static String translate(String sql) {
+            String normalized = sql.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+            if (normalized.equals("set foreign_key_checks = 0")) {
+                return "SET REFERENTIAL_INTEGRITY FALSE";
+            }
+            if (normalized.equals("set foreign_key_checks = 1")) {
+                return "SET REFERENTIAL_INTEGRITY TRUE";
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package no.kij.scheduler.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import no.kij.scheduler.JsonImporter;
+import no.kij.scheduler.dto.LecturerDTO;
+import no.kij.scheduler.dto.RoomDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of parsing the seed files into DTOs the way {@link JsonImporter} does, one array element at a time,
+ * without writing them to the database.
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonParsingBenchmark {
+    @Param({ "100", "1000" })
+    public int size;
+
+    private final Gson gson = new Gson();
+    private Dataset dataset;
+
+    @Setup
+    public void setUp() {
+        dataset = new Dataset(size);
+    }
+
+    @Benchmark
+    public void parseLecturers(Blackhole bh) throws IOException {
+        try (JsonReader reader = new JsonReader(new StringReader(dataset.getLecturers()))) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                bh.consume(gson.<LecturerDTO>fromJson(reader, LecturerDTO.class));
+            }
+            reader.endArray();
+        }
+    }
+
+    @Benchmark
+    public void parseRooms(Blackhole bh) throws IOException {
+        try (JsonReader reader = new JsonReader(new StringReader(dataset.getRooms()))) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                bh.consume(gson.<RoomDTO>fromJson(reader, RoomDTO.class));
+            }
+            reader.endArray();
+        }
+    }
+
+    @Benchmark
+    public void parseSubjects(Blackhole bh) throws IOException {
+        try (JsonReader reader = new JsonReader(new StringReader(dataset.getSubjects()))) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                bh.consume(JsonImporter.readSubject(reader));
+            }
+            reader.endArray();
+        }
+    }
+}
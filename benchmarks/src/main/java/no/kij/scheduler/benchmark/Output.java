@@ -0,0 +1,59 @@
+package no.kij.scheduler.benchmark;
+
+import org.apache.commons.io.output.NullOutputStream;
+
+import java.io.PrintStream;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the console output of the scheduler out of the benchmark output. The text is still formatted and encoded,
+ * so rendering is measured without the cost of the terminal.
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public final class Output {
+    private static final PrintStream DISCARD = new PrintStream(NullOutputStream.NULL_OUTPUT_STREAM);
+    private static PrintStream console;
+
+    private Output() {
+    }
+
+    /**
+     * Discards everything printed to System.out until {@link #restore()} is called.
+     */
+    public static synchronized void discard() {
+        if (console == null) {
+            console = System.out;
+            System.setOut(DISCARD);
+        }
+    }
+
+    /**
+     * Prints to the console again.
+     */
+    public static synchronized void restore() {
+        if (console != null) {
+            System.setOut(console);
+            console = null;
+        }
+    }
+
+    /**
+     * Runs the work with System.out discarded.
+     *
+     * @param work Work that prints progress
+     * @return What the work returned
+     */
+    public static synchronized <T> T quietly(Supplier<T> work) {
+        boolean discarding = console != null;
+        discard();
+        try {
+            return work.get();
+        } finally {
+            if (!discarding) {
+                restore();
+            }
+        }
+    }
+}
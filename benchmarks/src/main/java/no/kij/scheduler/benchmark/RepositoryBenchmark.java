@@ -0,0 +1,95 @@
+package no.kij.scheduler.benchmark;
+
+import no.kij.scheduler.dto.LecturerDTO;
+import no.kij.scheduler.dto.RoomDTO;
+import no.kij.scheduler.dto.SubjectDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The same reads against each storage backend: the JDBC DAOs over the embedded database, and the in-memory
+ * repositories, both holding the same dataset.
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RepositoryBenchmark {
+    @Param({ "jdbc", "memory" })
+    public String storage;
+
+    private Backend backend;
+    private LecturerDTO lecturer;
+    private String lecturerName;
+    private String roomName;
+    private String subjectCode;
+
+    @Setup
+    public void setUp(SeededDatabase db) throws IOException {
+        backend = Backend.open(storage, db);
+        // rows from the middle, so lookups that scan are not flattered
+        int middle = db.getDataset().getSize() / 2;
+        lecturerName = Dataset.lecturerName(middle);
+        roomName = Dataset.roomName(middle);
+        subjectCode = Dataset.subjectCode(middle);
+        lecturer = backend.getLecturers().find(lecturerName);
+    }
+
+    @Benchmark
+    public List<SubjectDTO> listSubjects() {
+        return backend.getSubjects().list();
+    }
+
+    @Benchmark
+    public List<LecturerDTO> pageLecturers() {
+        return backend.getLecturers().page(0, 50);
+    }
+
+    @Benchmark
+    public LecturerDTO findLecturer() {
+        return backend.getLecturers().find(lecturerName);
+    }
+
+    @Benchmark
+    public RoomDTO findRoom() {
+        return backend.getRooms().find(roomName);
+    }
+
+    @Benchmark
+    public List<SubjectDTO> searchSubjects() {
+        return backend.getSubjects().search(subjectCode, 5);
+    }
+
+    @Benchmark
+    public List<SubjectDTO> findSubjectsOfLecturer() {
+        return backend.getSubjects().findSubject(lecturer);
+    }
+
+    @Benchmark
+    public List<LecturerDTO> findAvailable() {
+        return backend.getLecturers().findAvailable(9, 10);
+    }
+
+    @Benchmark
+    public RoomDTO findSmallestRoom() {
+        return backend.getRooms().findSmallest(100, null);
+    }
+}
@@ -0,0 +1,58 @@
+package no.kij.scheduler.benchmark;
+
+import no.kij.scheduler.DatabaseInitializer;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.SQLException;
+
+/**
+ * An embedded database initialized from a generated {@link Dataset}, shared by the benchmarks of a trial.
+ * The size is a JMH parameter, so it can be changed from the command line with {@code -p size=10000}.
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+@State(Scope.Benchmark)
+public class SeededDatabase {
+    @Param({ "100", "1000" })
+    public int size;
+
+    private Dataset dataset;
+    private EmbeddedDatabase database;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        dataset = new Dataset(size);
+        database = new EmbeddedDatabase();
+        File seedDirectory = dataset.writeSeedDirectory();
+        Output.quietly(() -> new DatabaseInitializer(database, seedDirectory.getPath()).initializeDatabase(false));
+
+        // the initializer only reports its errors, so make sure every row made it in
+        for (String table : new String[] { "Lecturer", "Room", "Subject" }) {
+            int rows = database.count(table);
+            if (rows != size) {
+                throw new IllegalStateException("Expected " + size + " rows in " + table + ", found " + rows + ".");
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    public Dataset getDataset() {
+        return dataset;
+    }
+
+    public EmbeddedDatabase getDatabase() {
+        return database;
+    }
+}
@@ -0,0 +1,890 @@
+package no.kij.scheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Scanner;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import no.kij.scheduler.dao.AsyncDAO;
+import no.kij.scheduler.dao.DAOCache;
+import no.kij.scheduler.dao.DAOUtil;
+import no.kij.scheduler.dao.LecturerDAO;
+import no.kij.scheduler.dao.LecturerRepository;
+import no.kij.scheduler.dao.RoomDAO;
+import no.kij.scheduler.dao.RoomRepository;
+import no.kij.scheduler.dao.Session;
+import no.kij.scheduler.dao.SubjectDAO;
+import no.kij.scheduler.dao.SubjectRepository;
+import no.kij.scheduler.dao.memory.InMemoryLecturerRepository;
+import no.kij.scheduler.dao.memory.InMemoryRoomRepository;
+import no.kij.scheduler.dao.memory.InMemoryStore;
+import no.kij.scheduler.dao.memory.InMemorySubjectRepository;
+import no.kij.scheduler.dto.*;
+import no.kij.scheduler.index.AvailabilityIndex;
+import no.kij.scheduler.index.RoomIndex;
+import no.kij.scheduler.index.TrigramIndex;
+import no.kij.scheduler.timetable.Lecture;
+import no.kij.scheduler.timetable.PortfolioSolver;
+import no.kij.scheduler.timetable.ScalingReport;
+import no.kij.scheduler.timetable.SolverSettings;
+import no.kij.scheduler.timetable.Timetable;
+import no.kij.scheduler.timetable.Week;
+import org.fusesource.jansi.AnsiConsole;
+import static org.fusesource.jansi.Ansi.*;
+import static org.fusesource.jansi.Ansi.Color.*;
+
+/**
+ * This is the class that contains the code to allow the user to interact with the application,
+ * using the console.
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.0
+ */
+public class CommandLineApp {
+    private static final int SEARCH_RESULTS = 5;
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int STATS_QUERIES = 10;
+    private static final int STATS_SQL_WIDTH = 60;
+    private Scanner scanner;
+    private boolean running;
+    private SubjectRepository subjectDAO;
+    private LecturerRepository lecturerDAO;
+    private RoomRepository roomDAO;
+    private AsyncDAO asyncDAO;
+    private SolverSettings solverSettings;
+    private QueryLogSettings queryLogSettings;
+    // where the "next" command continues from, pageType is null when there is no page to continue
+    private String pageType;
+    private int pageAfter;
+    private int pageLimit;
+
+    public CommandLineApp() {
+    }
+
+    /**
+     * Creates an app on top of the given DAOs or repositories, without setting up the storage in the credentials.
+     * Commands are run with {@link #runCommand(String)} rather than typed in after {@link #start()}.
+     *
+     * @param subjectDAO DAO to read subjects from
+     * @param lecturerDAO DAO to read lecturers from
+     * @param roomDAO DAO to read rooms from
+     * @param asyncDAO Facade over the same DAOs, used to load the subjects of a page of lecturers
+     * @since 1.1
+     */
+    public CommandLineApp(SubjectRepository subjectDAO, LecturerRepository lecturerDAO, RoomRepository roomDAO,
+                          AsyncDAO asyncDAO) {
+        this.subjectDAO = subjectDAO;
+        this.lecturerDAO = lecturerDAO;
+        this.roomDAO = roomDAO;
+        this.asyncDAO = asyncDAO;
+        this.solverSettings = new SolverSettings();
+        this.queryLogSettings = new QueryLogSettings();
+    }
+
+    /**
+     * The actual code that the user interacts with.
+     * This is the method that listens for input from the user,
+     * as well as sending it further in the stack to parse the input
+     * and do whatever the user asked for.
+     */
+    public void start() {
+        setup();
+        scanner = new Scanner(System.in);
+        running = true;
+
+        // we are using jansi to color our console output, so this is to enable the ANSI escape sequences to System.out
+        //AnsiConsole.systemInstall();
+        System.out.println(
+                ansi().eraseScreen().render(
+                        "@|green " +
+                                "This is the CLI  for browsing the database." +
+                                "\nType \"help\" for a list of available commands." +
+                        "|@"
+                )
+        );
+
+
+        while (running) {
+            System.out.print(">>> ");
+            String input = "";
+            input = scanner.nextLine();
+            runCommand(input);
+        }
+    }
+
+    /**
+     * Runs a single command as if it was typed in.
+     *
+     * @param input Command to be run
+     */
+    public void runCommand(String input) {
+        // every command is its own unit of work, so rows are loaded at most once per command and its queries are
+        // checked against the query budget
+        Session session = Session.open(queryLogSettings);
+        try {
+            findCommand(input);
+        } finally {
+            session.close();
+        }
+    }
+
+    /**
+     * Find a command and run it.
+     *
+     * @param input Command to be run
+     */
+    private void findCommand(String input) {
+        String[] splitInput = input.toLowerCase().split(" ");
+        if (splitInput.length > 0)
+        switch (splitInput[0]) {
+            case "list":
+                if (splitInput.length > 1) {
+                    list(splitInput);
+                } else {
+                    printUsage("list");
+                }
+                break;
+            case "next":
+                if (pageType != null) {
+                    listPage(pageType, pageAfter, pageLimit);
+                } else {
+                    System.out.println("There is no page to continue, use \"list <type> --limit N\" first.");
+                }
+                break;
+            case "search":
+                if (splitInput.length > 2) {
+                    List<String> refinedInput = new ArrayList<>();
+                    for (int i = 1; i < splitInput.length; i++) {
+                        refinedInput.add(splitInput[i]);
+                    }
+                    search(refinedInput);
+                } else {
+                    printUsage("search");
+                }
+                break;
+            case "free":
+                if (splitInput.length > 2) {
+                    free(splitInput);
+                } else {
+                    printUsage("free");
+                }
+                break;
+            case "schedule":
+                if (splitInput.length > 1 && splitInput[1].equals("--scaling")) {
+                    scalingReport();
+                } else {
+                    schedule();
+                }
+                break;
+            case "stats":
+                stats();
+                break;
+            case "help":
+                if (splitInput.length > 1) {
+                    printHelp(splitInput[1]);
+                } else {
+                    printHelp();
+                }
+                break;
+        }
+    }
+
+    /**
+     * The list of usages for a command.
+     *
+     * @param cmd Command to list usage for
+     */
+    private void printUsage(String cmd) {
+        System.out.print(ansi().fgBright(BLUE));
+        switch (cmd) {
+            case "list":
+                System.out.println("Usage: list lecturer|subject|room [--limit N] [--after ID]");
+                break;
+            case "search":
+                System.out.println("Usage: search (lecturer|subject|room <search term>)");
+                System.out.println("       search room --min-capacity N [--max-capacity M] [--campus C]");
+                break;
+            case "free":
+                System.out.println("Usage: free <start hour> <end hour> [lecturer name]");
+                break;
+        }
+        System.out.print(ansi().reset());
+    }
+
+
+    private void search(List<String> args) {
+        switch (args.get(0)) {
+            case "lecturer":
+                args.remove(0);
+                String lecturerName = args.stream().collect(Collectors.joining(" "));
+                LecturerDTO lecturerDTO = lecturerDAO.find(lecturerName);
+                printTableHeader("lecturer");
+                if (lecturerDTO != null)
+                    viewLecturer(lecturerDTO);
+                else
+                    System.out.println("No result was found.");
+                break;
+            case "subject":
+                args.remove(0);
+                String subjectName = args.stream().collect(Collectors.joining(" "));
+                List<SubjectDTO> subjectDTOs = subjectDAO.search(subjectName, SEARCH_RESULTS);
+                printTableHeader("subject");
+                if (subjectDTOs.isEmpty())
+                    System.out.println("No result was found.");
+                for (SubjectDTO subjectDTO : subjectDTOs) {
+                    viewSubject(subjectDTO);
+                }
+                break;
+            case "room":
+                if (args.get(1).startsWith("--")) {
+                    searchRoomCapacity(args);
+                    break;
+                }
+                RoomDTO roomDTO = roomDAO.find(args.get(1));
+                printTableHeader("room");
+                if (roomDTO != null)
+                    viewRoom(roomDTO);
+                else
+                    System.out.println("No result was found.");
+                break;
+            default:
+                printUsage("search");
+                break;
+        }
+    }
+
+    /**
+     * Lists the rooms by capacity, smallest first. Without "--max-capacity" only the smallest room holding
+     * "--min-capacity" students is shown.
+     *
+     * @param args The search command after "search", split on spaces
+     */
+    private void searchRoomCapacity(List<String> args) {
+        Integer minCapacity = null;
+        Integer maxCapacity = null;
+        String campus = null;
+        try {
+            for (int i = 1; i < args.size(); i += 2) {
+                if (i + 1 >= args.size()) {
+                    printUsage("search");
+                    return;
+                }
+                switch (args.get(i)) {
+                    case "--min-capacity":
+                        minCapacity = Integer.parseInt(args.get(i + 1));
+                        break;
+                    case "--max-capacity":
+                        maxCapacity = Integer.parseInt(args.get(i + 1));
+                        break;
+                    case "--campus":
+                        campus = args.get(i + 1);
+                        break;
+                    default:
+                        printUsage("search");
+                        return;
+                }
+            }
+        } catch (NumberFormatException e) {
+            printUsage("search");
+            return;
+        }
+        if (minCapacity == null) {
+            printUsage("search");
+            return;
+        }
+
+        List<RoomDTO> roomDTOs = new ArrayList<>();
+        if (maxCapacity != null) {
+            roomDTOs.addAll(roomDAO.findByCapacity(minCapacity, maxCapacity, campus));
+        } else {
+            RoomDTO smallest = roomDAO.findSmallest(minCapacity, campus);
+            if (smallest != null)
+                roomDTOs.add(smallest);
+        }
+        printTableHeader("room");
+        if (roomDTOs.isEmpty())
+            System.out.println("No result was found.");
+        for (RoomDTO roomDTO : roomDTOs) {
+            viewRoom(roomDTO);
+        }
+    }
+
+
+    /**
+     * Lists the lecturers available for every hour of a span, or tells if a single lecturer is when a name is
+     * given.
+     *
+     * @param args The free command split on spaces
+     */
+    private void free(String[] args) {
+        int start;
+        int end;
+        try {
+            start = Integer.parseInt(args[1]);
+            end = Integer.parseInt(args[2]);
+        } catch (NumberFormatException e) {
+            printUsage("free");
+            return;
+        }
+        if (start < 0 || start >= end || end > AvailabilityIndex.HOURS) {
+            printUsage("free");
+            return;
+        }
+
+        if (args.length > 3) {
+            String lecturerName = String.join(" ", Arrays.asList(args).subList(3, args.length));
+            LecturerDTO lecturerDTO = lecturerDAO.find(lecturerName);
+            if (lecturerDTO == null) {
+                System.out.println("No result was found.");
+            } else if (lecturerDAO.isAvailable(lecturerDTO, start, end)) {
+                System.out.println(lecturerDTO.getName() + " is available from " + start + " to " + end + ".");
+            } else {
+                System.out.println(lecturerDTO.getName() + " is not available from " + start + " to " + end + ".");
+            }
+            return;
+        }
+        List<LecturerDTO> lecturerDTOs = lecturerDAO.findAvailable(start, end);
+        printTableHeader("lecturer");
+        if (lecturerDTOs.isEmpty())
+            System.out.println("No result was found.");
+        for (LecturerDTO lecturerDTO : lecturerDTOs) {
+            viewLecturer(lecturerDTO);
+        }
+    }
+
+    /**
+     * Builds a weekly timetable for every subject and prints it day by day, followed by the subjects that could
+     * not be scheduled.
+     */
+    private void schedule() {
+        long started = System.nanoTime();
+        Timetable timetable = new PortfolioSolver(subjectDAO.list(), roomDAO.list(), solverSettings).solve();
+        long elapsedMillis = (System.nanoTime() - started) / 1000000;
+
+        int day = -1;
+        for (Lecture lecture : timetable.getLectures()) {
+            if (lecture.getDay() != day) {
+                day = lecture.getDay();
+                System.out.println(ansi().fg(CYAN).a(Week.dayName(day)).reset());
+                System.out.println(ansi().fg(CYAN).a(String.format("%-8s %-10s %-30s %-10s %s",
+                        "Time", "Code", "Subject", "Room", "Campus")));
+                System.out.println(ansi().a("---------------------------------------------------------------------------").reset());
+            }
+            System.out.println(String.format("%-8s %-10s %-30s %-10s %s",
+                    lecture.getStartHour() + "-" + lecture.getEndHour(),
+                    lecture.getSubject().getShortName(),
+                    lecture.getSubject().getName(),
+                    lecture.getRoom().getName(),
+                    lecture.getRoom().getCampus()));
+        }
+        if (!timetable.getUnscheduled().isEmpty()) {
+            System.out.println(ansi().fg(RED).a("Could not schedule:").reset());
+            for (Map.Entry<SubjectDTO, String> entry : timetable.getUnscheduled().entrySet()) {
+                System.out.println(String.format("%-10s %s", entry.getKey().getShortName(), entry.getValue()));
+            }
+        }
+        System.out.println("Scheduled " + timetable.getLectures().size() + " lectures in " + elapsedMillis
+                + " ms (" + timetable.getScore() + ").");
+    }
+
+    /**
+     * Solves the timetable on 1, 2, 4 and so on up to every processor, and prints how much faster each solve was
+     * than the solve on a single thread.
+     */
+    private void scalingReport() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        System.out.println("Measuring the solver on 1 to " + processors + " threads...");
+        ScalingReport report = ScalingReport.measure(subjectDAO.list(), roomDAO.list(), solverSettings, processors);
+        System.out.println(ansi().fg(CYAN).a(String.format("%-8s %-10s %-8s %-11s %s",
+                "Threads", "Time", "Speedup", "Efficiency", "Score")));
+        System.out.println(ansi().a("---------------------------------------------------------------------------").reset());
+        for (int i = 0; i < report.size(); i++) {
+            System.out.println(String.format("%-8d %-10s %-8s %-11s %s",
+                    report.getThreads(i),
+                    report.getMillis(i) + " ms",
+                    String.format("%.2fx", report.getSpeedup(i)),
+                    String.format("%.0f%%", 100 * report.getEfficiency(i)),
+                    report.getScore(i)));
+        }
+        if (!report.isDeterministic()) {
+            System.out.println(ansi().fg(RED).a("The number of threads changed the timetable found.").reset());
+        }
+    }
+
+    /**
+     * Prints the query counts and latencies collected since the application started, with the SQL templates that
+     * took the most time first.
+     */
+    private void stats() {
+        QueryMetrics metrics = QueryMetrics.global();
+        System.out.println(String.format("Queries: %d in %d templates, %d failed",
+                metrics.getQueryCount(), metrics.getTemplateCount(), metrics.getErrorCount()));
+        System.out.println(String.format("Commands: %d, %.1f queries per command, at most %d",
+                metrics.getOperationCount(), metrics.getQueriesPerOperation(), metrics.getMaxQueriesPerOperation()));
+        System.out.println(String.format("Connections: %d acquired, mean %.1fus, p99 < %dus",
+                metrics.getAcquireCount(), metrics.getAcquireMeanMicros(), metrics.getAcquireP99Micros()));
+        System.out.println(String.format("Warnings: %d (slow queries, repeated queries and commands over %d queries)",
+                metrics.getWarningCount(), queryLogSettings.getQueryBudget()));
+        List<QueryStats> queries = metrics.getQueries();
+        if (queries.isEmpty()) {
+            return;
+        }
+        System.out.println(ansi().fg(CYAN).a(String.format("%-8s %-10s %-10s %-10s %-10s %-10s %s",
+                "Count", "Total", "Prepare", "Execute", "p99", "Iterate", "SQL")));
+        System.out.println(ansi().a("---------------------------------------------------------------------------").reset());
+        for (QueryStats query : queries.subList(0, Math.min(STATS_QUERIES, queries.size()))) {
+            String sql = query.getSql();
+            System.out.println(String.format("%-8d %-10s %-10s %-10s %-10s %-10s %s",
+                    query.getPrepareCount(),
+                    query.getTotalMicros() / 1000 + " ms",
+                    String.format("%.0fus", query.getPrepareMeanMicros()),
+                    String.format("%.0fus", query.getExecuteMeanMicros()),
+                    "<" + query.getExecuteP99Micros() + "us",
+                    String.format("%.0fus", query.getIterateMeanMicros()),
+                    sql.length() > STATS_SQL_WIDTH ? sql.substring(0, STATS_SQL_WIDTH - 3) + "..." : sql));
+        }
+    }
+
+    /**
+     * Prints the header for the table.
+     *
+     * @param header The header to print
+     */
+    private void printTableHeader(String header) {
+        switch (header) {
+            case "lecturer":
+                System.out.println(ansi().fg(CYAN).a(String.format("%-30s %-30s %-10s %-10s %s",
+                        "Name", "Email", "Number", "Subject", "Available")));
+                System.out.println(ansi().a("-----------------------------------------------------------------------------------------------").reset());
+                break;
+            case "subject":
+                System.out.println(ansi().fg(CYAN).a(String.format("%-30s %-10s %-10s %s", "Subject", "Code", "Enrolled", "Lecturer(s)")));
+                System.out.println(ansi().a("-------------------------------------------------------------------").reset());
+                break;
+            case "room":
+                System.out.println(ansi().fg(CYAN).a(String.format("%-15s %-15s %-15s", "Room", "Capacity", "Campus")));
+                System.out.println(ansi().a("---------------------------------------------").reset());
+                break;
+        }
+    }
+
+    /**
+     * Lists every item of a type, or a single page of them if "--limit" or "--after" is given.
+     *
+     * @param args The list command split on spaces
+     */
+    private void list(String[] args) {
+        if (args.length == 2) {
+            listAll(args[1]);
+            return;
+        }
+
+        int after = 0;
+        int limit = DEFAULT_PAGE_SIZE;
+        try {
+            for (int i = 2; i < args.length; i += 2) {
+                if (i + 1 >= args.length) {
+                    printUsage("list");
+                    return;
+                }
+                switch (args[i]) {
+                    case "--limit":
+                        limit = Integer.parseInt(args[i + 1]);
+                        break;
+                    case "--after":
+                        after = Integer.parseInt(args[i + 1]);
+                        break;
+                    default:
+                        printUsage("list");
+                        return;
+                }
+            }
+        } catch (NumberFormatException e) {
+            printUsage("list");
+            return;
+        }
+        if (limit < 1) {
+            printUsage("list");
+            return;
+        }
+        listPage(args[1], after, limit);
+    }
+
+    /**
+     * Lists a page of items of a type, and remembers where the next page starts.
+     *
+     * @param type The item to view a page of
+     * @param after ID of the last item before the page
+     * @param limit Maximum number of items on the page
+     */
+    private void listPage(String type, int after, int limit) {
+        switch (type) {
+            case "lecturer":
+                List<LecturerDTO> lecturers = lecturerDAO.page(after, limit);
+                // the subjects of every lecturer on the page are loaded together, as a single call whatever the limit
+                Map<Integer, List<SubjectDTO>> subjects = join(asyncDAO.findSubjects(lecturers), new HashMap<>());
+                printTableHeader("lecturer");
+                printPage(type, lecturers, limit,
+                        lecturer -> viewLecturer(lecturer, subjects.getOrDefault(lecturer.getId(), new ArrayList<>())),
+                        LecturerDTO::getId);
+                break;
+            case "subject":
+                printTableHeader("subject");
+                printPage(type, subjectDAO.page(after, limit), limit, this::viewSubject, SubjectDTO::getId);
+                break;
+            case "room":
+                printTableHeader("room");
+                printPage(type, roomDAO.page(after, limit), limit, this::viewRoom, RoomDTO::getId);
+                break;
+            default:
+                printUsage("list");
+                break;
+        }
+    }
+
+    /**
+     * Waits for a lookup started on the async DAO, falling back to the given value if it failed.
+     *
+     * @param future The lookup
+     * @param fallback Value to use if the lookup failed
+     * @return Result of the lookup, or the fallback if it failed, timed out or was rejected
+     */
+    private <T> T join(CompletableFuture<T> future, T fallback) {
+        try {
+            return future.join();
+        } catch (CompletionException | CancellationException e) {
+            System.err.println("Lookup failed: " + (e.getCause() != null ? e.getCause().getMessage() : e.getMessage()));
+            return fallback;
+        }
+    }
+
+    private <T> void printPage(String type, List<T> page, int limit, Consumer<T> view, Function<T, Integer> id) {
+        printRows(page.stream(), view);
+        if (page.size() < limit) {
+            pageType = null;
+            System.out.println("End of list.");
+            return;
+        }
+        pageType = type;
+        pageAfter = id.apply(page.get(page.size() - 1));
+        pageLimit = limit;
+        System.out.println("Type \"next\" for more, or \"list " + type + " --limit " + limit
+                + " --after " + pageAfter + "\".");
+    }
+
+    /**
+     * This method is used to list all information about a specific item.
+     *
+     * @param arg The item to view all of
+     */
+    private void listAll(String arg) {
+        // rows are streamed, so the first ones are printed while the rest are still being read
+        switch (arg) {
+            case "lecturer":
+                printTableHeader("lecturer");
+                try (Stream<LecturerDTO> lecturers = lecturerDAO.stream()) {
+                    printRows(lecturers, this::viewLecturer);
+                }
+                break;
+            case "subject":
+                printTableHeader("subject");
+                try (Stream<SubjectDTO> subjects = subjectDAO.stream()) {
+                    printRows(subjects, this::viewSubject);
+                }
+                break;
+            case "room":
+                printTableHeader("room");
+                try (Stream<RoomDTO> rooms = roomDAO.stream()) {
+                    printRows(rooms, this::viewRoom);
+                }
+                break;
+            default:
+                printUsage("list");
+                break;
+
+        }
+    }
+
+    /**
+     * Prints every row of the stream as it arrives, or "None" if it is empty.
+     *
+     * @param rows Rows to print
+     * @param view Prints a single row
+     */
+    private <T> void printRows(Stream<T> rows, Consumer<T> view) {
+        Iterator<T> iterator = rows.iterator();
+        if (!iterator.hasNext()) {
+            System.out.println("None");
+        }
+        while (iterator.hasNext()) {
+            view.accept(iterator.next());
+        }
+    }
+
+    /**
+     * Prints information about a room to the console.
+     *
+     * @param roomDTO The room to print information about
+     */
+    private void viewRoom(RoomDTO roomDTO) {
+        if (roomDTO != null) {
+            System.out.println(String.format("%-15s %-15s %-15s",
+                    roomDTO.getName(),
+                    roomDTO.getCapacity(),
+                    roomDTO.getCampus()
+            ));
+        }
+    }
+
+    /**
+     * Prints information about a subject to the console.
+     *
+     * @param subjectDTO The subject to print information about
+     */
+    private void viewSubject(SubjectDTO subjectDTO) {
+        if (subjectDTO != null) {
+            System.out.println(String.format("%-30s %-10s %-10d %s",
+                    subjectDTO.getName(),
+                    subjectDTO.getShortName(),
+                    subjectDTO.getEnrolled(),
+                    subjectDTO.getLecturerNames()));
+        }
+    }
+
+    /**
+     * Prints information about a lecturer to the console.
+     *
+     * @param lecturerDTO The lecturer to print information about
+     */
+    private void viewLecturer(LecturerDTO lecturerDTO) {
+        if (lecturerDTO != null) {
+            viewLecturer(lecturerDTO, subjectDAO.findSubject(lecturerDTO));
+        }
+    }
+
+    /**
+     * Prints a lecturer along with the subjects they teach.
+     *
+     * @param lecturerDTO Lecturer to print
+     * @param subjects Subjects the lecturer teaches
+     */
+    private void viewLecturer(LecturerDTO lecturerDTO, List<SubjectDTO> subjects) {
+        if (lecturerDTO != null) {
+            // here we copy all the info from the lecturer object into their own array (for readability)
+            // they are copies, since the padding below must not end up in the lecturer
+            subjects = new ArrayList<>(subjects);
+            List<ContactDTO> contacts = new ArrayList<>(lecturerDTO.getContact());
+            List<AvailableDTO> availables = new ArrayList<>(lecturerDTO.getAvailable());
+
+            // here we check which of the three arrays we copied has the most content, so we know how many
+            // times to loop later in the code. There is always a first row, even if all three are empty
+            int maxLength = 1;
+            if (subjects.size() > maxLength)
+                maxLength = subjects.size();
+            if (contacts.size() > maxLength)
+                maxLength = contacts.size();
+            if (availables.size() > maxLength)
+                maxLength = availables.size();
+
+            // very bad hack to prevent IndexOutOfBoundsException later in the code
+            // we make all the arrays the same size, so we can easily iterate through them all later
+            while (subjects.size() != maxLength)
+                subjects.add(null);
+            while (contacts.size() != maxLength)
+                contacts.add(null);
+            while (availables.size() != maxLength)
+                availables.add(null);
+
+
+            System.out.println(String.format("%-30s %-30s %-10s %-10s %s",
+                    lecturerDTO.getName(),
+                    contacts.get(0) != null ? contacts.get(0).getEmail() : "None",
+                    contacts.get(0) != null ? contacts.get(0).getNumber() : "None",
+                    subjects.get(0) != null ? subjects.get(0).getShortName() : "None",
+                    availables.get(0) != null ? availables.get(0).getStart() + " - " + availables.get(0).getEnd() : "None"
+
+            ));
+
+            // we break out of listing lecturers if the highest array
+            // was empty or only had one item.
+            if (maxLength == 1)
+                return;
+
+            // we iterate through every array we copied to display new info
+            for (int i = 1; i < maxLength; i++) {
+                System.out.println(String.format("%-30s %-30s %-10s %-10s %s",
+                        "",
+                        contacts.get(i) != null ? contacts.get(i).getEmail() : "",
+                        contacts.get(i) != null ? contacts.get(i).getNumber() : "",
+                        subjects.get(i) != null ? subjects.get(i).getShortName() : "",
+                        availables.get(i) != null ? availables.get(i).getStart() + " - " + availables.get(i).getEnd() : ""
+                ));
+            }
+            System.out.println();
+        }
+    }
+
+    /**
+     * Used to print the help menu.
+     * Tells the user how to interact with the application.
+     *
+     * @param cmd Optional array of commands, used to get help about a specific command
+     */
+    private void printHelp(String... cmd) {
+        if (cmd.length > 0) {
+            switch (cmd[0]) {
+                case "search":
+                    System.out.println(ansi().fg(CYAN).a("Search:" + "\n-------------------------------").reset());
+                    printUsage("search");
+                    System.out.println("The search command is used to find information.");
+                    System.out.println("You can use search using lecturer name, subject code, room number, phone number or email.");
+                    System.out.println(ansi().fgBright(MAGENTA).a("Usage examples:").reset());
+                    System.out.println("search lecturer Praskovya Pokrovskaya");
+                    System.out.println("search subject PGR200");
+                    System.out.println("search email pl@jaworska.com");
+                    System.out.println("search room --min-capacity 60 --campus fjerdingen");
+                    System.out.println("search room --min-capacity 20 --max-capacity 50");
+                    System.out.println(ansi().fg(CYAN).a("-------------------------------").reset());
+                    break;
+                case "list":
+                    System.out.println(ansi().fg(CYAN).a("List:" + "\n-------------------------------").reset());
+                    printUsage("list");
+                    System.out.println("The list command is used to list everything about a single item.");
+                    System.out.println("You can use it to view all lecturers, subjects or rooms.");
+                    System.out.println(ansi().fgBright(MAGENTA).a("Usage examples:").reset());
+                    System.out.println("list lecturer");
+                    System.out.println("list subject --limit 20");
+                    System.out.println("list room --limit 20 --after 40");
+                    System.out.println("Type \"next\" to show the page after the last one listed.");
+                    System.out.println(ansi().fg(CYAN).a("-------------------------------").reset());
+                    break;
+                case "free":
+                    System.out.println(ansi().fg(CYAN).a("Free:" + "\n-------------------------------").reset());
+                    printUsage("free");
+                    System.out.println("The free command finds the lecturers available for every hour from start to end.");
+                    System.out.println("Given a lecturer name, it tells if that lecturer is available.");
+                    System.out.println(ansi().fgBright(MAGENTA).a("Usage examples:").reset());
+                    System.out.println("free 10 12");
+                    System.out.println("free 14 16 Praskovya Pokrovskaya");
+                    System.out.println(ansi().fg(CYAN).a("-------------------------------").reset());
+                    break;
+                case "schedule":
+                    System.out.println(ansi().fg(CYAN).a("Schedule:" + "\n-------------------------------").reset());
+                    System.out.println("The schedule command builds a weekly timetable for every subject.");
+                    System.out.println("Subjects get rooms that hold their students, at times all their lecturers are available.");
+                    System.out.println("Subjects that could not be scheduled are listed at the end, with the reason why.");
+                    System.out.println("The solver searches on every processor and stops after solver_time_limit_ms.");
+                    System.out.println(ansi().fgBright(MAGENTA).a("Usage examples:").reset());
+                    System.out.println("schedule");
+                    System.out.println("schedule --scaling  (measures the speedup from 1 thread to every processor)");
+                    System.out.println(ansi().fg(CYAN).a("-------------------------------").reset());
+                    break;
+                case "stats":
+                    System.out.println(ansi().fg(CYAN).a("Stats:" + "\n-------------------------------").reset());
+                    System.out.println("The stats command shows how many queries the commands so far have issued, and where the time went.");
+                    System.out.println("The SQL statements that took the most time in total are listed first, with their mean times.");
+                    System.out.println("The same numbers are published over JMX as " + QueryMetrics.OBJECT_NAME + ".");
+                    System.out.println("Slow queries, queries repeated by a command and commands issuing too many queries are logged as they happen.");
+                    System.out.println(ansi().fgBright(MAGENTA).a("Usage examples:").reset());
+                    System.out.println("stats");
+                    System.out.println(ansi().fg(CYAN).a("-------------------------------").reset());
+                    break;
+                default:
+                    System.out.println(ansi().fg(RED).a("The command '" + cmd[0] + "' does not exist.\n").reset());
+                    break;
+            }
+        } else {
+
+            System.out.println(ansi().fg(CYAN).a("Help:\n----------------------------").reset());
+            System.out.println(ansi().fg(MAGENTA).a("The following commands are available. \nFor more information, type \"help <cmd>\".").reset());
+            System.out.println(ansi().fg(RED).a("search"));
+            System.out.println("list");
+            System.out.println("next");
+            System.out.println("free");
+            System.out.println("schedule");
+            System.out.println("stats");
+            System.out.print(ansi().reset());
+        }
+    }
+
+    /**
+     * The for starting the database initialization, as well as setting up the DAOs to be used by the application.
+     * The "storage" credential picks where the rows are kept: "jdbc", the default, keeps them in the MySQL
+     * database, while "memory" keeps them in memory, seeded from the seed files on every start.
+     */
+    private void setup() {
+        Properties creds = ResourceFetcher.getCredentials();
+        solverSettings = SolverSettings.fromProperties(creds);
+        queryLogSettings = QueryLogSettings.fromProperties(creds);
+        QueryMetrics.global().setSlowQueryThresholdMillis(queryLogSettings.getSlowQueryMillis());
+        int poolSize;
+        String storage = creds.getProperty("storage", "jdbc");
+        switch (storage) {
+            case "jdbc":
+                poolSize = setupDatabase(creds);
+                break;
+            case "memory":
+                setupMemory(creds);
+                poolSize = Runtime.getRuntime().availableProcessors();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown storage '" + storage + "', use jdbc or memory.");
+        }
+        asyncDAO = new AsyncDAO(lecturerDAO, subjectDAO, roomDAO,
+                Integer.parseInt(creds.getProperty("async_threads", String.valueOf(poolSize))),
+                Integer.parseInt(creds.getProperty("async_queue_size", "100")),
+                Long.parseLong(creds.getProperty("async_timeout_ms", "10000")));
+    }
+
+    /**
+     * Initializes the database and sets up the JDBC DAOs on top of it.
+     *
+     * @param creds Credentials and settings
+     * @return Number of connections the DAOs can use at once
+     */
+    private int setupDatabase(Properties creds) {
+        DatabaseConnector connector =
+                new DatabaseConnector(
+                        creds.getProperty("db_user"),
+                        creds.getProperty("db_password"),
+                        creds.getProperty("db_host"),
+                        creds.getProperty("db_database"),
+                        PoolSettings.fromProperties(creds)
+                );
+        QueryMetrics.registerMBean();
+        DatabaseInitializer initializer = new DatabaseInitializer(connector, creds.getProperty("seed_directory"));
+        initializer.initializeDatabase(false);
+        DAOCache cache = DAOCache.fromProperties(creds);
+        subjectDAO = new SubjectDAO(connector, cache, new TrigramIndex());
+        lecturerDAO = new LecturerDAO(connector, cache, new AvailabilityIndex());
+        roomDAO = new RoomDAO(connector, cache, new RoomIndex());
+        PoolSettings poolSettings = connector.getPoolSettings();
+        return poolSettings != null ? poolSettings.getMaxSize() : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Sets up the in-memory repositories and seeds them from the seed files.
+     *
+     * @param creds Credentials and settings
+     */
+    private void setupMemory(Properties creds) {
+        InMemoryStore store = new InMemoryStore();
+        subjectDAO = new InMemorySubjectRepository(store);
+        lecturerDAO = new InMemoryLecturerRepository(store);
+        roomDAO = new InMemoryRoomRepository(store);
+        System.out.println("Seeding the in-memory storage...\n");
+        DatabaseInitializer.importSeedFiles(new JsonImporter(lecturerDAO, roomDAO, subjectDAO, DAOUtil.DEFAULT_BATCH_SIZE),
+                creds.getProperty("seed_directory"));
+    }
+}
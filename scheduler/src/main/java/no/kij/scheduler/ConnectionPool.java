@@ -0,0 +1,354 @@
+package no.kij.scheduler;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded pool of physical connections to a {@link DataSource}.
+ * Callers borrow a connection with {@link #getConnection()} and hand it back by closing it, so code written
+ * against a plain DataSource keeps working unchanged.
+ *
+ * <p>Waiting callers are served in FIFO order and give up after the configured acquire timeout. Idle connections
+ * are validated before being handed out, and connections that have been idle for too long are closed by a
+ * background thread, down to the configured minimum size.</p>
+ *
+ * <p>Each physical connection can carry its own {@link StatementCache}, reachable through
+ * {@code unwrap(StatementCache.class)} on the borrowed connection. The pool's statistics sum the hits, misses and
+ * evictions of every cache, including those of connections that have since been closed.</p>
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public class ConnectionPool implements AutoCloseable {
+    private final DataSource dataSource;
+    private final PoolSettings settings;
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder timeouts = new LongAdder();
+    private final LatencyHistogram acquireTime = new LatencyHistogram();
+    // statement cache counts of the connections that have been discarded
+    private final LongAdder retiredHits = new LongAdder();
+    private final LongAdder retiredMisses = new LongAdder();
+    private final LongAdder retiredEvictions = new LongAdder();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    /**
+     * Creates a pool on top of the given data source.
+     * The pool is filled up to its minimum size in the background, so this never blocks on the database.
+     *
+     * @param dataSource DataSource to open physical connections from
+     * @param settings Settings for the pool
+     */
+    public ConnectionPool(DataSource dataSource, PoolSettings settings) {
+        if (settings.getMinSize() > settings.getMaxSize()) {
+            throw new IllegalArgumentException("Minimum pool size can not be larger than the maximum pool size.");
+        }
+        this.dataSource = dataSource;
+        this.settings = settings;
+        this.permits = new Semaphore(settings.getMaxSize(), true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        housekeeper.scheduleWithFixedDelay(this::houseKeep,
+                0, settings.getEvictionIntervalMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection from the pool, waiting up to the acquire timeout if the pool is exhausted.
+     * Closing the returned connection hands it back to the pool.
+     *
+     * @return A validated connection
+     * @throws SQLTimeoutException If no connection became available in time
+     * @throws SQLException If the pool is closed or a new connection could not be opened
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("The connection pool has been closed.");
+        }
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(settings.getAcquireTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                timeouts.increment();
+                throw new SQLTimeoutException("Timed out after " + settings.getAcquireTimeoutMillis()
+                        + " ms waiting for a connection from the pool.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection from the pool.", e);
+        }
+
+        try {
+            PooledConnection pooled = takeIdle();
+            if (pooled == null) {
+                pooled = open();
+            }
+            active.incrementAndGet();
+            acquireTime.record(System.nanoTime() - start);
+            return pooled.lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Takes the most recently used idle connection that is still valid.
+     *
+     * @return Valid idle connection, null if there are none
+     */
+    private PooledConnection takeIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isValid(pooled)) {
+                return pooled;
+            }
+            discard(pooled);
+        }
+        return null;
+    }
+
+    private boolean isValid(PooledConnection pooled) {
+        long idleMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - pooled.lastReturned);
+        if (idleMillis < settings.getValidationBypassMillis()) {
+            return true;
+        }
+        try {
+            return pooled.physical.isValid(settings.getValidationTimeoutSeconds());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection open() throws SQLException {
+        Connection physical = dataSource.getConnection();
+        total.incrementAndGet();
+        PooledConnection pooled = new PooledConnection(physical, settings.getStatementCacheSize());
+        connections.add(pooled);
+        return pooled;
+    }
+
+    /**
+     * Called when a leased connection is closed by the borrower.
+     *
+     * @param pooled The connection being handed back
+     */
+    private void release(PooledConnection pooled) {
+        active.decrementAndGet();
+        try {
+            if (closed || !reset(pooled.physical)) {
+                discard(pooled);
+            } else {
+                pooled.lastReturned = System.nanoTime();
+                idle.offerFirst(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Rolls back any unfinished transaction and restores auto-commit, so the next borrower gets a clean connection.
+     *
+     * @param physical Connection to reset
+     * @return True if the connection can be reused, false if it should be discarded
+     */
+    private boolean reset(Connection physical) {
+        try {
+            if (physical.isClosed()) {
+                return false;
+            }
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void discard(PooledConnection pooled) {
+        total.decrementAndGet();
+        if (connections.remove(pooled) && pooled.statementCache != null) {
+            retiredHits.add(pooled.statementCache.getHitCount());
+            retiredMisses.add(pooled.statementCache.getMissCount());
+            retiredEvictions.add(pooled.statementCache.getEvictionCount());
+        }
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            // the connection is being thrown away anyway
+        }
+    }
+
+    /**
+     * Closes connections that have been idle for too long, then tops the pool back up to its minimum size.
+     */
+    private void houseKeep() {
+        if (closed) {
+            return;
+        }
+        long now = System.nanoTime();
+        int candidates = idle.size();
+        for (int i = 0; i < candidates && total.get() > settings.getMinSize(); i++) {
+            PooledConnection oldest = idle.pollLast();
+            if (oldest == null) {
+                break;
+            }
+            if (TimeUnit.NANOSECONDS.toMillis(now - oldest.lastReturned) >= settings.getIdleTimeoutMillis()) {
+                discard(oldest);
+            } else {
+                idle.offerLast(oldest);
+                break;
+            }
+        }
+
+        while (!closed && total.get() < settings.getMinSize() && permits.tryAcquire()) {
+            try {
+                PooledConnection pooled = open();
+                pooled.lastReturned = System.nanoTime();
+                idle.offerLast(pooled);
+            } catch (SQLException e) {
+                // the database is not reachable right now, borrowers will see the error themselves
+                break;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * Returns a snapshot of the pool counters.
+     *
+     * @return Current statistics for this pool
+     */
+    public PoolStats getStats() {
+        long hits = retiredHits.sum();
+        long misses = retiredMisses.sum();
+        long evictions = retiredEvictions.sum();
+        for (PooledConnection pooled : connections) {
+            if (pooled.statementCache != null) {
+                hits += pooled.statementCache.getHitCount();
+                misses += pooled.statementCache.getMissCount();
+                evictions += pooled.statementCache.getEvictionCount();
+            }
+        }
+        return new PoolStats(active.get(), idle.size(), total.get(), permits.getQueueLength(),
+                timeouts.sum(), acquireTime, hits, misses, evictions);
+    }
+
+    public PoolSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Closes all idle connections and stops the housekeeping thread.
+     * Connections that are still borrowed are closed when they are handed back.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+    }
+
+    /**
+     * A physical connection owned by the pool.
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private final StatementCache statementCache;
+        private volatile long lastReturned = System.nanoTime();
+
+        private PooledConnection(Connection physical, int statementCacheSize) {
+            this.physical = physical;
+            this.statementCache = statementCacheSize > 0 ? new StatementCache(physical, statementCacheSize) : null;
+        }
+
+        /**
+         * Wraps the physical connection in a new handle for a single borrower.
+         * Each lease gets its own handle, so a stale reference can not close someone else's lease.
+         *
+         * @return Connection handle that returns itself to the pool on close
+         */
+        private Connection lease() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, new Lease(this));
+        }
+    }
+
+    /**
+     * Invocation handler for a borrowed connection.
+     * It delegates everything to the physical connection, except close() which hands it back to the pool.
+     */
+    private final class Lease implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean returned;
+
+        private Lease(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + pooled.physical;
+                case "isWrapperFor":
+                    if (args[0] == StatementCache.class) {
+                        return pooled.statementCache != null;
+                    }
+                    break;
+                case "unwrap":
+                    if (args[0] == StatementCache.class && pooled.statementCache != null) {
+                        return pooled.statementCache;
+                    }
+                    break;
+            }
+            if (returned) {
+                throw new SQLException("Connection has already been returned to the pool.");
+            }
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
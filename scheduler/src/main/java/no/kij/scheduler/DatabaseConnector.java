@@ -0,0 +1,98 @@
+package no.kij.scheduler;
+
+import com.mysql.jdbc.jdbc2.optional.MysqlDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static no.kij.scheduler.ResourceFetcher.*;
+/**
+ * DatabaseConnector is the class responsible for opening and closing connections to the database.
+ * It is used to pool connections.
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.0
+ */
+public class DatabaseConnector implements AutoCloseable {
+    private MysqlDataSource ds;
+    private ConnectionPool pool;
+
+    /**
+     * Creates a connector that opens a new physical connection for every call to {@link #getConnection()}.
+     */
+    public DatabaseConnector(String user, String password, String host, String db) {
+        createDataSource(user, password, host, db);
+    }
+
+    /**
+     * Creates a connector that hands out connections from a bounded pool.
+     *
+     * @param settings Settings for the connection pool
+     * @since 1.1
+     */
+    public DatabaseConnector(String user, String password, String host, String db, PoolSettings settings) {
+        createDataSource(user, password, host, db);
+        if (settings.getStatementCacheSize() > 0) {
+            // cached statements live as long as the pooled connection, so let the server keep them parsed
+            ds.setUseServerPrepStmts(true);
+        }
+        pool = new ConnectionPool(ds, settings);
+    }
+
+    private void createDataSource(String user, String password, String host, String db) {
+        ds = new MysqlDataSource();
+        ds.setServerName(host);
+        ds.setDatabaseName(db);
+        ds.setUser(user);
+        ds.setPassword(password);
+        // lets the driver send a JDBC batch of inserts as one multi-row statement
+        ds.setRewriteBatchedStatements(true);
+    }
+
+    /**
+     * Returns a connection to the database. Closing the connection hands it back to the pool if pooling is enabled.
+     * The time it took is recorded in {@link QueryMetrics}.
+     *
+     * @return Connection to the database
+     * @throws SQLException If no connection could be made
+     */
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return pool != null ? pool.getConnection() : ds.getConnection();
+        } finally {
+            QueryMetrics.global().recordAcquire(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * @return True if connections are pooled
+     */
+    public boolean isPooled() {
+        return pool != null;
+    }
+
+    /**
+     * @return Settings of the connection pool, null if pooling is disabled
+     */
+    public PoolSettings getPoolSettings() {
+        return pool != null ? pool.getSettings() : null;
+    }
+
+    /**
+     * @return Snapshot of the pool counters, null if pooling is disabled
+     */
+    public PoolStats getPoolStats() {
+        return pool != null ? pool.getStats() : null;
+    }
+
+    /**
+     * Closes the pool, if there is one.
+     */
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+}
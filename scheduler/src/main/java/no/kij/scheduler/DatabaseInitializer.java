@@ -0,0 +1,222 @@
+package no.kij.scheduler;
+
+import com.google.gson.JsonParseException;
+import no.kij.scheduler.dao.DAOException;
+import no.kij.scheduler.dao.DAOUtil;
+import no.kij.scheduler.migration.Migration;
+import no.kij.scheduler.migration.Migrator;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class is used to initialize the database structure, as well as populate it with content.
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.0
+ */
+public class DatabaseInitializer {
+    private final String DROP_TABLES_QUERY = "DROP TABLE IF EXISTS " +
+            "Available, Contact, Lecturer, Room, Subject, Subject_Lecturer, schema_version";
+
+    // in the order their rows can be deleted in
+    private static final String[] SEEDED_TABLES =
+            {"Subject_Lecturer", "Available", "Contact", "Subject", "Lecturer", "Room"};
+
+    private DatabaseConnector connector;
+    private String seedDirectory;
+
+    /**
+     * Create an instance of the initializer.
+     *
+     * @param connector Connector to pool connections from
+     */
+    public DatabaseInitializer(DatabaseConnector connector) {
+        this(connector, null);
+    }
+
+    /**
+     * Create an instance of the initializer that reads the seed files from a directory on the filesystem.
+     * Seed files missing from the directory are read from the resources instead.
+     *
+     * @param connector Connector to pool connections from
+     * @param seedDirectory Directory containing lecturers.json, rooms.json and subjects.json, or null
+     */
+    public DatabaseInitializer(DatabaseConnector connector, String seedDirectory) {
+        this.connector = connector;
+        this.seedDirectory = seedDirectory;
+    }
+
+
+    /**
+     * Initializes the database structure by applying any pending schema migrations, and populates the tables
+     * from the seed files if every one of them is empty.
+     *
+     * <p>The seed files are saved batch by batch, each batch in its own transaction, so a failure halfway through
+     * would leave part of them in the database. When that happens the imported rows are deleted again. Since the
+     * tables were all empty before the import, those are the only rows deleted. The import is retried the next time
+     * the database is initialized.</p>
+     *
+     * @param overwrite True to drop all tables and start over
+     * @return True if the database structure was created or changed, or the tables were populated, false if the
+     *         database was already up to date or could not be initialized
+     */
+    public Boolean initializeDatabase(Boolean overwrite) {
+        try {
+            if (overwrite) {
+                System.out.println("Initialized database overwrite.");
+                dropTables();
+            }
+
+            Migrator migrator = new Migrator(connector);
+            List<Migration> applied = migrator.migrate();
+            if (!applied.isEmpty()) {
+                System.out.println("Database structure is now at version " + migrator.getCurrentVersion() + ".\n");
+            }
+            // checked even if no migration was pending, so an import that failed last time is retried
+            if (!isEmpty()) {
+                return !applied.isEmpty();
+            }
+
+            System.out.println("Initializing rows...\n");
+            if (!importSeedFiles(new JsonImporter(connector), seedDirectory)) {
+                deleteRows();
+                System.err.println("The rows imported so far have been removed, the import will be retried.");
+                return false;
+            }
+            System.out.println("Database initialization has been completed.\n\n");
+            return true;
+        } catch (SQLException | DAOException e) {
+            System.err.println("Something went wrong while initializing the database structure.");
+            System.err.println(e.getMessage());
+        }
+        return false;
+    }
+
+    private void dropTables() throws SQLException {
+        try (Connection conn = connector.getConnection(); Statement stmt = conn.createStatement()) {
+            System.out.println("Dropping existing tables...");
+            stmt.executeUpdate("SET foreign_key_checks = 0");
+            stmt.executeUpdate(DROP_TABLES_QUERY);
+            stmt.executeUpdate("SET foreign_key_checks = 1");
+            System.out.println("All tables dropped.");
+            System.out.println("Recreating structure...");
+        }
+    }
+
+    /**
+     * Deletes every row of the seeded tables, children first so no foreign key is violated.
+     * Only called after a failed import, which only starts when the tables are all empty.
+     */
+    private void deleteRows() throws SQLException {
+        try (Connection conn = connector.getConnection()) {
+            DAOUtil.transaction(conn, c -> {
+                try (Statement stmt = c.createStatement()) {
+                    for (String table : SEEDED_TABLES) {
+                        stmt.executeUpdate("DELETE FROM " + table);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Check if the database has any content yet.
+     * @return True if every seeded table is empty, false if any of them has rows
+     */
+    private boolean isEmpty() throws SQLException {
+        try (Connection conn = connector.getConnection(); Statement stmt = conn.createStatement()) {
+            for (String table : SEEDED_TABLES) {
+                try (ResultSet rs = stmt.executeQuery("SELECT 1 FROM " + table + " LIMIT 1")) {
+                    if (rs.next()) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Populates the storage behind the importer from the seed files. The database is populated by
+     * {@link #initializeDatabase(Boolean)}, this is for storage without a schema, like the in-memory backend.
+     *
+     * @param importer Importer saving to the storage to populate
+     * @param seedDirectory Directory containing lecturers.json, rooms.json and subjects.json, or null
+     * @return True if every seed file was imported, false if the import stopped part of the way through, in which
+     *         case the records saved before the failure are still in the storage
+     */
+    public static boolean importSeedFiles(JsonImporter importer, String seedDirectory) {
+        try {
+            System.out.println("Inserting lecturers...");
+            try (Reader in = openSeedFile(seedDirectory, "lecturers.json")) {
+                System.out.println(importer.importLecturers(in) + " lecturers has been inserted!\n");
+            }
+
+            System.out.println("Inserting rooms...");
+            try (Reader in = openSeedFile(seedDirectory, "rooms.json")) {
+                System.out.println(importer.importRooms(in) + " rooms has been inserted!\n");
+            }
+
+            // subjects are linked to their lecturers as they are inserted
+            System.out.println("Inserting subjects and linking them to lecturers...");
+            try (Reader in = openSeedFile(seedDirectory, "subjects.json")) {
+                System.out.println(importer.importSubjects(in) + " subjects has been inserted!\n");
+            }
+            printUnresolvedLecturers(importer.getUnresolvedLecturers());
+            return true;
+        } catch (IOException | JsonParseException | IllegalStateException e) {
+            System.err.println("Something went wrong while reading the seed files.");
+            System.err.println(e.getMessage());
+        } catch (DAOException | IllegalArgumentException e) {
+            System.err.println("Something went wrong while saving the seed files.");
+            System.err.println(e.getMessage());
+        }
+        return false;
+    }
+
+    private static void printUnresolvedLecturers(Map<String, Integer> unresolved) {
+        if (unresolved.isEmpty()) {
+            return;
+        }
+        int references = 0;
+        for (int count : unresolved.values()) {
+            references += count;
+        }
+        System.err.println(references + " subject lecturer reference(s) could not be linked, no lecturer named:");
+        for (Map.Entry<String, Integer> entry : unresolved.entrySet()) {
+            System.err.println("  " + entry.getKey() + " (" + entry.getValue() + ")");
+        }
+        System.err.println();
+    }
+
+    /**
+     * Opens a seed file from the seed directory if one is set and the file is in it, otherwise from the resources.
+     *
+     * @param seedDirectory Directory to look in first, or null
+     * @param fileName Name of the seed file
+     * @return Reader over the seed file
+     * @throws IOException Throws exception if the file is not found or can not be opened
+     */
+    private static Reader openSeedFile(String seedDirectory, String fileName) throws IOException {
+        Reader in = null;
+        if (seedDirectory != null) {
+            in = ResourceFetcher.getReader(new File(seedDirectory, fileName).getPath());
+        }
+        if (in == null) {
+            in = ResourceFetcher.getReader(fileName);
+        }
+        if (in == null) {
+            throw new FileNotFoundException("Could not find the seed file " + fileName);
+        }
+        return in;
+    }
+}
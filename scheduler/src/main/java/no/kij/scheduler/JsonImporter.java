@@ -0,0 +1,258 @@
+package no.kij.scheduler;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import no.kij.scheduler.dao.DAOUtil;
+import no.kij.scheduler.dao.LecturerDAO;
+import no.kij.scheduler.dao.LecturerRepository;
+import no.kij.scheduler.dao.RoomDAO;
+import no.kij.scheduler.dao.RoomRepository;
+import no.kij.scheduler.dao.SubjectDAO;
+import no.kij.scheduler.dao.SubjectRepository;
+import no.kij.scheduler.dto.LecturerDTO;
+import no.kij.scheduler.dto.RoomDTO;
+import no.kij.scheduler.dto.SubjectDTO;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * This class imports the JSON seed files into the database, or into any other storage behind the repositories.
+ * The files are read one record at a time with a streaming reader, and the records are saved in batches,
+ * so memory use is bounded by the batch size rather than by the size of the file.
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public class JsonImporter {
+    private final Gson gson = new Gson();
+    private final LecturerRepository lecturerDAO;
+    private final RoomRepository roomDAO;
+    private final SubjectRepository subjectDAO;
+    private final int batchSize;
+    // keyed by DAOUtil.nameKey, so names are matched the same way the database matches them
+    private final Map<String, Integer> lecturerIds = new HashMap<>();
+    private final Map<String, Integer> unresolvedLecturers = new TreeMap<>();
+
+    /**
+     * Creates an importer saving records in batches of the default size.
+     *
+     * @param connector Connector to pool connections from
+     */
+    public JsonImporter(DatabaseConnector connector) {
+        this(connector, DAOUtil.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Creates an importer.
+     *
+     * @param connector Connector to pool connections from
+     * @param batchSize Number of records to read before they are saved
+     */
+    public JsonImporter(DatabaseConnector connector, int batchSize) {
+        this(new LecturerDAO(connector), new RoomDAO(connector), new SubjectDAO(connector), batchSize);
+    }
+
+    /**
+     * Creates an importer saving the records to the given repositories.
+     *
+     * @param lecturerDAO Repository to save the lecturers to
+     * @param roomDAO Repository to save the rooms to
+     * @param subjectDAO Repository to save the subjects and their links to the lecturers to
+     * @param batchSize Number of records to read before they are saved
+     */
+    public JsonImporter(LecturerRepository lecturerDAO, RoomRepository roomDAO, SubjectRepository subjectDAO,
+                        int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1.");
+        }
+        this.lecturerDAO = lecturerDAO;
+        this.roomDAO = roomDAO;
+        this.subjectDAO = subjectDAO;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Imports a JSON array of lecturers, along with their contacts and availability.
+     *
+     * @param in Reader over the JSON array
+     * @return Number of lecturers imported
+     * @throws IOException Throws exception if the file can not be read or is not valid JSON
+     */
+    public int importLecturers(Reader in) throws IOException {
+        return readArray(in, reader -> gson.<LecturerDTO>fromJson(reader, LecturerDTO.class), this::saveLecturers);
+    }
+
+    private void saveLecturers(List<LecturerDTO> lecturerDTOs) {
+        lecturerDAO.createAll(lecturerDTOs, batchSize);
+        // remembered so subjects can be linked without looking the lecturers up again
+        for (LecturerDTO lecturerDTO : lecturerDTOs) {
+            if (lecturerDTO.getName() != null) {
+                lecturerIds.putIfAbsent(DAOUtil.nameKey(lecturerDTO.getName()), lecturerDTO.getId());
+            }
+        }
+    }
+
+    /**
+     * Imports a JSON array of rooms.
+     *
+     * @param in Reader over the JSON array
+     * @return Number of rooms imported
+     * @throws IOException Throws exception if the file can not be read or is not valid JSON
+     */
+    public int importRooms(Reader in) throws IOException {
+        return readArray(in, reader -> gson.<RoomDTO>fromJson(reader, RoomDTO.class),
+                batch -> roomDAO.createAll(batch, batchSize));
+    }
+
+    /**
+     * Imports a JSON array of subjects, and links each subject to the lecturers named in it.
+     * Lecturer names are resolved against the lecturers imported by this importer, and names it has not seen are
+     * looked up in bulk, once per batch. Names that can not be resolved are collected in
+     * {@link #getUnresolvedLecturers()}.
+     *
+     * @param in Reader over the JSON array
+     * @return Number of subjects imported
+     * @throws IOException Throws exception if the file can not be read or is not valid JSON
+     */
+    public int importSubjects(Reader in) throws IOException {
+        return readArray(in, JsonImporter::readSubject, this::saveSubjects);
+    }
+
+    private void saveSubjects(List<SubjectDTO> subjectDTOs) {
+        // the parsed lecturers only carry a name, so they are swapped for the saved ones when linking
+        List<List<LecturerDTO>> named = new ArrayList<>(subjectDTOs.size());
+        for (SubjectDTO subjectDTO : subjectDTOs) {
+            named.add(subjectDTO.getLecturers());
+            subjectDTO.setLecturers(new ArrayList<>());
+        }
+        subjectDAO.createAll(subjectDTOs, batchSize);
+
+        Set<String> unknownNames = new HashSet<>();
+        for (List<LecturerDTO> namedLecturers : named) {
+            for (LecturerDTO namedLecturer : namedLecturers) {
+                String name = namedLecturer.getName();
+                if (!lecturerIds.containsKey(DAOUtil.nameKey(name)) && !unresolvedLecturers.containsKey(name)) {
+                    unknownNames.add(name);
+                }
+            }
+        }
+        lecturerDAO.findIds(unknownNames).forEach((name, id) -> lecturerIds.putIfAbsent(DAOUtil.nameKey(name), id));
+
+        Map<SubjectDTO, List<LecturerDTO>> links = new LinkedHashMap<>();
+        for (int i = 0; i < subjectDTOs.size(); i++) {
+            for (LecturerDTO namedLecturer : named.get(i)) {
+                Integer id = lecturerIds.get(DAOUtil.nameKey(namedLecturer.getName()));
+                if (id == null) {
+                    unresolvedLecturers.merge(namedLecturer.getName(), 1, Integer::sum);
+                    continue;
+                }
+                LecturerDTO lecturerDTO = new LecturerDTO(namedLecturer.getName());
+                lecturerDTO.setId(id);
+                subjectDTOs.get(i).addLecturer(lecturerDTO);
+                links.computeIfAbsent(subjectDTOs.get(i), subject -> new ArrayList<>()).add(lecturerDTO);
+            }
+        }
+        subjectDAO.addLecturers(links, batchSize);
+    }
+
+    /**
+     * @return Number of references to each lecturer name that could not be linked, by name
+     */
+    public Map<String, Integer> getUnresolvedLecturers() {
+        return Collections.unmodifiableMap(unresolvedLecturers);
+    }
+
+    /**
+     * Reads the elements of a JSON array one at a time, handing them to the writer whenever a batch is full.
+     */
+    private <T> int readArray(Reader in, ElementReader<T> elementReader, Consumer<List<T>> writer)
+            throws IOException {
+        int count = 0;
+        List<T> batch = new ArrayList<>(batchSize);
+        JsonReader reader = new JsonReader(in);
+        reader.beginArray();
+        while (reader.hasNext()) {
+            batch.add(elementReader.read(reader));
+            if (batch.size() == batchSize) {
+                writer.accept(batch);
+                count += batch.size();
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        reader.endArray();
+        if (!batch.isEmpty()) {
+            writer.accept(batch);
+            count += batch.size();
+        }
+        return count;
+    }
+
+    /**
+     * Reads a single subject, including the names of its lecturers, from the reader.
+     *
+     * @param reader Reader positioned at the start of a subject object
+     * @return SubjectDTO with a name-only LecturerDTO for each of its lecturers
+     * @throws IOException Throws exception if the subject can not be read
+     */
+    public static SubjectDTO readSubject(JsonReader reader) throws IOException {
+        SubjectDTO subjectDTO = new SubjectDTO();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "name":
+                    subjectDTO.setName(reader.nextString());
+                    break;
+                case "shortName":
+                    subjectDTO.setShortName(reader.nextString());
+                    break;
+                case "enrolled":
+                    subjectDTO.setEnrolled(reader.nextInt());
+                    break;
+                case "lecturers":
+                    readLecturerNames(reader, subjectDTO);
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        return subjectDTO;
+    }
+
+    private static void readLecturerNames(JsonReader reader, SubjectDTO subjectDTO) throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (reader.nextName().equals("name") && reader.peek() == JsonToken.STRING) {
+                    subjectDTO.addLecturer(new LecturerDTO(reader.nextString()));
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        reader.endArray();
+    }
+
+    /**
+     * Reads one element of a JSON array.
+     */
+    @FunctionalInterface
+    private interface ElementReader<T> {
+        T read(JsonReader reader) throws IOException;
+    }
+}
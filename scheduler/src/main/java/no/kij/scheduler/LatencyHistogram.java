@@ -0,0 +1,106 @@
+package no.kij.scheduler;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free latency histogram with power-of-two microsecond buckets.
+ * Recording a sample is a couple of atomic increments and never allocates, so it is safe to use on hot paths.
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public class LatencyHistogram {
+    /**
+     * Bucket 0 holds samples below one microsecond, bucket i holds samples in [2^(i-1), 2^i) microseconds.
+     * The last bucket is open-ended.
+     */
+    public static final int BUCKETS = 32;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    /**
+     * Records a single sample.
+     *
+     * @param nanos Elapsed time in nanoseconds
+     */
+    public void record(long nanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(Math.max(nanos, 0));
+        int bucket = micros == 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        buckets.incrementAndGet(bucket);
+        count.increment();
+        totalNanos.add(nanos);
+    }
+
+    /**
+     * @return Number of samples recorded
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return Sum of all samples in nanoseconds
+     */
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    /**
+     * @return Mean sample in microseconds, or 0 if nothing was recorded
+     */
+    public double getMeanMicros() {
+        long n = getCount();
+        return n == 0 ? 0 : getTotalNanos() / 1000.0 / n;
+    }
+
+    /**
+     * Returns a copy of the bucket counts.
+     *
+     * @return Sample count per bucket
+     */
+    public long[] getBucketCounts() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+        }
+        return counts;
+    }
+
+    /**
+     * Returns the upper bound of the bucket the given percentile falls into.
+     *
+     * @param percentile Percentile between 0 and 100
+     * @return Upper bound in microseconds, or 0 if nothing was recorded
+     */
+    public long getPercentileMicros(double percentile) {
+        long[] counts = getBucketCounts();
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long threshold = (long) Math.ceil(total * Math.min(Math.max(percentile, 0), 100) / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= threshold && counts[i] > 0) {
+                return upperBoundMicros(i);
+            }
+        }
+        return upperBoundMicros(BUCKETS - 1);
+    }
+
+    /**
+     * @param bucket Bucket index
+     * @return Exclusive upper bound of the bucket in microseconds
+     */
+    public static long upperBoundMicros(int bucket) {
+        return 1L << bucket;
+    }
+}
@@ -0,0 +1,128 @@
+package no.kij.scheduler;
+
+import java.util.Properties;
+
+/**
+ * PoolSettings holds the configuration for a {@link ConnectionPool}.
+ * All values have sensible defaults, so only the ones that differ need to be set.
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public class PoolSettings {
+    private int minSize = 2;
+    private int maxSize = 10;
+    private long idleTimeoutMillis = 5 * 60 * 1000;
+    private long acquireTimeoutMillis = 30 * 1000;
+    private long evictionIntervalMillis = 30 * 1000;
+    private long validationBypassMillis = 500;
+    private int validationTimeoutSeconds = 2;
+    private int statementCacheSize = 64;
+
+    public PoolSettings() {
+    }
+
+    public PoolSettings(int minSize, int maxSize) {
+        setMinSize(minSize);
+        setMaxSize(maxSize);
+    }
+
+    /**
+     * Reads the pool settings from the given properties, using the defaults for any missing keys.
+     *
+     * @param props Properties containing keys prefixed with "db_pool_"
+     * @return PoolSettings with the values from the properties
+     */
+    public static PoolSettings fromProperties(Properties props) {
+        PoolSettings settings = new PoolSettings();
+        settings.setMinSize(Integer.parseInt(props.getProperty("db_pool_min", String.valueOf(settings.minSize))));
+        settings.setMaxSize(Integer.parseInt(props.getProperty("db_pool_max", String.valueOf(settings.maxSize))));
+        settings.setIdleTimeoutMillis(Long.parseLong(
+                props.getProperty("db_pool_idle_timeout_ms", String.valueOf(settings.idleTimeoutMillis))));
+        settings.setAcquireTimeoutMillis(Long.parseLong(
+                props.getProperty("db_pool_acquire_timeout_ms", String.valueOf(settings.acquireTimeoutMillis))));
+        settings.setStatementCacheSize(Integer.parseInt(
+                props.getProperty("db_statement_cache_size", String.valueOf(settings.statementCacheSize))));
+        return settings;
+    }
+
+    public int getMinSize() {
+        return minSize;
+    }
+
+    public void setMinSize(int minSize) {
+        if (minSize < 0) {
+            throw new IllegalArgumentException("Minimum pool size can not be negative.");
+        }
+        this.minSize = minSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Maximum pool size must be at least 1.");
+        }
+        this.maxSize = maxSize;
+    }
+
+    public long getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    public void setIdleTimeoutMillis(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    public long getAcquireTimeoutMillis() {
+        return acquireTimeoutMillis;
+    }
+
+    public void setAcquireTimeoutMillis(long acquireTimeoutMillis) {
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    public long getEvictionIntervalMillis() {
+        return evictionIntervalMillis;
+    }
+
+    public void setEvictionIntervalMillis(long evictionIntervalMillis) {
+        this.evictionIntervalMillis = evictionIntervalMillis;
+    }
+
+    public long getValidationBypassMillis() {
+        return validationBypassMillis;
+    }
+
+    /**
+     * Connections that were returned to the pool more recently than this are handed out without validation.
+     *
+     * @param validationBypassMillis Window in milliseconds, 0 to always validate
+     */
+    public void setValidationBypassMillis(long validationBypassMillis) {
+        this.validationBypassMillis = validationBypassMillis;
+    }
+
+    public int getValidationTimeoutSeconds() {
+        return validationTimeoutSeconds;
+    }
+
+    public void setValidationTimeoutSeconds(int validationTimeoutSeconds) {
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+    }
+
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    /**
+     * Sets how many prepared statements each pooled connection keeps around.
+     *
+     * @param statementCacheSize Statements per connection, 0 to disable statement caching
+     */
+    public void setStatementCacheSize(int statementCacheSize) {
+        this.statementCacheSize = statementCacheSize;
+    }
+}
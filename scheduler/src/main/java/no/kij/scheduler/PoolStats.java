@@ -0,0 +1,135 @@
+package no.kij.scheduler;
+
+/**
+ * PoolStats is a point-in-time snapshot of the counters of a {@link ConnectionPool}.
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public class PoolStats {
+    private final int active;
+    private final int idle;
+    private final int total;
+    private final int waiters;
+    private final long timeouts;
+    private final long acquireCount;
+    private final double acquireMeanMicros;
+    private final long acquireP50Micros;
+    private final long acquireP99Micros;
+    private final long[] acquireHistogram;
+    private final long statementHits;
+    private final long statementMisses;
+    private final long statementEvictions;
+
+    PoolStats(int active, int idle, int total, int waiters, long timeouts, LatencyHistogram acquireTime,
+              long statementHits, long statementMisses, long statementEvictions) {
+        this.active = active;
+        this.idle = idle;
+        this.total = total;
+        this.waiters = waiters;
+        this.timeouts = timeouts;
+        this.acquireCount = acquireTime.getCount();
+        this.acquireMeanMicros = acquireTime.getMeanMicros();
+        this.acquireP50Micros = acquireTime.getPercentileMicros(50);
+        this.acquireP99Micros = acquireTime.getPercentileMicros(99);
+        this.acquireHistogram = acquireTime.getBucketCounts();
+        this.statementHits = statementHits;
+        this.statementMisses = statementMisses;
+        this.statementEvictions = statementEvictions;
+    }
+
+    /**
+     * @return Connections currently borrowed
+     */
+    public int getActive() {
+        return active;
+    }
+
+    /**
+     * @return Connections sitting in the pool, ready to be borrowed
+     */
+    public int getIdle() {
+        return idle;
+    }
+
+    /**
+     * @return Physical connections currently open
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * @return Threads waiting for a connection
+     */
+    public int getWaiters() {
+        return waiters;
+    }
+
+    /**
+     * @return Number of borrowers that gave up waiting
+     */
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    public long getAcquireCount() {
+        return acquireCount;
+    }
+
+    public double getAcquireMeanMicros() {
+        return acquireMeanMicros;
+    }
+
+    public long getAcquireP50Micros() {
+        return acquireP50Micros;
+    }
+
+    public long getAcquireP99Micros() {
+        return acquireP99Micros;
+    }
+
+    /**
+     * @return Acquire time sample counts, bucketed as described in {@link LatencyHistogram}
+     */
+    public long[] getAcquireHistogram() {
+        return acquireHistogram.clone();
+    }
+
+    /**
+     * @return Number of times a cached statement was reused, over every connection of the pool
+     */
+    public long getStatementHits() {
+        return statementHits;
+    }
+
+    /**
+     * @return Number of times a statement had to be prepared, over every connection of the pool
+     */
+    public long getStatementMisses() {
+        return statementMisses;
+    }
+
+    /**
+     * @return Number of statements pushed out of a full statement cache, over every connection of the pool
+     */
+    public long getStatementEvictions() {
+        return statementEvictions;
+    }
+
+    /**
+     * @return Ratio of statement cache hits to lookups, 0 if nothing has been looked up yet
+     */
+    public double getStatementHitRate() {
+        long lookups = statementHits + statementMisses;
+        return lookups == 0 ? 0 : (double) statementHits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("active=%d idle=%d total=%d waiters=%d timeouts=%d acquires=%d mean=%.1fus p50<%dus p99<%dus"
+                        + " statement hits=%d misses=%d evictions=%d",
+                active, idle, total, waiters, timeouts, acquireCount, acquireMeanMicros, acquireP50Micros, acquireP99Micros,
+                statementHits, statementMisses, statementEvictions);
+    }
+}
@@ -0,0 +1,88 @@
+package no.kij.scheduler;
+
+import java.util.Properties;
+
+/**
+ * QueryLogSettings holds the thresholds at which the DAOs' queries raise a {@link QueryWarning}.
+ * All values have sensible defaults, so only the ones that differ need to be set.
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public class QueryLogSettings {
+    /**
+     * Statements taking at least this long are logged as slow queries unless configured otherwise.
+     */
+    public static final long DEFAULT_SLOW_QUERY_MILLIS = 200;
+
+    private long slowQueryMillis = DEFAULT_SLOW_QUERY_MILLIS;
+    private int queryBudget = 50;
+    private int repeatThreshold = 10;
+
+    public QueryLogSettings() {
+    }
+
+    /**
+     * @param queryBudget Queries a logical operation may issue, 0 for no budget
+     * @param repeatThreshold Times a logical operation may issue the same statement before it is flagged,
+     *                        0 to never flag repeats
+     */
+    public QueryLogSettings(int queryBudget, int repeatThreshold) {
+        setQueryBudget(queryBudget);
+        setRepeatThreshold(repeatThreshold);
+    }
+
+    /**
+     * Reads the query log settings from the given properties, using the defaults for any missing keys.
+     *
+     * @param props Properties containing keys prefixed with "query_"
+     * @return QueryLogSettings with the values from the properties
+     */
+    public static QueryLogSettings fromProperties(Properties props) {
+        QueryLogSettings settings = new QueryLogSettings();
+        settings.setSlowQueryMillis(Long.parseLong(
+                props.getProperty("query_slow_ms", String.valueOf(settings.slowQueryMillis))));
+        settings.setQueryBudget(Integer.parseInt(
+                props.getProperty("query_budget", String.valueOf(settings.queryBudget))));
+        settings.setRepeatThreshold(Integer.parseInt(
+                props.getProperty("query_repeat_threshold", String.valueOf(settings.repeatThreshold))));
+        return settings;
+    }
+
+    /**
+     * @return Time a statement may take before it is logged, negative if no statement is logged
+     */
+    public long getSlowQueryMillis() {
+        return slowQueryMillis;
+    }
+
+    /**
+     * @param slowQueryMillis Time a statement may take before it is logged, 0 to log every statement or negative
+     *                        to log none
+     */
+    public void setSlowQueryMillis(long slowQueryMillis) {
+        this.slowQueryMillis = slowQueryMillis;
+    }
+
+    public int getQueryBudget() {
+        return queryBudget;
+    }
+
+    public void setQueryBudget(int queryBudget) {
+        if (queryBudget < 0) {
+            throw new IllegalArgumentException("Query budget can not be negative.");
+        }
+        this.queryBudget = queryBudget;
+    }
+
+    public int getRepeatThreshold() {
+        return repeatThreshold;
+    }
+
+    public void setRepeatThreshold(int repeatThreshold) {
+        if (repeatThreshold < 0) {
+            throw new IllegalArgumentException("Repeat threshold can not be negative.");
+        }
+        this.repeatThreshold = repeatThreshold;
+    }
+}
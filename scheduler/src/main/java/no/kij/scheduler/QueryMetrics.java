@@ -0,0 +1,297 @@
+package no.kij.scheduler;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Latency histograms and counters for every SQL template run through {@link no.kij.scheduler.dao.DAOUtil},
+ * along with connection acquire times and the number of queries each logical operation issues.
+ *
+ * <p>Statement preparation is timed by DAOUtil, execution and result iteration by the statement handed out
+ * for it, and connection acquisition by {@link DatabaseConnector}. A query counts as iterated from the moment its
+ * execution returns until its statement is closed. Recording a sample is a map lookup and a few atomic increments,
+ * so the recorders take no locks and add no allocation of their own once a template has been seen. The statements
+ * are {@link TimedStatement} wrappers that call straight through to the physical statement, so a call boxes
+ * nothing either. A statement prepared without a cache gets a wrapper of its own, while a cached statement reuses
+ * the one it was first prepared with.</p>
+ *
+ * <p>Statements slower than the slow query threshold raise a {@link QueryWarning} with their bound values, which
+ * goes to the warning handler along with the warnings raised by a {@link no.kij.scheduler.dao.Session} for
+ * repeated queries and blown query budgets.</p>
+ *
+ * <p>The metrics are published over JMX under {@value #OBJECT_NAME} once {@link #registerMBean()} has been
+ * called.</p>
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public class QueryMetrics implements QueryMetricsMXBean {
+    /**
+     * Name the metrics are registered under with the platform MBean server.
+     */
+    public static final String OBJECT_NAME = "no.kij.scheduler:type=QueryMetrics";
+
+    /**
+     * Maximum number of SQL templates tracked separately. IN lists of every length are templates of their own,
+     * so anything beyond this is counted under {@link #OTHER_TEMPLATE} instead of growing the map forever.
+     */
+    public static final int MAX_TEMPLATES = 256;
+
+    /**
+     * Template that queries are counted under once {@link #MAX_TEMPLATES} templates are tracked.
+     */
+    public static final String OTHER_TEMPLATE = "(other)";
+
+    private static final QueryMetrics GLOBAL = new QueryMetrics();
+
+    private final ConcurrentMap<String, Template> templates = new ConcurrentHashMap<>();
+    private final Template other = new Template(OTHER_TEMPLATE);
+    private final LatencyHistogram acquireTime = new LatencyHistogram();
+    private final LongAdder operations = new LongAdder();
+    private final LongAdder operationQueries = new LongAdder();
+    private final LongAccumulator maxOperationQueries = new LongAccumulator(Math::max, 0);
+    private final LongAdder warnings = new LongAdder();
+    private volatile long slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(QueryLogSettings.DEFAULT_SLOW_QUERY_MILLIS);
+    private volatile Consumer<QueryWarning> warningHandler = System.err::println;
+
+    /**
+     * @return The metrics shared by every DAO in this JVM
+     */
+    public static QueryMetrics global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Registers the shared metrics with the platform MBean server, unless they already are.
+     */
+    public static void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(GLOBAL, name);
+            }
+        } catch (JMException e) {
+            System.err.println("Could not publish the query metrics over JMX.");
+            System.err.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the recorder for the given SQL, creating it the first time the SQL is seen.
+     *
+     * @param sql SQL template, with placeholders rather than values
+     * @return Recorder for the template
+     */
+    public Template template(String sql) {
+        Template template = templates.get(sql);
+        if (template != null) {
+            return template;
+        }
+        if (templates.size() >= MAX_TEMPLATES) {
+            return other;
+        }
+        return templates.computeIfAbsent(sql, Template::new);
+    }
+
+    /**
+     * Sets the time a statement may take before it raises a slow query warning.
+     *
+     * @param millis Threshold in milliseconds, 0 to flag every statement or negative to flag none
+     */
+    @Override
+    public void setSlowQueryThresholdMillis(long millis) {
+        slowQueryNanos = millis < 0 ? Long.MAX_VALUE : TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    @Override
+    public long getSlowQueryThresholdMillis() {
+        long nanos = slowQueryNanos;
+        return nanos == Long.MAX_VALUE ? -1 : TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * Sets where warnings go, instead of standard error.
+     *
+     * @param handler Receives every warning, on the thread that raised it
+     */
+    public void setWarningHandler(Consumer<QueryWarning> handler) {
+        warningHandler = handler;
+    }
+
+    /**
+     * Counts a warning and hands it to the warning handler.
+     *
+     * @param warning Warning to raise
+     */
+    public void warn(QueryWarning warning) {
+        warnings.increment();
+        warningHandler.accept(warning);
+    }
+
+    @Override
+    public long getWarningCount() {
+        return warnings.sum();
+    }
+
+    /**
+     * Records the time it took to get a connection.
+     *
+     * @param nanos Elapsed time in nanoseconds
+     */
+    public void recordAcquire(long nanos) {
+        acquireTime.record(nanos);
+    }
+
+    /**
+     * Records a finished logical operation, such as a CLI command.
+     *
+     * @param queries Number of queries the operation issued
+     */
+    public void recordOperation(int queries) {
+        operations.increment();
+        operationQueries.add(queries);
+        maxOperationQueries.accumulate(queries);
+    }
+
+    @Override
+    public long getQueryCount() {
+        long count = other.prepareTime.getCount();
+        for (Template template : templates.values()) {
+            count += template.prepareTime.getCount();
+        }
+        return count;
+    }
+
+    @Override
+    public long getErrorCount() {
+        long count = other.errors.sum();
+        for (Template template : templates.values()) {
+            count += template.errors.sum();
+        }
+        return count;
+    }
+
+    @Override
+    public int getTemplateCount() {
+        return templates.size();
+    }
+
+    @Override
+    public long getOperationCount() {
+        return operations.sum();
+    }
+
+    @Override
+    public double getQueriesPerOperation() {
+        long n = operations.sum();
+        return n == 0 ? 0 : (double) operationQueries.sum() / n;
+    }
+
+    @Override
+    public long getMaxQueriesPerOperation() {
+        return maxOperationQueries.get();
+    }
+
+    @Override
+    public long getAcquireCount() {
+        return acquireTime.getCount();
+    }
+
+    @Override
+    public double getAcquireMeanMicros() {
+        return acquireTime.getMeanMicros();
+    }
+
+    @Override
+    public long getAcquireP99Micros() {
+        return acquireTime.getPercentileMicros(99);
+    }
+
+    @Override
+    public List<QueryStats> getQueries() {
+        List<QueryStats> stats = new ArrayList<>(templates.size() + 1);
+        for (Template template : templates.values()) {
+            stats.add(template.snapshot());
+        }
+        if (other.prepareTime.getCount() > 0) {
+            stats.add(other.snapshot());
+        }
+        stats.sort(Comparator.comparingLong(QueryStats::getTotalMicros).reversed());
+        return stats;
+    }
+
+    /**
+     * Returns a snapshot of a single template.
+     *
+     * @param sql SQL template
+     * @return Statistics of the template, null if it has not been run
+     */
+    public QueryStats getQuery(String sql) {
+        Template template = OTHER_TEMPLATE.equals(sql) ? other : templates.get(sql);
+        return template != null ? template.snapshot() : null;
+    }
+
+    /**
+     * The live counters of a single SQL template.
+     * Statements keep a reference to it, so recording a sample does not need a map lookup.
+     */
+    public final class Template {
+        private final String sql;
+        private final LatencyHistogram prepareTime = new LatencyHistogram();
+        private final LatencyHistogram executeTime = new LatencyHistogram();
+        private final LatencyHistogram iterateTime = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+
+        private Template(String sql) {
+            this.sql = sql;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public void recordPrepare(long nanos) {
+            prepareTime.record(nanos);
+        }
+
+        /**
+         * Records an execution, raising a slow query warning if it took too long.
+         *
+         * @param nanos Elapsed time in nanoseconds
+         * @param parameters Values bound to the statement, or null if they were bound row by row in a batch
+         */
+        public void recordExecute(long nanos, Object[] parameters) {
+            executeTime.record(nanos);
+            if (nanos >= slowQueryNanos) {
+                warn(new QueryWarning(QueryWarning.Kind.SLOW_QUERY, sql, parameters, nanos, 1));
+            }
+        }
+
+        public void recordIterate(long nanos) {
+            iterateTime.record(nanos);
+        }
+
+        /**
+         * Counts an execution that threw.
+         */
+        public void recordError() {
+            errors.increment();
+        }
+
+        private QueryStats snapshot() {
+            return new QueryStats(sql, prepareTime, executeTime, iterateTime, errors.sum());
+        }
+    }
+}
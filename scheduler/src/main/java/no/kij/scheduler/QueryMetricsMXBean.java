@@ -0,0 +1,71 @@
+package no.kij.scheduler;
+
+import java.util.List;
+
+/**
+ * Management interface of {@link QueryMetrics}, as seen by JMX clients such as JConsole.
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public interface QueryMetricsMXBean {
+    /**
+     * @return Statements prepared, over all templates
+     */
+    long getQueryCount();
+
+    /**
+     * @return Executions that threw, over all templates
+     */
+    long getErrorCount();
+
+    /**
+     * @return Number of distinct SQL templates tracked
+     */
+    int getTemplateCount();
+
+    /**
+     * @return Logical operations finished
+     */
+    long getOperationCount();
+
+    /**
+     * @return Mean number of queries issued per logical operation, 0 if none have finished
+     */
+    double getQueriesPerOperation();
+
+    /**
+     * @return Most queries issued by a single logical operation
+     */
+    long getMaxQueriesPerOperation();
+
+    /**
+     * @return Number of connections handed out
+     */
+    long getAcquireCount();
+
+    double getAcquireMeanMicros();
+
+    long getAcquireP99Micros();
+
+    /**
+     * @return Warnings raised for slow queries, repeated queries and blown query budgets
+     */
+    long getWarningCount();
+
+    /**
+     * @return Time a statement may take before it is logged as slow, -1 if no statement is logged
+     */
+    long getSlowQueryThresholdMillis();
+
+    /**
+     * @param millis Time a statement may take before it is logged as slow, 0 to log every statement or negative
+     *               to log none
+     */
+    void setSlowQueryThresholdMillis(long millis);
+
+    /**
+     * @return Statistics of every template, the one with the most time spent first
+     */
+    List<QueryStats> getQueries();
+}
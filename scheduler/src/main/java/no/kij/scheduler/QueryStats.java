@@ -0,0 +1,112 @@
+package no.kij.scheduler;
+
+/**
+ * QueryStats is a point-in-time snapshot of the counters of a single SQL template in {@link QueryMetrics}.
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public class QueryStats {
+    private final String sql;
+    private final long prepareCount;
+    private final long executeCount;
+    private final long errors;
+    private final double prepareMeanMicros;
+    private final double executeMeanMicros;
+    private final long executeP50Micros;
+    private final long executeP99Micros;
+    private final double iterateMeanMicros;
+    private final long iterateP99Micros;
+    private final long totalMicros;
+    private final long[] executeHistogram;
+
+    QueryStats(String sql, LatencyHistogram prepareTime, LatencyHistogram executeTime, LatencyHistogram iterateTime,
+               long errors) {
+        this.sql = sql;
+        this.prepareCount = prepareTime.getCount();
+        this.executeCount = executeTime.getCount();
+        this.errors = errors;
+        this.prepareMeanMicros = prepareTime.getMeanMicros();
+        this.executeMeanMicros = executeTime.getMeanMicros();
+        this.executeP50Micros = executeTime.getPercentileMicros(50);
+        this.executeP99Micros = executeTime.getPercentileMicros(99);
+        this.iterateMeanMicros = iterateTime.getMeanMicros();
+        this.iterateP99Micros = iterateTime.getPercentileMicros(99);
+        this.totalMicros = (prepareTime.getTotalNanos() + executeTime.getTotalNanos() + iterateTime.getTotalNanos())
+                / 1000;
+        this.executeHistogram = executeTime.getBucketCounts();
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * @return Statements prepared for this template, which is the number of times it was issued
+     */
+    public long getPrepareCount() {
+        return prepareCount;
+    }
+
+    /**
+     * @return Times a statement of this template was executed, batches counting once
+     */
+    public long getExecuteCount() {
+        return executeCount;
+    }
+
+    /**
+     * @return Executions that threw
+     */
+    public long getErrors() {
+        return errors;
+    }
+
+    public double getPrepareMeanMicros() {
+        return prepareMeanMicros;
+    }
+
+    public double getExecuteMeanMicros() {
+        return executeMeanMicros;
+    }
+
+    public long getExecuteP50Micros() {
+        return executeP50Micros;
+    }
+
+    public long getExecuteP99Micros() {
+        return executeP99Micros;
+    }
+
+    /**
+     * @return Mean time from the execution returning until the statement was closed
+     */
+    public double getIterateMeanMicros() {
+        return iterateMeanMicros;
+    }
+
+    public long getIterateP99Micros() {
+        return iterateP99Micros;
+    }
+
+    /**
+     * @return Time spent preparing, executing and iterating this template, in microseconds
+     */
+    public long getTotalMicros() {
+        return totalMicros;
+    }
+
+    /**
+     * @return Execution time sample counts, bucketed as described in {@link LatencyHistogram}
+     */
+    public long[] getExecuteHistogram() {
+        return executeHistogram.clone();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("queries=%d executions=%d errors=%d prepare=%.1fus execute=%.1fus p99<%dus iterate=%.1fus %s",
+                prepareCount, executeCount, errors, prepareMeanMicros, executeMeanMicros, executeP99Micros,
+                iterateMeanMicros, sql);
+    }
+}
@@ -0,0 +1,160 @@
+package no.kij.scheduler;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A problem spotted while running the DAOs' queries: a slow statement, the same statement issued over and over by
+ * one logical operation, or an operation going over its query budget.
+ * Warnings are handed to the handler set on {@link QueryMetrics}, which prints them to standard error by default.
+ *
+ * <p>The call site is the first frame of the stack outside of the JDBC plumbing, so it points at the DAO method
+ * issuing the query. The caller is the first frame after it outside of the DAO package, usually the command that
+ * set the operation off.</p>
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public final class QueryWarning {
+    /**
+     * What the warning is about.
+     */
+    public enum Kind {
+        /**
+         * A statement took longer than the slow query threshold.
+         */
+        SLOW_QUERY,
+        /**
+         * A logical operation issued the same statement as many times as the repeat threshold, which is what an
+         * N+1 query pattern looks like.
+         */
+        REPEATED_QUERY,
+        /**
+         * A logical operation issued more queries than its budget.
+         */
+        BUDGET_EXCEEDED
+    }
+
+    private static final String DAO_PACKAGE = "no.kij.scheduler.dao.";
+    private static final Set<String> PLUMBING = new HashSet<>(Arrays.asList(
+            QueryMetrics.class.getName(),
+            QueryWarning.class.getName(),
+            StatementCache.class.getName(),
+            TimedStatement.class.getName(),
+            DAO_PACKAGE + "DAOUtil",
+            DAO_PACKAGE + "Session"
+    ));
+
+    private final Kind kind;
+    private final String sql;
+    private final Object[] parameters;
+    private final long elapsedNanos;
+    private final int count;
+    private final StackTraceElement[] stackTrace;
+
+    /**
+     * Creates a warning for the statement being run by the current thread, taking its call site from the stack.
+     *
+     * @param kind What the warning is about
+     * @param sql SQL template of the statement
+     * @param parameters Values bound to the statement, or null if they were bound row by row in a batch
+     * @param elapsedNanos Time the statement took, 0 if it has not run yet
+     * @param count Number of queries the warning is about, 1 for a slow query
+     */
+    public QueryWarning(Kind kind, String sql, Object[] parameters, long elapsedNanos, int count) {
+        this.kind = kind;
+        this.sql = sql;
+        this.parameters = parameters != null ? parameters.clone() : null;
+        this.elapsedNanos = elapsedNanos;
+        this.count = count;
+        this.stackTrace = trim(new Throwable().getStackTrace());
+    }
+
+    private static StackTraceElement[] trim(StackTraceElement[] frames) {
+        for (int i = 0; i < frames.length; i++) {
+            String className = frames[i].getClassName();
+            int nested = className.indexOf('$');
+            if (className.startsWith("no.kij.scheduler.")
+                    && !PLUMBING.contains(nested < 0 ? className : className.substring(0, nested))) {
+                return Arrays.copyOfRange(frames, i, frames.length);
+            }
+        }
+        return new StackTraceElement[0];
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * @return Copy of the values bound to the statement, null if they were bound row by row in a batch
+     */
+    public Object[] getParameters() {
+        return parameters != null ? parameters.clone() : null;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return Number of queries the warning is about: 1 for a slow query, the number of repeats or the number of
+     * queries issued by the operation so far
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return Frame issuing the query, null if it was not issued from the scheduler's own code
+     */
+    public StackTraceElement getCallSite() {
+        return stackTrace.length > 0 ? stackTrace[0] : null;
+    }
+
+    /**
+     * @return First frame after the call site outside of the DAO package, null if there is none
+     */
+    public StackTraceElement getCaller() {
+        for (int i = 1; i < stackTrace.length; i++) {
+            String className = stackTrace[i].getClassName();
+            if (className.startsWith("no.kij.scheduler.") && !className.startsWith(DAO_PACKAGE)) {
+                return stackTrace[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return Stack of the thread issuing the query, starting at the call site
+     */
+    public StackTraceElement[] getStackTrace() {
+        return stackTrace.clone();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(kind.name());
+        if (elapsedNanos > 0) {
+            sb.append(" elapsed=").append(TimeUnit.NANOSECONDS.toMillis(elapsedNanos)).append("ms");
+        }
+        sb.append(" count=").append(count);
+        sb.append(" sql=\"").append(sql).append('"');
+        sb.append(" parameters=").append(parameters != null ? Arrays.toString(parameters) : "(batch)");
+        StackTraceElement callSite = getCallSite();
+        if (callSite != null) {
+            sb.append(" at ").append(callSite);
+        }
+        StackTraceElement caller = getCaller();
+        if (caller != null) {
+            sb.append(" via ").append(caller);
+        }
+        return sb.toString();
+    }
+}
@@ -2,9 +2,16 @@ package no.kij.scheduler;
 
 import org.apache.commons.io.IOUtils;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Properties;
 
 /**
@@ -38,6 +45,32 @@ public class ResourceFetcher {
         return content;
     }
 
+    /**
+     * Opens the given file for reading without loading it into memory.
+     * A path to a file on the filesystem takes precedence, otherwise the name is looked up in the resources path.
+     *
+     * @param location Path to a file, or name of a resource, file extension inclusive
+     * @return Buffered UTF-8 reader over the file, to be closed by the caller. Returns null if the file is not found
+     * @throws IOException Throws exception if the file exists but can not be opened
+     */
+    public static Reader getReader(String location) throws IOException {
+        Path path = null;
+        try {
+            path = Paths.get(location);
+        } catch (InvalidPathException e) {
+            // not a valid path on this filesystem, so it can only be a resource
+        }
+        if (path != null && Files.isRegularFile(path)) {
+            return Files.newBufferedReader(path, StandardCharsets.UTF_8);
+        }
+
+        InputStream in = ResourceFetcher.class.getClassLoader().getResourceAsStream(location);
+        if (in == null) {
+            return null;
+        }
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
     /**
      * Returns properties file containing the credentials for the database.
      *
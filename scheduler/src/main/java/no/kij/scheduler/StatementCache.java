@@ -0,0 +1,251 @@
+package no.kij.scheduler;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A least recently used cache of prepared statements belonging to a single physical connection.
+ * Statements handed out by the cache look like normal statements, but closing them clears their parameters and
+ * batch, puts back the fetch size, maximum rows and query timeout they were prepared with, and keeps them around
+ * for the next caller preparing the same SQL.
+ *
+ * <p>The cache is owned by a pooled connection and reached through {@code Connection.unwrap(StatementCache.class)}.
+ * Each cache counts its own hits, misses and evictions, and {@link ConnectionPool} sums them over its connections.</p>
+ *
+ * <p>Every statement handed out is the {@link TimedStatement} of its physical statement, which times its executions
+ * and the iteration of their results into the {@link QueryMetrics} template of its SQL. The wrapper and its template
+ * are made once when the statement is first prepared, and reused by every caller leasing it.</p>
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public class StatementCache {
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final Connection connection;
+    private final int capacity;
+    private final LinkedHashMap<Key, CachedStatement> statements;
+
+    /**
+     * Creates a cache for the given physical connection.
+     *
+     * @param connection Physical connection to prepare statements on
+     * @param capacity Maximum number of statements to keep
+     */
+    public StatementCache(Connection connection, int capacity) {
+        this.connection = connection;
+        this.capacity = capacity;
+        this.statements = new LinkedHashMap<Key, CachedStatement>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CachedStatement> eldest) {
+                if (size() > StatementCache.this.capacity) {
+                    evict(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns a prepared statement for the given SQL, reusing a cached one if it is not already in use.
+     *
+     * @param sql SQL to prepare
+     * @param autoGeneratedKeys Statement.RETURN_GENERATED_KEYS or Statement.NO_GENERATED_KEYS
+     * @return Prepared statement, which must be closed by the caller
+     * @throws SQLException If the statement could not be prepared
+     */
+    public TimedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+        return prepare(sql, autoGeneratedKeys, null);
+    }
+
+    /**
+     * Returns a prepared statement for the given SQL, reusing a cached one if it is not already in use.
+     *
+     * @param sql SQL to prepare
+     * @param autoGeneratedKeys Statement.RETURN_GENERATED_KEYS or Statement.NO_GENERATED_KEYS
+     * @param parameters Values the caller binds to the statement, shown if it turns out to be a slow query
+     * @return Prepared statement, which must be closed by the caller
+     * @throws SQLException If the statement could not be prepared
+     */
+    public synchronized TimedStatement prepare(String sql, int autoGeneratedKeys, Object[] parameters)
+            throws SQLException {
+        Key key = new Key(sql, autoGeneratedKeys);
+        CachedStatement cached = statements.get(key);
+        if (cached != null) {
+            if (cached.inUse) {
+                // the same SQL is already open on this connection, so this caller gets a private statement,
+                // leased like a cached one but closed as soon as it is handed back
+                misses.increment();
+                CachedStatement single = new CachedStatement(key, connection.prepareStatement(sql, autoGeneratedKeys));
+                single.evicted = true;
+                single.inUse = true;
+                return single.lease(parameters);
+            }
+            hits.increment();
+        } else {
+            misses.increment();
+            cached = new CachedStatement(key, connection.prepareStatement(sql, autoGeneratedKeys));
+            statements.put(key, cached);
+        }
+        cached.inUse = true;
+        return cached.lease(parameters);
+    }
+
+    /**
+     * Called when a statement handed out by this cache is closed.
+     *
+     * @param cached The statement being handed back
+     */
+    private synchronized void release(CachedStatement cached) {
+        cached.inUse = false;
+        if (cached.evicted) {
+            closeQuietly(cached);
+            return;
+        }
+        try {
+            cached.statement.clearParameters();
+            cached.statement.clearBatch();
+            cached.statement.clearWarnings();
+            if (cached.tuned) {
+                cached.statement.setFetchSize(cached.fetchSize);
+                cached.statement.setMaxRows(cached.maxRows);
+                cached.statement.setQueryTimeout(cached.queryTimeout);
+                cached.tuned = false;
+            }
+        } catch (SQLException e) {
+            statements.remove(cached.key);
+            closeQuietly(cached);
+        }
+    }
+
+    /**
+     * Called when a caller changes the fetch size, maximum rows or query timeout of a statement it leased.
+     *
+     * @param cached The statement being tuned
+     */
+    private synchronized void tuned(CachedStatement cached) {
+        cached.tuned = true;
+    }
+
+    private void evict(CachedStatement cached) {
+        evictions.increment();
+        cached.evicted = true;
+        if (!cached.inUse) {
+            closeQuietly(cached);
+        }
+    }
+
+    private void closeQuietly(CachedStatement cached) {
+        try {
+            cached.statement.close();
+        } catch (SQLException e) {
+            // the statement is being thrown away anyway
+        }
+    }
+
+    /**
+     * @return Number of statements currently cached
+     */
+    public synchronized int size() {
+        return statements.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return Number of times a cached statement was reused
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return Number of times a statement had to be prepared
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return Number of statements pushed out of the full cache
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return Ratio of hits to lookups, 0 if nothing has been looked up yet
+     */
+    public double getHitRate() {
+        long hits = getHitCount();
+        long lookups = hits + getMissCount();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Cache key made from the SQL text and the generated keys mode.
+     */
+    private static final class Key {
+        private final String sql;
+        private final int autoGeneratedKeys;
+
+        private Key(String sql, int autoGeneratedKeys) {
+            this.sql = sql;
+            this.autoGeneratedKeys = autoGeneratedKeys;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return autoGeneratedKeys == other.autoGeneratedKeys && sql.equals(other.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sql, autoGeneratedKeys);
+        }
+    }
+
+    /**
+     * A physical statement owned by the cache, along with the settings it was prepared with and the wrapper
+     * handed out for it.
+     */
+    private final class CachedStatement {
+        private final Key key;
+        private final PreparedStatement statement;
+        private final TimedStatement timed;
+        private final int fetchSize;
+        private final int maxRows;
+        private final int queryTimeout;
+        private boolean inUse;
+        private boolean evicted;
+        // set once a lease changes the fetch size, maximum rows or query timeout, so release can put them back
+        private boolean tuned;
+
+        private CachedStatement(Key key, PreparedStatement statement) throws SQLException {
+            this.key = key;
+            this.statement = statement;
+            this.timed = new TimedStatement(statement, QueryMetrics.global().template(key.sql),
+                    () -> release(this), () -> tuned(this));
+            this.fetchSize = statement.getFetchSize();
+            this.maxRows = statement.getMaxRows();
+            this.queryTimeout = statement.getQueryTimeout();
+        }
+
+        private TimedStatement lease(Object[] parameters) {
+            timed.open(parameters);
+            return timed;
+        }
+    }
+}
@@ -0,0 +1,879 @@
+package no.kij.scheduler;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLType;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+
+/**
+ * A prepared statement that times its executions, and the time from a query returning its results until the
+ * statement is closed, into the {@link QueryMetrics} template of its SQL. Everything else is delegated straight to
+ * the physical statement, so a call costs no reflection and no boxing of its arguments.
+ *
+ * <p>A statement prepared without a cache gets a wrapper of its own, which closes the physical statement when it
+ * is closed. A statement owned by a {@link StatementCache} keeps a single wrapper that is opened again for every
+ * caller leasing it, and closing it hands the statement back to the cache instead. Each opening gets a new lease
+ * number, so a thread cancelling an earlier lease never reaches the statement once it has been reused.</p>
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public final class TimedStatement implements PreparedStatement {
+    private final PreparedStatement statement;
+    private final QueryMetrics.Template metrics;
+    // runs when the statement is closed instead of closing the physical statement, null if it is not cached
+    private final Runnable release;
+    // runs when the fetch size, maximum rows or query timeout is changed, so the cache can put them back
+    private final Runnable tuned;
+    private Object[] parameters;
+    private long resultsSince;
+    // read by threads cancelling the statement without holding its lock
+    private volatile boolean open;
+    private volatile int lease;
+
+    TimedStatement(PreparedStatement statement, QueryMetrics.Template metrics, Runnable release, Runnable tuned) {
+        this.statement = statement;
+        this.metrics = metrics;
+        this.release = release;
+        this.tuned = tuned;
+    }
+
+    /**
+     * Wraps a physical statement prepared without a cache so its executions are recorded.
+     *
+     * @param statement Statement to wrap, closed along with the wrapper
+     * @param metrics Template to record into
+     * @param parameters Values bound to the statement, shown if it turns out to be a slow query
+     * @return Open statement that delegates everything to the given one
+     */
+    public static TimedStatement wrap(PreparedStatement statement, QueryMetrics.Template metrics,
+                                      Object[] parameters) {
+        TimedStatement timed = new TimedStatement(statement, metrics, null, null);
+        timed.open(parameters);
+        return timed;
+    }
+
+    /**
+     * Opens the statement for a new caller, starting a new lease.
+     *
+     * @param parameters Values the caller binds to the statement, shown if it turns out to be a slow query
+     */
+    synchronized void open(Object[] parameters) {
+        this.parameters = parameters;
+        this.resultsSince = 0;
+        this.lease++;
+        this.open = true;
+    }
+
+    /**
+     * @return Number of the current lease, which changes every time the statement is opened
+     */
+    public int getLease() {
+        return lease;
+    }
+
+    /**
+     * Cancels the statement, but only if it is still open under the given lease.
+     *
+     * @param lease Lease the caller registered the statement under
+     * @throws SQLException If the statement could not be cancelled
+     */
+    public synchronized void cancel(int lease) throws SQLException {
+        if (open && this.lease == lease) {
+            statement.cancel();
+        }
+    }
+
+    private PreparedStatement delegate() throws SQLException {
+        if (!open) {
+            throw new SQLException("Statement has already been closed.");
+        }
+        return statement;
+    }
+
+    /**
+     * Records an execution that started at the given time.
+     *
+     * @return The time the execution was recorded at
+     */
+    private long executed(long start) {
+        long end = System.nanoTime();
+        metrics.recordExecute(end - start, parameters);
+        return end;
+    }
+
+    private void failed(long start) {
+        metrics.recordExecute(System.nanoTime() - start, parameters);
+        metrics.recordError();
+    }
+
+    private void tune() {
+        if (tuned != null) {
+            tuned.run();
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        synchronized (this) {
+            if (!open) {
+                return;
+            }
+            open = false;
+        }
+        if (resultsSince != 0) {
+            metrics.recordIterate(System.nanoTime() - resultsSince);
+            resultsSince = 0;
+        }
+        if (release != null) {
+            release.run();
+        } else {
+            statement.close();
+        }
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        return !open || statement.isClosed();
+    }
+
+    @Override
+    public void cancel() throws SQLException {
+        delegate().cancel();
+    }
+
+    @Override
+    public void setFetchSize(int rows) throws SQLException {
+        delegate().setFetchSize(rows);
+        tune();
+    }
+
+    @Override
+    public void setMaxRows(int max) throws SQLException {
+        delegate().setMaxRows(max);
+        tune();
+    }
+
+    @Override
+    public void setLargeMaxRows(long max) throws SQLException {
+        delegate().setLargeMaxRows(max);
+        tune();
+    }
+
+    @Override
+    public void setQueryTimeout(int seconds) throws SQLException {
+        delegate().setQueryTimeout(seconds);
+        tune();
+    }
+
+    @Override
+    public ResultSet executeQuery() throws SQLException {
+        PreparedStatement stmt = delegate();
+        long start = System.nanoTime();
+        try {
+            ResultSet rs = stmt.executeQuery();
+            resultsSince = executed(start);
+            return rs;
+        } catch (SQLException | RuntimeException e) {
+            failed(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public int executeUpdate() throws SQLException {
+        PreparedStatement stmt = delegate();
+        long start = System.nanoTime();
+        try {
+            int count = stmt.executeUpdate();
+            executed(start);
+            return count;
+        } catch (SQLException | RuntimeException e) {
+            failed(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public long executeLargeUpdate() throws SQLException {
+        PreparedStatement stmt = delegate();
+        long start = System.nanoTime();
+        try {
+            long count = stmt.executeLargeUpdate();
+            executed(start);
+            return count;
+        } catch (SQLException | RuntimeException e) {
+            failed(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean execute() throws SQLException {
+        PreparedStatement stmt = delegate();
+        long start = System.nanoTime();
+        try {
+            boolean hasResultSet = stmt.execute();
+            executed(start);
+            return hasResultSet;
+        } catch (SQLException | RuntimeException e) {
+            failed(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public int[] executeBatch() throws SQLException {
+        PreparedStatement stmt = delegate();
+        long start = System.nanoTime();
+        try {
+            int[] counts = stmt.executeBatch();
+            executed(start);
+            return counts;
+        } catch (SQLException | RuntimeException e) {
+            failed(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public long[] executeLargeBatch() throws SQLException {
+        PreparedStatement stmt = delegate();
+        long start = System.nanoTime();
+        try {
+            long[] counts = stmt.executeLargeBatch();
+            executed(start);
+            return counts;
+        } catch (SQLException | RuntimeException e) {
+            failed(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public ResultSet executeQuery(String sql) throws SQLException {
+        PreparedStatement stmt = delegate();
+        long start = System.nanoTime();
+        try {
+            ResultSet rs = stmt.executeQuery(sql);
+            resultsSince = executed(start);
+            return rs;
+        } catch (SQLException | RuntimeException e) {
+            failed(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public int executeUpdate(String sql) throws SQLException {
+        PreparedStatement stmt = delegate();
+        long start = System.nanoTime();
+        try {
+            int count = stmt.executeUpdate(sql);
+            executed(start);
+            return count;
+        } catch (SQLException | RuntimeException e) {
+            failed(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+        PreparedStatement stmt = delegate();
+        long start = System.nanoTime();
+        try {
+            int count = stmt.executeUpdate(sql, autoGeneratedKeys);
+            executed(start);
+            return count;
+        } catch (SQLException | RuntimeException e) {
+            failed(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+        PreparedStatement stmt = delegate();
+        long start = System.nanoTime();
+        try {
+            int count = stmt.executeUpdate(sql, columnIndexes);
+            executed(start);
+            return count;
+        } catch (SQLException | RuntimeException e) {
+            failed(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+        PreparedStatement stmt = delegate();
+        long start = System.nanoTime();
+        try {
+            int count = stmt.executeUpdate(sql, columnNames);
+            executed(start);
+            return count;
+        } catch (SQLException | RuntimeException e) {
+            failed(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql) throws SQLException {
+        PreparedStatement stmt = delegate();
+        long start = System.nanoTime();
+        try {
+            long count = stmt.executeLargeUpdate(sql);
+            executed(start);
+            return count;
+        } catch (SQLException | RuntimeException e) {
+            failed(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+        PreparedStatement stmt = delegate();
+        long start = System.nanoTime();
+        try {
+            long count = stmt.executeLargeUpdate(sql, autoGeneratedKeys);
+            executed(start);
+            return count;
+        } catch (SQLException | RuntimeException e) {
+            failed(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql, int[] columnIndexes) throws SQLException {
+        PreparedStatement stmt = delegate();
+        long start = System.nanoTime();
+        try {
+            long count = stmt.executeLargeUpdate(sql, columnIndexes);
+            executed(start);
+            return count;
+        } catch (SQLException | RuntimeException e) {
+            failed(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql, String[] columnNames) throws SQLException {
+        PreparedStatement stmt = delegate();
+        long start = System.nanoTime();
+        try {
+            long count = stmt.executeLargeUpdate(sql, columnNames);
+            executed(start);
+            return count;
+        } catch (SQLException | RuntimeException e) {
+            failed(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean execute(String sql) throws SQLException {
+        PreparedStatement stmt = delegate();
+        long start = System.nanoTime();
+        try {
+            boolean hasResultSet = stmt.execute(sql);
+            executed(start);
+            return hasResultSet;
+        } catch (SQLException | RuntimeException e) {
+            failed(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+        PreparedStatement stmt = delegate();
+        long start = System.nanoTime();
+        try {
+            boolean hasResultSet = stmt.execute(sql, autoGeneratedKeys);
+            executed(start);
+            return hasResultSet;
+        } catch (SQLException | RuntimeException e) {
+            failed(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+        PreparedStatement stmt = delegate();
+        long start = System.nanoTime();
+        try {
+            boolean hasResultSet = stmt.execute(sql, columnIndexes);
+            executed(start);
+            return hasResultSet;
+        } catch (SQLException | RuntimeException e) {
+            failed(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean execute(String sql, String[] columnNames) throws SQLException {
+        PreparedStatement stmt = delegate();
+        long start = System.nanoTime();
+        try {
+            boolean hasResultSet = stmt.execute(sql, columnNames);
+            executed(start);
+            return hasResultSet;
+        } catch (SQLException | RuntimeException e) {
+            failed(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public void addBatch(String sql) throws SQLException {
+        delegate().addBatch(sql);
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        delegate().clearBatch();
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+        delegate().clearWarnings();
+    }
+
+    @Override
+    public void closeOnCompletion() throws SQLException {
+        delegate().closeOnCompletion();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return delegate().getConnection();
+    }
+
+    @Override
+    public int getFetchDirection() throws SQLException {
+        return delegate().getFetchDirection();
+    }
+
+    @Override
+    public int getFetchSize() throws SQLException {
+        return delegate().getFetchSize();
+    }
+
+    @Override
+    public ResultSet getGeneratedKeys() throws SQLException {
+        return delegate().getGeneratedKeys();
+    }
+
+    @Override
+    public long getLargeMaxRows() throws SQLException {
+        return delegate().getLargeMaxRows();
+    }
+
+    @Override
+    public long getLargeUpdateCount() throws SQLException {
+        return delegate().getLargeUpdateCount();
+    }
+
+    @Override
+    public int getMaxFieldSize() throws SQLException {
+        return delegate().getMaxFieldSize();
+    }
+
+    @Override
+    public int getMaxRows() throws SQLException {
+        return delegate().getMaxRows();
+    }
+
+    @Override
+    public boolean getMoreResults() throws SQLException {
+        return delegate().getMoreResults();
+    }
+
+    @Override
+    public boolean getMoreResults(int current) throws SQLException {
+        return delegate().getMoreResults(current);
+    }
+
+    @Override
+    public int getQueryTimeout() throws SQLException {
+        return delegate().getQueryTimeout();
+    }
+
+    @Override
+    public ResultSet getResultSet() throws SQLException {
+        return delegate().getResultSet();
+    }
+
+    @Override
+    public int getResultSetConcurrency() throws SQLException {
+        return delegate().getResultSetConcurrency();
+    }
+
+    @Override
+    public int getResultSetHoldability() throws SQLException {
+        return delegate().getResultSetHoldability();
+    }
+
+    @Override
+    public int getResultSetType() throws SQLException {
+        return delegate().getResultSetType();
+    }
+
+    @Override
+    public int getUpdateCount() throws SQLException {
+        return delegate().getUpdateCount();
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        return delegate().getWarnings();
+    }
+
+    @Override
+    public boolean isCloseOnCompletion() throws SQLException {
+        return delegate().isCloseOnCompletion();
+    }
+
+    @Override
+    public boolean isPoolable() throws SQLException {
+        return delegate().isPoolable();
+    }
+
+    @Override
+    public void setCursorName(String name) throws SQLException {
+        delegate().setCursorName(name);
+    }
+
+    @Override
+    public void setEscapeProcessing(boolean enable) throws SQLException {
+        delegate().setEscapeProcessing(enable);
+    }
+
+    @Override
+    public void setFetchDirection(int direction) throws SQLException {
+        delegate().setFetchDirection(direction);
+    }
+
+    @Override
+    public void setMaxFieldSize(int max) throws SQLException {
+        delegate().setMaxFieldSize(max);
+    }
+
+    @Override
+    public void setPoolable(boolean poolable) throws SQLException {
+        delegate().setPoolable(poolable);
+    }
+
+    @Override
+    public void addBatch() throws SQLException {
+        delegate().addBatch();
+    }
+
+    @Override
+    public void clearParameters() throws SQLException {
+        delegate().clearParameters();
+    }
+
+    @Override
+    public ResultSetMetaData getMetaData() throws SQLException {
+        return delegate().getMetaData();
+    }
+
+    @Override
+    public ParameterMetaData getParameterMetaData() throws SQLException {
+        return delegate().getParameterMetaData();
+    }
+
+    @Override
+    public void setArray(int parameterIndex, Array x) throws SQLException {
+        delegate().setArray(parameterIndex, x);
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x) throws SQLException {
+        delegate().setAsciiStream(parameterIndex, x);
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        delegate().setAsciiStream(parameterIndex, x, length);
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, long length) throws SQLException {
+        delegate().setAsciiStream(parameterIndex, x, length);
+    }
+
+    @Override
+    public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
+        delegate().setBigDecimal(parameterIndex, x);
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x) throws SQLException {
+        delegate().setBinaryStream(parameterIndex, x);
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        delegate().setBinaryStream(parameterIndex, x, length);
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, long length) throws SQLException {
+        delegate().setBinaryStream(parameterIndex, x, length);
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, InputStream x) throws SQLException {
+        delegate().setBlob(parameterIndex, x);
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, Blob x) throws SQLException {
+        delegate().setBlob(parameterIndex, x);
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, InputStream x, long length) throws SQLException {
+        delegate().setBlob(parameterIndex, x, length);
+    }
+
+    @Override
+    public void setBoolean(int parameterIndex, boolean x) throws SQLException {
+        delegate().setBoolean(parameterIndex, x);
+    }
+
+    @Override
+    public void setByte(int parameterIndex, byte x) throws SQLException {
+        delegate().setByte(parameterIndex, x);
+    }
+
+    @Override
+    public void setBytes(int parameterIndex, byte[] x) throws SQLException {
+        delegate().setBytes(parameterIndex, x);
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader) throws SQLException {
+        delegate().setCharacterStream(parameterIndex, reader);
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader, int length) throws SQLException {
+        delegate().setCharacterStream(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader, long length) throws SQLException {
+        delegate().setCharacterStream(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Reader reader) throws SQLException {
+        delegate().setClob(parameterIndex, reader);
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Clob x) throws SQLException {
+        delegate().setClob(parameterIndex, x);
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Reader reader, long length) throws SQLException {
+        delegate().setClob(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x) throws SQLException {
+        delegate().setDate(parameterIndex, x);
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x, Calendar cal) throws SQLException {
+        delegate().setDate(parameterIndex, x, cal);
+    }
+
+    @Override
+    public void setDouble(int parameterIndex, double x) throws SQLException {
+        delegate().setDouble(parameterIndex, x);
+    }
+
+    @Override
+    public void setFloat(int parameterIndex, float x) throws SQLException {
+        delegate().setFloat(parameterIndex, x);
+    }
+
+    @Override
+    public void setInt(int parameterIndex, int x) throws SQLException {
+        delegate().setInt(parameterIndex, x);
+    }
+
+    @Override
+    public void setLong(int parameterIndex, long x) throws SQLException {
+        delegate().setLong(parameterIndex, x);
+    }
+
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader reader) throws SQLException {
+        delegate().setNCharacterStream(parameterIndex, reader);
+    }
+
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader reader, long length) throws SQLException {
+        delegate().setNCharacterStream(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, Reader reader) throws SQLException {
+        delegate().setNClob(parameterIndex, reader);
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, NClob x) throws SQLException {
+        delegate().setNClob(parameterIndex, x);
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, Reader reader, long length) throws SQLException {
+        delegate().setNClob(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setNString(int parameterIndex, String x) throws SQLException {
+        delegate().setNString(parameterIndex, x);
+    }
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType) throws SQLException {
+        delegate().setNull(parameterIndex, sqlType);
+    }
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType, String typeName) throws SQLException {
+        delegate().setNull(parameterIndex, sqlType, typeName);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x) throws SQLException {
+        delegate().setObject(parameterIndex, x);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType) throws SQLException {
+        delegate().setObject(parameterIndex, x, targetSqlType);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, SQLType targetSqlType) throws SQLException {
+        delegate().setObject(parameterIndex, x, targetSqlType);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType, int scaleOrLength) throws SQLException {
+        delegate().setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, SQLType targetSqlType, int scaleOrLength) throws SQLException {
+        delegate().setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+    }
+
+    @Override
+    public void setRef(int parameterIndex, Ref x) throws SQLException {
+        delegate().setRef(parameterIndex, x);
+    }
+
+    @Override
+    public void setRowId(int parameterIndex, RowId x) throws SQLException {
+        delegate().setRowId(parameterIndex, x);
+    }
+
+    @Override
+    public void setSQLXML(int parameterIndex, SQLXML x) throws SQLException {
+        delegate().setSQLXML(parameterIndex, x);
+    }
+
+    @Override
+    public void setShort(int parameterIndex, short x) throws SQLException {
+        delegate().setShort(parameterIndex, x);
+    }
+
+    @Override
+    public void setString(int parameterIndex, String x) throws SQLException {
+        delegate().setString(parameterIndex, x);
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x) throws SQLException {
+        delegate().setTime(parameterIndex, x);
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x, Calendar cal) throws SQLException {
+        delegate().setTime(parameterIndex, x, cal);
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x) throws SQLException {
+        delegate().setTimestamp(parameterIndex, x);
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x, Calendar cal) throws SQLException {
+        delegate().setTimestamp(parameterIndex, x, cal);
+    }
+
+    @Override
+    public void setURL(int parameterIndex, URL x) throws SQLException {
+        delegate().setURL(parameterIndex, x);
+    }
+
+    @Override
+    @Deprecated
+    public void setUnicodeStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        delegate().setUnicodeStream(parameterIndex, x, length);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? iface.cast(this) : statement.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || statement.isWrapperFor(iface);
+    }
+
+    @Override
+    public String toString() {
+        return "Timed" + statement;
+    }
+}
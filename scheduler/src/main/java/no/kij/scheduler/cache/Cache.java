@@ -0,0 +1,253 @@
+package no.kij.scheduler.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * A size-bounded, read-through cache with least recently used eviction and time-to-live expiry.
+ * Misses are cached as well (negative caching), with their own, usually shorter, time to live.
+ *
+ * <p>The cache is split into segments that are locked independently, so concurrent readers only contend
+ * when they hit the same segment. Values are copied on the way in and on the way out with the given copier,
+ * which means callers can never corrupt the cached instance through an alias.</p>
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public class Cache<K, V> {
+    private static final int SEGMENTS = 16;
+    private static final Object MISSING = new Object();
+
+    private final Segment[] segments;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final UnaryOperator<V> copier;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maximumSize Maximum number of entries, including cached misses
+     * @param ttlMillis How long a value stays fresh, in milliseconds
+     * @param negativeTtlMillis How long a miss stays cached, in milliseconds, 0 to not cache misses
+     * @param copier Makes a defensive copy of a value
+     */
+    public Cache(int maximumSize, long ttlMillis, long negativeTtlMillis, UnaryOperator<V> copier) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum cache size must be at least 1.");
+        }
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.negativeTtlNanos = TimeUnit.MILLISECONDS.toNanos(negativeTtlMillis);
+        this.copier = copier;
+        int segmentCount = Math.min(SEGMENTS, maximumSize);
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            // spread the capacity so the segments add up to the requested maximum size
+            int capacity = maximumSize / segmentCount + (i < maximumSize % segmentCount ? 1 : 0);
+            segments[i] = new Segment(capacity, evictions);
+        }
+    }
+
+    /**
+     * Returns the cached value for the key, loading and caching it on a miss.
+     * A null from the loader is cached as a miss.
+     *
+     * @param key Key to look up
+     * @param loader Loads the value from the backing store
+     * @return Copy of the value, or null if the backing store has none
+     */
+    @SuppressWarnings("unchecked")
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        Segment segment = segmentFor(key);
+        Object cached = segment.get(key);
+        if (cached == MISSING) {
+            negativeHits.increment();
+            return null;
+        }
+        if (cached != null) {
+            hits.increment();
+            return copier.apply((V) cached);
+        }
+
+        misses.increment();
+        long generation = invalidations.get();
+        V value = loader.apply(key);
+        if (value != null) {
+            putIfCurrent(segment, key, copier.apply(value), ttlNanos, generation);
+            return value;
+        }
+        if (negativeTtlNanos > 0) {
+            putIfCurrent(segment, key, MISSING, negativeTtlNanos, generation);
+        }
+        return null;
+    }
+
+    /**
+     * Caches a loaded value unless something was invalidated since the load started, in which case what was
+     * loaded may already be stale. The check and the put happen under the segment lock, and invalidations bump
+     * the generation before they take that lock, so an invalidation can not slip in between the two.
+     */
+    private void putIfCurrent(Segment segment, Object key, Object value, long ttl, long generation) {
+        segment.lock.lock();
+        try {
+            if (generation == invalidations.get()) {
+                segment.put(key, value, ttl);
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * Puts a value in the cache, replacing whatever was cached for the key.
+     *
+     * @param key Key of the value
+     * @param value Value to cache, a copy is stored
+     */
+    public void put(K key, V value) {
+        segmentFor(key).put(key, copier.apply(value), ttlNanos);
+    }
+
+    /**
+     * Removes the cached value or cached miss for the key.
+     *
+     * @param key Key to invalidate
+     */
+    public void invalidate(K key) {
+        invalidations.incrementAndGet();
+        segmentFor(key).remove(key);
+    }
+
+    /**
+     * Removes every entry from the cache.
+     */
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * @return Number of entries currently held, including cached misses and expired entries not yet purged
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * @return Snapshot of the hit, miss and eviction counters
+     */
+    public CacheStats getStats() {
+        return new CacheStats(hits.sum(), negativeHits.sum(), misses.sum(), evictions.sum(), size());
+    }
+
+    private Segment segmentFor(Object key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return segments[(hash & Integer.MAX_VALUE) % segments.length];
+    }
+
+    /**
+     * A cached value with the time it expires.
+     */
+    private static final class CacheEntry {
+        private final Object value;
+        private final long expiresAt;
+
+        private CacheEntry(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * An independently locked part of the cache, kept in access order.
+     */
+    private static final class Segment {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<Object, CacheEntry> entries;
+
+        private Segment(final int capacity, final LongAdder evictions) {
+            this.entries = new LinkedHashMap<Object, CacheEntry>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Object, CacheEntry> eldest) {
+                    if (size() > capacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        private Object get(Object key) {
+            lock.lock();
+            try {
+                CacheEntry entry = entries.get(key);
+                if (entry == null) {
+                    return null;
+                }
+                if (System.nanoTime() - entry.expiresAt >= 0) {
+                    entries.remove(key);
+                    return null;
+                }
+                return entry.value;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void put(Object key, Object value, long ttl) {
+            lock.lock();
+            try {
+                entries.put(key, new CacheEntry(value, System.nanoTime() + ttl));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void remove(Object key) {
+            lock.lock();
+            try {
+                entries.remove(key);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void clear() {
+            lock.lock();
+            try {
+                entries.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private int size() {
+            lock.lock();
+            try {
+                return entries.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package no.kij.scheduler.cache;
+
+/**
+ * CacheStats is a point-in-time snapshot of the counters of a {@link Cache}.
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public class CacheStats {
+    private final long hits;
+    private final long negativeHits;
+    private final long misses;
+    private final long evictions;
+    private final int size;
+
+    public CacheStats(long hits, long negativeHits, long misses, long evictions, int size) {
+        this.hits = hits;
+        this.negativeHits = negativeHits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.size = size;
+    }
+
+    /**
+     * @return Lookups answered with a cached value
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return Lookups answered with a cached miss
+     */
+    public long getNegativeHits() {
+        return negativeHits;
+    }
+
+    /**
+     * @return Lookups that had to go to the backing store
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return Ratio of lookups answered by the cache, cached misses included, 0 if nothing was looked up
+     */
+    public double getHitRate() {
+        long answered = hits + negativeHits;
+        long lookups = answered + misses;
+        return lookups == 0 ? 0 : (double) answered / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits=%d negativeHits=%d misses=%d evictions=%d size=%d hitRate=%.1f%%",
+                hits, negativeHits, misses, evictions, size, getHitRate() * 100);
+    }
+}
@@ -0,0 +1,208 @@
+package no.kij.scheduler.dao;
+
+import no.kij.scheduler.dto.LecturerDTO;
+import no.kij.scheduler.dto.RoomDTO;
+import no.kij.scheduler.dto.SubjectDTO;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AsyncDAO runs calls to the lecturer, subject and room DAOs on a bounded pool of worker threads, so independent
+ * lookups can run at the same time. Size the pool to the connection pool, since every running call holds a
+ * connection.
+ *
+ * <p>Cancelling a returned future, or letting it time out, cancels the statement it is running on the database.
+ * Calls run outside of the caller's {@link Session}, so every call loads its rows from the cache or database, but
+ * their queries count against it, with its query budget and repeat threshold.</p>
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public class AsyncDAO implements AutoCloseable {
+    private final LecturerRepository lecturerDAO;
+    private final SubjectRepository subjectDAO;
+    private final RoomRepository roomDAO;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledThreadPoolExecutor timer;
+    private final long timeoutMillis;
+
+    /**
+     * Creates the facade and starts its worker threads.
+     *
+     * @param lecturerDAO DAO to run lecturer calls on
+     * @param subjectDAO DAO to run subject calls on
+     * @param roomDAO DAO to run room calls on
+     * @param threads Number of worker threads, usually the maximum size of the connection pool
+     * @param queueSize Number of calls that can wait for a worker before new calls are rejected
+     * @param timeoutMillis Time a call may take before it is cancelled, 0 for no limit
+     */
+    public AsyncDAO(LecturerRepository lecturerDAO, SubjectRepository subjectDAO, RoomRepository roomDAO,
+                    int threads, int queueSize, long timeoutMillis) {
+        if (threads < 1 || queueSize < 1 || timeoutMillis < 0) {
+            throw new IllegalArgumentException("Async DAO needs at least one thread and room for one queued call.");
+        }
+        this.lecturerDAO = lecturerDAO;
+        this.subjectDAO = subjectDAO;
+        this.roomDAO = roomDAO;
+        this.timeoutMillis = timeoutMillis;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), daemonThreads("dao-async"));
+        this.timer = new ScheduledThreadPoolExecutor(1, daemonThreads("dao-async-timeout"));
+        this.timer.setRemoveOnCancelPolicy(true);
+    }
+
+    public CompletableFuture<LecturerDTO> findLecturer(int id) {
+        return submit(() -> lecturerDAO.find(id));
+    }
+
+    public CompletableFuture<LecturerDTO> findLecturer(String name) {
+        return submit(() -> lecturerDAO.find(name));
+    }
+
+    public CompletableFuture<List<LecturerDTO>> listLecturers() {
+        return submit(lecturerDAO::list);
+    }
+
+    /**
+     * Persists the lecturer, completing with the same lecturer once its ID is set.
+     */
+    public CompletableFuture<LecturerDTO> createLecturer(LecturerDTO lecturerDTO) {
+        return submit(() -> {
+            lecturerDAO.create(lecturerDTO);
+            return lecturerDTO;
+        });
+    }
+
+    public CompletableFuture<SubjectDTO> findSubject(int id) {
+        return submit(() -> subjectDAO.find(id));
+    }
+
+    public CompletableFuture<SubjectDTO> findSubject(String subjectName) {
+        return submit(() -> subjectDAO.find(subjectName));
+    }
+
+    /**
+     * Finds the subjects the given lecturer teaches.
+     */
+    public CompletableFuture<List<SubjectDTO>> findSubjects(LecturerDTO lecturerDTO) {
+        return submit(() -> subjectDAO.findSubject(lecturerDTO));
+    }
+
+    /**
+     * Finds the subjects of each of the given lecturers, as a single call.
+     */
+    public CompletableFuture<Map<Integer, List<SubjectDTO>>> findSubjects(List<LecturerDTO> lecturerDTOs) {
+        return submit(() -> subjectDAO.findSubjects(lecturerDTOs));
+    }
+
+    public CompletableFuture<List<SubjectDTO>> listSubjects() {
+        return submit(subjectDAO::list);
+    }
+
+    /**
+     * Persists the subject, completing with the same subject once its ID is set.
+     */
+    public CompletableFuture<SubjectDTO> createSubject(SubjectDTO subjectDTO) {
+        return submit(() -> {
+            subjectDAO.create(subjectDTO);
+            return subjectDTO;
+        });
+    }
+
+    public CompletableFuture<RoomDTO> findRoom(String name) {
+        return submit(() -> roomDAO.find(name));
+    }
+
+    public CompletableFuture<List<RoomDTO>> listRooms() {
+        return submit(roomDAO::list);
+    }
+
+    /**
+     * Persists the room, completing with the same room once its ID is set.
+     */
+    public CompletableFuture<RoomDTO> createRoom(RoomDTO roomDTO) {
+        return submit(() -> {
+            roomDAO.create(roomDTO);
+            return roomDTO;
+        });
+    }
+
+    /**
+     * Runs a call on a worker thread, counting its queries against the caller's session.
+     *
+     * @param call The DAO call
+     * @return Future completed with the result of the call, or exceptionally with a {@link TimeoutException}
+     * if it took too long, or a {@link RejectedExecutionException} if the queue was full
+     */
+    private <T> CompletableFuture<T> submit(Callable<T> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        QueryContext context = new QueryContext();
+        Future<?> task;
+        try {
+            task = executor.submit(() -> {
+                if (result.isDone()) {
+                    return;
+                }
+                context.bind();
+                try {
+                    result.complete(call.call());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    context.finish();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+
+        ScheduledFuture<?> timeout = timeoutMillis > 0
+                ? timer.schedule(() -> result.completeExceptionally(
+                        new TimeoutException("DAO call did not finish within " + timeoutMillis + " ms.")),
+                        timeoutMillis, TimeUnit.MILLISECONDS)
+                : null;
+        result.whenComplete((value, e) -> {
+            if (timeout != null) {
+                timeout.cancel(false);
+            }
+            if (e != null) {
+                // cancelled or timed out before the call finished, so stop whatever it is running
+                context.cancel();
+                task.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Stops the worker threads, letting the calls already submitted finish.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        timer.shutdownNow();
+    }
+}
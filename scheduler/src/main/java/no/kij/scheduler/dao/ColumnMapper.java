@@ -0,0 +1,60 @@
+package no.kij.scheduler.dao;
+
+import no.kij.scheduler.dao.DAOUtil.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps rows to objects by column index instead of by label.
+ * The labels are looked up once per result set with {@link #bind(ResultSet)}, and every row after that is read
+ * by index, so the driver does not have to search the columns by name for every value of every row.
+ *
+ * <p>A mapper holds no state of its own, so one instance can be shared by every query selecting its columns.</p>
+ *
+ * @author Kissor Jeyabalan
+ * @see RowMappers
+ * @since 1.1
+ */
+public final class ColumnMapper<T> {
+    /**
+     * Maps the current row of a result set to an object, given the indices of the mapper's columns.
+     */
+    @FunctionalInterface
+    public interface IndexedMapper<T> {
+        /**
+         * @param rs Result set positioned at a row
+         * @param columns Index of each column, in the order the labels were given to the mapper
+         * @return The mapped row
+         * @throws SQLException If a column could not be read
+         */
+        T map(ResultSet rs, int[] columns) throws SQLException;
+    }
+
+    private final String[] labels;
+    private final IndexedMapper<T> mapper;
+
+    /**
+     * @param mapper Maps a row, reading the columns by the indices it is given
+     * @param labels Labels of the columns the mapper reads
+     */
+    public ColumnMapper(IndexedMapper<T> mapper, String... labels) {
+        this.mapper = mapper;
+        this.labels = labels.clone();
+    }
+
+    /**
+     * Resolves the columns of the given result set.
+     *
+     * @param rs Result set holding every column of the mapper
+     * @return Row mapper for the rows of that result set
+     * @throws SQLException If a column is missing from the result set
+     */
+    public RowMapper<T> bind(ResultSet rs) throws SQLException {
+        int[] columns = new int[labels.length];
+        for (int i = 0; i < labels.length; i++) {
+            columns[i] = rs.findColumn(labels[i]);
+        }
+        return row -> mapper.map(row, columns);
+    }
+}
@@ -0,0 +1,111 @@
+package no.kij.scheduler.dao;
+
+import no.kij.scheduler.cache.Cache;
+import no.kij.scheduler.cache.CacheStats;
+import no.kij.scheduler.dto.LecturerDTO;
+import no.kij.scheduler.dto.RoomDTO;
+import no.kij.scheduler.dto.SubjectDTO;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.UnaryOperator;
+
+/**
+ * DAOCache is the shared second-level cache in front of the lecturer, subject and room DAOs.
+ * One instance is meant to be shared by every DAO talking to the same database, so that a write through
+ * one DAO invalidates what the others have cached.
+ *
+ * @author Kissor Jeyabalan
+ * @see Cache
+ * @since 1.1
+ */
+public class DAOCache {
+    static final String ALL = "all";
+
+    final Cache<Integer, LecturerDTO> lecturersById;
+    final Cache<String, LecturerDTO> lecturersByName;
+    final Cache<String, List<LecturerDTO>> lecturerLists;
+    final Cache<Integer, SubjectDTO> subjectsById;
+    final Cache<String, SubjectDTO> subjectsBySearch;
+    final Cache<String, List<SubjectDTO>> subjectLists;
+    final Cache<String, RoomDTO> roomsByName;
+    final Cache<String, List<RoomDTO>> roomLists;
+
+    /**
+     * Creates the caches.
+     *
+     * @param maximumSize Maximum number of entries per cache
+     * @param ttlMillis How long a cached row stays fresh, in milliseconds
+     * @param negativeTtlMillis How long a lookup that found nothing stays cached, in milliseconds
+     */
+    public DAOCache(int maximumSize, long ttlMillis, long negativeTtlMillis) {
+        lecturersById = new Cache<>(maximumSize, ttlMillis, negativeTtlMillis, LecturerDTO::new);
+        lecturersByName = new Cache<>(maximumSize, ttlMillis, negativeTtlMillis, LecturerDTO::new);
+        lecturerLists = new Cache<>(1, ttlMillis, 0, listCopier(LecturerDTO::new));
+        subjectsById = new Cache<>(maximumSize, ttlMillis, negativeTtlMillis, SubjectDTO::new);
+        subjectsBySearch = new Cache<>(maximumSize, ttlMillis, negativeTtlMillis, SubjectDTO::new);
+        subjectLists = new Cache<>(1, ttlMillis, 0, listCopier(SubjectDTO::new));
+        roomsByName = new Cache<>(maximumSize, ttlMillis, negativeTtlMillis, RoomDTO::new);
+        roomLists = new Cache<>(1, ttlMillis, 0, listCopier(RoomDTO::new));
+    }
+
+    /**
+     * Creates the caches from the "cache_" keys in the given properties, using defaults for any missing keys.
+     *
+     * @param props Properties to read the settings from
+     * @return DAOCache with the given settings, or null if "cache_enabled" is not true
+     */
+    public static DAOCache fromProperties(Properties props) {
+        if (!Boolean.parseBoolean(props.getProperty("cache_enabled", "false"))) {
+            return null;
+        }
+        return new DAOCache(
+                Integer.parseInt(props.getProperty("cache_max_size", "10000")),
+                Long.parseLong(props.getProperty("cache_ttl_ms", "60000")),
+                Long.parseLong(props.getProperty("cache_negative_ttl_ms", "5000"))
+        );
+    }
+
+    private static <T> UnaryOperator<List<T>> listCopier(UnaryOperator<T> copier) {
+        return list -> {
+            List<T> copy = new ArrayList<>(list.size());
+            for (T item : list) {
+                copy.add(copier.apply(item));
+            }
+            return copy;
+        };
+    }
+
+    /**
+     * Empties every cache.
+     */
+    public void invalidateAll() {
+        lecturersById.invalidateAll();
+        lecturersByName.invalidateAll();
+        lecturerLists.invalidateAll();
+        subjectsById.invalidateAll();
+        subjectsBySearch.invalidateAll();
+        subjectLists.invalidateAll();
+        roomsByName.invalidateAll();
+        roomLists.invalidateAll();
+    }
+
+    /**
+     * @return Statistics for each cache, by name
+     */
+    public Map<String, CacheStats> getStats() {
+        Map<String, CacheStats> stats = new LinkedHashMap<>();
+        stats.put("lecturer by id", lecturersById.getStats());
+        stats.put("lecturer by name", lecturersByName.getStats());
+        stats.put("lecturer list", lecturerLists.getStats());
+        stats.put("subject by id", subjectsById.getStats());
+        stats.put("subject by search", subjectsBySearch.getStats());
+        stats.put("subject list", subjectLists.getStats());
+        stats.put("room by name", roomsByName.getStats());
+        stats.put("room list", roomLists.getStats());
+        return stats;
+    }
+}
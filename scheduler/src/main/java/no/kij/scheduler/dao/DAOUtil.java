@@ -0,0 +1,490 @@
+package no.kij.scheduler.dao;
+
+import no.kij.scheduler.QueryMetrics;
+import no.kij.scheduler.StatementCache;
+import no.kij.scheduler.TimedStatement;
+import no.kij.scheduler.index.TrigramIndex;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * This class exclusively contains static methods to be used by the DAO classes when doing SQL operations.
+ * Every statement goes through it, so it is also where the statements are timed and counted in {@link QueryMetrics},
+ * and where slow queries, repeated queries and operations going over their query budget are flagged.
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.0
+ */
+public class DAOUtil {
+    /**
+     * Maximum number of values put into a single IN list, so huge id sets stay well below the packet limit.
+     */
+    public static final int IN_LIST_CHUNK_SIZE = 500;
+
+    /**
+     * Number of rows sent to the database per JDBC batch when no batch size is given.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    /**
+     * Fetch size that makes MySQL stream a result set one row at a time instead of reading all of it into memory.
+     */
+    public static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    /**
+     * Number of streamed rows whose details are loaded together.
+     */
+    public static final int STREAM_BATCH_SIZE = 100;
+
+    /**
+     * Maps the current row of a result set to an object.
+     */
+    @FunctionalInterface
+    public interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Binds the values of an item to the parameters of a statement with typed setters.
+     */
+    @FunctionalInterface
+    public interface ParameterBinder<T> {
+        void bind(PreparedStatement stmt, T item) throws SQLException;
+    }
+
+    /**
+     * A piece of work to be done on a connection.
+     */
+    @FunctionalInterface
+    public interface SQLWork {
+        void execute(Connection conn) throws SQLException;
+    }
+
+    /**
+     * Prepares a statement to be used in a query.
+     * If the connection comes from a pool with statement caching, a cached statement for the same query is reused.
+     * The time taken is recorded under the query's template, and the returned statement records its executions.
+     * The query is counted against the current {@link Session}, which flags it if it is repeated too many times.
+     *
+     * @param conn Connection to create the PreparedStatement on
+     * @param query Query to be prepared
+     * @param returnKeys Whether to return the generated keys or not
+     * @param values Values to be inserted into the prepared statement
+     * @return Returns a prepared statement with bound values
+     * @throws SQLException Throws SQL Exception if anything goes wrong while preparing the statement
+     */
+    public static PreparedStatement prepareStatement
+            (Connection conn, String query, boolean returnKeys, Object... values) throws SQLException {
+        QueryMetrics.Template metrics = QueryMetrics.global().template(query);
+        TimedStatement stmt = prepare(conn, query, metrics, returnKeys, values);
+        Session.countQuery(metrics, values);
+        QueryContext.register(stmt);
+        setValues(stmt, values);
+        return stmt;
+    }
+
+    /**
+     * Prepares a statement for a batch, counting it against the current session without ever flagging it as a
+     * repeat, since a batch is the fix for repeated queries rather than an instance of them.
+     */
+    private static PreparedStatement prepareBatch(Connection conn, String query, QueryMetrics.Template metrics,
+                                                  boolean returnKeys) throws SQLException {
+        TimedStatement stmt = prepare(conn, query, metrics, returnKeys, null);
+        Session.countQuery(metrics, null);
+        QueryContext.register(stmt);
+        return stmt;
+    }
+
+    /**
+     * Prepares a statement and records the time taken, without counting it against the current session.
+     *
+     * @param parameters Values to be bound to the statement, or null if they are bound row by row in a batch
+     */
+    private static TimedStatement prepare(Connection conn, String query, QueryMetrics.Template metrics,
+                                          boolean returnKeys, Object[] parameters) throws SQLException {
+        long start = System.nanoTime();
+        int returnGeneratedKeys = returnKeys ? Statement.RETURN_GENERATED_KEYS : Statement.NO_GENERATED_KEYS;
+        TimedStatement stmt;
+        if (conn.isWrapperFor(StatementCache.class)) {
+            stmt = conn.unwrap(StatementCache.class).prepare(query, returnGeneratedKeys, parameters);
+        } else {
+            stmt = TimedStatement.wrap(conn.prepareStatement(query, returnGeneratedKeys), metrics, parameters);
+        }
+        metrics.recordPrepare(System.nanoTime() - start);
+        return stmt;
+    }
+
+    /**
+     * Binds given values to the given statement.
+     *
+     * @param stmt Statement to insert values into
+     * @param values Values to insert into statement
+     * @throws SQLException Throws SQL Exception if anything goes wrong while binding the values to the statement
+     */
+    public static void setValues(PreparedStatement stmt, Object... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            setValue(stmt, i + 1, values[i]);
+        }
+    }
+
+    /**
+     * Binds a value to a parameter of the given statement with the setter for its type.
+     * The driver's setObject works out the type of the value all over again for every parameter, which shows
+     * up when binding thousands of rows, so the types the DAOs use are bound directly.
+     *
+     * @param stmt Statement to insert the value into
+     * @param index Index of the parameter, starting at 1
+     * @param value Value to insert, may be null
+     * @throws SQLException If the value could not be bound
+     */
+    public static void setValue(PreparedStatement stmt, int index, Object value) throws SQLException {
+        if (value instanceof Integer) {
+            stmt.setInt(index, (Integer) value);
+        } else if (value instanceof String) {
+            stmt.setString(index, (String) value);
+        } else if (value instanceof Long) {
+            stmt.setLong(index, (Long) value);
+        } else if (value == null) {
+            stmt.setNull(index, Types.NULL);
+        } else {
+            stmt.setObject(index, value);
+        }
+    }
+
+    /**
+     * Builds a comma separated list of placeholders to be used in an IN list.
+     *
+     * @param count Number of placeholders
+     * @return String like "?, ?, ?"
+     */
+    public static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    /**
+     * Creates a LIKE pattern matching values that contain the given text, with the wildcards in the text escaped
+     * so they are matched literally.
+     *
+     * @param text Text to search for
+     * @return Pattern to bind to a LIKE clause
+     */
+    public static String containsPattern(String text) {
+        return "%" + escapeLike(text) + "%";
+    }
+
+    /**
+     * Creates a LIKE pattern matching values that start with the given text, with the wildcards in the text
+     * escaped so they are matched literally.
+     *
+     * @param text Text to search for
+     * @return Pattern to bind to a LIKE clause
+     */
+    public static String startsWithPattern(String text) {
+        return escapeLike(text) + "%";
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Normalizes a name the way the database's default collation compares names, ignoring case, accents and
+     * surrounding whitespace, so names matched by the database can be matched again in memory.
+     *
+     * @param name Name of a lecturer or room
+     * @return Key of the name, equal for all names the database considers equal
+     */
+    public static String nameKey(String name) {
+        return TrigramIndex.normalize(name.trim());
+    }
+
+    /**
+     * Checks the page size given to a DAO's page method.
+     *
+     * @param limit Maximum number of rows on a page
+     * @throws IllegalArgumentException If the limit is less than 1
+     */
+    public static void checkPageLimit(int limit) throws IllegalArgumentException {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page limit must be at least 1.");
+        }
+    }
+
+    /**
+     * Splits the given list into consecutive chunks of at most the given size.
+     *
+     * @param list List to split
+     * @param size Maximum size of each chunk
+     * @return List of chunks, each backed by the given list
+     */
+    public static <T> List<List<T>> chunk(List<T> list, int size) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < list.size(); i += size) {
+            chunks.add(list.subList(i, Math.min(list.size(), i + size)));
+        }
+        return chunks;
+    }
+
+    /**
+     * Runs the given work in a single transaction, committing if it succeeds and rolling back if it throws.
+     * Auto-commit is restored afterwards.
+     *
+     * @param conn Connection to run the transaction on
+     * @param work Work to do inside the transaction
+     * @throws SQLException If the work or the commit fails
+     */
+    public static void transaction(Connection conn, SQLWork work) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            work.execute(conn);
+            conn.commit();
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Runs the query once for every item, sending the rows to the database in JDBC batches.
+     * If a key setter is given, the generated keys are read back and handed to it in the order of the items.
+     *
+     * @param conn Connection to run the batches on
+     * @param query Query to be run for every item
+     * @param items Items to run the query for
+     * @param batchSize Maximum number of rows per batch
+     * @param values Extracts the values to bind to the query from an item
+     * @param keySetter Receives every item with its generated key, or null if no keys are needed
+     * @throws SQLException If a batch fails
+     * @throws DAOException If a row was not inserted or the database did not return a key for it
+     */
+    public static <T> void executeBatch(Connection conn, String query, List<T> items, int batchSize,
+                                        Function<T, Object[]> values, BiConsumer<T, Integer> keySetter)
+            throws SQLException {
+        executeBatch(conn, query, items, batchSize, (stmt, item) -> setValues(stmt, values.apply(item)), keySetter);
+    }
+
+    /**
+     * Runs the query once for every item, sending the rows to the database in JDBC batches.
+     * Unlike extracting the values into an array, the binder sets every parameter with a typed setter, so no
+     * array or boxed value is made per row.
+     * Every batch counts as a query against the current {@link Session}.
+     *
+     * @param conn Connection to run the batches on
+     * @param query Query to be run for every item
+     * @param items Items to run the query for
+     * @param batchSize Maximum number of rows per batch
+     * @param binder Binds the values of an item to the query
+     * @param keySetter Receives every item with its generated key, or null if no keys are needed
+     * @throws SQLException If a batch fails
+     * @throws DAOException If a row was not inserted or the database did not return a key for it
+     */
+    public static <T> void executeBatch(Connection conn, String query, List<T> items, int batchSize,
+                                        ParameterBinder<T> binder, BiConsumer<T, Integer> keySetter)
+            throws SQLException {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1.");
+        }
+        QueryMetrics.Template metrics = QueryMetrics.global().template(query);
+        for (List<T> batch : chunk(items, batchSize)) {
+            try (PreparedStatement stmt = prepareBatch(conn, query, metrics, keySetter != null)) {
+                for (T item : batch) {
+                    binder.bind(stmt, item);
+                    stmt.addBatch();
+                }
+                for (int affectedRows : stmt.executeBatch()) {
+                    if (affectedRows == 0) {
+                        throw new DAOException("Batch failed, a row in the batch was not affected.");
+                    }
+                }
+                if (keySetter != null) {
+                    try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                        for (T item : batch) {
+                            if (!generatedKeys.next()) {
+                                throw new DAOException("Batch failed, the database returned fewer IDs than rows.");
+                            }
+                            keySetter.accept(item, generatedKeys.getInt(1));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs a query and streams its rows as they arrive from the database.
+     * The statement bypasses the statement cache, since its fetch size and open result set are tied to the stream.
+     * The connection, statement and result set are closed once the last row has been read or the stream is
+     * closed, whichever comes first, so a stream that may not be read to the end must be closed by the caller.
+     * While the stream is open, the connection can not be used for anything else.
+     *
+     * @param conn Connection to run the query on, owned by the stream from here on
+     * @param query Query to be run
+     * @param fetchSize Rows fetched per round trip, or {@link #STREAMING_FETCH_SIZE} to fetch row by row
+     * @param mapper Maps each row to an object
+     * @param values Values to be inserted into the query
+     * @return Lazily populated stream of the mapped rows
+     * @throws DAOException If the query could not be run
+     */
+    public static <T> Stream<T> stream(Connection conn, String query, int fetchSize, RowMapper<T> mapper,
+                                       Object... values) throws DAOException {
+        return openStream(conn, query, fetchSize, rs -> mapper, values);
+    }
+
+    /**
+     * Runs a query and streams its rows as they arrive from the database, reading the columns by index.
+     *
+     * @param conn Connection to run the query on, owned by the stream from here on
+     * @param query Query to be run
+     * @param fetchSize Rows fetched per round trip, or {@link #STREAMING_FETCH_SIZE} to fetch row by row
+     * @param mapper Maps each row to an object, its columns are resolved once the query has run
+     * @param values Values to be inserted into the query
+     * @return Lazily populated stream of the mapped rows
+     * @throws DAOException If the query could not be run
+     * @see #stream(Connection, String, int, RowMapper, Object...)
+     */
+    public static <T> Stream<T> stream(Connection conn, String query, int fetchSize, ColumnMapper<T> mapper,
+                                       Object... values) throws DAOException {
+        return openStream(conn, query, fetchSize, mapper::bind, values);
+    }
+
+    private static <T> Stream<T> openStream(Connection conn, String query, int fetchSize,
+                                            ColumnBinder<T> binder, Object... values) throws DAOException {
+        QueryMetrics.Template metrics = QueryMetrics.global().template(query);
+        ResultSetSpliterator<T> spliterator = new ResultSetSpliterator<>(conn);
+        try {
+            long start = System.nanoTime();
+            spliterator.stmt = TimedStatement.wrap(conn.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY), metrics, values);
+            metrics.recordPrepare(System.nanoTime() - start);
+            Session.countQuery(metrics, values);
+            QueryContext.register(spliterator.stmt);
+            spliterator.stmt.setFetchSize(fetchSize);
+            setValues(spliterator.stmt, values);
+            spliterator.rs = spliterator.stmt.executeQuery();
+            spliterator.mapper = binder.bind(spliterator.rs);
+        } catch (SQLException e) {
+            spliterator.close();
+            throw new DAOException(e);
+        }
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+    }
+
+    /**
+     * Creates the row mapper of a result set once it has been opened.
+     */
+    @FunctionalInterface
+    private interface ColumnBinder<T> {
+        RowMapper<T> bind(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Groups the elements of a stream into batches and hands each batch to the loader before passing its elements
+     * on, so details can be loaded for many streamed rows at a time while only one batch is held in memory.
+     *
+     * @param rows Stream to batch, closed along with the returned stream
+     * @param batchSize Maximum number of elements per batch
+     * @param loader Completes the elements of a batch
+     * @return Stream of the completed elements, in the original order
+     */
+    public static <T> Stream<T> batched(Stream<T> rows, int batchSize, Consumer<List<T>> loader) {
+        Iterator<T> source = rows.iterator();
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED) {
+            private Iterator<T> batch = Collections.emptyIterator();
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                if (!batch.hasNext()) {
+                    List<T> next = new ArrayList<>(batchSize);
+                    while (next.size() < batchSize && source.hasNext()) {
+                        next.add(source.next());
+                    }
+                    if (next.isEmpty()) {
+                        return false;
+                    }
+                    loader.accept(next);
+                    batch = next.iterator();
+                }
+                action.accept(batch.next());
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(rows::close);
+    }
+
+    /**
+     * Walks a result set row by row, releasing its statement and connection as soon as it is exhausted.
+     * The whole walk is recorded as the iteration of the query, including the time the caller spends on each row.
+     */
+    private static final class ResultSetSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+        private final Connection conn;
+        private RowMapper<T> mapper;
+        private TimedStatement stmt;
+        private ResultSet rs;
+        private boolean closed;
+
+        private ResultSetSpliterator(Connection conn) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.conn = conn;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (closed) {
+                return false;
+            }
+            try {
+                if (!rs.next()) {
+                    close();
+                    return false;
+                }
+                action.accept(mapper.map(rs));
+                return true;
+            } catch (SQLException e) {
+                close();
+                throw new DAOException(e);
+            }
+        }
+
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            // in reverse order of opening, each one even if closing the one before failed
+            close(rs);
+            close(stmt);
+            close(conn);
+        }
+
+        private static void close(AutoCloseable resource) {
+            if (resource == null) {
+                return;
+            }
+            try {
+                resource.close();
+            } catch (Exception e) {
+                System.err.println("Could not close the streamed result set.");
+                System.err.println(e.getMessage());
+            }
+        }
+    }
+}
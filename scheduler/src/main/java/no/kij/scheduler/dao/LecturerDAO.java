@@ -0,0 +1,887 @@
+package no.kij.scheduler.dao;
+
+import static no.kij.scheduler.dao.DAOUtil.*;
+import static no.kij.scheduler.dao.RowMappers.*;
+
+import no.kij.scheduler.DatabaseConnector;
+import no.kij.scheduler.dto.AvailableDTO;
+import no.kij.scheduler.dto.ContactDTO;
+import no.kij.scheduler.dto.LecturerDTO;
+import no.kij.scheduler.dto.SubjectDTO;
+import no.kij.scheduler.index.AvailabilityIndex;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * This class is the DAO for lecturers. It's job is to do CRUD operations related to a lecturer,
+ * without letting the user know how the database is implemented. It requires a database connector to reuse pooled
+ * connections.
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.0
+ */
+public class LecturerDAO implements LecturerRepository {
+    private final String INSERT_QUERY = "INSERT INTO Lecturer(name) VALUES (?)";
+    private final String FIND_BY_NAME_QUERY = "SELECT id, name FROM Lecturer WHERE name = ?";
+    private final String VIEW_ALL_QUERY = "SELECT id, name FROM Lecturer";
+    private final String VIEW_PAGE_QUERY = "SELECT id, name FROM Lecturer WHERE id > ? ORDER BY id LIMIT ?";
+    private final String FIND_BY_ID = "SELECT id, name FROM Lecturer WHERE id = ?";
+    private final String FIND_BY_IDS = "SELECT id, name FROM Lecturer WHERE id IN (%s)";
+    private final String FIND_IDS_BY_NAMES = "SELECT id, name FROM Lecturer WHERE name IN (%s) ORDER BY id";
+    private final String VIEW_ALL_AVAILABLE_QUERY = "SELECT lecturer, start, end FROM Available";
+    private DatabaseConnector connector;
+    private DAOCache cache;
+    private AvailabilityIndex index;
+
+    /**
+     * Used to create a DAO for the LecturerDTO.
+     * @param connector DatabaseConnector to pool connections from
+     */
+    public LecturerDAO(DatabaseConnector connector) {
+        this.connector = connector;
+    }
+
+    /**
+     * Used to create a DAO for the LecturerDTO that reads through the given shared cache.
+     * @param connector DatabaseConnector to pool connections from
+     * @param cache Shared cache, or null to always go to the database
+     */
+    public LecturerDAO(DatabaseConnector connector, DAOCache cache) {
+        this.connector = connector;
+        this.cache = cache;
+    }
+
+    /**
+     * Used to create a DAO for the LecturerDTO that answers availability queries from the given index.
+     * The index is built from the database on the first query, and kept up to date by this DAO's writes.
+     * @param connector DatabaseConnector to pool connections from
+     * @param cache Shared cache, or null to always go to the database
+     * @param index Shared index over the lecturers' available times, or null to scan the lecturers
+     */
+    public LecturerDAO(DatabaseConnector connector, DAOCache cache, AvailabilityIndex index) {
+        this.connector = connector;
+        this.cache = cache;
+        this.index = index;
+    }
+
+
+    /**
+     * Used to persist a lecturer to the database
+     * @param lecturerDTO Lecturer to save to the db
+     * @throws IllegalArgumentException If lecturer ID is not null
+     * @throws DAOException If lecturer could not be saved to the database
+     */
+    public void create(LecturerDTO lecturerDTO) throws IllegalArgumentException, DAOException {
+        if (lecturerDTO.getId() != null) {
+            // unchecked exception, since the programmer should know to pass lecturer with id (so it shouldn't happen)
+            throw new IllegalArgumentException("Lecturer ID must be null. This lecturer already exists.");
+        }
+
+        Object [] values = { lecturerDTO.getName() };
+
+        try (
+            Connection conn = connector.getConnection();
+            PreparedStatement stmt = prepareStatement(conn, INSERT_QUERY, true, values)
+        ) {
+            int affectedRows = stmt.executeUpdate();
+            if (affectedRows == 0) {
+                throw new DAOException("Could not create lecturer, no rows in database were affected.");
+            }
+
+            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    lecturerDTO.setId(generatedKeys.getInt(1));
+                } else {
+                    throw new DAOException("Creating lecturer failed. No ID was returned by the database.");
+                }
+            }
+
+            ContactDAO contactDAO = new ContactDAO();
+            AvailableDAO availableDAO = new AvailableDAO();
+            if (lecturerDTO.getContact().size() != 0) {
+                for (ContactDTO contactDTO : lecturerDTO.getContact()) {
+                    contactDAO.create(contactDTO, lecturerDTO);
+                }
+            }
+            if (lecturerDTO.getAvailable().size() != 0) {
+                for (AvailableDTO availableDTO : lecturerDTO.getAvailable()) {
+                    availableDAO.create(availableDTO, lecturerDTO);
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Something went wrong while creating the lecturer.");
+            throw new DAOException(e);
+        } finally {
+            invalidate(lecturerDTO);
+            // the connections are handed back by now, which matters since a rebuild holds the index's lock while
+            // it waits for one. Times saved before a failure are indexed too, as nothing rolls them back
+            for (AvailableDTO availableDTO : lecturerDTO.getAvailable()) {
+                if (availableDTO.getId() != null) {
+                    index(lecturerDTO, availableDTO);
+                }
+            }
+        }
+    }
+
+    /**
+     * Persists all the given lecturers, with their contacts and available times, in a single transaction.
+     *
+     * @param lecturerDTOs Lecturers to save to the db, their IDs are set once saved
+     * @throws IllegalArgumentException If a lecturer ID is not null
+     * @throws DAOException If the lecturers could not be saved to the database, in which case none are saved
+     */
+    public void createAll(List<LecturerDTO> lecturerDTOs) throws IllegalArgumentException, DAOException {
+        createAll(lecturerDTOs, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Persists all the given lecturers, with their contacts and available times, in a single transaction.
+     * The rows are sent to the database in JDBC batches of the given size.
+     *
+     * @param lecturerDTOs Lecturers to save to the db, their IDs are set once saved
+     * @param batchSize Maximum number of rows per batch
+     * @throws IllegalArgumentException If a lecturer ID is not null
+     * @throws DAOException If the lecturers could not be saved to the database, in which case none are saved
+     */
+    public void createAll(List<LecturerDTO> lecturerDTOs, int batchSize) throws IllegalArgumentException, DAOException {
+        for (LecturerDTO lecturerDTO : lecturerDTOs) {
+            if (lecturerDTO.getId() != null) {
+                throw new IllegalArgumentException("Lecturer ID must be null. This lecturer already exists.");
+            } else if (lecturerDTO.getContact().stream().anyMatch(contactDTO -> contactDTO.getId() != null)) {
+                throw new IllegalArgumentException("Contact ID must be null.");
+            } else if (lecturerDTO.getAvailable().stream().anyMatch(availableDTO -> availableDTO.getId() != null)) {
+                throw new IllegalArgumentException("Available ID must be null.");
+            }
+        }
+
+        try (Connection conn = connector.getConnection()) {
+            transaction(conn, c -> {
+                executeBatch(c, INSERT_QUERY, lecturerDTOs, batchSize,
+                        (stmt, lecturerDTO) -> stmt.setString(1, lecturerDTO.getName()),
+                        LecturerDTO::setId);
+                new ContactDAO().createAll(c, lecturerDTOs, batchSize);
+                new AvailableDAO().createAll(c, lecturerDTOs, batchSize);
+            });
+        } catch (SQLException | DAOException e) {
+            // nothing was saved, so the IDs handed out by the rolled back batches are meaningless
+            for (LecturerDTO lecturerDTO : lecturerDTOs) {
+                lecturerDTO.setId(null);
+                lecturerDTO.getContact().forEach(contactDTO -> contactDTO.setId(null));
+                lecturerDTO.getAvailable().forEach(availableDTO -> availableDTO.setId(null));
+            }
+            System.err.println("Something went wrong while creating the lecturers.");
+            throw e instanceof DAOException ? (DAOException) e : new DAOException(e);
+        } finally {
+            lecturerDTOs.forEach(this::invalidate);
+        }
+        // only once committed, so a rolled back batch never shows up in the index, and once the connection is
+        // handed back, so a rebuild waiting for one is not blocked
+        for (LecturerDTO lecturerDTO : lecturerDTOs) {
+            lecturerDTO.getAvailable().forEach(availableDTO -> index(lecturerDTO, availableDTO));
+        }
+    }
+
+    /**
+     * Drops everything the shared cache may hold about the given lecturer after a write.
+     *
+     * @param lecturerDTO Lecturer that was written
+     */
+    private void invalidate(LecturerDTO lecturerDTO) {
+        if (cache != null) {
+            if (lecturerDTO.getId() != null) {
+                cache.lecturersById.invalidate(lecturerDTO.getId());
+            }
+            if (lecturerDTO.getName() != null) {
+                cache.lecturersByName.invalidate(lecturerDTO.getName());
+            }
+            cache.lecturerLists.invalidateAll();
+        }
+    }
+
+    /**
+     * Checks if the lecturer is available for every hour from the start hour to the end hour, on any day.
+     * With an availability index this is a single bit operation, otherwise the lecturer's available times are
+     * checked one by one.
+     *
+     * @param lecturerDTO Lecturer to check, with an ID if there is an index
+     * @param start First hour
+     * @param end Hour after the last hour
+     * @return True if the lecturer is available
+     * @throws DAOException If the index had to be built and the available times could not be read
+     */
+    public boolean isAvailable(LecturerDTO lecturerDTO, int start, int end) throws DAOException {
+        if (index != null && lecturerDTO.getId() != null) {
+            ensureIndex();
+            return index.isFree(lecturerDTO.getId(), start, end);
+        }
+        int span = AvailabilityIndex.span(start, end);
+        return span != 0 && (availableHours(lecturerDTO) & span) == span;
+    }
+
+    /**
+     * Finds the lecturers available for every hour from the start hour to the end hour, on any day.
+     * With an availability index the lecturers are found by intersecting bit sets, and only the matches are
+     * loaded, otherwise every lecturer is loaded and checked.
+     *
+     * @param start First hour
+     * @param end Hour after the last hour
+     * @return List of the available lecturers
+     * @throws DAOException If the index had to be built and the available times could not be read
+     */
+    public List<LecturerDTO> findAvailable(int start, int end) throws DAOException {
+        if (index != null) {
+            ensureIndex();
+            List<Integer> ids = new ArrayList<>();
+            for (int id : index.findFree(start, end)) {
+                ids.add(id);
+            }
+            return ids.isEmpty() ? new ArrayList<>() : findAll(ids);
+        }
+        int span = AvailabilityIndex.span(start, end);
+        List<LecturerDTO> available = new ArrayList<>();
+        for (LecturerDTO lecturerDTO : list()) {
+            if (span != 0 && (availableHours(lecturerDTO) & span) == span) {
+                available.add(lecturerDTO);
+            }
+        }
+        return available;
+    }
+
+    private static int availableHours(LecturerDTO lecturerDTO) {
+        int hours = 0;
+        for (AvailableDTO availableDTO : lecturerDTO.getAvailable()) {
+            hours |= AvailabilityIndex.span(availableDTO.getStart(), availableDTO.getEnd());
+        }
+        return hours;
+    }
+
+    /**
+     * Builds the availability index on first use. Checked again under the index's monitor, so concurrent first
+     * queries build it once.
+     */
+    private void ensureIndex() throws DAOException {
+        if (!index.isBuilt()) {
+            synchronized (index) {
+                if (!index.isBuilt()) {
+                    rebuildIndex();
+                }
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the availability index from the database. Only needed if the available times were changed by
+     * something other than a DAO sharing the index.
+     *
+     * @throws DAOException If the available times could not be read
+     */
+    public void rebuildIndex() throws DAOException {
+        if (index == null) {
+            return;
+        }
+        synchronized (index) {
+            index.rebuild(idx -> {
+                try (
+                    Connection conn = connector.getConnection();
+                    PreparedStatement stmt = prepareStatement(conn, VIEW_ALL_AVAILABLE_QUERY, false);
+                    ResultSet rs = stmt.executeQuery()
+                ) {
+                    int lecturerColumn = rs.findColumn("lecturer");
+                    int startColumn = rs.findColumn("start");
+                    int endColumn = rs.findColumn("end");
+                    while (rs.next()) {
+                        idx.add(rs.getInt(lecturerColumn), rs.getInt(startColumn), rs.getInt(endColumn));
+                    }
+                } catch (SQLException e) {
+                    System.err.println("Something went wrong while indexing the available times.");
+                    throw new DAOException(e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Adds a saved available time to the availability index, if there is one. This is done even if the index is
+     * not built yet, since a build that is running right now may have read the available times before this one
+     * was saved, and adding the same time twice changes nothing.
+     *
+     * @param lecturerDTO Lecturer with an ID
+     * @param availableDTO Available time of the lecturer
+     */
+    private void index(LecturerDTO lecturerDTO, AvailableDTO availableDTO) {
+        if (index != null && lecturerDTO.getId() != null) {
+            index.add(lecturerDTO.getId(), availableDTO.getStart(), availableDTO.getEnd());
+        }
+    }
+
+    /**
+     * Returns a list of all lecturers in the database.
+     * Contacts and available times are fetched for all lecturers at once, so this costs three queries in total,
+     * or none if the list is in the shared cache.
+     *
+     * @return List of lecturers
+     */
+    public List<LecturerDTO> list() {
+        if (cache == null) {
+            return loadList();
+        }
+        List<LecturerDTO> lecturerDTOs = cache.lecturerLists.get(DAOCache.ALL, key -> loadList());
+        for (int i = 0; i < lecturerDTOs.size(); i++) {
+            LecturerDTO lecturerDTO = lecturerDTOs.get(i);
+            lecturerDTOs.set(i, Session.attach(LecturerDTO.class, lecturerDTO.getId(), lecturerDTO));
+        }
+        return lecturerDTOs;
+    }
+
+    /**
+     * Streams every lecturer as it is read from the database, bypassing the cache and the current
+     * {@link Session}, so memory use does not grow with the size of the table.
+     * Contacts and availability are loaded for {@value DAOUtil#STREAM_BATCH_SIZE} lecturers at a time on a
+     * second connection. The stream holds a connection until it has been read to the end or closed, so use
+     * try-with-resources.
+     *
+     * @return Stream of all lecturers
+     * @throws DAOException If the lecturers could not be read
+     */
+    public Stream<LecturerDTO> stream() throws DAOException {
+        return stream(STREAMING_FETCH_SIZE);
+    }
+
+    /**
+     * Streams every lecturer as it is read from the database, fetching the given number of rows per round trip.
+     *
+     * @param fetchSize Rows per round trip, or {@link DAOUtil#STREAMING_FETCH_SIZE} to fetch row by row
+     * @return Stream of all lecturers
+     * @throws DAOException If the lecturers could not be read
+     * @see #stream()
+     */
+    public Stream<LecturerDTO> stream(int fetchSize) throws DAOException {
+        Stream<LecturerDTO> rows;
+        try {
+            rows = DAOUtil.stream(connector.getConnection(), VIEW_ALL_QUERY, fetchSize, LECTURER);
+        } catch (SQLException e) {
+            System.err.println("Something went wrong while streaming the lecturers.");
+            throw new DAOException(e);
+        }
+        return batched(rows, STREAM_BATCH_SIZE, this::loadDetails);
+    }
+
+    /**
+     * Lists the lecturers with an ID greater than the given one, in ID order, along with their contacts and
+     * availability. The page starts with an index seek on the primary key, so a deep page costs the same as the
+     * first one.
+     *
+     * @param afterId ID of the last lecturer of the previous page, 0 for the first page
+     * @param limit Maximum number of lecturers on the page
+     * @return The page of lecturers, shorter than the limit on the last page
+     */
+    public List<LecturerDTO> page(int afterId, int limit) {
+        checkPageLimit(limit);
+        Map<Integer, LecturerDTO> lecturerDTOs = new LinkedHashMap<>();
+        try (Connection conn = connector.getConnection()) {
+            try (
+                PreparedStatement stmt = prepareStatement(conn, VIEW_PAGE_QUERY, false, afterId, limit);
+                ResultSet rs = stmt.executeQuery()
+            ) {
+                RowMapper<LecturerDTO> rows = LECTURER.bind(rs);
+                while (rs.next()) {
+                    LecturerDTO lecturerDTO = rows.map(rs);
+                    lecturerDTOs.put(lecturerDTO.getId(), lecturerDTO);
+                }
+            }
+            loadDetails(conn, lecturerDTOs, false);
+        } catch (SQLException e) {
+            System.err.println("Something went wrong while fetching a page of lecturers.");
+            System.err.println(e.getMessage());
+        }
+        return new ArrayList<>(lecturerDTOs.values());
+    }
+
+    /**
+     * Loads the contacts and availability of a batch of streamed lecturers.
+     *
+     * @param lecturerDTOs Lecturers to load the details of
+     */
+    private void loadDetails(List<LecturerDTO> lecturerDTOs) {
+        Map<Integer, LecturerDTO> byId = new LinkedHashMap<>();
+        for (LecturerDTO lecturerDTO : lecturerDTOs) {
+            byId.put(lecturerDTO.getId(), lecturerDTO);
+        }
+        try (Connection conn = connector.getConnection()) {
+            new ContactDAO().findAll(conn, byId, false);
+            new AvailableDAO().findAll(conn, byId, false);
+        } catch (SQLException e) {
+            System.err.println("Something went wrong while fetching the details of the lecturers.");
+            throw new DAOException(e);
+        }
+    }
+
+    private List<LecturerDTO> loadList() {
+        Map<Integer, LecturerDTO> lecturerDTOs = new LinkedHashMap<>();
+
+        try (Connection conn = connector.getConnection()) {
+            try (
+                PreparedStatement stmt = prepareStatement(conn, VIEW_ALL_QUERY, false);
+                ResultSet rs = stmt.executeQuery()
+            ) {
+                RowMapper<LecturerDTO> rows = LECTURER.bind(rs);
+                while (rs.next()) {
+                    LecturerDTO lecturerDTO = rows.map(rs);
+                    lecturerDTOs.put(lecturerDTO.getId(), lecturerDTO);
+                }
+            }
+            loadDetails(conn, lecturerDTOs, true);
+        } catch (SQLException e) {
+            System.err.println("Something went wrong while fetching a list of lecturers.");
+            System.err.println(e.getMessage());
+        }
+        return new ArrayList<>(lecturerDTOs.values());
+    }
+
+    /**
+     * Find all lecturers with the given IDs.
+     * Lecturers, contacts and available times are fetched in bulk, using IN lists of at most
+     * {@link DAOUtil#IN_LIST_CHUNK_SIZE} IDs per query.
+     *
+     * @param ids Database IDs of the lecturers
+     * @return List of the lecturers that were found, in the order of the given IDs
+     */
+    public List<LecturerDTO> findAll(Collection<Integer> ids) {
+        List<Integer> uniqueIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Integer, LecturerDTO> lecturerDTOs = new LinkedHashMap<>();
+        List<Integer> missingIds = new ArrayList<>();
+        for (Integer id : uniqueIds) {
+            LecturerDTO known = Session.lookup(LecturerDTO.class, id);
+            if (known != null) {
+                lecturerDTOs.put(id, known);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        if (missingIds.isEmpty()) {
+            return new ArrayList<>(lecturerDTOs.values());
+        }
+
+        try (Connection conn = connector.getConnection()) {
+            Map<Integer, LecturerDTO> loaded = new LinkedHashMap<>();
+            for (List<Integer> chunk : chunk(missingIds, IN_LIST_CHUNK_SIZE)) {
+                String query = String.format(FIND_BY_IDS, placeholders(chunk.size()));
+                try (
+                    PreparedStatement stmt = prepareStatement(conn, query, false, chunk.toArray());
+                    ResultSet rs = stmt.executeQuery()
+                ) {
+                    RowMapper<LecturerDTO> rows = LECTURER.bind(rs);
+                    while (rs.next()) {
+                        LecturerDTO lecturerDTO = rows.map(rs);
+                        loaded.put(lecturerDTO.getId(), lecturerDTO);
+                    }
+                }
+            }
+            loadDetails(conn, loaded, false);
+            lecturerDTOs.putAll(loaded);
+        } catch (SQLException e) {
+            System.err.println("Something went wrong while fetching the lecturers.");
+            System.err.println(e.getMessage());
+        }
+
+        List<LecturerDTO> found = new ArrayList<>();
+        for (Integer id : uniqueIds) {
+            LecturerDTO lecturerDTO = lecturerDTOs.get(id);
+            if (lecturerDTO != null) {
+                found.add(lecturerDTO);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Find a lecturer using ID.
+     * If the lecturer has already been loaded in the current {@link Session}, no query is made.
+     *
+     * @param id Database ID for the lecturer
+     * @return LecturerDTO if lecturer was found, null if not
+     */
+    public LecturerDTO find(int id) {
+        LecturerDTO known = Session.lookup(LecturerDTO.class, id);
+        if (known != null) {
+            return known;
+        }
+        if (cache == null) {
+            return find(FIND_BY_ID, id);
+        }
+        return Session.attach(LecturerDTO.class, id, cache.lecturersById.get(id, key -> find(FIND_BY_ID, key)));
+    }
+
+    /**
+     * Looks up the IDs of the lecturers with the given names, without loading their contacts or availability.
+     * Names are looked up in chunks, so this costs one query per {@value DAOUtil#IN_LIST_CHUNK_SIZE} names.
+     * The database matches names by its collation, so the names it returns are mapped back to the given names
+     * with {@link DAOUtil#nameKey(String)}.
+     *
+     * @param names Names of the lecturers
+     * @return IDs by the given lecturer names, names without a lecturer are left out
+     * @throws DAOException If the lecturers could not be looked up
+     */
+    public Map<String, Integer> findIds(Collection<String> names) throws DAOException {
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> uniqueNames = new ArrayList<>(new LinkedHashSet<>(names));
+        uniqueNames.remove(null);
+        if (uniqueNames.isEmpty()) {
+            return ids;
+        }
+        Map<String, List<String>> namesByKey = new HashMap<>();
+        for (String name : uniqueNames) {
+            namesByKey.computeIfAbsent(nameKey(name), key -> new ArrayList<>()).add(name);
+        }
+
+        try (Connection conn = connector.getConnection()) {
+            for (List<String> chunk : chunk(uniqueNames, IN_LIST_CHUNK_SIZE)) {
+                String query = String.format(FIND_IDS_BY_NAMES, placeholders(chunk.size()));
+                try (
+                    PreparedStatement stmt = prepareStatement(conn, query, false, chunk.toArray());
+                    ResultSet rs = stmt.executeQuery()
+                ) {
+                    int idColumn = rs.findColumn("id");
+                    int nameColumn = rs.findColumn("name");
+                    while (rs.next()) {
+                        List<String> given = namesByKey.get(nameKey(rs.getString(nameColumn)));
+                        if (given == null) {
+                            continue;
+                        }
+                        // names are not unique, the rows come ordered by ID so the first lecturer is kept
+                        for (String name : given) {
+                            ids.putIfAbsent(name, rs.getInt(idColumn));
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Something went wrong while looking up the lecturers.");
+            throw new DAOException(e);
+        }
+        return ids;
+    }
+
+    /**
+     * Find a lecturer using their name.
+     * @param name The name of the lecturer
+     * @return LecturerDTO if lecturer was found, null if not
+     */
+    public LecturerDTO find(String name) {
+        if (cache == null) {
+            return find(FIND_BY_NAME_QUERY, name);
+        }
+        LecturerDTO lecturerDTO = cache.lecturersByName.get(name, key -> find(FIND_BY_NAME_QUERY, key));
+        return lecturerDTO != null ? Session.attach(LecturerDTO.class, lecturerDTO.getId(), lecturerDTO) : null;
+    }
+
+    /**
+     * The private implemention doing the operation for retrieving the lecturer from the database.
+     *
+     * @param query Query to be ran
+     * @param values The value(s) to fill the query with
+     * @return LecturerDTO if found, null if not
+     */
+    private LecturerDTO find(String query, Object... values) {
+        LecturerDTO lecturerDTO = null;
+        try (Connection conn = connector.getConnection()) {
+            try (
+                PreparedStatement stmt = prepareStatement(conn, query, false, values);
+                ResultSet rs = stmt.executeQuery()
+            ) {
+                if (rs.next()) {
+                    lecturerDTO = LECTURER.bind(rs).map(rs);
+                }
+            }
+            if (lecturerDTO != null) {
+                Map<Integer, LecturerDTO> lecturerDTOs = new LinkedHashMap<>();
+                lecturerDTOs.put(lecturerDTO.getId(), lecturerDTO);
+                loadDetails(conn, lecturerDTOs, false);
+                lecturerDTO = lecturerDTOs.get(lecturerDTO.getId());
+            }
+        } catch (SQLException e) {
+            System.err.println("Something went wrong while finding the lecturer.");
+            System.err.println(e.getMessage());
+        }
+        return lecturerDTO;
+    }
+
+    /**
+     * Loads contacts and available times in bulk for freshly bound lecturers.
+     * Lecturers that are already held by the current {@link Session} are swapped for the session's instance
+     * in the given map and are not loaded again. The rest are registered in the session once they are complete.
+     *
+     * @param conn Connection to run the queries on
+     * @param lecturerDTOs Freshly bound lecturers by ID, updated in place
+     * @param allLecturers True if the map holds every lecturer, so whole tables can be read at once
+     * @throws SQLException If the details could not be fetched
+     */
+    private void loadDetails(Connection conn, Map<Integer, LecturerDTO> lecturerDTOs, boolean allLecturers)
+            throws SQLException {
+        Map<Integer, LecturerDTO> unloaded = new LinkedHashMap<>();
+        for (Map.Entry<Integer, LecturerDTO> entry : lecturerDTOs.entrySet()) {
+            LecturerDTO known = Session.lookup(LecturerDTO.class, entry.getKey());
+            if (known != null) {
+                entry.setValue(known);
+            } else {
+                unloaded.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (unloaded.isEmpty()) {
+            return;
+        }
+
+        new ContactDAO().findAll(conn, unloaded, allLecturers);
+        new AvailableDAO().findAll(conn, unloaded, allLecturers);
+        for (Map.Entry<Integer, LecturerDTO> entry : unloaded.entrySet()) {
+            lecturerDTOs.put(entry.getKey(), Session.attach(LecturerDTO.class, entry.getKey(), entry.getValue()));
+        }
+    }
+
+    /**
+     * Inner class for manipulating a contact in the database.
+     * This is not public, since a contact should always go through a lecturer.
+     */
+    private class ContactDAO {
+        private final String INSERT_QUERY = "INSERT INTO Contact(lecturer, number, email) VALUES (?, ?, ?)";
+        private final String FIND_ALL = "SELECT id, lecturer, number, email FROM Contact ORDER BY id";
+        private final String FIND_BY_LECTURER_IDS =
+                "SELECT id, lecturer, number, email FROM Contact WHERE lecturer IN (%s) ORDER BY id";
+
+        /**
+         * Used to persist a contact to the database.
+         * @param contactDTO ContactDTO containing the contact information, ID must be null
+         * @param lecturerDTO The lecturer to bind the contact information to - ID can not be null
+         * @throws IllegalArgumentException If lecturer ID is null or contact ID is not null
+         * @throws DAOException If contact could not be saved to the database
+         */
+        public void create(ContactDTO contactDTO, LecturerDTO lecturerDTO) throws IllegalArgumentException, DAOException {
+            if (lecturerDTO.getId() == null) {
+                throw new IllegalArgumentException("Lecturer ID can not be null.");
+            } else if (contactDTO.getId() != null) {
+                throw new IllegalArgumentException("Contact ID must be null.");
+            }
+
+            Object[] values = {
+                    lecturerDTO.getId(),
+                    contactDTO.getNumber(),
+                    contactDTO.getEmail()
+            };
+
+            try(
+                Connection conn = connector.getConnection();
+                PreparedStatement stmt = prepareStatement(conn, INSERT_QUERY, true, values)
+            ) {
+                int affectedRows = stmt.executeUpdate();
+                if (affectedRows == 0) {
+                    throw new DAOException("Could not create contact, no rows were affected.");
+                }
+
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        contactDTO.setId(generatedKeys.getInt(1));
+                    } else {
+                        throw new DAOException("Creating contact failed. No ID was returned by the database.");
+                    }
+                }
+            } catch (SQLException e) {
+                System.err.println("Something went wrong while inserting to the database.");
+                throw new DAOException(e);
+            }
+        }
+
+        /**
+         * Persists the contacts of all the given lecturers in batches, on the caller's connection and transaction.
+         * Contact IDs must be null.
+         * @param conn Connection to insert the contacts on
+         * @param lecturerDTOs Lecturers whose contacts should be saved - IDs can not be null
+         * @param batchSize Maximum number of rows per batch
+         * @throws SQLException If the contacts could not be saved
+         */
+        public void createAll(Connection conn, List<LecturerDTO> lecturerDTOs, int batchSize) throws SQLException {
+            List<ContactDTO> contactDTOs = new ArrayList<>();
+            Map<ContactDTO, Integer> lecturerIds = new IdentityHashMap<>();
+            for (LecturerDTO lecturerDTO : lecturerDTOs) {
+                for (ContactDTO contactDTO : lecturerDTO.getContact()) {
+                    contactDTOs.add(contactDTO);
+                    lecturerIds.put(contactDTO, lecturerDTO.getId());
+                }
+            }
+            executeBatch(conn, INSERT_QUERY, contactDTOs, batchSize,
+                    (stmt, contactDTO) -> {
+                        stmt.setInt(1, lecturerIds.get(contactDTO));
+                        stmt.setString(2, contactDTO.getNumber());
+                        stmt.setString(3, contactDTO.getEmail());
+                    },
+                    ContactDTO::setId);
+        }
+
+        /**
+         * Fetches the contact information for a set of lecturers in bulk and adds it to them.
+         *
+         * @param conn Connection to run the queries on
+         * @param lecturerDTOs Lecturers to fetch contact information for, by ID
+         * @param allLecturers True if the map holds every lecturer, so the whole table can be read at once
+         * @throws SQLException If the contact information could not be fetched
+         */
+        public void findAll(Connection conn, Map<Integer, LecturerDTO> lecturerDTOs, boolean allLecturers)
+                throws SQLException {
+            if (allLecturers) {
+                findAll(conn, lecturerDTOs, FIND_ALL);
+                return;
+            }
+            for (List<Integer> chunk : chunk(new ArrayList<>(lecturerDTOs.keySet()), IN_LIST_CHUNK_SIZE)) {
+                findAll(conn, lecturerDTOs, String.format(FIND_BY_LECTURER_IDS, placeholders(chunk.size())),
+                        chunk.toArray());
+            }
+        }
+
+        private void findAll(Connection conn, Map<Integer, LecturerDTO> lecturerDTOs, String query, Object... values)
+                throws SQLException {
+            try (
+                PreparedStatement stmt = prepareStatement(conn, query, false, values);
+                ResultSet rs = stmt.executeQuery()
+            ) {
+                RowMapper<ContactDTO> rows = CONTACT.bind(rs);
+                int lecturerColumn = rs.findColumn("lecturer");
+                while (rs.next()) {
+                    LecturerDTO lecturerDTO = lecturerDTOs.get(rs.getInt(lecturerColumn));
+                    if (lecturerDTO != null) {
+                        lecturerDTO.addContact(rows.map(rs));
+                    }
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Inner class for manipulating available times in the database.
+     * This is not public, since availability is based on a lecturer - and therefore should go through said lecturer.
+     */
+    private class AvailableDAO {
+        private final String INSERT_QUERY = "INSERT INTO Available(lecturer, start, end) VALUES (?, ?, ?)";
+        private final String FIND_ALL = "SELECT id, lecturer, start, end FROM Available ORDER BY id";
+        private final String FIND_BY_LECTURER_IDS =
+                "SELECT id, lecturer, start, end FROM Available WHERE lecturer IN (%s) ORDER BY id";
+
+
+        /**
+         * Persists the available time to the database
+         * @param availableDTO AvailableDTO containing the information to be saved
+         * @param lecturerDTO LecturerDTO to bind it to
+         * @throws IllegalArgumentException If lecturer ID is null or available ID is not null
+         * @throws DAOException If available could not be saved to the database
+         */
+        public void create(AvailableDTO availableDTO, LecturerDTO lecturerDTO) throws IllegalArgumentException, DAOException {
+            if (lecturerDTO.getId() == null) {
+                throw new IllegalArgumentException("Lecturer ID can not be null.");
+            } else if (availableDTO.getId() != null) {
+                throw new IllegalArgumentException("Available ID must be null.");
+            }
+
+            Object[] values = {
+                    lecturerDTO.getId(),
+                    availableDTO.getStart(),
+                    availableDTO.getEnd()
+            };
+
+            try (
+                Connection conn = connector.getConnection();
+                PreparedStatement stmt = prepareStatement(conn, INSERT_QUERY, true, values)
+            ) {
+                int affectedRows = stmt.executeUpdate();
+                if (affectedRows == 0) {
+                    throw new DAOException("Could not create available, no rows were affected.");
+                }
+
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        availableDTO.setId(generatedKeys.getInt(1));
+                    } else {
+                        throw new DAOException("Creating available failed, no ID was returned by database.");
+                    }
+                }
+            } catch (SQLException e) {
+                System.err.println("Could not save available.");
+                throw new DAOException(e);
+            }
+        }
+
+        /**
+         * Persists the available times of all the given lecturers in batches,
+         * on the caller's connection and transaction. Available IDs must be null.
+         * @param conn Connection to insert the available times on
+         * @param lecturerDTOs Lecturers whose available times should be saved - IDs can not be null
+         * @param batchSize Maximum number of rows per batch
+         * @throws SQLException If the available times could not be saved
+         */
+        public void createAll(Connection conn, List<LecturerDTO> lecturerDTOs, int batchSize) throws SQLException {
+            List<AvailableDTO> availableDTOs = new ArrayList<>();
+            Map<AvailableDTO, Integer> lecturerIds = new IdentityHashMap<>();
+            for (LecturerDTO lecturerDTO : lecturerDTOs) {
+                for (AvailableDTO availableDTO : lecturerDTO.getAvailable()) {
+                    availableDTOs.add(availableDTO);
+                    lecturerIds.put(availableDTO, lecturerDTO.getId());
+                }
+            }
+            executeBatch(conn, INSERT_QUERY, availableDTOs, batchSize,
+                    (stmt, availableDTO) -> {
+                        stmt.setInt(1, lecturerIds.get(availableDTO));
+                        stmt.setInt(2, availableDTO.getStart());
+                        stmt.setInt(3, availableDTO.getEnd());
+                    },
+                    AvailableDTO::setId);
+        }
+
+        /**
+         * Fetches the available times for a set of lecturers in bulk and adds them to the lecturers.
+         *
+         * @param conn Connection to run the queries on
+         * @param lecturerDTOs Lecturers to fetch available times for, by ID
+         * @param allLecturers True if the map holds every lecturer, so the whole table can be read at once
+         * @throws SQLException If the available times could not be fetched
+         */
+        public void findAll(Connection conn, Map<Integer, LecturerDTO> lecturerDTOs, boolean allLecturers)
+                throws SQLException {
+            if (allLecturers) {
+                findAll(conn, lecturerDTOs, FIND_ALL);
+                return;
+            }
+            for (List<Integer> chunk : chunk(new ArrayList<>(lecturerDTOs.keySet()), IN_LIST_CHUNK_SIZE)) {
+                findAll(conn, lecturerDTOs, String.format(FIND_BY_LECTURER_IDS, placeholders(chunk.size())),
+                        chunk.toArray());
+            }
+        }
+
+        private void findAll(Connection conn, Map<Integer, LecturerDTO> lecturerDTOs, String query, Object... values)
+                throws SQLException {
+            try (
+                PreparedStatement stmt = prepareStatement(conn, query, false, values);
+                ResultSet rs = stmt.executeQuery()
+            ) {
+                RowMapper<AvailableDTO> rows = AVAILABLE.bind(rs);
+                int lecturerColumn = rs.findColumn("lecturer");
+                while (rs.next()) {
+                    LecturerDTO lecturerDTO = lecturerDTOs.get(rs.getInt(lecturerColumn));
+                    if (lecturerDTO != null) {
+                        lecturerDTO.addAvailable(rows.map(rs));
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package no.kij.scheduler.dao;
+
+import no.kij.scheduler.dto.LecturerDTO;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Storage of the lecturers, along with their contacts and available times. {@link LecturerDAO} keeps them in the
+ * database, and {@link no.kij.scheduler.dao.memory.InMemoryLecturerRepository} keeps them in memory.
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public interface LecturerRepository {
+    /**
+     * Saves a lecturer with their contacts and available times, and sets their IDs.
+     *
+     * @param lecturerDTO Lecturer to save
+     * @throws IllegalArgumentException If the lecturer ID is not null
+     * @throws DAOException If the lecturer could not be saved
+     */
+    void create(LecturerDTO lecturerDTO);
+
+    /**
+     * Saves all the given lecturers with their contacts and available times, or none of them if one can not be
+     * saved.
+     *
+     * @param lecturerDTOs Lecturers to save, their IDs are set once saved
+     * @throws IllegalArgumentException If a lecturer, contact or available ID is not null
+     * @throws DAOException If the lecturers could not be saved
+     */
+    void createAll(List<LecturerDTO> lecturerDTOs);
+
+    /**
+     * Saves all the given lecturers with their contacts and available times, or none of them if one can not be
+     * saved, writing them in batches where the storage supports it.
+     *
+     * @param lecturerDTOs Lecturers to save, their IDs are set once saved
+     * @param batchSize Maximum number of rows per batch
+     * @throws IllegalArgumentException If a lecturer, contact or available ID is not null
+     * @throws DAOException If the lecturers could not be saved
+     */
+    void createAll(List<LecturerDTO> lecturerDTOs, int batchSize);
+
+    /**
+     * Checks if the lecturer is available for every hour from the start hour to the end hour, on any day.
+     *
+     * @param lecturerDTO Lecturer to check
+     * @param start First hour
+     * @param end Hour after the last hour
+     * @return True if the lecturer is available
+     */
+    boolean isAvailable(LecturerDTO lecturerDTO, int start, int end);
+
+    /**
+     * Finds the lecturers available for every hour from the start hour to the end hour, on any day.
+     *
+     * @param start First hour
+     * @param end Hour after the last hour
+     * @return List of the available lecturers
+     */
+    List<LecturerDTO> findAvailable(int start, int end);
+
+    /**
+     * @return List of every lecturer
+     */
+    List<LecturerDTO> list();
+
+    /**
+     * Streams every lecturer, so memory use does not have to grow with the number of lecturers.
+     * The stream may hold resources until it is closed, so use try-with-resources.
+     *
+     * @return Stream of all lecturers
+     */
+    Stream<LecturerDTO> stream();
+
+    /**
+     * Lists the lecturers with an ID greater than the given one, in ID order.
+     *
+     * @param afterId ID of the last lecturer of the previous page, 0 for the first page
+     * @param limit Maximum number of lecturers on the page
+     * @return The page of lecturers, shorter than the limit on the last page
+     * @throws IllegalArgumentException If the limit is less than 1
+     */
+    List<LecturerDTO> page(int afterId, int limit);
+
+    /**
+     * Find all lecturers with the given IDs.
+     *
+     * @param ids IDs of the lecturers
+     * @return List of the lecturers that were found, in the order of the given IDs, each one once
+     */
+    List<LecturerDTO> findAll(Collection<Integer> ids);
+
+    /**
+     * Find a lecturer using ID.
+     *
+     * @param id ID of the lecturer
+     * @return LecturerDTO if lecturer was found, null if not
+     */
+    LecturerDTO find(int id);
+
+    /**
+     * Find a lecturer using their name. Names are not unique, so this is the first lecturer saved with the name.
+     *
+     * @param name The name of the lecturer
+     * @return LecturerDTO if lecturer was found, null if not
+     */
+    LecturerDTO find(String name);
+
+    /**
+     * Looks up the IDs of the lecturers with the given names, without loading their contacts or availability.
+     * Names match like the database's default collation compares them, see {@link DAOUtil#nameKey(String)}, and
+     * if several lecturers match a name the one with the lowest ID is picked.
+     *
+     * @param names Names of the lecturers
+     * @return IDs by the given lecturer names, names without a lecturer are left out
+     * @throws DAOException If the lecturers could not be looked up
+     */
+    Map<String, Integer> findIds(Collection<String> names);
+}
@@ -0,0 +1,90 @@
+package no.kij.scheduler.dao;
+
+import no.kij.scheduler.TimedStatement;
+
+import java.sql.SQLException;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Tracks the statements a DAO call runs on the current thread, so the call can be cancelled from another thread.
+ * Cancelling cancels every statement that is still running and makes any later statement of the call fail.
+ * Each statement is tracked along with the lease it was registered under, so a cached statement that has since been
+ * handed to another caller is never cancelled.
+ * The context also carries the {@link Session} the call was made from, so its queries count against it.
+ *
+ * @author Kissor Jeyabalan
+ * @see AsyncDAO
+ * @since 1.1
+ */
+final class QueryContext {
+    private static final ThreadLocal<QueryContext> CURRENT = new ThreadLocal<>();
+
+    private final Map<TimedStatement, Integer> statements = new IdentityHashMap<>();
+    // the session of the thread that created the context, which is the caller's thread for an async call
+    private final Session session = Session.current();
+    private boolean cancelled;
+    private boolean finished;
+
+    /**
+     * Makes this context the current context of this thread.
+     */
+    void bind() {
+        CURRENT.set(this);
+    }
+
+    /**
+     * Ends the call, so a late cancel no longer reaches its statements, and unbinds it from this thread.
+     */
+    synchronized void finish() {
+        finished = true;
+        statements.clear();
+        CURRENT.remove();
+    }
+
+    /**
+     * @return The session the call of this thread's context was made from, null if there is none
+     */
+    static Session session() {
+        QueryContext context = CURRENT.get();
+        return context != null ? context.session : null;
+    }
+
+    /**
+     * Registers a statement with the context of the current thread, if there is one.
+     *
+     * @param stmt Statement about to be run
+     * @throws SQLException If the call has already been cancelled
+     */
+    static void register(TimedStatement stmt) throws SQLException {
+        QueryContext context = CURRENT.get();
+        if (context != null) {
+            context.add(stmt);
+        }
+    }
+
+    private synchronized void add(TimedStatement stmt) throws SQLException {
+        if (cancelled) {
+            stmt.close();
+            throw new SQLException("The query was cancelled.");
+        }
+        statements.put(stmt, stmt.getLease());
+    }
+
+    /**
+     * Cancels the statements of the call that are still open.
+     */
+    synchronized void cancel() {
+        if (cancelled || finished) {
+            return;
+        }
+        cancelled = true;
+        for (Map.Entry<TimedStatement, Integer> entry : statements.entrySet()) {
+            try {
+                entry.getKey().cancel(entry.getValue());
+            } catch (SQLException e) {
+                // the statement finished or was returned to the cache in the meantime
+            }
+        }
+    }
+}
@@ -0,0 +1,393 @@
+package no.kij.scheduler.dao;
+
+import static no.kij.scheduler.dao.DAOUtil.*;
+import static no.kij.scheduler.dao.RowMappers.ROOM;
+
+import no.kij.scheduler.DatabaseConnector;
+import no.kij.scheduler.dto.RoomDTO;
+import no.kij.scheduler.index.RoomIndex;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * This class is the DAO for rooms. It's job is to do CRUD operations related to a room,
+ * without letting the user know how the database is implemented. It requires a database connector to reuse pooled
+ * connections.
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.0
+ */
+public class RoomDAO implements RoomRepository {
+    private DatabaseConnector connector;
+    private final String INSERT_QUERY = "INSERT INTO Room(name, capacity, campus) VALUES (?, ?, ?)";
+    private final String VIEW_ALL_QUERY = "SELECT id, name, capacity, campus FROM Room";
+    private final String VIEW_PAGE_QUERY = "SELECT id, name, capacity, campus FROM Room WHERE id > ? ORDER BY id LIMIT ?";
+    private final String FIND_BY_NAME = "SELECT id, name, capacity, campus FROM Room WHERE name = ?";
+
+    private DAOCache cache;
+    private RoomIndex index;
+
+    /**
+     * Used to create a DAO for the RoomDTO.
+     * @param connector DatabaseConnector to pool connections from
+     */
+    public RoomDAO(DatabaseConnector connector) {
+        this.connector = connector;
+    }
+
+    /**
+     * Used to create a DAO for the RoomDTO that reads through the given shared cache.
+     * @param connector DatabaseConnector to pool connections from
+     * @param cache Shared cache, or null to always go to the database
+     */
+    public RoomDAO(DatabaseConnector connector, DAOCache cache) {
+        this.connector = connector;
+        this.cache = cache;
+    }
+
+    /**
+     * Used to create a DAO for the RoomDTO that answers capacity lookups from the given room index.
+     * The index is built from the database on the first lookup, and kept up to date by this DAO's writes.
+     * @param connector DatabaseConnector to pool connections from
+     * @param cache Shared cache, or null to always go to the database
+     * @param index Shared index over the rooms' capacities, or null to scan the rooms
+     */
+    public RoomDAO(DatabaseConnector connector, DAOCache cache, RoomIndex index) {
+        this.connector = connector;
+        this.cache = cache;
+        this.index = index;
+    }
+
+    /**
+     * Find a room using its name.
+     * @param name Name of the room
+     * @return RoomDTO if found, null if not
+     */
+    public RoomDTO find(String name) {
+        if (cache == null) {
+            return find(FIND_BY_NAME, name);
+        }
+        return cache.roomsByName.get(name, key -> find(FIND_BY_NAME, key));
+    }
+
+    /**
+     * Private implementation to find the given room
+     * @param query Query to be ran towards the database
+     * @param values Value to bind to the query
+     * @return RoomDTO if found, null if not
+     */
+    private RoomDTO find(String query, Object... values) {
+        RoomDTO roomDTO = null;
+        try (
+                Connection conn = connector.getConnection();
+                PreparedStatement stmt = prepareStatement(conn, query, false, values);
+                ResultSet rs = stmt.executeQuery()
+        ) {
+            if (rs.next()) {
+                roomDTO = ROOM.bind(rs).map(rs);
+            }
+        } catch (SQLException e) {
+            System.err.println("Something went wrong while finding the room.");
+            System.err.println(e.getMessage());
+        }
+        return roomDTO;
+    }
+
+    /**
+     * Finds the smallest room holding at least the given number of students.
+     *
+     * @param minCapacity Number of students the room must hold
+     * @param campus Campus the room must be on, or null for any campus
+     * @return The room, or null if no room is big enough
+     * @throws DAOException If the index had to be built and the rooms could not be read
+     */
+    public RoomDTO findSmallest(int minCapacity, String campus) throws DAOException {
+        if (index != null) {
+            ensureIndex();
+            RoomDTO smallest = index.findSmallest(campus, minCapacity);
+            return smallest != null ? new RoomDTO(smallest) : null;
+        }
+        RoomDTO smallest = null;
+        for (RoomDTO roomDTO : list()) {
+            if (roomDTO.getCapacity() >= minCapacity && onCampus(roomDTO, campus)
+                    && (smallest == null || roomDTO.getCapacity() < smallest.getCapacity())) {
+                smallest = roomDTO;
+            }
+        }
+        return smallest;
+    }
+
+    /**
+     * Finds the rooms with a capacity in the given range.
+     *
+     * @param minCapacity Smallest capacity to include
+     * @param maxCapacity Largest capacity to include
+     * @param campus Campus the rooms must be on, or null for any campus
+     * @return The rooms, smallest first
+     * @throws DAOException If the index had to be built and the rooms could not be read
+     */
+    public List<RoomDTO> findByCapacity(int minCapacity, int maxCapacity, String campus) throws DAOException {
+        if (index != null) {
+            ensureIndex();
+            List<RoomDTO> roomDTOs = new ArrayList<>();
+            for (RoomDTO roomDTO : index.findByCapacity(campus, minCapacity, maxCapacity)) {
+                roomDTOs.add(new RoomDTO(roomDTO));
+            }
+            return roomDTOs;
+        }
+        List<RoomDTO> roomDTOs = new ArrayList<>();
+        for (RoomDTO roomDTO : list()) {
+            if (roomDTO.getCapacity() >= minCapacity && roomDTO.getCapacity() <= maxCapacity
+                    && onCampus(roomDTO, campus)) {
+                roomDTOs.add(roomDTO);
+            }
+        }
+        roomDTOs.sort(Comparator.comparingInt(RoomDTO::getCapacity));
+        return roomDTOs;
+    }
+
+    private static boolean onCampus(RoomDTO roomDTO, String campus) {
+        return campus == null || campus.equalsIgnoreCase(roomDTO.getCampus());
+    }
+
+    /**
+     * Builds the room index on first use. Checked again under the index's monitor, so concurrent first lookups
+     * build it once.
+     */
+    private void ensureIndex() throws DAOException {
+        if (!index.isBuilt()) {
+            synchronized (index) {
+                if (!index.isBuilt()) {
+                    rebuildIndex();
+                }
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the room index from the database. Only needed if the rooms were changed by something other
+     * than a DAO sharing the index.
+     *
+     * @throws DAOException If the rooms could not be read
+     */
+    public void rebuildIndex() throws DAOException {
+        if (index == null) {
+            return;
+        }
+        synchronized (index) {
+            index.rebuild(idx -> {
+                try (
+                    Connection conn = connector.getConnection();
+                    PreparedStatement stmt = prepareStatement(conn, VIEW_ALL_QUERY, false);
+                    ResultSet rs = stmt.executeQuery()
+                ) {
+                    RowMapper<RoomDTO> rows = ROOM.bind(rs);
+                    while (rs.next()) {
+                        idx.add(rows.map(rs));
+                    }
+                } catch (SQLException e) {
+                    System.err.println("Something went wrong while indexing the rooms.");
+                    throw new DAOException(e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Adds a saved room to the room index, if there is one. The index gets its own copy, so later changes to
+     * the given room do not reach it. This is done even if the index is not built yet, since a build that is
+     * running right now may have read the rooms before this one was saved, and the index keeps one room per ID.
+     *
+     * @param roomDTO Room with an ID
+     */
+    private void index(RoomDTO roomDTO) {
+        if (index != null && roomDTO.getId() != null) {
+            index.add(new RoomDTO(roomDTO));
+        }
+    }
+
+    /**
+     * Retrieve a list of rooms in the database.
+     * @return List containing all the rooms in the database.
+     */
+    public List<RoomDTO> list() {
+        if (cache == null) {
+            return loadList();
+        }
+        return cache.roomLists.get(DAOCache.ALL, key -> loadList());
+    }
+
+    /**
+     * Streams every room as it is read from the database, bypassing the cache, so memory use does not grow
+     * with the size of the table.
+     * The stream holds a connection until it has been read to the end or closed, so use try-with-resources.
+     *
+     * @return Stream of all rooms
+     * @throws DAOException If the rooms could not be read
+     */
+    public Stream<RoomDTO> stream() throws DAOException {
+        return stream(STREAMING_FETCH_SIZE);
+    }
+
+    /**
+     * Streams every room as it is read from the database, fetching the given number of rows per round trip.
+     *
+     * @param fetchSize Rows per round trip, or {@link DAOUtil#STREAMING_FETCH_SIZE} to fetch row by row
+     * @return Stream of all rooms
+     * @throws DAOException If the rooms could not be read
+     * @see #stream()
+     */
+    public Stream<RoomDTO> stream(int fetchSize) throws DAOException {
+        try {
+            return DAOUtil.stream(connector.getConnection(), VIEW_ALL_QUERY, fetchSize, ROOM);
+        } catch (SQLException e) {
+            System.err.println("Something went wrong while streaming the rooms.");
+            throw new DAOException(e);
+        }
+    }
+
+    /**
+     * Lists the rooms with an ID greater than the given one, in ID order.
+     * The page starts with an index seek on the primary key, so a deep page costs the same as the first one.
+     *
+     * @param afterId ID of the last room of the previous page, 0 for the first page
+     * @param limit Maximum number of rooms on the page
+     * @return The page of rooms, shorter than the limit on the last page
+     */
+    public List<RoomDTO> page(int afterId, int limit) {
+        checkPageLimit(limit);
+        List<RoomDTO> roomDTOs = new ArrayList<>();
+        try (
+            Connection conn = connector.getConnection();
+            PreparedStatement stmt = prepareStatement(conn, VIEW_PAGE_QUERY, false, afterId, limit);
+            ResultSet rs = stmt.executeQuery()
+        ) {
+            RowMapper<RoomDTO> rows = ROOM.bind(rs);
+            while (rs.next()) {
+                RoomDTO roomDTO = rows.map(rs);
+                // a room already loaded in the session comes back as the same object, as on the other pages
+                roomDTOs.add(Session.attach(RoomDTO.class, roomDTO.getId(), roomDTO));
+            }
+        } catch (SQLException e) {
+            System.err.println("Something went wrong while fetching a page of rooms.");
+            System.err.println(e.getMessage());
+        }
+        return roomDTOs;
+    }
+
+    private List<RoomDTO> loadList() {
+        List<RoomDTO> roomDTOs = new ArrayList<>();
+
+        try (
+                Connection conn = connector.getConnection();
+                PreparedStatement stmt = prepareStatement(conn, VIEW_ALL_QUERY, false);
+                ResultSet rs = stmt.executeQuery()
+        ) {
+            RowMapper<RoomDTO> rows = ROOM.bind(rs);
+            while (rs.next()) {
+                roomDTOs.add(rows.map(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Something went wrong while fetching the list of rooms.");
+            System.err.println(e.getMessage());
+        }
+        return roomDTOs;
+    }
+
+
+    /**
+     * Persists the room to the database
+     * @param roomDTO RoomDTO containing the information regarding the room
+     * @throws IllegalArgumentException If Room ID is not null
+     */
+    public void create(RoomDTO roomDTO) throws IllegalArgumentException, DAOException {
+        if (roomDTO.getId() != null) {
+            throw new IllegalArgumentException("Room ID must be null");
+        }
+
+        Object[] values = {
+                roomDTO.getName(),
+                roomDTO.getCapacity(),
+                roomDTO.getCampus()
+        };
+
+        try (
+            Connection conn = connector.getConnection();
+            PreparedStatement stmt = prepareStatement(conn, INSERT_QUERY, true, values)
+        ) {
+            int affectedRows = stmt.executeUpdate();
+            if (affectedRows == 0) {
+                throw new DAOException("Could not save room, no rows were affected");
+            }
+
+            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    roomDTO.setId(generatedKeys.getInt(1));
+                } else {
+                    throw new DAOException("Creating room failed, no ID was returned by the database");
+                }
+            }
+            index(roomDTO);
+        } catch (SQLException e) {
+            System.err.println("Could not save the room to the database.");
+            throw new DAOException(e);
+        } finally {
+            if (cache != null) {
+                cache.roomsByName.invalidate(roomDTO.getName());
+                cache.roomLists.invalidateAll();
+            }
+        }
+    }
+
+    /**
+     * Persists all the given rooms in a single transaction.
+     * @param roomDTOs Rooms to save, their IDs are set once saved
+     * @throws IllegalArgumentException If a room ID is not null
+     * @throws DAOException If the rooms could not be saved, in which case none are saved
+     */
+    public void createAll(List<RoomDTO> roomDTOs) throws IllegalArgumentException, DAOException {
+        createAll(roomDTOs, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Persists all the given rooms in a single transaction, sending them to the database in JDBC batches.
+     * @param roomDTOs Rooms to save, their IDs are set once saved
+     * @param batchSize Maximum number of rows per batch
+     * @throws IllegalArgumentException If a room ID is not null
+     * @throws DAOException If the rooms could not be saved, in which case none are saved
+     */
+    public void createAll(List<RoomDTO> roomDTOs, int batchSize) throws IllegalArgumentException, DAOException {
+        for (RoomDTO roomDTO : roomDTOs) {
+            if (roomDTO.getId() != null) {
+                throw new IllegalArgumentException("Room ID must be null");
+            }
+        }
+
+        try (Connection conn = connector.getConnection()) {
+            transaction(conn, c -> executeBatch(c, INSERT_QUERY, roomDTOs, batchSize,
+                    (stmt, roomDTO) -> {
+                        stmt.setString(1, roomDTO.getName());
+                        stmt.setInt(2, roomDTO.getCapacity());
+                        stmt.setString(3, roomDTO.getCampus());
+                    },
+                    RoomDTO::setId));
+            roomDTOs.forEach(this::index);
+        } catch (SQLException | DAOException e) {
+            roomDTOs.forEach(roomDTO -> roomDTO.setId(null));
+            System.err.println("Could not save the rooms to the database.");
+            throw e instanceof DAOException ? (DAOException) e : new DAOException(e);
+        } finally {
+            if (cache != null) {
+                roomDTOs.forEach(roomDTO -> cache.roomsByName.invalidate(roomDTO.getName()));
+                cache.roomLists.invalidateAll();
+            }
+        }
+    }
+}
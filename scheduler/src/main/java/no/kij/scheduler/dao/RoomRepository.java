@@ -0,0 +1,94 @@
+package no.kij.scheduler.dao;
+
+import no.kij.scheduler.dto.RoomDTO;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Storage of the rooms. {@link RoomDAO} keeps them in the database, and
+ * {@link no.kij.scheduler.dao.memory.InMemoryRoomRepository} keeps them in memory.
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public interface RoomRepository {
+    /**
+     * Find a room using its name.
+     *
+     * @param name Name of the room
+     * @return RoomDTO if found, null if not
+     */
+    RoomDTO find(String name);
+
+    /**
+     * Finds the smallest room holding at least the given number of students.
+     *
+     * @param minCapacity Number of students the room must hold
+     * @param campus Campus the room must be on, or null for any campus
+     * @return The room, or null if no room is big enough
+     */
+    RoomDTO findSmallest(int minCapacity, String campus);
+
+    /**
+     * Finds the rooms with a capacity in the given range.
+     *
+     * @param minCapacity Smallest capacity to include
+     * @param maxCapacity Largest capacity to include
+     * @param campus Campus the rooms must be on, or null for any campus
+     * @return The rooms, smallest first
+     */
+    List<RoomDTO> findByCapacity(int minCapacity, int maxCapacity, String campus);
+
+    /**
+     * @return List of every room
+     */
+    List<RoomDTO> list();
+
+    /**
+     * Streams every room, so memory use does not have to grow with the number of rooms.
+     * The stream may hold resources until it is closed, so use try-with-resources.
+     *
+     * @return Stream of all rooms
+     */
+    Stream<RoomDTO> stream();
+
+    /**
+     * Lists the rooms with an ID greater than the given one, in ID order.
+     *
+     * @param afterId ID of the last room of the previous page, 0 for the first page
+     * @param limit Maximum number of rooms on the page
+     * @return The page of rooms, shorter than the limit on the last page
+     * @throws IllegalArgumentException If the limit is less than 1
+     */
+    List<RoomDTO> page(int afterId, int limit);
+
+    /**
+     * Saves a room and sets its ID.
+     *
+     * @param roomDTO Room to save
+     * @throws IllegalArgumentException If the room ID is not null
+     * @throws DAOException If the room could not be saved
+     */
+    void create(RoomDTO roomDTO);
+
+    /**
+     * Saves all the given rooms, or none of them if one can not be saved.
+     *
+     * @param roomDTOs Rooms to save, their IDs are set once saved
+     * @throws IllegalArgumentException If a room ID is not null
+     * @throws DAOException If the rooms could not be saved
+     */
+    void createAll(List<RoomDTO> roomDTOs);
+
+    /**
+     * Saves all the given rooms, or none of them if one can not be saved, writing them in batches where the
+     * storage supports it.
+     *
+     * @param roomDTOs Rooms to save, their IDs are set once saved
+     * @param batchSize Maximum number of rows per batch
+     * @throws IllegalArgumentException If a room ID is not null
+     * @throws DAOException If the rooms could not be saved
+     */
+    void createAll(List<RoomDTO> roomDTOs, int batchSize);
+}
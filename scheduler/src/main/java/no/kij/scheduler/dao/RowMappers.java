@@ -0,0 +1,60 @@
+package no.kij.scheduler.dao;
+
+import no.kij.scheduler.dto.AvailableDTO;
+import no.kij.scheduler.dto.ContactDTO;
+import no.kij.scheduler.dto.LecturerDTO;
+import no.kij.scheduler.dto.RoomDTO;
+import no.kij.scheduler.dto.SubjectDTO;
+
+/**
+ * The row mappers of the DTOs, shared by the DAOs, and public for code that maps rows of its own, such as the
+ * benchmarks.
+ * The mappers only read the columns of their own table. Contacts and available times are added to their lecturer
+ * and lecturers to their subjects by the DAOs.
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public final class RowMappers {
+    public static final ColumnMapper<RoomDTO> ROOM = new ColumnMapper<>((rs, c) -> {
+        RoomDTO roomDTO = new RoomDTO(rs.getInt(c[2]), rs.getString(c[1]), rs.getString(c[3]));
+        roomDTO.setId(rs.getInt(c[0]));
+        return roomDTO;
+    }, "id", "name", "capacity", "campus");
+
+    public static final ColumnMapper<LecturerDTO> LECTURER = new ColumnMapper<>((rs, c) -> {
+        LecturerDTO lecturerDTO = new LecturerDTO(rs.getString(c[1]));
+        lecturerDTO.setId(rs.getInt(c[0]));
+        return lecturerDTO;
+    }, "id", "name");
+
+    public static final ColumnMapper<ContactDTO> CONTACT = new ColumnMapper<>((rs, c) -> {
+        ContactDTO contactDTO = new ContactDTO(rs.getString(c[1]), rs.getString(c[2]));
+        contactDTO.setId(rs.getInt(c[0]));
+        return contactDTO;
+    }, "id", "number", "email");
+
+    public static final ColumnMapper<AvailableDTO> AVAILABLE = new ColumnMapper<>((rs, c) -> {
+        AvailableDTO availableDTO = new AvailableDTO(rs.getInt(c[1]), rs.getInt(c[2]));
+        availableDTO.setId(rs.getInt(c[0]));
+        return availableDTO;
+    }, "id", "start", "end");
+
+    /**
+     * Maps subject rows, returning the instance held by the current {@link Session} for subjects that have
+     * already been loaded, so their lecturers are not loaded again.
+     */
+    public static final ColumnMapper<SubjectDTO> SUBJECT = new ColumnMapper<>((rs, c) -> {
+        int id = rs.getInt(c[0]);
+        SubjectDTO known = Session.lookup(SubjectDTO.class, id);
+        if (known != null) {
+            return known;
+        }
+        SubjectDTO subjectDTO = new SubjectDTO(rs.getString(c[1]), rs.getString(c[2]), rs.getInt(c[3]));
+        subjectDTO.setId(id);
+        return subjectDTO;
+    }, "id", "name", "shortname", "enrolled");
+
+    private RowMappers() {
+    }
+}
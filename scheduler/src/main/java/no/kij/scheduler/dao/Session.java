@@ -0,0 +1,270 @@
+package no.kij.scheduler.dao;
+
+import no.kij.scheduler.QueryLogSettings;
+import no.kij.scheduler.QueryMetrics;
+import no.kij.scheduler.QueryWarning;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A unit of work that the DAOs share while it is open on the current thread.
+ * It holds an identity map keyed by entity type and database ID, so each row is loaded and bound at most once
+ * per session, and the same row always comes back as the same object.
+ *
+ * <p>Sessions are opened with try-with-resources. Without an open session the DAOs behave as before and every
+ * lookup goes to the database.</p>
+ *
+ * <p>A session is also the logical operation that queries are counted against: every statement prepared on the
+ * session's thread is counted, and the count is recorded in {@link QueryMetrics} when the session is closed.
+ * The operation has a query budget, and raises a {@link QueryWarning} once it goes over it, or once it has issued
+ * the same statement as many times as the repeat threshold, which is what an N+1 query pattern looks like.
+ * A session opened inside another one belongs to the same operation, and so does every call submitted to an
+ * {@link AsyncDAO} while the session is open, even though it runs on another thread. A call still running when
+ * the session closes is left out of the count recorded in QueryMetrics. A test can open a session around a
+ * command and check how many queries the command issued:</p>
+ *
+ * <pre>
+ * try (Session session = Session.open(new QueryLogSettings(4, 2))) {
+ *     app.runCommand("list subject");
+ *     assertTrue(session.getQueryCount() &lt;= 4);
+ *     assertTrue(session.getWarnings().isEmpty());
+ * }
+ * </pre>
+ *
+ * <pre>
+ * try (Session session = Session.open()) {
+ *     LecturerDTO lecturer = lecturerDAO.find(name);
+ *     List&lt;SubjectDTO&gt; subjects = subjectDAO.findSubject(lecturer);
+ * }
+ * </pre>
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public class Session implements AutoCloseable {
+    private static final ThreadLocal<Session> CURRENT = new ThreadLocal<>();
+
+    private final Map<Class<?>, Map<Integer, Object>> identityMap = new ConcurrentHashMap<>();
+    private final Session previous;
+    // the outermost session, which holds the budget and the warnings of the operation
+    private final Session operation;
+    private final int queryBudget;
+    private final int repeatThreshold;
+    private final AtomicInteger queries = new AtomicInteger();
+    private Map<QueryMetrics.Template, int[]> repeats;
+    private List<QueryWarning> warnings;
+    private boolean closed;
+
+    private Session(Session previous, QueryLogSettings settings) {
+        this.previous = previous;
+        this.operation = previous != null ? previous.operation : this;
+        this.queryBudget = settings.getQueryBudget();
+        this.repeatThreshold = settings.getRepeatThreshold();
+    }
+
+    /**
+     * Opens a new session with the default query budget and repeat threshold, and makes it the current session
+     * of this thread.
+     *
+     * @return The new session, to be closed when the unit of work is done
+     */
+    public static Session open() {
+        return open(new QueryLogSettings());
+    }
+
+    /**
+     * Opens a new session and makes it the current session of this thread.
+     * The query budget and repeat threshold only apply if no session is open yet, since a nested session belongs
+     * to the operation of the session around it.
+     *
+     * @param settings Query budget and repeat threshold of the operation
+     * @return The new session, to be closed when the unit of work is done
+     */
+    public static Session open(QueryLogSettings settings) {
+        Session session = new Session(CURRENT.get(), settings);
+        CURRENT.set(session);
+        return session;
+    }
+
+    /**
+     * @return The session open on this thread, null if there is none
+     */
+    public static Session current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Counts a query against the current session and the sessions around it, if there are any, and checks it
+     * against the budget and repeat threshold of the operation. On an {@link AsyncDAO} worker the query counts
+     * against the session the call was submitted from.
+     *
+     * @param template Template of the query
+     * @param parameters Values bound to the query, or null for a batch, which is never flagged as a repeat
+     */
+    static void countQuery(QueryMetrics.Template template, Object[] parameters) {
+        Session session = CURRENT.get();
+        if (session == null) {
+            session = QueryContext.session();
+            if (session == null) {
+                return;
+            }
+        }
+        // the operation is the last session of the chain, so this ends up as the operation's count
+        int queries = 0;
+        for (Session s = session; s != null; s = s.previous) {
+            queries = s.queries.incrementAndGet();
+        }
+        session.operation.check(template, parameters, queries);
+    }
+
+    private synchronized void check(QueryMetrics.Template template, Object[] parameters, int queries) {
+        if (queryBudget > 0 && queries == queryBudget + 1) {
+            warn(new QueryWarning(QueryWarning.Kind.BUDGET_EXCEEDED, template.getSql(), parameters, 0, queries));
+        }
+        if (repeatThreshold == 0 || parameters == null || template.getSql().equals(QueryMetrics.OTHER_TEMPLATE)) {
+            return;
+        }
+        if (repeats == null) {
+            repeats = new IdentityHashMap<>();
+        }
+        int[] count = repeats.computeIfAbsent(template, t -> new int[1]);
+        if (++count[0] == repeatThreshold) {
+            warn(new QueryWarning(QueryWarning.Kind.REPEATED_QUERY, template.getSql(), parameters, 0, count[0]));
+        }
+    }
+
+    private void warn(QueryWarning warning) {
+        if (warnings == null) {
+            warnings = new ArrayList<>();
+        }
+        warnings.add(warning);
+        QueryMetrics.global().warn(warning);
+    }
+
+    /**
+     * @return Number of queries issued on this session's thread, or by the async calls submitted from it, while it
+     * or a session inside it was open
+     */
+    public int getQueryCount() {
+        return queries.get();
+    }
+
+    /**
+     * @return Warnings raised for repeated queries and the query budget of the operation this session belongs to
+     */
+    public List<QueryWarning> getWarnings() {
+        synchronized (operation) {
+            List<QueryWarning> raised = operation.warnings;
+            return raised != null ? Collections.unmodifiableList(new ArrayList<>(raised)) : Collections.emptyList();
+        }
+    }
+
+    /**
+     * Looks up an entity in the current session, if there is one.
+     *
+     * @param type Type of the entity
+     * @param id Database ID of the entity
+     * @return The entity if it has been loaded in the current session, null if not
+     */
+    static <T> T lookup(Class<T> type, Integer id) {
+        Session session = CURRENT.get();
+        return session != null ? session.get(type, id) : null;
+    }
+
+    /**
+     * Registers an entity in the current session, if there is one.
+     *
+     * @param type Type of the entity
+     * @param id Database ID of the entity
+     * @param entity The freshly loaded entity
+     * @return The instance the session already held for this ID, or the given entity
+     */
+    static <T> T attach(Class<T> type, Integer id, T entity) {
+        Session session = CURRENT.get();
+        return session != null ? session.register(type, id, entity) : entity;
+    }
+
+    /**
+     * Returns the entity with the given type and ID, if it has been loaded in this session.
+     *
+     * @param type Type of the entity
+     * @param id Database ID of the entity
+     * @return The entity, or null if it has not been loaded
+     */
+    public <T> T get(Class<T> type, Integer id) {
+        if (id == null) {
+            return null;
+        }
+        Map<Integer, Object> entities = identityMap.get(type);
+        return entities != null ? type.cast(entities.get(id)) : null;
+    }
+
+    /**
+     * Adds an entity to the identity map, unless an entity with the same type and ID is already there.
+     *
+     * @param type Type of the entity
+     * @param id Database ID of the entity
+     * @param entity The entity to register
+     * @return The instance now held by the session for this ID
+     */
+    public <T> T register(Class<T> type, Integer id, T entity) {
+        if (id == null || entity == null) {
+            return entity;
+        }
+        Object existing = identityMap.computeIfAbsent(type, t -> new ConcurrentHashMap<>()).putIfAbsent(id, entity);
+        return existing != null ? type.cast(existing) : entity;
+    }
+
+    /**
+     * Removes an entity from the identity map, so the next lookup reloads it.
+     *
+     * @param type Type of the entity
+     * @param id Database ID of the entity
+     */
+    public void evict(Class<?> type, Integer id) {
+        Map<Integer, Object> entities = identityMap.get(type);
+        if (entities != null && id != null) {
+            entities.remove(id);
+        }
+    }
+
+    /**
+     * @return Number of entities held by this session
+     */
+    public int size() {
+        int size = 0;
+        for (Map<Integer, Object> entities : identityMap.values()) {
+            size += entities.size();
+        }
+        return size;
+    }
+
+    /**
+     * Closes the session, restoring whichever session was current when it was opened.
+     * Closing the outermost session records the number of queries the operation issued.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        identityMap.clear();
+        if (previous == null) {
+            QueryMetrics.global().recordOperation(queries.get());
+        }
+        if (CURRENT.get() == this) {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
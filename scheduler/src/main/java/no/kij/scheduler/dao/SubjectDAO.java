@@ -0,0 +1,892 @@
+package no.kij.scheduler.dao;
+
+import static no.kij.scheduler.dao.DAOUtil.*;
+import static no.kij.scheduler.dao.RowMappers.*;
+import no.kij.scheduler.DatabaseConnector;
+import no.kij.scheduler.dto.AvailableDTO;
+import no.kij.scheduler.dto.ContactDTO;
+import no.kij.scheduler.dto.LecturerDTO;
+import no.kij.scheduler.dto.SubjectDTO;
+import no.kij.scheduler.index.TrigramIndex;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * This class is the DAO for subjects. It's job is to do CRUD operations related to a subject,
+ * without letting the user know how the database is implemented. It requires a database connector to reuse pooled
+ * connections.
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.0
+ */
+public class SubjectDAO implements SubjectRepository {
+    private final String INSERT_QUERY = "INSERT INTO Subject(name, shortname, enrolled) VALUES (?, ?, ?)";
+    private final String ADD_LECTURER_QUERY = "INSERT INTO Subject_Lecturer(subject, lecturer) VALUES (?, ?)";
+    private final String VIEW_ALL_QUERY = "SELECT id, name, shortname, enrolled FROM Subject";
+    private final String VIEW_PAGE_QUERY =
+            "SELECT id, name, shortname, enrolled FROM Subject WHERE id > ? ORDER BY id LIMIT ?";
+    private final String FIND_BY_ID = "SELECT id, name, shortname, enrolled FROM Subject WHERE id = ?";
+    // the matches are ranked and limited first, then joined with their lecturer links
+    private final String SEARCH_QUERY =
+            "SELECT s.id, s.name, s.shortname, s.enrolled, sl.lecturer FROM (" +
+            "SELECT id, name, shortname, enrolled, " +
+            "CASE WHEN shortname = ? THEN 4 WHEN name = ? THEN 3 WHEN name LIKE ? THEN 2 ELSE 1 END AS score " +
+            "FROM Subject WHERE shortname = ? OR name = ? OR (%s(name LIKE ? OR shortname LIKE ?)) " +
+            "ORDER BY score DESC, CHAR_LENGTH(name), id LIMIT ?" +
+            ") s LEFT JOIN Subject_Lecturer sl ON sl.subject = s.id " +
+            "ORDER BY s.score DESC, CHAR_LENGTH(s.name), s.id, sl.lecturer";
+    private final String FIND_BY_LECTURERS =
+            "SELECT sl.lecturer, s.id, s.name, s.shortname, s.enrolled " +
+            "FROM Subject_Lecturer sl JOIN Subject s ON s.id = sl.subject " +
+            "WHERE sl.lecturer IN (%s) ORDER BY sl.lecturer, s.id";
+    private final String FIND_LECTURER_IDS_BY_SUBJECTS =
+            "SELECT subject, lecturer FROM Subject_Lecturer WHERE subject IN (%s) ORDER BY subject, lecturer";
+    private final String VIEW_ALL_NAMES_QUERY = "SELECT id, name, shortname FROM Subject";
+    private final String VIEW_ALL_LECTURERS_QUERY =
+            "SELECT sl.subject, l.id, l.name FROM Subject_Lecturer sl JOIN Lecturer l ON l.id = sl.lecturer " +
+            "ORDER BY sl.subject, sl.lecturer";
+    private final String VIEW_ALL_CONTACTS_QUERY =
+            "SELECT c.id, c.lecturer, c.number, c.email FROM Contact c " +
+            "WHERE c.lecturer IN (SELECT lecturer FROM Subject_Lecturer) ORDER BY c.id";
+    private final String VIEW_ALL_AVAILABLE_QUERY =
+            "SELECT a.id, a.lecturer, a.start, a.end FROM Available a " +
+            "WHERE a.lecturer IN (SELECT lecturer FROM Subject_Lecturer) ORDER BY a.id";
+    private DatabaseConnector connector;
+    private DAOCache cache;
+    private TrigramIndex index;
+
+    /**
+     * Used to create a DAO for the SubjectDTO.
+     *
+     * @param connector DatabaseConnector to pool connections from
+     */
+    public SubjectDAO(DatabaseConnector connector) {
+        this.connector = connector;
+    }
+
+    /**
+     * Used to create a DAO for the SubjectDTO that reads through the given shared cache.
+     *
+     * @param connector DatabaseConnector to pool connections from
+     * @param cache Shared cache, or null to always go to the database
+     */
+    public SubjectDAO(DatabaseConnector connector, DAOCache cache) {
+        this.connector = connector;
+        this.cache = cache;
+    }
+
+    /**
+     * Used to create a DAO for the SubjectDTO that answers partial name searches from the given trigram index.
+     * The index is built from the database on the first search, and kept up to date by this DAO's writes.
+     *
+     * @param connector DatabaseConnector to pool connections from
+     * @param cache Shared cache, or null to always go to the database
+     * @param index Shared index over subject names and short names, or null to scan the table
+     */
+    public SubjectDAO(DatabaseConnector connector, DAOCache cache, TrigramIndex index) {
+        this(connector, cache);
+        this.index = index;
+    }
+
+    /**
+     * Find a subject using it's ID in the database.
+     * If the subject has already been loaded in the current {@link Session}, no query is made.
+     *
+     * @param subjectId ID to query for
+     * @return The subject if found, null if not
+     */
+    public SubjectDTO find(int subjectId) {
+        SubjectDTO known = Session.lookup(SubjectDTO.class, subjectId);
+        if (known != null) {
+            return known;
+        }
+        if (cache == null) {
+            return find(FIND_BY_ID, subjectId);
+        }
+        return attach(cache.subjectsById.get(subjectId, key -> find(FIND_BY_ID, key)));
+    }
+
+    /**
+     * Find a subject using a string as input, which is either short name, full name or a partial
+     * @param subjectName Shortname, full name or partial name
+     * @return The best match if found, null if not
+     * @see #search(String, int)
+     */
+    public SubjectDTO find(String subjectName) {
+        if (cache == null) {
+            return findBest(subjectName);
+        }
+        return attach(cache.subjectsBySearch.get(subjectName, this::findBest));
+    }
+
+    private SubjectDTO findBest(String subjectName) {
+        List<SubjectDTO> subjectDTOs = search(subjectName, 1);
+        return subjectDTOs.isEmpty() ? null : subjectDTOs.get(0);
+    }
+
+    /**
+     * Searches for subjects by short name, full name or partial name, in a single query.
+     * Exact short name matches rank first, then exact name matches, then names starting with the text, then
+     * names or short names containing it. Ties go to the shortest name.
+     * With a trigram index, only the candidate rows it returns are checked for partial matches, otherwise the
+     * whole table is scanned.
+     * The same query returns the IDs of the matches' lecturers. Since subjects are handed out with their lecturers,
+     * the lecturers are then loaded in bulk with their contacts and available times, which takes three more
+     * queries, or fewer if they are already in the session or the shared cache. So a search costs four queries at
+     * most, however many subjects match.
+     *
+     * @param text Shortname, full name or partial name
+     * @param limit Maximum number of matches to return
+     * @return The best matches, best first, empty if there are none
+     */
+    public List<SubjectDTO> search(String text, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Search limit must be at least 1.");
+        }
+        String contains = containsPattern(text);
+        List<Object> values = new ArrayList<>();
+        Collections.addAll(values, text, text, startsWithPattern(text), text, text);
+
+        String candidateFilter = "";
+        int[] candidates = findCandidates(text);
+        if (candidates != null && candidates.length == 0) {
+            candidateFilter = "FALSE AND ";
+        } else if (candidates != null) {
+            candidateFilter = "id IN (" + placeholders(candidates.length) + ") AND ";
+            for (int id : candidates) {
+                values.add(id);
+            }
+        }
+        Collections.addAll(values, contains, contains, limit);
+
+        Map<Integer, SubjectDTO> subjectDTOs = new LinkedHashMap<>();
+        Map<Integer, List<Integer>> lecturerIds = new HashMap<>();
+        try (
+            Connection conn = connector.getConnection();
+            PreparedStatement stmt = prepareStatement(conn, String.format(SEARCH_QUERY, candidateFilter), false,
+                    values.toArray());
+            ResultSet rs = stmt.executeQuery()
+        ) {
+            RowMapper<SubjectDTO> rows = SUBJECT.bind(rs);
+            int idColumn = rs.findColumn("id");
+            int lecturerColumn = rs.findColumn("lecturer");
+            while (rs.next()) {
+                SubjectDTO subjectDTO = subjectDTOs.get(rs.getInt(idColumn));
+                if (subjectDTO == null) {
+                    subjectDTO = rows.map(rs);
+                    subjectDTOs.put(subjectDTO.getId(), subjectDTO);
+                }
+                int lecturerId = rs.getInt(lecturerColumn);
+                // subjects held by the current session already have their lecturers
+                if (!rs.wasNull() && Session.lookup(SubjectDTO.class, subjectDTO.getId()) != subjectDTO) {
+                    lecturerIds.computeIfAbsent(subjectDTO.getId(), id -> new ArrayList<>()).add(lecturerId);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Something went wrong while searching for the subject.");
+            System.err.println(e.getMessage());
+        }
+        // once the connection is back in the pool, so a caller never holds two at once
+        addLecturers(subjectDTOs, lecturerIds);
+
+        List<SubjectDTO> found = new ArrayList<>(subjectDTOs.size());
+        for (SubjectDTO subjectDTO : subjectDTOs.values()) {
+            found.add(Session.attach(SubjectDTO.class, subjectDTO.getId(), subjectDTO));
+        }
+        return found;
+    }
+
+    /**
+     * Asks the trigram index for the subjects that may contain the given text.
+     *
+     * @param text Partial name
+     * @return IDs of the candidates, or null if there is no index, the text is too short for it or it would
+     * return so many candidates that scanning the table is cheaper
+     */
+    private int[] findCandidates(String text) {
+        if (index == null || !TrigramIndex.canSearch(text)) {
+            return null;
+        }
+        ensureIndex();
+        int[] candidates = index.search(text);
+        return candidates.length > IN_LIST_CHUNK_SIZE ? null : candidates;
+    }
+
+    /**
+     * Loads the lecturers of the given subjects in bulk, skipping subjects that came from the current session.
+     * The links are read on a connection of their own, which is handed back before the lecturers are loaded on
+     * another, so this never holds two connections at once. Callers must have handed theirs back as well:
+     * with as many async workers as pooled connections, workers each holding one while waiting for a second
+     * would deadlock the pool.
+     *
+     * @param subjectDTOs Subjects by ID
+     */
+    private void loadLecturers(Map<Integer, SubjectDTO> subjectDTOs) throws SQLException {
+        List<Integer> unloaded = new ArrayList<>();
+        for (SubjectDTO subjectDTO : subjectDTOs.values()) {
+            if (Session.lookup(SubjectDTO.class, subjectDTO.getId()) != subjectDTO) {
+                unloaded.add(subjectDTO.getId());
+            }
+        }
+        if (unloaded.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, List<Integer>> lecturerIds = new HashMap<>();
+        try (Connection conn = connector.getConnection()) {
+            for (List<Integer> chunk : chunk(unloaded, IN_LIST_CHUNK_SIZE)) {
+                String query = String.format(FIND_LECTURER_IDS_BY_SUBJECTS, placeholders(chunk.size()));
+                try (
+                    PreparedStatement stmt = prepareStatement(conn, query, false, chunk.toArray());
+                    ResultSet rs = stmt.executeQuery()
+                ) {
+                    int subjectColumn = rs.findColumn("subject");
+                    int lecturerColumn = rs.findColumn("lecturer");
+                    while (rs.next()) {
+                        lecturerIds.computeIfAbsent(rs.getInt(subjectColumn), id -> new ArrayList<>())
+                                .add(rs.getInt(lecturerColumn));
+                    }
+                }
+            }
+        }
+        addLecturers(subjectDTOs, lecturerIds);
+    }
+
+    /**
+     * Loads the given lecturers in bulk and adds them to their subjects.
+     *
+     * @param subjectDTOs Subjects by ID
+     * @param lecturerIds IDs of the lecturers to add, by subject ID
+     */
+    private void addLecturers(Map<Integer, SubjectDTO> subjectDTOs, Map<Integer, List<Integer>> lecturerIds) {
+        if (lecturerIds.isEmpty()) {
+            return;
+        }
+        List<Integer> allLecturerIds = new ArrayList<>();
+        lecturerIds.values().forEach(allLecturerIds::addAll);
+
+        Map<Integer, LecturerDTO> lecturerDTOs = new HashMap<>();
+        for (LecturerDTO lecturerDTO : new LecturerDAO(connector, cache).findAll(allLecturerIds)) {
+            lecturerDTOs.put(lecturerDTO.getId(), lecturerDTO);
+        }
+        for (Map.Entry<Integer, List<Integer>> links : lecturerIds.entrySet()) {
+            SubjectDTO subjectDTO = subjectDTOs.get(links.getKey());
+            for (Integer lecturerId : links.getValue()) {
+                LecturerDTO lecturerDTO = lecturerDTOs.get(lecturerId);
+                if (lecturerDTO != null) {
+                    subjectDTO.addLecturer(lecturerDTO);
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds the trigram index on first use. Checked again under the index's monitor, so concurrent first
+     * searches build it once.
+     */
+    private void ensureIndex() throws DAOException {
+        if (!index.isBuilt()) {
+            synchronized (index) {
+                if (!index.isBuilt()) {
+                    rebuildIndex();
+                }
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the trigram index from the database. Only needed if the subjects were changed by something
+     * other than a DAO sharing the index.
+     *
+     * @throws DAOException If the subjects could not be read
+     */
+    public void rebuildIndex() throws DAOException {
+        if (index == null) {
+            return;
+        }
+        synchronized (index) {
+            index.rebuild(idx -> {
+                try (
+                    Connection conn = connector.getConnection();
+                    PreparedStatement stmt = prepareStatement(conn, VIEW_ALL_NAMES_QUERY, false);
+                    ResultSet rs = stmt.executeQuery()
+                ) {
+                    int idColumn = rs.findColumn("id");
+                    int nameColumn = rs.findColumn("name");
+                    int shortNameColumn = rs.findColumn("shortname");
+                    while (rs.next()) {
+                        int id = rs.getInt(idColumn);
+                        idx.add(id, rs.getString(nameColumn));
+                        idx.add(id, rs.getString(shortNameColumn));
+                    }
+                } catch (SQLException e) {
+                    System.err.println("Something went wrong while indexing the subjects.");
+                    throw new DAOException(e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Adds a saved subject to the trigram index, if there is one. This is done even if the index is not built
+     * yet, since a build that is running right now may have read the subjects before this one was saved.
+     *
+     * @param subjectDTO Subject with an ID
+     */
+    private void index(SubjectDTO subjectDTO) {
+        if (index != null && subjectDTO.getId() != null) {
+            index.add(subjectDTO.getId(), subjectDTO.getName());
+            index.add(subjectDTO.getId(), subjectDTO.getShortName());
+        }
+    }
+
+    /**
+     * The private implementation that will fetch the subject from the database.
+     *
+     * @param query Query to retrieve from subject table
+     * @param values Values to insert into query
+     * @return The subject that was found in the database
+     */
+    private SubjectDTO find(String query, Object... values) {
+        SubjectDTO subjectDTO = null;
+        try (
+                Connection conn = connector.getConnection();
+                PreparedStatement stmt = prepareStatement(conn, query, false, values);
+                ResultSet rs = stmt.executeQuery()
+        ) {
+            if (rs.next()) {
+                subjectDTO = SUBJECT.bind(rs).map(rs);
+            }
+        } catch (SQLException e) {
+            System.err.println("Something went wrong while finding the subject.");
+            System.err.println(e.getMessage());
+        }
+        // the lecturers are loaded once the connection is back in the pool, so a caller never holds two at once
+        return subjectDTO != null ? loadLecturers(subjectDTO) : null;
+    }
+
+    /**
+     * Persists the subject to the database.
+     *
+     * @param subjectDTO SubjectDTO containing the information regarding the subject
+     * @throws IllegalArgumentException If subject ID is not null
+     * @throws DAOException If something goes wrong while persisting to the database
+     */
+    public void create(SubjectDTO subjectDTO) {
+        if (subjectDTO.getId() != null) {
+            throw new IllegalArgumentException("Subject ID must be null.");
+        }
+
+        Object[] values = {
+            subjectDTO.getName(),
+            subjectDTO.getShortName(),
+            subjectDTO.getEnrolled()
+        };
+
+        try (
+            Connection conn = connector.getConnection();
+            PreparedStatement stmt = prepareStatement(conn, INSERT_QUERY, true, values)
+        ) {
+            int affectedRows = stmt.executeUpdate();
+            if (affectedRows == 0) {
+                throw new DAOException("Could not create subject, no rows were affected");
+            }
+
+            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    subjectDTO.setId(generatedKeys.getInt(1));
+                } else {
+                    throw new DAOException("Creating subject failed, no ID was returned by the DB");
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Something went wrong with saving the subject to the database.");
+            throw new DAOException(e);
+        } finally {
+            invalidate(subjectDTO);
+        }
+        // only once the connection is handed back, since a rebuild holds the index's lock while it waits for one
+        index(subjectDTO);
+    }
+
+    /**
+     * Persists all the given subjects in a single transaction.
+     *
+     * @param subjectDTOs Subjects to save, their IDs are set once saved
+     * @throws IllegalArgumentException If a subject ID is not null
+     * @throws DAOException If the subjects could not be saved, in which case none are saved
+     */
+    public void createAll(List<SubjectDTO> subjectDTOs) {
+        createAll(subjectDTOs, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Persists all the given subjects in a single transaction, sending them to the database in JDBC batches.
+     *
+     * @param subjectDTOs Subjects to save, their IDs are set once saved
+     * @param batchSize Maximum number of rows per batch
+     * @throws IllegalArgumentException If a subject ID is not null
+     * @throws DAOException If the subjects could not be saved, in which case none are saved
+     */
+    public void createAll(List<SubjectDTO> subjectDTOs, int batchSize) {
+        for (SubjectDTO subjectDTO : subjectDTOs) {
+            if (subjectDTO.getId() != null) {
+                throw new IllegalArgumentException("Subject ID must be null.");
+            }
+        }
+
+        try (Connection conn = connector.getConnection()) {
+            transaction(conn, c -> executeBatch(c, INSERT_QUERY, subjectDTOs, batchSize,
+                    (stmt, subjectDTO) -> {
+                        stmt.setString(1, subjectDTO.getName());
+                        stmt.setString(2, subjectDTO.getShortName());
+                        stmt.setInt(3, subjectDTO.getEnrolled());
+                    },
+                    SubjectDTO::setId));
+        } catch (SQLException | DAOException e) {
+            subjectDTOs.forEach(subjectDTO -> subjectDTO.setId(null));
+            System.err.println("Something went wrong with saving the subjects to the database.");
+            throw e instanceof DAOException ? (DAOException) e : new DAOException(e);
+        } finally {
+            subjectDTOs.forEach(this::invalidate);
+        }
+        // only once committed and the connection is handed back, so a rebuild waiting for one is not blocked
+        subjectDTOs.forEach(this::index);
+    }
+
+    /**
+     * Drops everything the shared cache may hold about the given subject after a write.
+     * Searches are dropped entirely, since a new or changed subject can change the result of any search.
+     *
+     * @param subjectDTO Subject that was written
+     */
+    private void invalidate(SubjectDTO subjectDTO) {
+        if (cache != null) {
+            if (subjectDTO.getId() != null) {
+                cache.subjectsById.invalidate(subjectDTO.getId());
+            }
+            cache.subjectsBySearch.invalidateAll();
+            cache.subjectLists.invalidateAll();
+        }
+    }
+
+    /**
+     * Swaps a subject coming out of the shared cache for the instance held by the current {@link Session},
+     * or registers it and its lecturers if the session does not know it yet.
+     *
+     * @param subjectDTO Subject to attach, may be null
+     * @return The instance to hand to the caller
+     */
+    private SubjectDTO attach(SubjectDTO subjectDTO) {
+        if (subjectDTO == null) {
+            return null;
+        }
+        SubjectDTO attached = Session.attach(SubjectDTO.class, subjectDTO.getId(), subjectDTO);
+        if (attached == subjectDTO) {
+            List<LecturerDTO> lecturerDTOs = subjectDTO.getLecturers();
+            for (int i = 0; i < lecturerDTOs.size(); i++) {
+                LecturerDTO lecturerDTO = lecturerDTOs.get(i);
+                lecturerDTOs.set(i, Session.attach(LecturerDTO.class, lecturerDTO.getId(), lecturerDTO));
+            }
+        }
+        return attached;
+    }
+
+    /**
+     * Fetches a list containing all the subjects in the database, including their lecturers.
+     * The whole object graph is loaded with four queries on a single connection and assembled in memory,
+     * so the cost does not grow with the number of subjects or lecturers, and none if the list is in the shared
+     * cache.
+     * Subjects and lecturers already held by the current {@link Session} are reused as they are.
+     *
+     * @return List of subjects
+     * @throws DAOException If something goes wrong while fetching the list of subjects
+     */
+    public List<SubjectDTO> list() {
+        if (cache == null) {
+            return loadList();
+        }
+        List<SubjectDTO> subjectDTOs = cache.subjectLists.get(DAOCache.ALL, key -> loadList());
+        for (int i = 0; i < subjectDTOs.size(); i++) {
+            subjectDTOs.set(i, attach(subjectDTOs.get(i)));
+        }
+        return subjectDTOs;
+    }
+
+    /**
+     * Streams every subject as it is read from the database, bypassing the cache, so memory use does not grow
+     * with the size of the table. Subjects are not registered in the current {@link Session}.
+     * Lecturers are loaded for {@value DAOUtil#STREAM_BATCH_SIZE} subjects at a time on a second connection.
+     * The stream holds a connection until it has been read to the end or closed, so use try-with-resources.
+     *
+     * @return Stream of all subjects
+     * @throws DAOException If the subjects could not be read
+     */
+    public Stream<SubjectDTO> stream() throws DAOException {
+        return stream(STREAMING_FETCH_SIZE);
+    }
+
+    /**
+     * Streams every subject as it is read from the database, fetching the given number of rows per round trip.
+     *
+     * @param fetchSize Rows per round trip, or {@link DAOUtil#STREAMING_FETCH_SIZE} to fetch row by row
+     * @return Stream of all subjects
+     * @throws DAOException If the subjects could not be read
+     * @see #stream()
+     */
+    public Stream<SubjectDTO> stream(int fetchSize) throws DAOException {
+        Stream<SubjectDTO> rows;
+        try {
+            rows = DAOUtil.stream(connector.getConnection(), VIEW_ALL_QUERY, fetchSize, SUBJECT);
+        } catch (SQLException e) {
+            System.err.println("Something went wrong while streaming the subjects.");
+            throw new DAOException(e);
+        }
+        return batched(rows, STREAM_BATCH_SIZE, this::loadLecturers);
+    }
+
+    /**
+     * Lists the subjects with an ID greater than the given one, in ID order, along with their lecturers.
+     * The page starts with an index seek on the primary key, so a deep page costs the same as the first one.
+     *
+     * @param afterId ID of the last subject of the previous page, 0 for the first page
+     * @param limit Maximum number of subjects on the page
+     * @return The page of subjects, shorter than the limit on the last page
+     */
+    public List<SubjectDTO> page(int afterId, int limit) {
+        checkPageLimit(limit);
+        Map<Integer, SubjectDTO> subjectDTOs = new LinkedHashMap<>();
+        try {
+            try (
+                Connection conn = connector.getConnection();
+                PreparedStatement stmt = prepareStatement(conn, VIEW_PAGE_QUERY, false, afterId, limit);
+                ResultSet rs = stmt.executeQuery()
+            ) {
+                RowMapper<SubjectDTO> rows = SUBJECT.bind(rs);
+                while (rs.next()) {
+                    SubjectDTO subjectDTO = rows.map(rs);
+                    subjectDTOs.put(subjectDTO.getId(), subjectDTO);
+                }
+            }
+            loadLecturers(subjectDTOs);
+        } catch (SQLException e) {
+            System.err.println("Something went wrong while fetching a page of subjects.");
+            System.err.println(e.getMessage());
+        }
+
+        List<SubjectDTO> page = new ArrayList<>(subjectDTOs.size());
+        for (SubjectDTO subjectDTO : subjectDTOs.values()) {
+            page.add(Session.attach(SubjectDTO.class, subjectDTO.getId(), subjectDTO));
+        }
+        return page;
+    }
+
+    /**
+     * Loads the lecturers of a batch of streamed subjects.
+     *
+     * @param subjectDTOs Subjects to load the lecturers of
+     */
+    private void loadLecturers(List<SubjectDTO> subjectDTOs) {
+        Map<Integer, SubjectDTO> byId = new LinkedHashMap<>();
+        for (SubjectDTO subjectDTO : subjectDTOs) {
+            byId.put(subjectDTO.getId(), subjectDTO);
+        }
+        try {
+            loadLecturers(byId);
+        } catch (SQLException e) {
+            System.err.println("Something went wrong while fetching the lecturers of the subjects.");
+            throw new DAOException(e);
+        }
+    }
+
+    private List<SubjectDTO> loadList() {
+        Map<Integer, SubjectDTO> subjectDTOs = new LinkedHashMap<>();
+        Map<Integer, SubjectDTO> unloadedSubjects = new HashMap<>();
+        Map<Integer, LecturerDTO> lecturerDTOs = new HashMap<>();
+        Map<Integer, LecturerDTO> unloadedLecturers = new HashMap<>();
+
+        try (Connection conn = connector.getConnection()) {
+            try (
+                PreparedStatement stmt = prepareStatement(conn, VIEW_ALL_QUERY, false);
+                ResultSet rs = stmt.executeQuery()
+            ) {
+                RowMapper<SubjectDTO> rows = SUBJECT.bind(rs);
+                while (rs.next()) {
+                    SubjectDTO subjectDTO = rows.map(rs);
+                    if (Session.lookup(SubjectDTO.class, subjectDTO.getId()) != subjectDTO) {
+                        unloadedSubjects.put(subjectDTO.getId(), subjectDTO);
+                    }
+                    subjectDTOs.put(subjectDTO.getId(), subjectDTO);
+                }
+            }
+
+            try (
+                PreparedStatement stmt = prepareStatement(conn, VIEW_ALL_LECTURERS_QUERY, false);
+                ResultSet rs = stmt.executeQuery()
+            ) {
+                RowMapper<LecturerDTO> rows = LECTURER.bind(rs);
+                int idColumn = rs.findColumn("id");
+                int subjectColumn = rs.findColumn("subject");
+                while (rs.next()) {
+                    int lecturerId = rs.getInt(idColumn);
+                    LecturerDTO lecturerDTO = lecturerDTOs.get(lecturerId);
+                    if (lecturerDTO == null) {
+                        lecturerDTO = Session.lookup(LecturerDTO.class, lecturerId);
+                        if (lecturerDTO == null) {
+                            lecturerDTO = rows.map(rs);
+                            unloadedLecturers.put(lecturerId, lecturerDTO);
+                        }
+                        lecturerDTOs.put(lecturerId, lecturerDTO);
+                    }
+                    SubjectDTO subjectDTO = unloadedSubjects.get(rs.getInt(subjectColumn));
+                    if (subjectDTO != null) {
+                        subjectDTO.addLecturer(lecturerDTO);
+                    }
+                }
+            }
+
+            try (
+                PreparedStatement stmt = prepareStatement(conn, VIEW_ALL_CONTACTS_QUERY, false);
+                ResultSet rs = stmt.executeQuery()
+            ) {
+                RowMapper<ContactDTO> rows = CONTACT.bind(rs);
+                int lecturerColumn = rs.findColumn("lecturer");
+                while (rs.next()) {
+                    LecturerDTO lecturerDTO = unloadedLecturers.get(rs.getInt(lecturerColumn));
+                    if (lecturerDTO != null) {
+                        lecturerDTO.addContact(rows.map(rs));
+                    }
+                }
+            }
+
+            try (
+                PreparedStatement stmt = prepareStatement(conn, VIEW_ALL_AVAILABLE_QUERY, false);
+                ResultSet rs = stmt.executeQuery()
+            ) {
+                RowMapper<AvailableDTO> rows = AVAILABLE.bind(rs);
+                int lecturerColumn = rs.findColumn("lecturer");
+                while (rs.next()) {
+                    LecturerDTO lecturerDTO = unloadedLecturers.get(rs.getInt(lecturerColumn));
+                    if (lecturerDTO != null) {
+                        lecturerDTO.addAvailable(rows.map(rs));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Something went wrong while fetching the subjects.");
+            throw new DAOException(e);
+        }
+
+        for (LecturerDTO lecturerDTO : unloadedLecturers.values()) {
+            Session.attach(LecturerDTO.class, lecturerDTO.getId(), lecturerDTO);
+        }
+        for (SubjectDTO subjectDTO : unloadedSubjects.values()) {
+            Session.attach(SubjectDTO.class, subjectDTO.getId(), subjectDTO);
+        }
+        return new ArrayList<>(subjectDTOs.values());
+    }
+
+    /**
+     * Link a given lecturer to a given subject.
+     *
+     * @param subjectDTO Subject to add the lecturer to
+     * @param lecturerDTO Lecturer to add the subject to
+     * @throws IllegalArgumentException Throws if subject ID or lecturerID is null
+     * @throws DAOException If something goes wrong with the query link the lecturer and subject
+     */
+    public void addLecturer(SubjectDTO subjectDTO, LecturerDTO lecturerDTO) {
+        if (subjectDTO.getId() == null) {
+            throw new IllegalArgumentException("Subject ID can not be null");
+        } else if (lecturerDTO.getId() == null) {
+            throw new IllegalArgumentException("Lecturer ID can not be null");
+        }
+
+        Object[] values = {
+                subjectDTO.getId(),
+                lecturerDTO.getId()
+        };
+
+        try (
+            Connection conn = connector.getConnection();
+            PreparedStatement stmt = prepareStatement(conn, ADD_LECTURER_QUERY, false, values)
+        ) {
+            int affectedRows = stmt.executeUpdate();
+            if (affectedRows == 0) {
+                throw new DAOException("Could not link lecturer to subject.");
+            }
+        } catch (SQLException e) {
+            System.err.println("Something went wrong when linking lecturer and subject together.");
+            throw new DAOException(e);
+        } finally {
+            invalidate(subjectDTO);
+        }
+    }
+
+    /**
+     * Links subjects to lecturers in bulk, in a single transaction.
+     *
+     * @param links Lecturers to add, by the subject they should be added to
+     * @throws IllegalArgumentException Throws if a subject ID or lecturer ID is null
+     * @throws DAOException If the links could not be saved, in which case none are saved
+     */
+    public void addLecturers(Map<SubjectDTO, ? extends Collection<LecturerDTO>> links) {
+        addLecturers(links, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Links subjects to lecturers in bulk, in a single transaction, sending them to the database in JDBC batches.
+     *
+     * @param links Lecturers to add, by the subject they should be added to
+     * @param batchSize Maximum number of rows per batch
+     * @throws IllegalArgumentException Throws if a subject ID or lecturer ID is null
+     * @throws DAOException If the links could not be saved, in which case none are saved
+     */
+    public void addLecturers(Map<SubjectDTO, ? extends Collection<LecturerDTO>> links, int batchSize) {
+        List<int[]> rows = new ArrayList<>();
+        for (Map.Entry<SubjectDTO, ? extends Collection<LecturerDTO>> link : links.entrySet()) {
+            if (link.getKey().getId() == null) {
+                throw new IllegalArgumentException("Subject ID can not be null");
+            }
+            for (LecturerDTO lecturerDTO : link.getValue()) {
+                if (lecturerDTO.getId() == null) {
+                    throw new IllegalArgumentException("Lecturer ID can not be null");
+                }
+                rows.add(new int[] { link.getKey().getId(), lecturerDTO.getId() });
+            }
+        }
+
+        try (Connection conn = connector.getConnection()) {
+            transaction(conn, c -> executeBatch(c, ADD_LECTURER_QUERY, rows, batchSize, (stmt, row) -> {
+                stmt.setInt(1, row[0]);
+                stmt.setInt(2, row[1]);
+            }, null));
+        } catch (SQLException e) {
+            System.err.println("Something went wrong when linking lecturers and subjects together.");
+            throw new DAOException(e);
+        } finally {
+            links.keySet().forEach(this::invalidate);
+        }
+    }
+
+    /**
+     * Loads the lecturers of a subject that was just read.
+     * Subjects and lecturers already held by the current {@link Session} are reused instead of being loaded again.
+     *
+     * @param subjectDTO Subject as read by the subject mapper
+     * @return The subject with its lecturers
+     */
+    private SubjectDTO loadLecturers(SubjectDTO subjectDTO) {
+        if (Session.lookup(SubjectDTO.class, subjectDTO.getId()) == subjectDTO) {
+            return subjectDTO;
+        }
+
+        LecturerDAO lecturerDAO = new LecturerDAO(connector, cache);
+        subjectDTO.getLecturers().addAll(lecturerDAO.findAll(findLecturerId(subjectDTO.getId())));
+        return Session.attach(SubjectDTO.class, subjectDTO.getId(), subjectDTO);
+    }
+
+    /**
+     * Find subjects belong to a specific lecturer.
+     * The subjects are read with a single join, and their lecturers loaded in bulk afterwards, so the cost does
+     * not grow with the number of subjects.
+     * @param lecturerDTO lecturer to find subjects for
+     * @return List of subjects
+     */
+    public List<SubjectDTO> findSubject(LecturerDTO lecturerDTO) {
+        List<SubjectDTO> subjectDTOs = findSubjects(Collections.singletonList(lecturerDTO)).get(lecturerDTO.getId());
+        return subjectDTOs != null ? subjectDTOs : new ArrayList<>();
+    }
+
+    /**
+     * Finds the subjects of each of the given lecturers, along with the subjects' lecturers.
+     * The links and subjects are read with one join per chunk of lecturers, on a connection that is handed
+     * back before the lecturers of the subjects are loaded in bulk, so a page of lecturers costs the same five
+     * queries as a single one.
+     *
+     * @param lecturerDTOs Lecturers to find subjects for
+     * @return Subjects in ID order by lecturer ID, with an entry for every lecturer that has an ID, empty if the
+     *         subjects could not be read
+     */
+    public Map<Integer, List<SubjectDTO>> findSubjects(List<LecturerDTO> lecturerDTOs) {
+        List<Integer> lecturerIds = new ArrayList<>();
+        Map<Integer, List<Integer>> subjectIds = new LinkedHashMap<>();
+        for (LecturerDTO lecturerDTO : lecturerDTOs) {
+            if (lecturerDTO.getId() != null && subjectIds.put(lecturerDTO.getId(), new ArrayList<>()) == null) {
+                lecturerIds.add(lecturerDTO.getId());
+            }
+        }
+        if (lecturerIds.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+
+        Map<Integer, SubjectDTO> subjectDTOs = new LinkedHashMap<>();
+        try {
+            try (Connection conn = connector.getConnection()) {
+                for (List<Integer> chunk : chunk(lecturerIds, IN_LIST_CHUNK_SIZE)) {
+                    String query = String.format(FIND_BY_LECTURERS, placeholders(chunk.size()));
+                    try (
+                        PreparedStatement stmt = prepareStatement(conn, query, false, chunk.toArray());
+                        ResultSet rs = stmt.executeQuery()
+                    ) {
+                        int lecturerColumn = rs.findColumn("lecturer");
+                        RowMapper<SubjectDTO> rows = SUBJECT.bind(rs);
+                        while (rs.next()) {
+                            SubjectDTO subjectDTO = rows.map(rs);
+                            subjectDTOs.putIfAbsent(subjectDTO.getId(), subjectDTO);
+                            subjectIds.get(rs.getInt(lecturerColumn)).add(subjectDTO.getId());
+                        }
+                    }
+                }
+            }
+            loadLecturers(subjectDTOs);
+        } catch (SQLException e) {
+            System.err.println("Something went wrong while querying for subjects. Returning empty.");
+            System.err.println(e.getMessage());
+            return new LinkedHashMap<>();
+        }
+
+        Map<Integer, List<SubjectDTO>> found = new LinkedHashMap<>();
+        for (Map.Entry<Integer, List<Integer>> links : subjectIds.entrySet()) {
+            List<SubjectDTO> lecturerSubjects = new ArrayList<>(links.getValue().size());
+            for (Integer subjectId : links.getValue()) {
+                lecturerSubjects.add(Session.attach(SubjectDTO.class, subjectId, subjectDTOs.get(subjectId)));
+            }
+            found.put(links.getKey(), lecturerSubjects);
+        }
+        return found;
+    }
+
+    /**
+     * Private implementation to retrieve all lecturers linked to the given subject ID.
+     * @param subjectId ID of subject to find lecturers for
+     * @return List of IDs belonging to the lecturers of this subjects
+     */
+    private List<Integer> findLecturerId(int subjectId) {
+        List<Integer> lecturerIds = new ArrayList<>();
+        try (
+            Connection conn = connector.getConnection();
+            PreparedStatement stmt = prepareStatement(conn,
+                    "SELECT lecturer FROM Subject_Lecturer WHERE subject = ?", false, subjectId);
+            ResultSet rs = stmt.executeQuery()
+        ) {
+            while (rs.next()) {
+                lecturerIds.add(rs.getInt(1));
+            }
+        } catch (SQLException e) {
+            System.err.println("Could not find list of lecturer IDs for the subject.");
+            System.err.println(e.getMessage());
+        }
+        return lecturerIds;
+    }
+}
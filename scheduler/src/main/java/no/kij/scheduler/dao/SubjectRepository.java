@@ -0,0 +1,145 @@
+package no.kij.scheduler.dao;
+
+import no.kij.scheduler.dto.LecturerDTO;
+import no.kij.scheduler.dto.SubjectDTO;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Storage of the subjects and of which lecturers teach them. {@link SubjectDAO} keeps them in the database, and
+ * {@link no.kij.scheduler.dao.memory.InMemorySubjectRepository} keeps them in memory.
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public interface SubjectRepository {
+    /**
+     * Find a subject using its ID, along with its lecturers.
+     *
+     * @param subjectId ID of the subject
+     * @return The subject if found, null if not
+     */
+    SubjectDTO find(int subjectId);
+
+    /**
+     * Find a subject using a string as input, which is either short name, full name or a partial name.
+     *
+     * @param subjectName Shortname, full name or partial name
+     * @return The best match if found, null if not
+     * @see #search(String, int)
+     */
+    SubjectDTO find(String subjectName);
+
+    /**
+     * Searches for subjects by short name, full name or partial name, ignoring case.
+     * Exact short name matches rank first, then exact name matches, then names starting with the text, then
+     * names or short names containing it. Ties go to the shortest name, then to the lowest ID.
+     *
+     * @param text Shortname, full name or partial name
+     * @param limit Maximum number of matches to return
+     * @return The best matches with their lecturers, best first, empty if there are none
+     * @throws IllegalArgumentException If the limit is less than 1
+     */
+    List<SubjectDTO> search(String text, int limit);
+
+    /**
+     * Saves a subject and sets its ID. Its lecturers are not linked, see {@link #addLecturer}.
+     *
+     * @param subjectDTO Subject to save
+     * @throws IllegalArgumentException If the subject ID is not null
+     * @throws DAOException If the subject could not be saved
+     */
+    void create(SubjectDTO subjectDTO);
+
+    /**
+     * Saves all the given subjects, or none of them if one can not be saved.
+     *
+     * @param subjectDTOs Subjects to save, their IDs are set once saved
+     * @throws IllegalArgumentException If a subject ID is not null
+     * @throws DAOException If the subjects could not be saved
+     */
+    void createAll(List<SubjectDTO> subjectDTOs);
+
+    /**
+     * Saves all the given subjects, or none of them if one can not be saved, writing them in batches where the
+     * storage supports it.
+     *
+     * @param subjectDTOs Subjects to save, their IDs are set once saved
+     * @param batchSize Maximum number of rows per batch
+     * @throws IllegalArgumentException If a subject ID is not null
+     * @throws DAOException If the subjects could not be saved
+     */
+    void createAll(List<SubjectDTO> subjectDTOs, int batchSize);
+
+    /**
+     * @return List of every subject, along with their lecturers
+     */
+    List<SubjectDTO> list();
+
+    /**
+     * Streams every subject along with their lecturers, so memory use does not have to grow with the number of
+     * subjects. The stream may hold resources until it is closed, so use try-with-resources.
+     *
+     * @return Stream of all subjects
+     */
+    Stream<SubjectDTO> stream();
+
+    /**
+     * Lists the subjects with an ID greater than the given one, in ID order, along with their lecturers.
+     *
+     * @param afterId ID of the last subject of the previous page, 0 for the first page
+     * @param limit Maximum number of subjects on the page
+     * @return The page of subjects, shorter than the limit on the last page
+     * @throws IllegalArgumentException If the limit is less than 1
+     */
+    List<SubjectDTO> page(int afterId, int limit);
+
+    /**
+     * Link a given lecturer to a given subject.
+     *
+     * @param subjectDTO Subject to add the lecturer to
+     * @param lecturerDTO Lecturer to add the subject to
+     * @throws IllegalArgumentException If the subject ID or lecturer ID is null
+     * @throws DAOException If the lecturer could not be linked to the subject
+     */
+    void addLecturer(SubjectDTO subjectDTO, LecturerDTO lecturerDTO);
+
+    /**
+     * Links subjects to lecturers in bulk, or none of them if one link can not be saved.
+     *
+     * @param links Lecturers to add, by the subject they should be added to
+     * @throws IllegalArgumentException If a subject ID or lecturer ID is null
+     * @throws DAOException If the links could not be saved
+     */
+    void addLecturers(Map<SubjectDTO, ? extends Collection<LecturerDTO>> links);
+
+    /**
+     * Links subjects to lecturers in bulk, or none of them if one link can not be saved, writing them in batches
+     * where the storage supports it.
+     *
+     * @param links Lecturers to add, by the subject they should be added to
+     * @param batchSize Maximum number of rows per batch
+     * @throws IllegalArgumentException If a subject ID or lecturer ID is null
+     * @throws DAOException If the links could not be saved
+     */
+    void addLecturers(Map<SubjectDTO, ? extends Collection<LecturerDTO>> links, int batchSize);
+
+    /**
+     * Find the subjects a lecturer teaches.
+     *
+     * @param lecturerDTO Lecturer to find subjects for
+     * @return List of subjects
+     */
+    List<SubjectDTO> findSubject(LecturerDTO lecturerDTO);
+
+    /**
+     * Find the subjects of each of the given lecturers at once.
+     *
+     * @param lecturerDTOs Lecturers to find subjects for
+     * @return Subjects by lecturer ID, with an entry for every lecturer that has an ID
+     */
+    Map<Integer, List<SubjectDTO>> findSubjects(List<LecturerDTO> lecturerDTOs);
+}
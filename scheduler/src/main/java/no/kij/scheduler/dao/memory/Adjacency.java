@@ -0,0 +1,64 @@
+package no.kij.scheduler.dao.memory;
+
+import java.util.Arrays;
+
+/**
+ * One direction of a many-to-many link between dense IDs, such as the lecturers of each subject.
+ * Each ID has a sorted array of the IDs it links to, indexed by the ID itself, so the links of a row are found
+ * with one array read and no boxing.
+ *
+ * <p>Rows are copied on write and never changed once published, so readers take no lock. Writers must be
+ * serialized by the caller.</p>
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+final class Adjacency {
+    private static final int[] NONE = new int[0];
+
+    private volatile int[][] rows = new int[16][];
+
+    /**
+     * @param from ID to find the links of
+     * @return Sorted IDs linked to the given ID, not to be changed
+     */
+    int[] get(int from) {
+        int[][] current = rows;
+        return from >= 0 && from < current.length && current[from] != null ? current[from] : NONE;
+    }
+
+    /**
+     * @param from ID the link starts at
+     * @param to ID the link ends at
+     * @return True if the IDs are linked
+     */
+    boolean contains(int from, int to) {
+        return Arrays.binarySearch(get(from), to) >= 0;
+    }
+
+    /**
+     * Links two IDs, unless they are already linked. Callers must hold the store's lock.
+     *
+     * @param from ID the link starts at
+     * @param to ID the link ends at
+     */
+    void add(int from, int to) {
+        int[][] current = rows;
+        if (from >= current.length) {
+            current = Arrays.copyOf(current, Math.max(from + 1, current.length * 2));
+        }
+        int[] row = current[from] != null ? current[from] : NONE;
+        int index = Arrays.binarySearch(row, to);
+        if (index >= 0) {
+            return;
+        }
+        index = -index - 1;
+        int[] added = new int[row.length + 1];
+        System.arraycopy(row, 0, added, 0, index);
+        added[index] = to;
+        System.arraycopy(row, index, added, index + 1, row.length - index);
+        current[from] = added;
+        // written back even when not grown, so readers of the volatile field see the new row
+        rows = current;
+    }
+}
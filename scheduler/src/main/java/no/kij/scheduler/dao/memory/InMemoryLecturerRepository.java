@@ -0,0 +1,147 @@
+package no.kij.scheduler.dao.memory;
+
+import static no.kij.scheduler.dao.DAOUtil.checkPageLimit;
+
+import no.kij.scheduler.dao.DAOException;
+import no.kij.scheduler.dao.LecturerRepository;
+import no.kij.scheduler.dto.AvailableDTO;
+import no.kij.scheduler.dto.LecturerDTO;
+import no.kij.scheduler.index.AvailabilityIndex;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the lecturers, with their contacts and available times, in an {@link InMemoryStore}. Lecturers are found
+ * by ID and by name with a hash lookup, and by availability with the store's availability index.
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public class InMemoryLecturerRepository implements LecturerRepository {
+    private final InMemoryStore store;
+
+    /**
+     * @param store Store to keep the lecturers in
+     */
+    public InMemoryLecturerRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public void create(LecturerDTO lecturerDTO) throws IllegalArgumentException, DAOException {
+        createAll(Collections.singletonList(lecturerDTO));
+    }
+
+    @Override
+    public void createAll(List<LecturerDTO> lecturerDTOs) throws IllegalArgumentException, DAOException {
+        for (LecturerDTO lecturerDTO : lecturerDTOs) {
+            if (lecturerDTO.getId() != null) {
+                throw new IllegalArgumentException("Lecturer ID must be null. This lecturer already exists.");
+            } else if (lecturerDTO.getContact().stream().anyMatch(contactDTO -> contactDTO.getId() != null)) {
+                throw new IllegalArgumentException("Contact ID must be null.");
+            } else if (lecturerDTO.getAvailable().stream().anyMatch(availableDTO -> availableDTO.getId() != null)) {
+                throw new IllegalArgumentException("Available ID must be null.");
+            }
+        }
+        store.addLecturers(lecturerDTOs);
+    }
+
+    /**
+     * Saves all the given lecturers. There are no round trips to save, so the batch size is ignored.
+     */
+    @Override
+    public void createAll(List<LecturerDTO> lecturerDTOs, int batchSize) throws IllegalArgumentException, DAOException {
+        createAll(lecturerDTOs);
+    }
+
+    @Override
+    public boolean isAvailable(LecturerDTO lecturerDTO, int start, int end) {
+        if (lecturerDTO.getId() != null) {
+            return store.availability.isFree(lecturerDTO.getId(), start, end);
+        }
+        int span = AvailabilityIndex.span(start, end);
+        int hours = 0;
+        for (AvailableDTO availableDTO : lecturerDTO.getAvailable()) {
+            hours |= AvailabilityIndex.span(availableDTO.getStart(), availableDTO.getEnd());
+        }
+        return span != 0 && (hours & span) == span;
+    }
+
+    @Override
+    public List<LecturerDTO> findAvailable(int start, int end) {
+        List<LecturerDTO> lecturerDTOs = new ArrayList<>();
+        for (int id : store.availability.findFree(start, end)) {
+            LecturerDTO lecturerDTO = store.lecturer(id);
+            if (lecturerDTO != null) {
+                lecturerDTOs.add(lecturerDTO);
+            }
+        }
+        return lecturerDTOs;
+    }
+
+    @Override
+    public List<LecturerDTO> list() {
+        return page(0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Stream<LecturerDTO> stream() {
+        return IntStream.rangeClosed(1, store.lecturerCount()).mapToObj(store::lecturer).filter(Objects::nonNull);
+    }
+
+    @Override
+    public List<LecturerDTO> page(int afterId, int limit) {
+        checkPageLimit(limit);
+        List<LecturerDTO> lecturerDTOs = new ArrayList<>();
+        int id = Math.max(afterId, 0);
+        int last = store.lecturerCount();
+        while (id < last && lecturerDTOs.size() < limit) {
+            lecturerDTOs.add(store.lecturer(++id));
+        }
+        return lecturerDTOs;
+    }
+
+    @Override
+    public List<LecturerDTO> findAll(Collection<Integer> ids) {
+        List<LecturerDTO> lecturerDTOs = new ArrayList<>();
+        for (Integer id : new LinkedHashSet<>(ids)) {
+            LecturerDTO lecturerDTO = id != null ? store.lecturer(id) : null;
+            if (lecturerDTO != null) {
+                lecturerDTOs.add(lecturerDTO);
+            }
+        }
+        return lecturerDTOs;
+    }
+
+    @Override
+    public LecturerDTO find(int id) {
+        return store.lecturer(id);
+    }
+
+    @Override
+    public LecturerDTO find(String name) {
+        Integer id = name != null ? store.lecturerIds.get(InMemoryStore.key(name)) : null;
+        return id != null ? store.lecturer(id) : null;
+    }
+
+    @Override
+    public Map<String, Integer> findIds(Collection<String> names) {
+        Map<String, Integer> ids = new HashMap<>();
+        for (String name : names) {
+            Integer id = name != null ? store.lecturerIds.get(InMemoryStore.key(name)) : null;
+            if (id != null) {
+                ids.put(name, id);
+            }
+        }
+        return ids;
+    }
+}
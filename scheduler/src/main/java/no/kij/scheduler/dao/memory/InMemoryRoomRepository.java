@@ -0,0 +1,94 @@
+package no.kij.scheduler.dao.memory;
+
+import static no.kij.scheduler.dao.DAOUtil.checkPageLimit;
+
+import no.kij.scheduler.dao.DAOException;
+import no.kij.scheduler.dao.RoomRepository;
+import no.kij.scheduler.dto.RoomDTO;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the rooms in an {@link InMemoryStore}. Rooms are found by name with a hash lookup, and by capacity with
+ * the store's room index.
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public class InMemoryRoomRepository implements RoomRepository {
+    private final InMemoryStore store;
+
+    /**
+     * @param store Store to keep the rooms in
+     */
+    public InMemoryRoomRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public RoomDTO find(String name) {
+        Integer id = name != null ? store.roomIds.get(InMemoryStore.key(name)) : null;
+        return id != null ? store.room(id) : null;
+    }
+
+    @Override
+    public RoomDTO findSmallest(int minCapacity, String campus) {
+        RoomDTO roomDTO = store.roomCapacities.findSmallest(campus, minCapacity);
+        return roomDTO != null ? new RoomDTO(roomDTO) : null;
+    }
+
+    @Override
+    public List<RoomDTO> findByCapacity(int minCapacity, int maxCapacity, String campus) {
+        return InMemoryStore.copyRooms(store.roomCapacities.findByCapacity(campus, minCapacity, maxCapacity));
+    }
+
+    @Override
+    public List<RoomDTO> list() {
+        return page(0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Stream<RoomDTO> stream() {
+        return IntStream.rangeClosed(1, store.roomCount()).mapToObj(store::room).filter(Objects::nonNull);
+    }
+
+    @Override
+    public List<RoomDTO> page(int afterId, int limit) {
+        checkPageLimit(limit);
+        List<RoomDTO> roomDTOs = new ArrayList<>();
+        int id = Math.max(afterId, 0);
+        int last = store.roomCount();
+        while (id < last && roomDTOs.size() < limit) {
+            roomDTOs.add(store.room(++id));
+        }
+        return roomDTOs;
+    }
+
+    @Override
+    public void create(RoomDTO roomDTO) throws IllegalArgumentException, DAOException {
+        createAll(Collections.singletonList(roomDTO));
+    }
+
+    @Override
+    public void createAll(List<RoomDTO> roomDTOs) throws IllegalArgumentException, DAOException {
+        for (RoomDTO roomDTO : roomDTOs) {
+            if (roomDTO.getId() != null) {
+                throw new IllegalArgumentException("Room ID must be null");
+            }
+        }
+        store.addRooms(roomDTOs);
+    }
+
+    /**
+     * Saves all the given rooms. There are no round trips to save, so the batch size is ignored.
+     */
+    @Override
+    public void createAll(List<RoomDTO> roomDTOs, int batchSize) throws IllegalArgumentException, DAOException {
+        createAll(roomDTOs);
+    }
+}
@@ -0,0 +1,257 @@
+package no.kij.scheduler.dao.memory;
+
+import no.kij.scheduler.dao.DAOException;
+import no.kij.scheduler.dao.DAOUtil;
+import no.kij.scheduler.dao.Session;
+import no.kij.scheduler.dto.AvailableDTO;
+import no.kij.scheduler.dto.ContactDTO;
+import no.kij.scheduler.dto.LecturerDTO;
+import no.kij.scheduler.dto.RoomDTO;
+import no.kij.scheduler.dto.SubjectDTO;
+import no.kij.scheduler.index.AvailabilityIndex;
+import no.kij.scheduler.index.RoomIndex;
+import no.kij.scheduler.index.TrigramIndex;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The rows of the in-memory storage backend, shared by {@link InMemoryLecturerRepository},
+ * {@link InMemorySubjectRepository} and {@link InMemoryRoomRepository}.
+ *
+ * <p>Rows are kept in concurrent hash maps by ID, with a second map from the normalized name to the ID of the
+ * first row saved with that name, so lookups by ID and by name are a single hash lookup. IDs are handed out from
+ * 1 and upwards with no gaps, like the database's auto increment, so listing and paging walk the IDs in order.
+ * The links between subjects and lecturers are held as sorted arrays of primitive IDs in both directions, see
+ * {@link Adjacency}. The availability, trigram and room indexes are the same as the JDBC DAOs use, kept up to date
+ * on every write instead of being built from the database.</p>
+ *
+ * <p>Reads take no lock. Writes are serialized on the store, and bulk writes check every row before the first one
+ * is saved, so a failed write saves nothing. The stored rows are never handed out, callers get copies.</p>
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public class InMemoryStore {
+    final Map<Integer, LecturerDTO> lecturers = new ConcurrentHashMap<>();
+    final Map<String, Integer> lecturerIds = new ConcurrentHashMap<>();
+    final Map<Integer, SubjectDTO> subjects = new ConcurrentHashMap<>();
+    final Map<Integer, RoomDTO> rooms = new ConcurrentHashMap<>();
+    final Map<String, Integer> roomIds = new ConcurrentHashMap<>();
+    final Adjacency lecturersBySubject = new Adjacency();
+    final Adjacency subjectsByLecturer = new Adjacency();
+    final AvailabilityIndex availability = new AvailabilityIndex();
+    final TrigramIndex subjectNames = new TrigramIndex();
+    final RoomIndex roomCapacities = new RoomIndex();
+
+    // highest ID saved so far, written after the row so a reader never walks up to a row that is not there yet
+    private volatile int lastLecturerId;
+    private volatile int lastSubjectId;
+    private volatile int lastRoomId;
+    private int lastContactId;
+    private int lastAvailableId;
+
+    /**
+     * Creates an empty store.
+     */
+    public InMemoryStore() {
+        // nothing to load, the indexes are built from the writes
+        availability.rebuild(index -> { });
+        subjectNames.rebuild(index -> { });
+        roomCapacities.rebuild(index -> { });
+    }
+
+    /**
+     * @return Number of lecturers saved
+     */
+    public int lecturerCount() {
+        return lastLecturerId;
+    }
+
+    /**
+     * @return Number of subjects saved
+     */
+    public int subjectCount() {
+        return lastSubjectId;
+    }
+
+    /**
+     * @return Number of rooms saved
+     */
+    public int roomCount() {
+        return lastRoomId;
+    }
+
+    /**
+     * Saves the lecturers with their contacts and available times, and sets their IDs.
+     *
+     * @param lecturerDTOs Lecturers without IDs
+     */
+    synchronized void addLecturers(List<LecturerDTO> lecturerDTOs) {
+        for (LecturerDTO lecturerDTO : lecturerDTOs) {
+            int id = lastLecturerId + 1;
+            lecturerDTO.setId(id);
+            for (ContactDTO contactDTO : lecturerDTO.getContact()) {
+                contactDTO.setId(++lastContactId);
+            }
+            for (AvailableDTO availableDTO : lecturerDTO.getAvailable()) {
+                availableDTO.setId(++lastAvailableId);
+                availability.add(id, availableDTO.getStart(), availableDTO.getEnd());
+            }
+            lecturers.put(id, new LecturerDTO(lecturerDTO));
+            if (lecturerDTO.getName() != null) {
+                lecturerIds.putIfAbsent(key(lecturerDTO.getName()), id);
+            }
+            lastLecturerId = id;
+        }
+    }
+
+    /**
+     * Saves the subjects, without their lecturers, and sets their IDs.
+     *
+     * @param subjectDTOs Subjects without IDs
+     */
+    synchronized void addSubjects(List<SubjectDTO> subjectDTOs) {
+        for (SubjectDTO subjectDTO : subjectDTOs) {
+            int id = lastSubjectId + 1;
+            subjectDTO.setId(id);
+            SubjectDTO stored = new SubjectDTO(subjectDTO.getName(), subjectDTO.getShortName(),
+                    subjectDTO.getEnrolled());
+            stored.setId(id);
+            subjects.put(id, stored);
+            if (stored.getName() != null) {
+                subjectNames.add(id, stored.getName());
+            }
+            if (stored.getShortName() != null) {
+                subjectNames.add(id, stored.getShortName());
+            }
+            lastSubjectId = id;
+        }
+    }
+
+    /**
+     * Saves the rooms and sets their IDs.
+     *
+     * @param roomDTOs Rooms without IDs
+     */
+    synchronized void addRooms(List<RoomDTO> roomDTOs) {
+        for (RoomDTO roomDTO : roomDTOs) {
+            int id = lastRoomId + 1;
+            roomDTO.setId(id);
+            RoomDTO stored = new RoomDTO(roomDTO);
+            rooms.put(id, stored);
+            roomCapacities.add(stored);
+            if (stored.getName() != null) {
+                roomIds.putIfAbsent(key(stored.getName()), id);
+            }
+            lastRoomId = id;
+        }
+    }
+
+    /**
+     * Links subjects to lecturers, or none of them if one of the links can not be saved.
+     *
+     * @param links Pairs of subject ID and lecturer ID
+     * @throws DAOException If a subject or lecturer does not exist, or a link is already saved
+     */
+    synchronized void link(List<int[]> links) throws DAOException {
+        Set<Long> added = new HashSet<>();
+        for (int[] link : links) {
+            if (!subjects.containsKey(link[0])) {
+                throw new DAOException("Could not link lecturer to subject, there is no subject with ID " + link[0] + ".");
+            } else if (!lecturers.containsKey(link[1])) {
+                throw new DAOException("Could not link lecturer to subject, there is no lecturer with ID " + link[1] + ".");
+            } else if (lecturersBySubject.contains(link[0], link[1]) || !added.add((long) link[0] << 32 | link[1])) {
+                throw new DAOException("Lecturer " + link[1] + " is already linked to subject " + link[0] + ".");
+            }
+        }
+        for (int[] link : links) {
+            lecturersBySubject.add(link[0], link[1]);
+            subjectsByLecturer.add(link[1], link[0]);
+        }
+    }
+
+    /**
+     * @param id ID of the lecturer
+     * @return Copy of the lecturer, or the one already loaded in the current {@link Session}, null if not found
+     */
+    LecturerDTO lecturer(int id) {
+        LecturerDTO known = lookup(LecturerDTO.class, id);
+        if (known != null) {
+            return known;
+        }
+        LecturerDTO stored = lecturers.get(id);
+        return stored != null ? attach(LecturerDTO.class, id, new LecturerDTO(stored)) : null;
+    }
+
+    /**
+     * @param id ID of the subject
+     * @return Copy of the subject with its lecturers, or the one already loaded in the current {@link Session},
+     * null if not found
+     */
+    SubjectDTO subject(int id) {
+        SubjectDTO known = lookup(SubjectDTO.class, id);
+        if (known != null) {
+            return known;
+        }
+        SubjectDTO stored = subjects.get(id);
+        if (stored == null) {
+            return null;
+        }
+        SubjectDTO subjectDTO = new SubjectDTO(stored);
+        for (int lecturerId : lecturersBySubject.get(id)) {
+            LecturerDTO lecturerDTO = lecturer(lecturerId);
+            if (lecturerDTO != null) {
+                subjectDTO.addLecturer(lecturerDTO);
+            }
+        }
+        return attach(SubjectDTO.class, id, subjectDTO);
+    }
+
+    /**
+     * @param id ID of the room
+     * @return Copy of the room, null if not found
+     */
+    RoomDTO room(int id) {
+        RoomDTO stored = rooms.get(id);
+        return stored != null ? new RoomDTO(stored) : null;
+    }
+
+    /**
+     * Copies the given stored rooms.
+     *
+     * @param stored Rooms as held by the store or its room index
+     * @return Copies of the rooms, in the same order
+     */
+    static List<RoomDTO> copyRooms(List<RoomDTO> stored) {
+        List<RoomDTO> roomDTOs = new ArrayList<>(stored.size());
+        for (RoomDTO roomDTO : stored) {
+            roomDTOs.add(new RoomDTO(roomDTO));
+        }
+        return roomDTOs;
+    }
+
+    /**
+     * Names are compared like the database's default collation does, see {@link DAOUtil#nameKey(String)}.
+     *
+     * @param name Name of a lecturer or room
+     * @return Key of the name in the name maps
+     */
+    static String key(String name) {
+        return DAOUtil.nameKey(name);
+    }
+
+    private static <T> T lookup(Class<T> type, int id) {
+        Session session = Session.current();
+        return session != null ? session.get(type, id) : null;
+    }
+
+    private static <T> T attach(Class<T> type, int id, T entity) {
+        Session session = Session.current();
+        return session != null ? session.register(type, id, entity) : entity;
+    }
+}
@@ -0,0 +1,222 @@
+package no.kij.scheduler.dao.memory;
+
+import static no.kij.scheduler.dao.DAOUtil.checkPageLimit;
+
+import no.kij.scheduler.dao.DAOException;
+import no.kij.scheduler.dao.SubjectRepository;
+import no.kij.scheduler.dto.LecturerDTO;
+import no.kij.scheduler.dto.SubjectDTO;
+import no.kij.scheduler.index.TrigramIndex;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the subjects, and which lecturers teach them, in an {@link InMemoryStore}. The lecturers of a subject and
+ * the subjects of a lecturer are read from the store's adjacency arrays, and partial names are searched with the
+ * store's trigram index.
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public class InMemorySubjectRepository implements SubjectRepository {
+    private static final Comparator<Match> BEST_FIRST = Comparator.<Match>comparingInt(match -> -match.score)
+            .thenComparingInt(match -> match.nameLength)
+            .thenComparingInt(match -> match.id);
+
+    private final InMemoryStore store;
+
+    /**
+     * @param store Store to keep the subjects in, shared with the lecturers they are linked to
+     */
+    public InMemorySubjectRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public SubjectDTO find(int subjectId) {
+        return store.subject(subjectId);
+    }
+
+    @Override
+    public SubjectDTO find(String subjectName) {
+        List<SubjectDTO> subjectDTOs = search(subjectName, 1);
+        return subjectDTOs.isEmpty() ? null : subjectDTOs.get(0);
+    }
+
+    /**
+     * Searches the subjects like {@link no.kij.scheduler.dao.SubjectDAO#search(String, int)} does. Texts long
+     * enough for the trigram index are only checked against its candidates, shorter ones against every subject.
+     */
+    @Override
+    public List<SubjectDTO> search(String text, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Search limit must be at least 1.");
+        }
+        String query = TrigramIndex.normalize(text);
+        List<Match> matches = new ArrayList<>();
+        if (TrigramIndex.canSearch(text)) {
+            for (int id : store.subjectNames.search(text)) {
+                addMatch(matches, id, query);
+            }
+        } else {
+            int last = store.subjectCount();
+            for (int id = 1; id <= last; id++) {
+                addMatch(matches, id, query);
+            }
+        }
+        matches.sort(BEST_FIRST);
+
+        List<SubjectDTO> found = new ArrayList<>(Math.min(limit, matches.size()));
+        for (Match match : matches.subList(0, Math.min(limit, matches.size()))) {
+            found.add(store.subject(match.id));
+        }
+        return found;
+    }
+
+    private void addMatch(List<Match> matches, int id, String query) {
+        SubjectDTO stored = store.subjects.get(id);
+        if (stored == null) {
+            return;
+        }
+        String name = stored.getName() != null ? TrigramIndex.normalize(stored.getName()) : "";
+        String shortName = stored.getShortName() != null ? TrigramIndex.normalize(stored.getShortName()) : "";
+        int score;
+        if (shortName.equals(query)) {
+            score = 4;
+        } else if (name.equals(query)) {
+            score = 3;
+        } else if (name.startsWith(query)) {
+            score = 2;
+        } else if (name.contains(query) || shortName.contains(query)) {
+            score = 1;
+        } else {
+            return;
+        }
+        matches.add(new Match(id, score, stored.getName() != null ? stored.getName().length() : 0));
+    }
+
+    @Override
+    public void create(SubjectDTO subjectDTO) throws IllegalArgumentException, DAOException {
+        createAll(Collections.singletonList(subjectDTO));
+    }
+
+    @Override
+    public void createAll(List<SubjectDTO> subjectDTOs) throws IllegalArgumentException, DAOException {
+        for (SubjectDTO subjectDTO : subjectDTOs) {
+            if (subjectDTO.getId() != null) {
+                throw new IllegalArgumentException("Subject ID must be null.");
+            }
+        }
+        store.addSubjects(subjectDTOs);
+    }
+
+    /**
+     * Saves all the given subjects. There are no round trips to save, so the batch size is ignored.
+     */
+    @Override
+    public void createAll(List<SubjectDTO> subjectDTOs, int batchSize) throws IllegalArgumentException, DAOException {
+        createAll(subjectDTOs);
+    }
+
+    @Override
+    public List<SubjectDTO> list() {
+        return page(0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Stream<SubjectDTO> stream() {
+        return IntStream.rangeClosed(1, store.subjectCount()).mapToObj(store::subject).filter(Objects::nonNull);
+    }
+
+    @Override
+    public List<SubjectDTO> page(int afterId, int limit) {
+        checkPageLimit(limit);
+        List<SubjectDTO> subjectDTOs = new ArrayList<>();
+        int id = Math.max(afterId, 0);
+        int last = store.subjectCount();
+        while (id < last && subjectDTOs.size() < limit) {
+            subjectDTOs.add(store.subject(++id));
+        }
+        return subjectDTOs;
+    }
+
+    @Override
+    public void addLecturer(SubjectDTO subjectDTO, LecturerDTO lecturerDTO) {
+        addLecturers(Collections.singletonMap(subjectDTO, Collections.singletonList(lecturerDTO)));
+    }
+
+    @Override
+    public void addLecturers(Map<SubjectDTO, ? extends Collection<LecturerDTO>> links) {
+        List<int[]> rows = new ArrayList<>();
+        for (Map.Entry<SubjectDTO, ? extends Collection<LecturerDTO>> link : links.entrySet()) {
+            if (link.getKey().getId() == null) {
+                throw new IllegalArgumentException("Subject ID can not be null");
+            }
+            for (LecturerDTO lecturerDTO : link.getValue()) {
+                if (lecturerDTO.getId() == null) {
+                    throw new IllegalArgumentException("Lecturer ID can not be null");
+                }
+                rows.add(new int[] { link.getKey().getId(), lecturerDTO.getId() });
+            }
+        }
+        store.link(rows);
+    }
+
+    /**
+     * Links the subjects to the lecturers. There are no round trips to save, so the batch size is ignored.
+     */
+    @Override
+    public void addLecturers(Map<SubjectDTO, ? extends Collection<LecturerDTO>> links, int batchSize) {
+        addLecturers(links);
+    }
+
+    @Override
+    public List<SubjectDTO> findSubject(LecturerDTO lecturerDTO) {
+        List<SubjectDTO> subjectDTOs = new ArrayList<>();
+        if (lecturerDTO.getId() == null) {
+            return subjectDTOs;
+        }
+        for (int subjectId : store.subjectsByLecturer.get(lecturerDTO.getId())) {
+            SubjectDTO subjectDTO = store.subject(subjectId);
+            if (subjectDTO != null) {
+                subjectDTOs.add(subjectDTO);
+            }
+        }
+        return subjectDTOs;
+    }
+
+    @Override
+    public Map<Integer, List<SubjectDTO>> findSubjects(List<LecturerDTO> lecturerDTOs) {
+        Map<Integer, List<SubjectDTO>> subjectDTOs = new LinkedHashMap<>();
+        for (LecturerDTO lecturerDTO : lecturerDTOs) {
+            if (lecturerDTO.getId() != null) {
+                subjectDTOs.put(lecturerDTO.getId(), findSubject(lecturerDTO));
+            }
+        }
+        return subjectDTOs;
+    }
+
+    /**
+     * A subject matching a search, with what it is ranked by.
+     */
+    private static final class Match {
+        final int id;
+        final int score;
+        final int nameLength;
+
+        Match(int id, int score, int nameLength) {
+            this.id = id;
+            this.score = score;
+            this.nameLength = nameLength;
+        }
+    }
+}
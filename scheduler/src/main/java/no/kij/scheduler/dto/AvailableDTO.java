@@ -23,6 +23,17 @@ public class AvailableDTO {
         this.id = null;
     }
 
+    /**
+     * Creates a copy of the given available time.
+     *
+     * @param other AvailableDTO to copy
+     */
+    public AvailableDTO(AvailableDTO other) {
+        this.id = other.id;
+        this.start = other.start;
+        this.end = other.end;
+    }
+
     public Integer getId() {
         return id;
     }
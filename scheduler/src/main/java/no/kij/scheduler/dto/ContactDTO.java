@@ -23,6 +23,17 @@ public class ContactDTO {
         this.id = null;
     }
 
+    /**
+     * Creates a copy of the given contact.
+     *
+     * @param other ContactDTO to copy
+     */
+    public ContactDTO(ContactDTO other) {
+        this.id = other.id;
+        this.number = other.number;
+        this.email = other.email;
+    }
+
     public Integer getId() {
         return id;
     }
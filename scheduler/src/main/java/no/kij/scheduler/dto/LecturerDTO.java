@@ -33,6 +33,24 @@ public class LecturerDTO {
         this.available = new ArrayList<>();
     }
 
+    /**
+     * Creates a deep copy of the given lecturer, including contacts and available times.
+     *
+     * @param other LecturerDTO to copy
+     */
+    public LecturerDTO(LecturerDTO other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.contact = new ArrayList<>();
+        this.available = new ArrayList<>();
+        for (ContactDTO contactDTO : other.contact) {
+            this.contact.add(new ContactDTO(contactDTO));
+        }
+        for (AvailableDTO availableDTO : other.available) {
+            this.available.add(new AvailableDTO(availableDTO));
+        }
+    }
+
     public Integer getId() {
         return id;
     }
@@ -24,6 +24,18 @@ public class RoomDTO {
         this.id = null;
     }
 
+    /**
+     * Creates a copy of the given room.
+     *
+     * @param other RoomDTO to copy
+     */
+    public RoomDTO(RoomDTO other) {
+        this.id = other.id;
+        this.capacity = other.capacity;
+        this.name = other.name;
+        this.campus = other.campus;
+    }
+
     public Integer getId() {
         return id;
     }
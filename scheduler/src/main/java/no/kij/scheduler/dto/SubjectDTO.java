@@ -32,6 +32,22 @@ public class SubjectDTO {
         this.lecturers = new ArrayList<>();
     }
 
+    /**
+     * Creates a deep copy of the given subject, including its lecturers.
+     *
+     * @param other SubjectDTO to copy
+     */
+    public SubjectDTO(SubjectDTO other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.shortName = other.shortName;
+        this.enrolled = other.enrolled;
+        this.lecturers = new ArrayList<>();
+        for (LecturerDTO lecturerDTO : other.lecturers) {
+            this.lecturers.add(new LecturerDTO(lecturerDTO));
+        }
+    }
+
     public void addLecturer(LecturerDTO lecturerDTO) {
         lecturers.add(lecturerDTO);
     }
@@ -0,0 +1,185 @@
+package no.kij.scheduler.index;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * An in-memory index of when lecturers are available, as bit sets, used to answer "is this lecturer free" and
+ * "who is free" without loading and scanning every lecturer's available times.
+ *
+ * <p>Available times are hours of the day, the same every day of the week, so the index works on the
+ * {@value #HOURS} hours of a day. It holds two views of the same bits:</p>
+ * <ul>
+ *     <li>a mask of the hours each lecturer is available, by lecturer ID, so checking one lecturer is a single
+ *     AND;</li>
+ *     <li>a bit set of the IDs of the lecturers available in each hour, so the lecturers free for a span of
+ *     hours are the AND of the span's bit sets, 64 lecturers per word.</li>
+ * </ul>
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public class AvailabilityIndex {
+    /**
+     * Number of hours in a day, the highest end hour an available time can have.
+     */
+    public static final int HOURS = 24;
+
+    // hours each lecturer is available, by lecturer ID
+    private int[] hours = new int[64];
+    // IDs of the lecturers available in each hour
+    private final long[][] lecturers = new long[HOURS][1];
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean built;
+
+    /**
+     * @return True once the index has been built with {@link #rebuild(Consumer)}
+     */
+    public boolean isBuilt() {
+        return built;
+    }
+
+    /**
+     * Empties the index and fills it again. Queries wait until the rebuild is done.
+     *
+     * @param loader Adds every available time to the index
+     */
+    public void rebuild(Consumer<AvailabilityIndex> loader) {
+        lock.writeLock().lock();
+        try {
+            Arrays.fill(hours, 0);
+            for (long[] ids : lecturers) {
+                Arrays.fill(ids, 0);
+            }
+            loader.accept(this);
+            built = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Marks the lecturer as available from the start hour to the end hour.
+     * Hours outside the day are left out.
+     *
+     * @param lecturerId ID of the lecturer
+     * @param start First hour the lecturer is available
+     * @param end Hour the lecturer stops being available
+     * @throws IllegalArgumentException If the lecturer ID is negative
+     */
+    public void add(int lecturerId, int start, int end) throws IllegalArgumentException {
+        if (lecturerId < 0) {
+            throw new IllegalArgumentException("Lecturer ID can't be negative.");
+        }
+        int span = span(start, end);
+        if (span == 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (lecturerId >= hours.length) {
+                hours = Arrays.copyOf(hours, Math.max(2 * hours.length, lecturerId + 1));
+            }
+            hours[lecturerId] |= span;
+            int word = lecturerId >>> 6;
+            for (int hour = Math.max(start, 0); hour < Math.min(end, HOURS); hour++) {
+                if (word >= lecturers[hour].length) {
+                    lecturers[hour] = Arrays.copyOf(lecturers[hour], Math.max(2 * lecturers[hour].length, word + 1));
+                }
+                lecturers[hour][word] |= 1L << lecturerId;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param lecturerId ID of the lecturer
+     * @return Mask of the hours of the day the lecturer is available, bit n set for the hour from n to n + 1
+     */
+    public int getHours(int lecturerId) {
+        lock.readLock().lock();
+        try {
+            return lecturerId >= 0 && lecturerId < hours.length ? hours[lecturerId] : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param lecturerId ID of the lecturer
+     * @param start First hour
+     * @param end Hour after the last hour
+     * @return True if the lecturer is available for every hour from the start hour to the end hour
+     */
+    public boolean isFree(int lecturerId, int start, int end) {
+        int span = span(start, end);
+        return span != 0 && (getHours(lecturerId) & span) == span;
+    }
+
+    /**
+     * @param lecturerIds IDs of the lecturers
+     * @return Mask of the hours all of the lecturers are available
+     */
+    public int commonHours(int... lecturerIds) {
+        int common = span(0, HOURS);
+        for (int lecturerId : lecturerIds) {
+            common &= getHours(lecturerId);
+        }
+        return common;
+    }
+
+    /**
+     * Finds the lecturers available for every hour from the start hour to the end hour.
+     *
+     * @param start First hour
+     * @param end Hour after the last hour
+     * @return IDs of the lecturers in ascending order, empty if the span is empty or outside the day
+     */
+    public int[] findFree(int start, int end) {
+        int span = span(start, end);
+        if (span == 0) {
+            return new int[0];
+        }
+        lock.readLock().lock();
+        try {
+            int first = Integer.numberOfTrailingZeros(span);
+            int last = Integer.SIZE - Integer.numberOfLeadingZeros(span);
+            int words = lecturers[first].length;
+            for (int hour = first + 1; hour < last; hour++) {
+                words = Math.min(words, lecturers[hour].length);
+            }
+            long[] free = Arrays.copyOf(lecturers[first], words);
+            for (int hour = first + 1; hour < last; hour++) {
+                for (int word = 0; word < words; word++) {
+                    free[word] &= lecturers[hour][word];
+                }
+            }
+            int count = 0;
+            for (long bits : free) {
+                count += Long.bitCount(bits);
+            }
+            int[] ids = new int[count];
+            int i = 0;
+            for (int word = 0; word < words; word++) {
+                for (long bits = free[word]; bits != 0; bits &= bits - 1) {
+                    ids[i++] = word << 6 | Long.numberOfTrailingZeros(bits);
+                }
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Mask of the hours from the start hour to the end hour, cut to the hours of the day
+     */
+    public static int span(int start, int end) {
+        int from = Math.max(start, 0);
+        int to = Math.min(end, HOURS);
+        return from < to ? (int) ((1L << to) - (1L << from)) : 0;
+    }
+}
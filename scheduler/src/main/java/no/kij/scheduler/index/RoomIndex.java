@@ -0,0 +1,157 @@
+package no.kij.scheduler.index;
+
+import no.kij.scheduler.dto.RoomDTO;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * An in-memory index of the rooms by capacity, partitioned by campus, used to find the smallest room that holds
+ * a number of students without scanning every room.
+ *
+ * <p>Each campus, and the whole set of rooms, has a sorted map from capacity to the rooms with that capacity, so
+ * the smallest room holding N students is a ceiling lookup and the rooms in a capacity range are a sub map, both
+ * in logarithmic time plus the rooms returned. Campuses are compared case insensitively.</p>
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public class RoomIndex {
+    private final NavigableMap<Integer, List<RoomDTO>> all = new TreeMap<>();
+    private final Map<String, NavigableMap<Integer, List<RoomDTO>>> byCampus = new HashMap<>();
+    private final Map<Integer, RoomDTO> byId = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean built;
+    private int size;
+
+    /**
+     * @return True once the index has been built with {@link #rebuild(Consumer)}
+     */
+    public boolean isBuilt() {
+        return built;
+    }
+
+    /**
+     * Empties the index and fills it again. Lookups wait until the rebuild is done.
+     *
+     * @param loader Adds every room to the index
+     */
+    public void rebuild(Consumer<RoomIndex> loader) {
+        lock.writeLock().lock();
+        try {
+            all.clear();
+            byCampus.clear();
+            byId.clear();
+            size = 0;
+            loader.accept(this);
+            built = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a room to the index, replacing the room with the same ID if it is already there. The room is returned
+     * by lookups as it is, so it should not be changed afterwards.
+     *
+     * @param roomDTO Room to index
+     */
+    public void add(RoomDTO roomDTO) {
+        lock.writeLock().lock();
+        try {
+            RoomDTO replaced = roomDTO.getId() == null ? null : byId.put(roomDTO.getId(), roomDTO);
+            if (replaced != null) {
+                remove(all, replaced);
+                remove(byCampus.get(campusKey(replaced.getCampus())), replaced);
+                size--;
+            }
+            all.computeIfAbsent(roomDTO.getCapacity(), capacity -> new ArrayList<>()).add(roomDTO);
+            byCampus.computeIfAbsent(campusKey(roomDTO.getCampus()), campus -> new TreeMap<>())
+                    .computeIfAbsent(roomDTO.getCapacity(), capacity -> new ArrayList<>()).add(roomDTO);
+            size++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the smallest room holding at least the given number of students.
+     *
+     * @param campus Campus the room must be on, or null for any campus
+     * @param minCapacity Number of students the room must hold
+     * @return The room, the first added of the smallest rooms if several are as small, or null if none is big enough
+     */
+    public RoomDTO findSmallest(String campus, int minCapacity) {
+        lock.readLock().lock();
+        try {
+            NavigableMap<Integer, List<RoomDTO>> rooms = rooms(campus);
+            Map.Entry<Integer, List<RoomDTO>> smallest = rooms == null ? null : rooms.ceilingEntry(minCapacity);
+            return smallest == null ? null : smallest.getValue().get(0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the rooms with a capacity in the given range.
+     *
+     * @param campus Campus the rooms must be on, or null for any campus
+     * @param minCapacity Smallest capacity to include
+     * @param maxCapacity Largest capacity to include
+     * @return The rooms, smallest first
+     */
+    public List<RoomDTO> findByCapacity(String campus, int minCapacity, int maxCapacity) {
+        List<RoomDTO> found = new ArrayList<>();
+        if (minCapacity > maxCapacity) {
+            return found;
+        }
+        lock.readLock().lock();
+        try {
+            NavigableMap<Integer, List<RoomDTO>> rooms = rooms(campus);
+            if (rooms != null) {
+                for (List<RoomDTO> roomDTOs : rooms.subMap(minCapacity, true, maxCapacity, true).values()) {
+                    found.addAll(roomDTOs);
+                }
+            }
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Number of rooms in the index
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void remove(NavigableMap<Integer, List<RoomDTO>> rooms, RoomDTO roomDTO) {
+        List<RoomDTO> roomDTOs = rooms.get(roomDTO.getCapacity());
+        roomDTOs.removeIf(indexed -> indexed == roomDTO);
+        if (roomDTOs.isEmpty()) {
+            rooms.remove(roomDTO.getCapacity());
+        }
+    }
+
+    private NavigableMap<Integer, List<RoomDTO>> rooms(String campus) {
+        return campus == null ? all : byCampus.get(campusKey(campus));
+    }
+
+    private static String campusKey(String campus) {
+        return String.valueOf(campus).toLowerCase(Locale.ROOT);
+    }
+}
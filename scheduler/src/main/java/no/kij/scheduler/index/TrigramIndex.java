@@ -0,0 +1,347 @@
+package no.kij.scheduler.index;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * An in-memory inverted index from the trigrams (every run of three characters) of some texts to the IDs of the
+ * rows they belong to, used to answer substring searches without scanning every row.
+ * Every substring of at least three characters of an indexed text contains only trigrams of that text, so the
+ * rows containing a query are among the rows holding all of the query's trigrams. The index returns those
+ * candidates, and the caller verifies them against the real text.
+ *
+ * <p>Texts are compared case and accent insensitively, like the database's default collation. Each trigram is
+ * packed into a long and maps to a sorted array of IDs, in an open addressing table keyed by the primitive long,
+ * so the index holds no per-row objects and looking a trigram up neither boxes it nor allocates.</p>
+ *
+ * <p>Writes are applied whether or not the index has been built. A rebuild loads the rows under the write lock,
+ * so a row saved while it runs is either in what it loads or added after it, and never lost.</p>
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public class TrigramIndex {
+    /**
+     * Shortest query the index can answer.
+     */
+    public static final int GRAM_LENGTH = 3;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private final GramTable postings = new GramTable();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean built;
+
+    /**
+     * @return True once the index has been built with {@link #rebuild(Consumer)}
+     */
+    public boolean isBuilt() {
+        return built;
+    }
+
+    /**
+     * Empties the index and fills it again. Searches wait until the rebuild is done.
+     *
+     * @param loader Adds every row to the index
+     */
+    public void rebuild(Consumer<TrigramIndex> loader) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            loader.accept(this);
+            built = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes a text of the row with the given ID. A row can have several texts.
+     *
+     * @param id ID of the row
+     * @param text Text to index, ignored if null
+     */
+    public void add(int id, String text) {
+        if (text == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (long gram : grams(normalize(text))) {
+                postings.getOrCreate(gram).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a text of the row with the given ID from the index.
+     * Every other text of the row has to be removed as well, since trigrams are not counted per text.
+     *
+     * @param id ID of the row
+     * @param text Text that was indexed for the row, ignored if null
+     */
+    public void remove(int id, String text) {
+        if (text == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (long gram : grams(normalize(text))) {
+                Postings ids = postings.get(gram);
+                if (ids != null && ids.remove(id) && ids.size == 0) {
+                    postings.remove(gram);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param text Text to search for
+     * @return True if the text is long enough for the index to answer, once normalized
+     */
+    public static boolean canSearch(String text) {
+        return normalize(text).length() >= GRAM_LENGTH;
+    }
+
+    /**
+     * Finds the rows that may contain the given text.
+     *
+     * @param text Text to search for, at least {@value #GRAM_LENGTH} characters long
+     * @return IDs of the candidate rows in ascending order, empty if no row can contain the text
+     * @throws IllegalArgumentException If the text is shorter than {@value #GRAM_LENGTH} characters
+     */
+    public int[] search(String text) throws IllegalArgumentException {
+        String normalized = normalize(text);
+        if (normalized.length() < GRAM_LENGTH) {
+            throw new IllegalArgumentException("Search text must be at least " + GRAM_LENGTH + " characters.");
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Postings> lists = new ArrayList<>();
+            for (long gram : grams(normalized)) {
+                Postings ids = postings.get(gram);
+                if (ids == null) {
+                    return new int[0];
+                }
+                lists.add(ids);
+            }
+            // intersect from the rarest trigram, so the candidate set is as small as possible from the start
+            lists.sort((a, b) -> Integer.compare(a.size, b.size));
+            int[] candidates = Arrays.copyOf(lists.get(0).ids, lists.get(0).size);
+            int count = candidates.length;
+            for (int i = 1; i < lists.size() && count > 0; i++) {
+                count = lists.get(i).retainAll(candidates, count);
+            }
+            return Arrays.copyOf(candidates, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Number of distinct trigrams in the index
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return postings.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Folds case and strips accents, so "Émile" and "emile" index the same.
+     *
+     * @param text Text to normalize
+     * @return Normalized text
+     */
+    public static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        return MARKS.matcher(decomposed).replaceAll("");
+    }
+
+    /**
+     * @return The distinct trigrams of the text, packed into longs, in ascending order
+     */
+    private static long[] grams(String text) {
+        int count = Math.max(0, text.length() - GRAM_LENGTH + 1);
+        long[] grams = new long[count];
+        for (int i = 0; i < count; i++) {
+            grams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        Arrays.sort(grams);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || grams[distinct - 1] != grams[i]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return distinct == count ? grams : Arrays.copyOf(grams, distinct);
+    }
+
+    /**
+     * A hash table from packed trigrams to their postings, with open addressing and linear probing.
+     * A slot is empty when its value is null.
+     */
+    private static final class GramTable {
+        private static final int INITIAL_CAPACITY = 64;
+
+        private long[] keys = new long[INITIAL_CAPACITY];
+        private Postings[] values = new Postings[INITIAL_CAPACITY];
+        private int size;
+
+        private Postings get(long gram) {
+            int mask = keys.length - 1;
+            for (int i = slot(gram, mask); values[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == gram) {
+                    return values[i];
+                }
+            }
+            return null;
+        }
+
+        private Postings getOrCreate(long gram) {
+            Postings found = get(gram);
+            if (found != null) {
+                return found;
+            }
+            // kept at most three quarters full, so probe sequences stay short
+            if ((size + 1) * 4 > keys.length * 3) {
+                resize(keys.length * 2);
+            }
+            Postings created = new Postings();
+            put(gram, created);
+            size++;
+            return created;
+        }
+
+        private void put(long gram, Postings ids) {
+            int mask = keys.length - 1;
+            int i = slot(gram, mask);
+            while (values[i] != null) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = gram;
+            values[i] = ids;
+        }
+
+        private void remove(long gram) {
+            int mask = keys.length - 1;
+            int hole = slot(gram, mask);
+            while (values[hole] != null && keys[hole] != gram) {
+                hole = (hole + 1) & mask;
+            }
+            if (values[hole] == null) {
+                return;
+            }
+            values[hole] = null;
+            size--;
+            // move back the entries after the hole that could no longer be reached from their home slot
+            for (int i = (hole + 1) & mask; values[i] != null; i = (i + 1) & mask) {
+                int home = slot(keys[i], mask);
+                if (((i - home) & mask) >= ((i - hole) & mask)) {
+                    keys[hole] = keys[i];
+                    values[hole] = values[i];
+                    values[i] = null;
+                    hole = i;
+                }
+            }
+        }
+
+        private void clear() {
+            keys = new long[INITIAL_CAPACITY];
+            values = new Postings[INITIAL_CAPACITY];
+            size = 0;
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            Postings[] oldValues = values;
+            keys = new long[capacity];
+            values = new Postings[capacity];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] != null) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int slot(long gram, int mask) {
+            // the packed characters sit in the low bits, so mix them into the high bits the slot is taken from
+            return (int) ((gram * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        }
+    }
+
+    /**
+     * A sorted, duplicate free, growable array of IDs.
+     */
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        private void add(int id) {
+            // IDs are mostly handed out in increasing order, so this is usually an append
+            if (size > 0 && ids[size - 1] < id) {
+                append(id);
+                return;
+            }
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            index = -index - 1;
+            append(id);
+            System.arraycopy(ids, index, ids, index + 1, size - index - 1);
+            ids[index] = id;
+        }
+
+        private void append(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        private boolean remove(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        /**
+         * Keeps the candidates that are also in this list, compacting them to the front of the array.
+         *
+         * @return Number of candidates kept
+         */
+        private int retainAll(int[] candidates, int count) {
+            int kept = 0;
+            int from = 0;
+            for (int i = 0; i < count; i++) {
+                int index = Arrays.binarySearch(ids, from, size, candidates[i]);
+                if (index >= 0) {
+                    candidates[kept++] = candidates[i];
+                    from = index + 1;
+                } else {
+                    from = -index - 1;
+                }
+            }
+            return kept;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package no.kij.scheduler.migration;
+
+import no.kij.scheduler.ResourceFetcher;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * A single, versioned change to the database schema, backed by an SQL script in the resources.
+ * Once a migration has been applied to a database its script must not be edited, a new migration has to be
+ * added instead.
+ *
+ * @author Kissor Jeyabalan
+ * @see Migrator
+ * @since 1.1
+ */
+public class Migration {
+    private final int version;
+    private final String description;
+    private final String script;
+
+    /**
+     * Creates a migration.
+     *
+     * @param version Version the schema is at once the migration is applied, unique and greater than 0
+     * @param description Short description of the change
+     * @param script Name of the SQL script in the resources path
+     */
+    public Migration(int version, String description, String script) {
+        if (version < 1) {
+            throw new IllegalArgumentException("Migration version must be at least 1.");
+        }
+        this.version = version;
+        this.description = description;
+        this.script = script;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getScript() {
+        return script;
+    }
+
+    /**
+     * Reads the script of this migration.
+     *
+     * @return Content of the script
+     * @throws IllegalStateException If the script can not be found
+     */
+    String readScript() {
+        String sql = ResourceFetcher.getFile(script);
+        if (sql == null) {
+            throw new IllegalStateException("Could not find the migration script " + script);
+        }
+        return sql;
+    }
+
+    /**
+     * @return The statements of the script, in order
+     */
+    List<String> getStatements() {
+        return SqlScriptParser.parse(readScript());
+    }
+
+    /**
+     * @return Checksum of the script, used to detect scripts changed after they were applied
+     */
+    long checksum() {
+        CRC32 crc = new CRC32();
+        // line endings depend on the checkout, so they are left out of the checksum
+        crc.update(readScript().replace("\r", "").getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    @Override
+    public String toString() {
+        return "V" + version + " " + description;
+    }
+}
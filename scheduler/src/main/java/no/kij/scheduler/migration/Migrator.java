@@ -0,0 +1,178 @@
+package no.kij.scheduler.migration;
+
+import no.kij.scheduler.DatabaseConnector;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Brings the database schema up to date by applying the migrations it has not seen yet, in version order.
+ * Applied migrations are recorded in the schema_version table, so running the migrator again is a no-op.
+ *
+ * @author Kissor Jeyabalan
+ * @see Migration
+ * @since 1.1
+ */
+public class Migrator {
+    /**
+     * The migrations shipped with the application, in version order.
+     */
+    public static final List<Migration> MIGRATIONS = Collections.unmodifiableList(Arrays.asList(
+            new Migration(1, "Create tables", "database.sql"),
+            new Migration(2, "Add lookup indexes", "migrations/V2__lookup_indexes.sql")
+    ));
+
+    private final String CREATE_VERSION_TABLE_QUERY = "CREATE TABLE IF NOT EXISTS schema_version (" +
+            "version int(11) NOT NULL, description VARCHAR(255) NOT NULL, checksum BIGINT NOT NULL, " +
+            "installed_on TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, PRIMARY KEY (version))";
+    private final String VIEW_VERSIONS_QUERY = "SELECT version, checksum FROM schema_version";
+    private final String INSERT_VERSION_QUERY =
+            "INSERT INTO schema_version(version, description, checksum) VALUES (?, ?, ?)";
+    // MySQL has no CREATE INDEX IF NOT EXISTS, so these statements are checked against the JDBC metadata, which
+    // every driver has, unlike information_schema.statistics, before they are run
+    private static final Pattern CREATE_INDEX = Pattern.compile(
+            "CREATE\\s+(?:UNIQUE\\s+)?INDEX\\s+`?(\\w+)`?\\s+ON\\s+`?(\\w+)`?.*",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    private final DatabaseConnector connector;
+    private final List<Migration> migrations;
+
+    /**
+     * Creates a migrator for the migrations shipped with the application.
+     *
+     * @param connector Connector to pool connections from
+     */
+    public Migrator(DatabaseConnector connector) {
+        this(connector, MIGRATIONS);
+    }
+
+    /**
+     * Creates a migrator for the given migrations.
+     *
+     * @param connector Connector to pool connections from
+     * @param migrations Migrations to apply, in any order
+     * @throws IllegalArgumentException If two migrations have the same version
+     */
+    public Migrator(DatabaseConnector connector, List<Migration> migrations) throws IllegalArgumentException {
+        this.connector = connector;
+        this.migrations = new ArrayList<>(migrations);
+        this.migrations.sort(Comparator.comparingInt(Migration::getVersion));
+        for (int i = 1; i < this.migrations.size(); i++) {
+            if (this.migrations.get(i).getVersion() == this.migrations.get(i - 1).getVersion()) {
+                throw new IllegalArgumentException("Duplicate migration version " + this.migrations.get(i).getVersion());
+            }
+        }
+    }
+
+    /**
+     * @return Highest version applied to the database, 0 if none
+     * @throws SQLException If the schema version could not be read
+     */
+    public int getCurrentVersion() throws SQLException {
+        try (Connection conn = connector.getConnection()) {
+            int version = 0;
+            for (int applied : findApplied(conn).keySet()) {
+                version = Math.max(version, applied);
+            }
+            return version;
+        }
+    }
+
+    /**
+     * Applies every migration that has not been applied to the database yet.
+     * Each migration is recorded as soon as its last statement has run. MySQL commits every schema change on its
+     * own, so a failed migration may be partly applied, and its statements must be safe to run again: tables are
+     * created with IF NOT EXISTS, and indexes that already exist are skipped. A failed run can then simply be
+     * retried once the cause is fixed. Scripts that changed after they were applied are reported, but not re-run.
+     *
+     * @return The migrations applied by this call, in the order they were applied
+     * @throws SQLException If a migration failed, migrations before it stay applied
+     */
+    public List<Migration> migrate() throws SQLException {
+        List<Migration> applied = new ArrayList<>();
+        try (Connection conn = connector.getConnection()) {
+            Map<Integer, Long> checksums = findApplied(conn);
+            for (Migration migration : migrations) {
+                Long checksum = checksums.get(migration.getVersion());
+                if (checksum == null) {
+                    apply(conn, migration);
+                    applied.add(migration);
+                } else if (checksum != migration.checksum()) {
+                    System.err.println("Migration " + migration + " has changed since it was applied.");
+                }
+            }
+        }
+        return applied;
+    }
+
+    private Map<Integer, Long> findApplied(Connection conn) throws SQLException {
+        Map<Integer, Long> checksums = new HashMap<>();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(CREATE_VERSION_TABLE_QUERY);
+            try (ResultSet rs = stmt.executeQuery(VIEW_VERSIONS_QUERY)) {
+                while (rs.next()) {
+                    checksums.put(rs.getInt("version"), rs.getLong("checksum"));
+                }
+            }
+        }
+        return checksums;
+    }
+
+    private void apply(Connection conn, Migration migration) throws SQLException {
+        System.out.println("Applying migration " + migration + "...");
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : migration.getStatements()) {
+                if (!indexExists(conn, sql)) {
+                    stmt.execute(sql);
+                }
+            }
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_VERSION_QUERY)) {
+            stmt.setInt(1, migration.getVersion());
+            stmt.setString(2, migration.getDescription());
+            stmt.setLong(3, migration.checksum());
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Checks if the statement creates an index that is already there, left by an earlier run that failed.
+     *
+     * @param conn Connection to look the index up on
+     * @param sql Statement of a migration
+     * @return True if the statement is a CREATE INDEX and the index exists, false otherwise
+     */
+    private boolean indexExists(Connection conn, String sql) throws SQLException {
+        Matcher matcher = CREATE_INDEX.matcher(sql.trim());
+        if (!matcher.matches()) {
+            return false;
+        }
+        DatabaseMetaData metaData = conn.getMetaData();
+        String table = matcher.group(2);
+        if (metaData.storesUpperCaseIdentifiers()) {
+            table = table.toUpperCase(Locale.ROOT);
+        }
+        try (ResultSet rs = metaData.getIndexInfo(conn.getCatalog(), null, table, false, false)) {
+            while (rs.next()) {
+                if (matcher.group(1).equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
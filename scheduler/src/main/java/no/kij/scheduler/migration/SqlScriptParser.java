@@ -0,0 +1,127 @@
+package no.kij.scheduler.migration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class consists exclusively of static methods that split an SQL script into its statements.
+ * Unlike splitting on every semicolon, it understands quoted strings and identifiers, comments and the
+ * MySQL client's DELIMITER command, so a semicolon inside any of those does not end a statement.
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public class SqlScriptParser {
+    private static final String DEFAULT_DELIMITER = ";";
+
+    private SqlScriptParser() {
+    }
+
+    /**
+     * Splits the given script into statements.
+     * Comments are left out, except for MySQL executable comments (<code>/*! ... *&#47;</code>), which are kept
+     * as part of their statement.
+     *
+     * @param script SQL script to parse
+     * @return The statements of the script, trimmed and without their delimiter
+     * @throws IllegalArgumentException If the script ends inside a quoted string or a comment
+     */
+    public static List<String> parse(String script) throws IllegalArgumentException {
+        List<String> statements = new ArrayList<>();
+        StringBuilder statement = new StringBuilder();
+        String delimiter = DEFAULT_DELIMITER;
+        int length = script.length();
+        int i = 0;
+
+        while (i < length) {
+            char c = script.charAt(i);
+
+            if (isLineStart(script, i) && startsWithIgnoreCase(script, i, "DELIMITER ")) {
+                flush(statement, statements);
+                int end = lineEnd(script, i);
+                delimiter = script.substring(i + "DELIMITER ".length(), end).trim();
+                if (delimiter.isEmpty()) {
+                    throw new IllegalArgumentException("DELIMITER requires a delimiter.");
+                }
+                i = end;
+            } else if (c == '\'' || c == '"' || c == '`') {
+                int end = quoteEnd(script, i);
+                statement.append(script, i, end);
+                i = end;
+            } else if (c == '#' || (script.startsWith("--", i) && (i + 2 == length
+                    || Character.isWhitespace(script.charAt(i + 2))))) {
+                i = lineEnd(script, i);
+            } else if (script.startsWith("/*", i)) {
+                int end = script.indexOf("*/", i + 2);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unterminated comment in SQL script.");
+                }
+                if (script.startsWith("/*!", i)) {
+                    statement.append(script, i, end + 2);
+                } else {
+                    statement.append(' ');
+                }
+                i = end + 2;
+            } else if (script.startsWith(delimiter, i)) {
+                flush(statement, statements);
+                i += delimiter.length();
+            } else {
+                statement.append(c);
+                i++;
+            }
+        }
+        flush(statement, statements);
+        return statements;
+    }
+
+    /**
+     * Finds the end of the quoted string or identifier starting at the given index.
+     * A quote is escaped either by doubling it or, inside strings, with a backslash.
+     *
+     * @return Index just past the closing quote
+     */
+    private static int quoteEnd(String script, int start) {
+        char quote = script.charAt(start);
+        int i = start + 1;
+        while (i < script.length()) {
+            char c = script.charAt(i);
+            if (c == '\\' && quote != '`') {
+                i += 2;
+            } else if (c == quote) {
+                if (i + 1 < script.length() && script.charAt(i + 1) == quote) {
+                    i += 2;
+                } else {
+                    return i + 1;
+                }
+            } else {
+                i++;
+            }
+        }
+        throw new IllegalArgumentException("Unterminated " + quote + " quote in SQL script.");
+    }
+
+    private static void flush(StringBuilder statement, List<String> statements) {
+        String sql = statement.toString().trim();
+        if (!sql.isEmpty()) {
+            statements.add(sql);
+        }
+        statement.setLength(0);
+    }
+
+    private static boolean isLineStart(String script, int index) {
+        int i = index - 1;
+        while (i >= 0 && (script.charAt(i) == ' ' || script.charAt(i) == '\t')) {
+            i--;
+        }
+        return i < 0 || script.charAt(i) == '\n' || script.charAt(i) == '\r';
+    }
+
+    private static int lineEnd(String script, int index) {
+        int end = script.indexOf('\n', index);
+        return end < 0 ? script.length() : end;
+    }
+
+    private static boolean startsWithIgnoreCase(String script, int index, String prefix) {
+        return script.regionMatches(true, index, prefix, 0, prefix.length());
+    }
+}
@@ -0,0 +1,85 @@
+package no.kij.scheduler.timetable;
+
+import no.kij.scheduler.dto.LecturerDTO;
+import no.kij.scheduler.dto.RoomDTO;
+import no.kij.scheduler.dto.SubjectDTO;
+
+import java.util.List;
+
+/**
+ * A lecture of a subject, booked in a room at a time of the week.
+ *
+ * @author Kissor Jeyabalan
+ * @see Timetable
+ * @since 1.1
+ */
+public final class Lecture {
+    private final SubjectDTO subject;
+    private final RoomDTO room;
+    private final int day;
+    private final int startHour;
+    private final int hours;
+
+    /**
+     * @param subject Subject being taught
+     * @param room Room the lecture is in
+     * @param day Day of the week, 0 for Monday
+     * @param startHour Hour the lecture starts
+     * @param hours Length of the lecture
+     * @throws IllegalArgumentException If the lecture does not fit in the teaching day
+     */
+    public Lecture(SubjectDTO subject, RoomDTO room, int day, int startHour, int hours)
+            throws IllegalArgumentException {
+        Week.slot(day, startHour);
+        if (hours < 1 || startHour + hours > Week.LAST_HOUR) {
+            throw new IllegalArgumentException("Lecture must end by " + Week.LAST_HOUR + ":00.");
+        }
+        this.subject = subject;
+        this.room = room;
+        this.day = day;
+        this.startHour = startHour;
+        this.hours = hours;
+    }
+
+    public SubjectDTO getSubject() {
+        return subject;
+    }
+
+    public List<LecturerDTO> getLecturers() {
+        return subject.getLecturers();
+    }
+
+    public RoomDTO getRoom() {
+        return room;
+    }
+
+    public int getDay() {
+        return day;
+    }
+
+    public int getStartHour() {
+        return startHour;
+    }
+
+    public int getEndHour() {
+        return startHour + hours;
+    }
+
+    public int getHours() {
+        return hours;
+    }
+
+    /**
+     * @return Mask of the slots of the week the lecture takes up
+     * @see Week
+     */
+    public long getSlots() {
+        return Week.span(Week.slot(day, startHour), hours);
+    }
+
+    @Override
+    public String toString() {
+        return Week.dayName(day) + " " + startHour + "-" + getEndHour() + " " + subject.getShortName()
+                + " in " + room.getName();
+    }
+}
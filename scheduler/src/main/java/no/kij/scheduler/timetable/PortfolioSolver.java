@@ -0,0 +1,150 @@
+package no.kij.scheduler.timetable;
+
+import no.kij.scheduler.dto.RoomDTO;
+import no.kij.scheduler.dto.SubjectDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * PortfolioSolver builds a timetable like {@link TimetableSolver}, but runs a portfolio of searches with
+ * different strategies and seeds on all cores at the same time, and keeps the best timetable any of them found.
+ * Each run improves its timetable by local search until it has taken its steps or the time limit is up.
+ *
+ * <p>Run number i uses one of the strategies in turn and a seed mixed from the settings' seed and i. Run 0 makes
+ * the same choices as {@link TimetableSolver}, and always schedules every lecture before it looks at the time
+ * limit, which only cuts its local search short, so the portfolio never does worse than it. The runs share the best
+ * score found so far through an atomic long, without any locks, for monitoring only: pruning on it would make the
+ * result depend on the order the threads finish in. Once a run reaches the lower bound of the problem no better
+ * timetable exists, so every run numbered after it stops.</p>
+ *
+ * <p>The timetable with the best score wins, the lowest run number breaking ties, so the result does not depend on
+ * which thread happened to finish first. The same seed and number of runs gives the same timetable with any
+ * number of threads, as long as no run is cut short by the time limit.</p>
+ *
+ * @author Kissor Jeyabalan
+ * @see SolverSettings
+ * @since 1.1
+ */
+public class PortfolioSolver {
+    private static final Search.Strategy[] STRATEGIES = Search.Strategy.values();
+    private static final long NO_SCORE = Long.MAX_VALUE;
+    // a score is packed as hard << SOFT_BITS | soft, so packed scores compare like scores
+    private static final int SOFT_BITS = 40;
+
+    private final TimetableProblem problem;
+    private final SolverSettings settings;
+    private final AtomicLong bestScore = new AtomicLong(NO_SCORE);
+    private final AtomicInteger optimalRun = new AtomicInteger(Integer.MAX_VALUE);
+    private final AtomicInteger searches = new AtomicInteger();
+
+    /**
+     * Creates a solver using the default settings.
+     *
+     * @param subjects Subjects to schedule
+     * @param rooms Rooms to schedule them in
+     */
+    public PortfolioSolver(List<SubjectDTO> subjects, List<RoomDTO> rooms) {
+        this(subjects, rooms, new SolverSettings());
+    }
+
+    /**
+     * @param subjects Subjects to schedule
+     * @param rooms Rooms to schedule them in
+     * @param settings Lectures each subject gets, and the threads, runs, seed and time limit of the portfolio
+     */
+    public PortfolioSolver(List<SubjectDTO> subjects, List<RoomDTO> rooms, SolverSettings settings) {
+        this.problem = new TimetableProblem(subjects, rooms, settings);
+        this.settings = new SolverSettings(settings);
+    }
+
+    /**
+     * Builds a timetable, blocking until every run has finished or the time limit is up, and run 0 has scheduled
+     * every lecture it can.
+     *
+     * @return The best timetable found, with every lecture that could be scheduled
+     */
+    public Timetable solve() {
+        bestScore.set(NO_SCORE);
+        optimalRun.set(Integer.MAX_VALUE);
+        searches.set(0);
+        long lowerBound = pack(problem.lowerBound());
+        long started = System.nanoTime();
+        long limit = settings.getTimeLimitMillis() * 1000000;
+
+        ForkJoinPool pool = new ForkJoinPool(settings.getThreads());
+        try {
+            List<ForkJoinTask<Timetable>> tasks = new ArrayList<>();
+            for (int i = 0; i < settings.getRuns(); i++) {
+                int run = i;
+                BooleanSupplier stop = () -> optimalRun.get() < run
+                        || limit > 0 && System.nanoTime() - started > limit;
+                tasks.add(pool.submit(() -> run(run, stop, lowerBound)));
+            }
+            Timetable best = null;
+            for (ForkJoinTask<Timetable> task : tasks) {
+                Timetable timetable = task.join();
+                if (timetable != null && (best == null || timetable.getScore().isBetterThan(best.getScore()))) {
+                    best = timetable;
+                }
+            }
+            return best;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * @return The best score any run has reached so far, null if no run has finished yet. Safe to call from
+     * another thread while the solver is running. Only reported, never used to cut runs short.
+     */
+    public Score getBestScore() {
+        long score = bestScore.get();
+        return score == NO_SCORE ? null : new Score((int) (score >>> SOFT_BITS), score & ((1L << SOFT_BITS) - 1));
+    }
+
+    /**
+     * @return The number of runs that started a search in the last solve, which is less than the runs in the
+     * settings when a run reached the lower bound or the time limit was up
+     */
+    public int getSearches() {
+        return searches.get();
+    }
+
+    private Timetable run(int run, BooleanSupplier stop, long lowerBound) {
+        // run 0 always runs and schedules every lecture it can, so there is a timetable to return however short
+        // the time limit, and it is never worse than the one TimetableSolver builds
+        if (run > 0 && stop.getAsBoolean()) {
+            return null;
+        }
+        searches.incrementAndGet();
+        Search search = new Search(problem, STRATEGIES[run % STRATEGIES.length], seed(settings.getSeed(), run), stop);
+        Timetable timetable = search.run(settings.getSearchSteps(), run > 0);
+        long score = pack(timetable.getScore());
+        bestScore.accumulateAndGet(score, Math::min);
+        if (score <= lowerBound) {
+            optimalRun.accumulateAndGet(run, Math::min);
+        }
+        return timetable;
+    }
+
+    private static long pack(Score score) {
+        return (long) score.getHard() << SOFT_BITS | Math.min(score.getSoft(), (1L << SOFT_BITS) - 1);
+    }
+
+    /**
+     * Mixes the seed of a run from the portfolio's seed and the run number (SplitMix64), so runs with nearby
+     * numbers get unrelated seeds.
+     */
+    private static long seed(long seed, int run) {
+        long z = seed + (run + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,57 @@
+package no.kij.scheduler.timetable;
+
+import no.kij.scheduler.dto.SubjectDTO;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What a {@link Rescheduler} changed to repair a timetable: the lectures it took out and the lectures it booked.
+ * Every other lecture stayed where it was.
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public final class Repair {
+    private final List<Lecture> removed;
+    private final List<Lecture> added;
+    private final Map<SubjectDTO, String> unscheduled;
+    private final Score score;
+
+    Repair(List<Lecture> removed, List<Lecture> added, Map<SubjectDTO, String> unscheduled, Score score) {
+        this.removed = Collections.unmodifiableList(removed);
+        this.added = Collections.unmodifiableList(added);
+        this.unscheduled = Collections.unmodifiableMap(new LinkedHashMap<>(unscheduled));
+        this.score = score;
+    }
+
+    /**
+     * @return Lectures taken out of the timetable, as they were booked
+     */
+    public List<Lecture> getRemoved() {
+        return removed;
+    }
+
+    /**
+     * @return Lectures booked by the repair, including the ones moved from somewhere else
+     */
+    public List<Lecture> getAdded() {
+        return added;
+    }
+
+    /**
+     * @return Reason a lecture could not be scheduled, for the changed subjects still missing lectures
+     */
+    public Map<SubjectDTO, String> getUnscheduled() {
+        return unscheduled;
+    }
+
+    /**
+     * @return Score of the whole timetable after the repair
+     */
+    public Score getScore() {
+        return score;
+    }
+}
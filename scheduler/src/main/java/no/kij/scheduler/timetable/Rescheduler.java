@@ -0,0 +1,583 @@
+package no.kij.scheduler.timetable;
+
+import no.kij.scheduler.dto.LecturerDTO;
+import no.kij.scheduler.dto.RoomDTO;
+import no.kij.scheduler.dto.SubjectDTO;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rescheduler keeps a timetable up to date as the data behind it changes, without solving it again.
+ *
+ * <p>It keeps which lecture is booked in every slot of every room and lecturer, so a {@link ScheduleDelta}
+ * only touches the lectures it breaks: lectures outside their lecturers' new available times, lectures whose
+ * room no longer holds their students, and subjects that are missing lectures. Those are taken out and booked
+ * again in their cheapest free room and time; if there is none, one lecture standing in the way is moved to a
+ * free option of its own, like the solver does. Every other lecture stays where it is, and the score is brought
+ * up to date for the subjects and lecturer days that changed only, so a repair takes time in proportion to the
+ * size of the change and the number of rooms, not the number of lectures.</p>
+ *
+ * <p>Rooms, lecturers and subjects are told apart by their IDs, or by instance before they are saved. A
+ * subject's lecturers are read the first time the subject is seen. A rescheduler is not thread safe.</p>
+ *
+ * @author Kissor Jeyabalan
+ * @see TimetableSolver
+ * @since 1.1
+ */
+public class Rescheduler {
+    private static final Booking SEVERAL = new Booking(null, null, -1);
+
+    private final int hours;
+    private final int lecturesPerWeek;
+    private final long anyStart;
+    private final Map<Object, RoomState> rooms = new HashMap<>();
+    // sorted by capacity, so the rooms a subject fits in are the ones from the first that holds it
+    private final List<RoomState> roomsBySize = new ArrayList<>();
+    private final Map<Object, LecturerState> lecturers = new HashMap<>();
+    private final Map<Object, SubjectState> subjects = new LinkedHashMap<>();
+    // subjects missing at least one lecture
+    private final Set<SubjectState> incomplete = new LinkedHashSet<>();
+    private int missingLectures;
+    private long softPenalty;
+
+    // penalties to bring up to date before the score is read
+    private final Set<SubjectState> dirtySubjects = new LinkedHashSet<>();
+    private final Map<LecturerState, Integer> dirtyDays = new LinkedHashMap<>();
+    // bookings made and taken out by the repair in progress
+    private final Set<Booking> booked = new LinkedHashSet<>();
+    private final Set<Booking> released = new LinkedHashSet<>();
+
+    /**
+     * Takes over a timetable built with the given settings.
+     *
+     * @param previous Timetable to keep up to date
+     * @param rooms Every room, including the ones without lectures
+     * @param settings Settings the timetable was built with
+     */
+    public Rescheduler(Timetable previous, List<RoomDTO> rooms, SolverSettings settings) {
+        this.hours = settings.getLectureHours();
+        this.lecturesPerWeek = settings.getLecturesPerWeek();
+        this.anyStart = Week.starts(Week.span(0, Week.SLOTS), hours);
+        for (RoomDTO roomDTO : rooms) {
+            roomState(roomDTO);
+        }
+        for (Lecture lecture : previous.getLectures()) {
+            SubjectState subject = subjectState(lecture.getSubject());
+            occupy(new Booking(subject, roomState(lecture.getRoom()),
+                    Week.slot(lecture.getDay(), lecture.getStartHour())));
+        }
+        for (Map.Entry<SubjectDTO, String> entry : previous.getUnscheduled().entrySet()) {
+            subjectState(entry.getKey()).reason = entry.getValue();
+        }
+        sortRooms();
+        updateScore();
+        booked.clear();
+        released.clear();
+    }
+
+    /**
+     * Applies the changes and repairs the lectures they affect.
+     *
+     * @param delta Changes made since the last repair, or since the timetable was built
+     * @return The lectures taken out and booked by the repair
+     */
+    public Repair repair(ScheduleDelta delta) {
+        Set<SubjectState> affected = new LinkedHashSet<>();
+
+        for (LecturerDTO lecturerDTO : delta.getChangedAvailability()) {
+            LecturerState lecturer = lecturerState(lecturerDTO);
+            lecturer.starts = Week.starts(Week.availableSlots(lecturerDTO.getAvailable()), hours);
+            for (Booking booking : lecturer.bookings()) {
+                if ((lecturer.starts & 1L << booking.slot) == 0) {
+                    release(booking);
+                }
+            }
+            affected.addAll(lecturer.subjects);
+        }
+
+        for (SubjectDTO subjectDTO : delta.getAddedSubjects()) {
+            affected.add(subjectState(subjectDTO));
+        }
+
+        for (SubjectDTO subjectDTO : delta.getChangedEnrolment()) {
+            SubjectState subject = subjectState(subjectDTO);
+            subject.subject = subjectDTO;
+            dirtySubjects.add(subject);
+            for (Booking booking : new ArrayList<>(subject.bookings)) {
+                if (booking.room.room.getCapacity() < subjectDTO.getEnrolled()) {
+                    release(booking);
+                }
+            }
+            affected.add(subject);
+        }
+
+        for (RoomDTO roomDTO : delta.getResizedRooms()) {
+            RoomState room = roomState(roomDTO);
+            room.room = roomDTO;
+            for (Booking booking : room.bookings()) {
+                dirtySubjects.add(booking.subject);
+                if (roomDTO.getCapacity() < booking.subject.subject.getEnrolled()) {
+                    release(booking);
+                }
+            }
+            for (SubjectState subject : incomplete) {
+                if (subject.subject.getEnrolled() <= roomDTO.getCapacity()) {
+                    affected.add(subject);
+                }
+            }
+        }
+        if (!delta.getResizedRooms().isEmpty()) {
+            sortRooms();
+        }
+
+        for (Booking booking : released) {
+            affected.add(booking.subject);
+        }
+
+        // the biggest subjects fit in the fewest rooms, so they go first
+        List<SubjectState> toBook = new ArrayList<>();
+        for (SubjectState subject : affected) {
+            if (subject.missing() > 0) {
+                toBook.add(subject);
+            }
+        }
+        toBook.sort(Comparator.comparingInt((SubjectState subject) -> subject.subject.getEnrolled()).reversed());
+        Map<SubjectDTO, String> unscheduled = new LinkedHashMap<>();
+        for (SubjectState subject : toBook) {
+            while (subject.missing() > 0 && (bookCheapest(subject) || makeRoom(subject))) {
+                subject.reason = null;
+            }
+            if (subject.missing() > 0) {
+                subject.reason = reason(subject);
+                unscheduled.put(subject.subject, subject.reason);
+            }
+        }
+
+        updateScore();
+        List<Lecture> removed = new ArrayList<>();
+        for (Booking booking : released) {
+            removed.add(lecture(booking));
+        }
+        List<Lecture> added = new ArrayList<>();
+        for (Booking booking : booked) {
+            added.add(lecture(booking));
+        }
+        booked.clear();
+        released.clear();
+        return new Repair(removed, added, unscheduled, getScore());
+    }
+
+    /**
+     * @return Score of the timetable as it is now
+     */
+    public Score getScore() {
+        return new Score(missingLectures, softPenalty);
+    }
+
+    /**
+     * Builds the timetable as it is now. Takes time in proportion to the number of lectures.
+     *
+     * @return The timetable
+     */
+    public Timetable getTimetable() {
+        List<Lecture> lectures = new ArrayList<>();
+        Map<SubjectDTO, String> unscheduled = new LinkedHashMap<>();
+        for (SubjectState subject : subjects.values()) {
+            for (Booking booking : subject.bookings) {
+                lectures.add(lecture(booking));
+            }
+            if (subject.missing() > 0) {
+                unscheduled.put(subject.subject, subject.reason != null ? subject.reason : reason(subject));
+            }
+        }
+        return new Timetable(lectures, unscheduled, missingLectures);
+    }
+
+    private Lecture lecture(Booking booking) {
+        return new Lecture(booking.subject.subject, booking.room.room, Week.day(booking.slot),
+                Week.hour(booking.slot), hours);
+    }
+
+    /**
+     * Books the subject's lecture in its cheapest free room and time.
+     *
+     * @return True if there was a free option
+     */
+    private boolean bookCheapest(SubjectState subject) {
+        long busy = subject.lecturerBusy();
+        long starts = subject.starts();
+        RoomState bestRoom = null;
+        int bestSlot = -1;
+        long bestPenalty = Long.MAX_VALUE;
+        for (int r = firstRoomFor(subject.subject.getEnrolled()); r < roomsBySize.size(); r++) {
+            RoomState room = roomsBySize.get(r);
+            long free = starts & ~Week.clashes(room.busy | busy, hours);
+            while (free != 0) {
+                int slot = Long.numberOfTrailingZeros(free);
+                free &= free - 1;
+                long penalty = penalty(subject, room, slot);
+                if (penalty < bestPenalty) {
+                    bestPenalty = penalty;
+                    bestRoom = room;
+                    bestSlot = slot;
+                }
+            }
+        }
+        if (bestRoom == null) {
+            return false;
+        }
+        occupy(new Booking(subject, bestRoom, bestSlot));
+        return true;
+    }
+
+    /**
+     * Books a lecture of the subject by moving the one lecture standing in the way of one of its options to a
+     * free option of its own.
+     *
+     * @return True if the lecture was booked
+     */
+    private boolean makeRoom(SubjectState subject) {
+        long starts = subject.starts();
+        for (int r = firstRoomFor(subject.subject.getEnrolled()); r < roomsBySize.size(); r++) {
+            RoomState room = roomsBySize.get(r);
+            long possible = starts;
+            while (possible != 0) {
+                int slot = Long.numberOfTrailingZeros(possible);
+                possible &= possible - 1;
+                Booking blocker = soleBlocker(subject, room, slot);
+                if (blocker == null || blocker == SEVERAL || blocker.subject == subject) {
+                    continue;
+                }
+                release(blocker);
+                Booking booking = new Booking(subject, room, slot);
+                occupy(booking);
+                if (bookCheapest(blocker.subject)) {
+                    return true;
+                }
+                release(booking);
+                occupy(blocker);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The booking keeping the subject out of the given room and slot, null if nothing is in the way or
+     * {@link #SEVERAL} if more than one booking is
+     */
+    private Booking soleBlocker(SubjectState subject, RoomState room, int slot) {
+        Booking blocker = null;
+        for (int t = slot; t < slot + hours; t++) {
+            blocker = addBlocker(blocker, room.slots[t]);
+            for (LecturerState lecturer : subject.lecturers) {
+                blocker = addBlocker(blocker, lecturer.slots[t]);
+            }
+            if (blocker == SEVERAL) {
+                return SEVERAL;
+            }
+        }
+        return blocker;
+    }
+
+    private static Booking addBlocker(Booking blocker, Booking booked) {
+        if (booked == null || booked == blocker) {
+            return blocker;
+        }
+        return blocker == null ? booked : SEVERAL;
+    }
+
+    private void occupy(Booking booking) {
+        long span = Week.span(booking.slot, hours);
+        booking.room.busy |= span;
+        fill(booking.room.slots, booking, booking);
+        for (LecturerState lecturer : booking.subject.lecturers) {
+            lecturer.busy |= span;
+            fill(lecturer.slots, booking, booking);
+            dirtyDays.merge(lecturer, 1 << Week.day(booking.slot), (a, b) -> a | b);
+        }
+        SubjectState subject = booking.subject;
+        subject.bookings.add(booking);
+        dirtySubjects.add(subject);
+        if (incomplete.contains(subject)) {
+            missingLectures--;
+            if (subject.missing() == 0) {
+                incomplete.remove(subject);
+            }
+        }
+        if (!released.remove(booking)) {
+            booked.add(booking);
+        }
+    }
+
+    private void release(Booking booking) {
+        long span = Week.span(booking.slot, hours);
+        booking.room.busy &= ~span;
+        fill(booking.room.slots, booking, null);
+        for (LecturerState lecturer : booking.subject.lecturers) {
+            lecturer.busy &= ~span;
+            fill(lecturer.slots, booking, null);
+            dirtyDays.merge(lecturer, 1 << Week.day(booking.slot), (a, b) -> a | b);
+        }
+        SubjectState subject = booking.subject;
+        subject.bookings.remove(booking);
+        dirtySubjects.add(subject);
+        incomplete.add(subject);
+        missingLectures++;
+        if (!booked.remove(booking)) {
+            released.add(booking);
+        }
+    }
+
+    private void fill(Booking[] slots, Booking booking, Booking value) {
+        for (int t = booking.slot; t < booking.slot + hours; t++) {
+            slots[t] = value;
+        }
+    }
+
+    /**
+     * Brings the soft penalty up to date for the subjects and lecturer days changed since the last update.
+     */
+    private void updateScore() {
+        for (SubjectState subject : dirtySubjects) {
+            long penalty = subjectPenalty(subject);
+            softPenalty += penalty - subject.penalty;
+            subject.penalty = penalty;
+        }
+        dirtySubjects.clear();
+        for (Map.Entry<LecturerState, Integer> entry : dirtyDays.entrySet()) {
+            LecturerState lecturer = entry.getKey();
+            for (int day = 0; day < Week.DAYS; day++) {
+                if ((entry.getValue() & 1 << day) != 0) {
+                    int changes = Math.max(0, campuses(lecturer, day).size() - 1);
+                    long penalty = (long) Score.CAMPUS_CHANGE_PENALTY * changes;
+                    softPenalty += penalty - lecturer.dayPenalty[day];
+                    lecturer.dayPenalty[day] = penalty;
+                }
+            }
+        }
+        dirtyDays.clear();
+    }
+
+    /**
+     * The penalties of the subject's lectures that do not depend on other subjects: empty seats, late lectures
+     * and lectures on the same day.
+     *
+     * @see Score
+     */
+    private long subjectPenalty(SubjectState subject) {
+        long penalty = 0;
+        int days = 0;
+        for (Booking booking : subject.bookings) {
+            penalty += (long) Score.EMPTY_SEAT_PENALTY
+                    * (booking.room.room.getCapacity() - subject.subject.getEnrolled());
+            if (Week.hour(booking.slot) + hours > Score.LATE_HOUR) {
+                penalty += Score.LATE_PENALTY;
+            }
+            int day = 1 << Week.day(booking.slot);
+            if ((days & day) != 0) {
+                penalty += Score.SAME_DAY_PENALTY;
+            }
+            days |= day;
+        }
+        return penalty;
+    }
+
+    /**
+     * The soft penalty a lecture of the subject in the given room and slot would add to the timetable.
+     */
+    private long penalty(SubjectState subject, RoomState room, int slot) {
+        int day = Week.day(slot);
+        long penalty = (long) Score.EMPTY_SEAT_PENALTY * (room.room.getCapacity() - subject.subject.getEnrolled());
+        if (Week.hour(slot) + hours > Score.LATE_HOUR) {
+            penalty += Score.LATE_PENALTY;
+        }
+        for (Booking booking : subject.bookings) {
+            if (Week.day(booking.slot) == day) {
+                penalty += Score.SAME_DAY_PENALTY;
+                break;
+            }
+        }
+        String campus = String.valueOf(room.room.getCampus());
+        for (LecturerState lecturer : subject.lecturers) {
+            Set<String> campuses = campuses(lecturer, day);
+            if (!campuses.isEmpty() && !campuses.contains(campus)) {
+                penalty += Score.CAMPUS_CHANGE_PENALTY;
+            }
+        }
+        return penalty;
+    }
+
+    private Set<String> campuses(LecturerState lecturer, int day) {
+        Set<String> campuses = new HashSet<>();
+        int first = day * Week.HOURS_PER_DAY;
+        for (int t = first; t < first + Week.HOURS_PER_DAY; t++) {
+            if (lecturer.slots[t] != null) {
+                campuses.add(String.valueOf(lecturer.slots[t].room.room.getCampus()));
+            }
+        }
+        return campuses;
+    }
+
+    private String reason(SubjectState subject) {
+        int enrolled = subject.subject.getEnrolled();
+        String reason = TimetableProblem.unsatisfiableReason(enrolled, firstRoomFor(enrolled) < roomsBySize.size(),
+                subject.starts(), hours);
+        return reason != null ? reason : Search.NO_OPTION_LEFT;
+    }
+
+    private void sortRooms() {
+        roomsBySize.sort(Comparator.comparingInt((RoomState room) -> room.room.getCapacity())
+                .thenComparing(room -> String.valueOf(room.room.getName())));
+    }
+
+    /**
+     * @return Index of the smallest room holding the given number of students, the number of rooms if none does
+     */
+    private int firstRoomFor(int students) {
+        int low = 0;
+        int high = roomsBySize.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (roomsBySize.get(mid).room.getCapacity() < students) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private RoomState roomState(RoomDTO roomDTO) {
+        return rooms.computeIfAbsent(TimetableProblem.key(roomDTO.getId(), roomDTO), key -> {
+            RoomState room = new RoomState(roomDTO);
+            roomsBySize.add(room);
+            return room;
+        });
+    }
+
+    private LecturerState lecturerState(LecturerDTO lecturerDTO) {
+        return lecturers.computeIfAbsent(TimetableProblem.key(lecturerDTO.getId(), lecturerDTO),
+                key -> new LecturerState(Week.starts(Week.availableSlots(lecturerDTO.getAvailable()), hours)));
+    }
+
+    /**
+     * Finds the state of the subject, adding it as a subject with no lectures yet if it is new.
+     */
+    private SubjectState subjectState(SubjectDTO subjectDTO) {
+        Object key = TimetableProblem.key(subjectDTO.getId(), subjectDTO);
+        SubjectState subject = subjects.get(key);
+        if (subject == null) {
+            subject = new SubjectState(subjectDTO);
+            for (LecturerDTO lecturerDTO : subjectDTO.getLecturers()) {
+                LecturerState lecturer = lecturerState(lecturerDTO);
+                if (!subject.lecturers.contains(lecturer)) {
+                    subject.lecturers.add(lecturer);
+                    lecturer.subjects.add(subject);
+                }
+            }
+            subjects.put(key, subject);
+            incomplete.add(subject);
+            missingLectures += lecturesPerWeek;
+        }
+        return subject;
+    }
+
+    private final class SubjectState {
+        private SubjectDTO subject;
+        private final List<LecturerState> lecturers = new ArrayList<>();
+        private final List<Booking> bookings = new ArrayList<>();
+        private String reason;
+        private long penalty;
+
+        private SubjectState(SubjectDTO subject) {
+            this.subject = subject;
+        }
+
+        private int missing() {
+            return lecturesPerWeek - bookings.size();
+        }
+
+        private long starts() {
+            long starts = anyStart;
+            for (LecturerState lecturer : lecturers) {
+                starts &= lecturer.starts;
+            }
+            return starts;
+        }
+
+        private long lecturerBusy() {
+            long busy = 0;
+            for (LecturerState lecturer : lecturers) {
+                busy |= lecturer.busy;
+            }
+            return busy;
+        }
+    }
+
+    private static final class RoomState {
+        private RoomDTO room;
+        private long busy;
+        private final Booking[] slots = new Booking[Week.SLOTS];
+
+        private RoomState(RoomDTO room) {
+            this.room = room;
+        }
+
+        private List<Booking> bookings() {
+            return distinct(slots);
+        }
+    }
+
+    private static final class LecturerState {
+        private long starts;
+        private long busy;
+        private final Booking[] slots = new Booking[Week.SLOTS];
+        private final Set<SubjectState> subjects = new LinkedHashSet<>();
+        private final long[] dayPenalty = new long[Week.DAYS];
+
+        private LecturerState(long starts) {
+            this.starts = starts;
+        }
+
+        private List<Booking> bookings() {
+            return distinct(slots);
+        }
+    }
+
+    /**
+     * @return The bookings in the slots, each once
+     */
+    private static List<Booking> distinct(Booking[] slots) {
+        List<Booking> bookings = new ArrayList<>();
+        for (int t = 0; t < slots.length; t++) {
+            if (slots[t] != null && (t == 0 || slots[t - 1] != slots[t])) {
+                bookings.add(slots[t]);
+            }
+        }
+        return bookings;
+    }
+
+    /**
+     * A lecture booked in a room and start slot. The {@link Lecture} is built from it on demand, so it always has
+     * the latest subject and room.
+     */
+    private static final class Booking {
+        private final SubjectState subject;
+        private final RoomState room;
+        private final int slot;
+
+        private Booking(SubjectState subject, RoomState room, int slot) {
+            this.subject = subject;
+            this.room = room;
+            this.slot = slot;
+        }
+    }
+}
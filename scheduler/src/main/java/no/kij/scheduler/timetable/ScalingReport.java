@@ -0,0 +1,98 @@
+package no.kij.scheduler.timetable;
+
+import no.kij.scheduler.dto.RoomDTO;
+import no.kij.scheduler.dto.SubjectDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ScalingReport measures how the {@link PortfolioSolver} speeds up with the number of threads, by solving the
+ * same problem with the same runs on 1, 2, 4 and so on up to the given number of threads.
+ *
+ * <p>Every measurement runs the same number of runs with the same seed and without a time limit, so they all do
+ * the same work and should all find the same timetable. A solve on the most threads is run first to warm up the
+ * JIT compiler, so the first measurement is not slowed down by it.</p>
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public class ScalingReport {
+    private final List<Integer> threads = new ArrayList<>();
+    private final List<Long> millis = new ArrayList<>();
+    private final List<Score> scores = new ArrayList<>();
+
+    private ScalingReport() {
+    }
+
+    /**
+     * Solves the problem once for every number of threads measured.
+     *
+     * @param subjects Subjects to schedule
+     * @param rooms Rooms to schedule them in
+     * @param settings Settings of the solver, the number of threads and time limit are ignored
+     * @param maxThreads Highest number of threads to measure
+     * @return The measurements
+     * @throws IllegalArgumentException If the highest number of threads is less than 1
+     */
+    public static ScalingReport measure(List<SubjectDTO> subjects, List<RoomDTO> rooms, SolverSettings settings,
+                                        int maxThreads) {
+        SolverSettings measured = new SolverSettings(settings);
+        measured.setThreads(maxThreads);
+        measured.setTimeLimitMillis(0);
+        new PortfolioSolver(subjects, rooms, measured).solve();
+
+        ScalingReport report = new ScalingReport();
+        for (int count = 1; ; count = Math.min(2 * count, maxThreads)) {
+            measured.setThreads(count);
+            long started = System.nanoTime();
+            Timetable timetable = new PortfolioSolver(subjects, rooms, measured).solve();
+            report.threads.add(count);
+            report.millis.add((System.nanoTime() - started) / 1000000);
+            report.scores.add(timetable.getScore());
+            if (count == maxThreads) {
+                return report;
+            }
+        }
+    }
+
+    /**
+     * @return Number of measurements
+     */
+    public int size() {
+        return threads.size();
+    }
+
+    public int getThreads(int index) {
+        return threads.get(index);
+    }
+
+    public long getMillis(int index) {
+        return millis.get(index);
+    }
+
+    /**
+     * @return Time taken on one thread divided by the time taken in the given measurement
+     */
+    public double getSpeedup(int index) {
+        return (double) millis.get(0) / Math.max(1, millis.get(index));
+    }
+
+    /**
+     * @return Speedup per thread, 1 being a perfect linear speedup
+     */
+    public double getEfficiency(int index) {
+        return getSpeedup(index) / threads.get(index);
+    }
+
+    public Score getScore(int index) {
+        return scores.get(index);
+    }
+
+    /**
+     * @return True if every number of threads found a timetable with the same score
+     */
+    public boolean isDeterministic() {
+        return scores.stream().distinct().count() <= 1;
+    }
+}
@@ -0,0 +1,79 @@
+package no.kij.scheduler.timetable;
+
+import no.kij.scheduler.dto.LecturerDTO;
+import no.kij.scheduler.dto.RoomDTO;
+import no.kij.scheduler.dto.SubjectDTO;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The changes made to the data behind a timetable since it was built, for a {@link Rescheduler} to repair.
+ * Each change is given as the updated DTO, so the rescheduler reads the new availability, enrolment or capacity
+ * from it.
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public class ScheduleDelta {
+    private final List<LecturerDTO> changedAvailability = new ArrayList<>();
+    private final List<SubjectDTO> addedSubjects = new ArrayList<>();
+    private final List<SubjectDTO> changedEnrolment = new ArrayList<>();
+    private final List<RoomDTO> resizedRooms = new ArrayList<>();
+
+    /**
+     * @param lecturerDTO Lecturer with their new available times
+     */
+    public ScheduleDelta changeAvailability(LecturerDTO lecturerDTO) {
+        changedAvailability.add(lecturerDTO);
+        return this;
+    }
+
+    /**
+     * @param subjectDTO Subject to add to the timetable, with its lecturers
+     */
+    public ScheduleDelta addSubject(SubjectDTO subjectDTO) {
+        addedSubjects.add(subjectDTO);
+        return this;
+    }
+
+    /**
+     * @param subjectDTO Subject with its new number of enrolled students
+     */
+    public ScheduleDelta changeEnrolment(SubjectDTO subjectDTO) {
+        changedEnrolment.add(subjectDTO);
+        return this;
+    }
+
+    /**
+     * @param roomDTO Room with its new capacity, or a new room
+     */
+    public ScheduleDelta resizeRoom(RoomDTO roomDTO) {
+        resizedRooms.add(roomDTO);
+        return this;
+    }
+
+    public List<LecturerDTO> getChangedAvailability() {
+        return Collections.unmodifiableList(changedAvailability);
+    }
+
+    public List<SubjectDTO> getAddedSubjects() {
+        return Collections.unmodifiableList(addedSubjects);
+    }
+
+    public List<SubjectDTO> getChangedEnrolment() {
+        return Collections.unmodifiableList(changedEnrolment);
+    }
+
+    public List<RoomDTO> getResizedRooms() {
+        return Collections.unmodifiableList(resizedRooms);
+    }
+
+    /**
+     * @return Number of changes
+     */
+    public int size() {
+        return changedAvailability.size() + addedSubjects.size() + changedEnrolment.size() + resizedRooms.size();
+    }
+}
@@ -0,0 +1,86 @@
+package no.kij.scheduler.timetable;
+
+/**
+ * The score of a timetable. The hard part counts the lectures that could not be scheduled without breaking a
+ * hard constraint, the soft part adds up the penalties for the soft constraints the timetable breaks.
+ * A lower score is better, and any difference in the hard part outweighs every difference in the soft part.
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public final class Score implements Comparable<Score> {
+    /**
+     * Penalty for every empty seat in a lecture's room, so subjects get the smallest room they fit in.
+     */
+    public static final int EMPTY_SEAT_PENALTY = 1;
+
+    /**
+     * Penalty for every extra campus a lecturer has to teach at on the same day.
+     */
+    public static final int CAMPUS_CHANGE_PENALTY = 100;
+
+    /**
+     * Penalty for every extra lecture of a subject on the same day.
+     */
+    public static final int SAME_DAY_PENALTY = 50;
+
+    /**
+     * Penalty for every lecture that ends after {@value #LATE_HOUR}:00.
+     */
+    public static final int LATE_PENALTY = 20;
+    public static final int LATE_HOUR = 18;
+
+    private final int hard;
+    private final long soft;
+
+    public Score(int hard, long soft) {
+        this.hard = hard;
+        this.soft = soft;
+    }
+
+    public int getHard() {
+        return hard;
+    }
+
+    public long getSoft() {
+        return soft;
+    }
+
+    /**
+     * @return True if every lecture was scheduled
+     */
+    public boolean isFeasible() {
+        return hard == 0;
+    }
+
+    public boolean isBetterThan(Score other) {
+        return compareTo(other) < 0;
+    }
+
+    @Override
+    public int compareTo(Score other) {
+        if (hard != other.hard) {
+            return Integer.compare(hard, other.hard);
+        }
+        return Long.compare(soft, other.soft);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof Score)) {
+            return false;
+        }
+        Score other = (Score) o;
+        return hard == other.hard && soft == other.soft;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * hard + Long.hashCode(soft);
+    }
+
+    @Override
+    public String toString() {
+        return hard + " unscheduled, " + soft + " penalty";
+    }
+}
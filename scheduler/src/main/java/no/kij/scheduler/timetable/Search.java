@@ -0,0 +1,666 @@
+package no.kij.scheduler.timetable;
+
+import no.kij.scheduler.dto.SubjectDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.BooleanSupplier;
+
+/**
+ * One run of the constraint solver over a {@link TimetableProblem}.
+ *
+ * <p>The domain of a lecture is every room and start slot it could still get. Rooms, lecturers and the
+ * lectures' start slots are bit masks over the week, so the free start slots of a lecture in a room are
+ * <code>starts &amp; ~clashes(roomBusy | lecturerBusy)</code>, and the size of each domain is kept per room.
+ * Every booking narrows the domains of the lectures it touches, which is the constraint propagation:</p>
+ * <ul>
+ *     <li>the lecture with the smallest domain is scheduled next, so lectures with a single option left get it
+ *     before anything else can take it;</li>
+ *     <li>its options are tried cheapest first by soft penalty, skipping an option that would leave another
+ *     lecture without any option at all (forward checking). Only lectures sharing a lecturer, or with
+ *     fewer options than a booking can take away, need to be checked.</li>
+ * </ul>
+ * <p>There is no backtracking, so a run takes about O(lectures&sup2;) bit operations. Once every lecture has been
+ * tried, each lecture left without an option gets one more chance: if a single booked lecture stands in the way
+ * of one of its options, that lecture is moved to a free option of its own to make room. Lectures that still
+ * have no option are reported as unscheduled instead of failing the whole timetable.</p>
+ *
+ * <p>{@link #run(int)} goes on to improve the timetable by local search: a lecture picked at random is moved to
+ * its cheapest free option, if that lowers the penalty. Every random choice comes from the seed, so a run with
+ * the same strategy and seed always builds the same timetable, unless it is stopped early.</p>
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+final class Search {
+    /**
+     * Number of cheapest options checked for wiping out another lecture's domain before settling.
+     */
+    private static final int MAX_OPTION_TRIES = 32;
+    /**
+     * Weight of a lecturer start slot lost by a booking, against the soft penalties, when ordering options.
+     */
+    private static final int LOST_START_WEIGHT = 10;
+    /**
+     * Highest random cost added to an option by {@link Strategy#NOISY_OPTIONS}.
+     */
+    private static final int OPTION_NOISE = 2 * LOST_START_WEIGHT;
+    /**
+     * Number of local search steps between checks of the stop condition.
+     */
+    private static final int STOP_CHECK_INTERVAL = 256;
+    private static final int FREE = -1;
+    private static final int SEVERAL = -2;
+    static final String NO_OPTION_LEFT = "Every room and time the lecture fits in was taken.";
+    static final String STOPPED = "The solver ran out of time before scheduling the lecture.";
+
+    /**
+     * The orders a run can make its choices in. Runs with different strategies end up in different parts of the
+     * search space, which is what makes running several of them worth it.
+     */
+    enum Strategy {
+        /**
+         * Fewest options first, cheapest option first. Builds the same timetable whatever the seed.
+         */
+        FEWEST_OPTIONS,
+        /**
+         * Fewest options first, breaking ties between lectures with as many options at random.
+         */
+        RANDOM_TIES,
+        /**
+         * Biggest subjects first among lectures with about as many options, rounded to a power of two, so big
+         * subjects get the rooms that fit them best.
+         */
+        LARGEST_FIRST,
+        /**
+         * Fewest options first, adding some random cost to every option, so close options are tried in another
+         * order.
+         */
+        NOISY_OPTIONS
+    }
+
+    private final TimetableProblem problem;
+    private final Strategy strategy;
+    private final Random random;
+    private final BooleanSupplier stop;
+    private final long[] roomBusy;
+    private final long[] lecturerBusy;
+    // variable booked in each slot, per room and per lecturer, -1 if free
+    private final int[] roomSlots;
+    private final int[] lecturerSlots;
+    // campuses each lecturer teaches at, per lecturer and day
+    private final long[] lecturerCampuses;
+    // days each subject has a lecture on
+    private final int[] subjectDays;
+
+    private final int[] room;
+    private final int[] start;
+    private final String[] reason;
+    // options left per variable and room, indexed from the variable's first room
+    private final int[][] options;
+    private final int[] domainSize;
+    // variables still to schedule, the first openCount entries of the array
+    private final int[] open;
+    private int openCount;
+    private final int[] stamp;
+    private int stampValue;
+    private long[] candidates = new long[16];
+    // soft penalty of the bookings made so far, kept up to date by assign and unassign
+    private long softPenalty;
+
+    Search(TimetableProblem problem) {
+        this(problem, Strategy.FEWEST_OPTIONS, 0, () -> false);
+    }
+
+    /**
+     * @param problem Problem to solve
+     * @param strategy Order to make choices in
+     * @param seed Seed of every random choice of the run
+     * @param stop Checked now and then, the run stops as soon as it returns true
+     */
+    Search(TimetableProblem problem, Strategy strategy, long seed, BooleanSupplier stop) {
+        this.problem = problem;
+        this.strategy = strategy;
+        this.random = new Random(seed);
+        this.stop = stop;
+        int variables = problem.variableCount();
+        this.roomBusy = new long[problem.rooms.length];
+        this.lecturerBusy = new long[problem.lecturerCount];
+        this.roomSlots = new int[problem.rooms.length * Week.SLOTS];
+        this.lecturerSlots = new int[problem.lecturerCount * Week.SLOTS];
+        Arrays.fill(roomSlots, -1);
+        Arrays.fill(lecturerSlots, -1);
+        this.lecturerCampuses = new long[problem.lecturerCount * Week.DAYS];
+        this.subjectDays = new int[problem.subjects.length];
+        this.room = new int[variables];
+        this.start = new int[variables];
+        this.reason = new String[variables];
+        this.options = new int[variables][];
+        this.domainSize = new int[variables];
+        this.open = new int[variables];
+        this.stamp = new int[variables];
+        Arrays.fill(room, -1);
+        for (int v = 0; v < variables; v++) {
+            reason[v] = problem.unsatisfiableReason(v);
+            options[v] = new int[problem.rooms.length - problem.firstRoom[v]];
+            if (reason[v] == null) {
+                open[openCount++] = v;
+                countOptions(v);
+            }
+        }
+    }
+
+    /**
+     * Schedules every lecture that can be scheduled.
+     *
+     * @return The timetable
+     */
+    Timetable run() {
+        schedule(true);
+        return toTimetable();
+    }
+
+    /**
+     * Schedules every lecture that can be scheduled, then improves the timetable by local search.
+     *
+     * @param steps Number of local search steps
+     * @return The timetable
+     */
+    Timetable run(int steps) {
+        return run(steps, true);
+    }
+
+    /**
+     * Schedules every lecture that can be scheduled, then improves the timetable by local search.
+     *
+     * @param steps Number of local search steps
+     * @param stopScheduling False to schedule every lecture before checking the stop condition, so only the local
+     *                       search can be cut short
+     * @return The timetable
+     */
+    Timetable run(int steps, boolean stopScheduling) {
+        schedule(stopScheduling);
+        improve(steps);
+        return toTimetable();
+    }
+
+    private void schedule(boolean stoppable) {
+        while (openCount > 0) {
+            if (stoppable && stop.getAsBoolean()) {
+                for (int i = 0; i < openCount; i++) {
+                    reason[open[i]] = STOPPED;
+                }
+                openCount = 0;
+                return;
+            }
+            int v = close(pickVariable());
+            if (domainSize[v] == 0) {
+                reason[v] = NO_OPTION_LEFT;
+                continue;
+            }
+            long option = pickOption(v);
+            assign(v, optionRoom(option), optionSlot(option));
+        }
+        for (int v = 0; v < room.length; v++) {
+            if (reason[v] == NO_OPTION_LEFT && makeRoom(v)) {
+                reason[v] = null;
+            }
+        }
+    }
+
+    /**
+     * Moves lectures picked at random to their cheapest free option, as long as that lowers the penalty, and
+     * then gives the lectures without an option another chance, since the moves may have made room for them.
+     *
+     * @param steps Number of lectures to try to move
+     */
+    private void improve(int steps) {
+        int[] booked = new int[room.length];
+        int count = 0;
+        for (int v = 0; v < room.length; v++) {
+            if (room[v] >= 0) {
+                booked[count++] = v;
+            }
+        }
+        for (int step = 0; step < steps && count > 0; step++) {
+            if (step % STOP_CHECK_INTERVAL == 0 && stop.getAsBoolean()) {
+                return;
+            }
+            int v = booked[random.nextInt(count)];
+            int r = room[v];
+            int slot = start[v];
+            unassign(v);
+            // with the lecture taken out, this is exactly what it adds to the timetable's penalty
+            int current = penalty(v, r, slot);
+            long cheapest = cheapestOption(v);
+            if (cheapest >>> 32 < current) {
+                assign(v, optionRoom(cheapest), optionSlot(cheapest));
+            } else {
+                assign(v, r, slot);
+            }
+        }
+        for (int v = 0; v < room.length; v++) {
+            if (reason[v] == NO_OPTION_LEFT && makeRoom(v)) {
+                reason[v] = null;
+            }
+        }
+    }
+
+    /**
+     * @return The free option of the variable with the lowest penalty, packed like the candidates, or
+     * {@link Long#MAX_VALUE} if it has no free option
+     */
+    private long cheapestOption(int v) {
+        long busy = lecturerBusy(v);
+        long cheapest = Long.MAX_VALUE;
+        for (int r = problem.firstRoom[v]; r < problem.rooms.length; r++) {
+            long free = freeStarts(v, r, busy);
+            while (free != 0) {
+                int slot = Long.numberOfTrailingZeros(free);
+                free &= free - 1;
+                cheapest = Math.min(cheapest, (long) penalty(v, r, slot) << 32 | (long) r << 8 | slot);
+            }
+        }
+        return cheapest;
+    }
+
+    private static int optionRoom(long option) {
+        return (int) (option >>> 8) & 0xFFFFFF;
+    }
+
+    private static int optionSlot(long option) {
+        return (int) option & 0xFF;
+    }
+
+    /**
+     * Picks the next variable to schedule, as the strategy says. By default that is the open variable with the
+     * fewest options left, preferring bigger subjects and then subjects that fit in fewer rooms when several are
+     * tied.
+     *
+     * @return Position of the variable in the open array
+     */
+    private int pickVariable() {
+        int best = 0;
+        int ties = 1;
+        for (int i = 1; i < openCount; i++) {
+            int order = compare(open[i], open[best]);
+            if (order < 0) {
+                best = i;
+                ties = 1;
+            } else if (order == 0 && random.nextInt(++ties) == 0) {
+                // every tied variable is picked with the same chance
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return Negative if variable u should be scheduled before variable v, 0 if the strategy leaves it to chance
+     */
+    private int compare(int u, int v) {
+        if (strategy == Strategy.LARGEST_FIRST) {
+            int order = Integer.compare(magnitude(domainSize[u]), magnitude(domainSize[v]));
+            return order != 0 ? order : Integer.compare(problem.enrolled[v], problem.enrolled[u]);
+        }
+        int order = Integer.compare(domainSize[u], domainSize[v]);
+        if (order != 0 || strategy == Strategy.RANDOM_TIES) {
+            return order;
+        }
+        order = Integer.compare(problem.enrolled[v], problem.enrolled[u]);
+        if (order != 0) {
+            return order;
+        }
+        // a full tie keeps the variable found first, so the baseline does not depend on the seed
+        order = Integer.compare(problem.firstRoom[v], problem.firstRoom[u]);
+        return order != 0 ? order : 1;
+    }
+
+    private static int magnitude(int size) {
+        return Integer.SIZE - Integer.numberOfLeadingZeros(size);
+    }
+
+    private int close(int position) {
+        int v = open[position];
+        open[position] = open[--openCount];
+        open[openCount] = v;
+        return v;
+    }
+
+    /**
+     * Picks the cheapest option of the variable that leaves every other open variable at least one option.
+     * If every option tried wipes out some domain, the one wiping out the fewest is picked.
+     *
+     * @return The option, packed as <code>penalty &lt;&lt; 32 | room &lt;&lt; 8 | slot</code>
+     */
+    private long pickOption(int v) {
+        int count = collectOptions(v, strategy == Strategy.NOISY_OPTIONS ? OPTION_NOISE : 0);
+        int[] exposed = exposedVariables(v);
+        long best = candidates[0];
+        int fewestWipeouts = Integer.MAX_VALUE;
+        for (int i = 0; i < Math.min(count, MAX_OPTION_TRIES); i++) {
+            long option = candidates[i];
+            int wipeouts = wipeouts(optionRoom(option), optionSlot(option), exposed);
+            if (wipeouts == 0) {
+                return option;
+            }
+            if (wipeouts < fewestWipeouts) {
+                fewestWipeouts = wipeouts;
+                best = option;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Collects the free options of the variable into the candidates array, cheapest first.
+     *
+     * @param noise Highest random cost to add to each option
+     * @return Number of options
+     */
+    private int collectOptions(int v, int noise) {
+        long busy = lecturerBusy(v);
+        int count = 0;
+        for (int r = problem.firstRoom[v]; r < problem.rooms.length; r++) {
+            long free = freeStarts(v, r, busy);
+            while (free != 0) {
+                int slot = Long.numberOfTrailingZeros(free);
+                free &= free - 1;
+                if (count == candidates.length) {
+                    candidates = Arrays.copyOf(candidates, count * 2);
+                }
+                int cost = penalty(v, r, slot) + startsLost(v, slot) + (noise > 0 ? random.nextInt(noise + 1) : 0);
+                candidates[count++] = (long) cost << 32 | (long) r << 8 | slot;
+            }
+        }
+        Arrays.sort(candidates, 0, count);
+        return count;
+    }
+
+    /**
+     * Tries to book a lecture that has no free option by moving the one booked lecture standing in the way of
+     * one of its options to a free option of its own.
+     *
+     * @return True if the lecture was booked
+     */
+    private boolean makeRoom(int v) {
+        for (int r = problem.firstRoom[v]; r < problem.rooms.length; r++) {
+            long possible = problem.starts[v];
+            while (possible != 0) {
+                int slot = Long.numberOfTrailingZeros(possible);
+                possible &= possible - 1;
+                int blocker = soleBlocker(v, r, slot);
+                if (blocker == FREE) {
+                    assign(v, r, slot);
+                    return true;
+                } else if (blocker >= 0) {
+                    int blockerRoom = room[blocker];
+                    int blockerSlot = start[blocker];
+                    unassign(blocker);
+                    assign(v, r, slot);
+                    if (collectOptions(blocker, 0) > 0) {
+                        assign(blocker, optionRoom(candidates[0]), optionSlot(candidates[0]));
+                        return true;
+                    }
+                    unassign(v);
+                    assign(blocker, blockerRoom, blockerSlot);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds the booked lecture that keeps the variable out of the given room and slot.
+     *
+     * @return The blocking variable, {@link #FREE} if nothing is in the way or {@link #SEVERAL} if more than one
+     * lecture is
+     */
+    private int soleBlocker(int v, int r, int slot) {
+        int blocker = FREE;
+        for (int t = slot; t < slot + problem.hours; t++) {
+            blocker = addBlocker(blocker, roomSlots[r * Week.SLOTS + t]);
+            for (int l : problem.lecturersOf[v]) {
+                blocker = addBlocker(blocker, lecturerSlots[l * Week.SLOTS + t]);
+            }
+            if (blocker == SEVERAL) {
+                return SEVERAL;
+            }
+        }
+        return blocker;
+    }
+
+    private static int addBlocker(int blocker, int booked) {
+        if (booked < 0 || booked == blocker) {
+            return blocker;
+        }
+        return blocker == FREE ? booked : SEVERAL;
+    }
+
+    /**
+     * Finds the open variables a booking of the given variable could leave without options: the ones sharing
+     * a lecturer with it, and the ones with no more options than a single booking can take from one room.
+     * Variables sharing a lecturer are stamped, so {@link #sharesLecturer(int)} can tell them apart.
+     */
+    private int[] exposedVariables(int v) {
+        stampValue++;
+        int[] exposed = new int[openCount];
+        int count = 0;
+        for (int l : problem.lecturersOf[v]) {
+            for (int u : problem.variablesOf[l]) {
+                if (u != v && room[u] < 0 && reason[u] == null && stamp[u] != stampValue) {
+                    stamp[u] = stampValue;
+                    exposed[count++] = u;
+                }
+            }
+        }
+        int maxTaken = 2 * problem.hours - 1;
+        for (int i = 0; i < openCount; i++) {
+            int u = open[i];
+            if (stamp[u] != stampValue && domainSize[u] <= maxTaken) {
+                exposed[count++] = u;
+            }
+        }
+        return Arrays.copyOf(exposed, count);
+    }
+
+    private boolean sharesLecturer(int u) {
+        return stamp[u] == stampValue;
+    }
+
+    /**
+     * Counts the exposed variables that would be left without options if the lecture was booked in the given
+     * room and slot.
+     */
+    private int wipeouts(int r, int slot, int[] exposed) {
+        // start slots of any other lecture that would overlap the booking
+        int first = Math.max(0, slot - problem.hours + 1);
+        long overlapping = Week.span(first, slot + problem.hours - first);
+        int wipeouts = 0;
+        for (int u : exposed) {
+            long busy = lecturerBusy(u);
+            int taken = 0;
+            if (sharesLecturer(u)) {
+                for (int r2 = problem.firstRoom[u]; r2 < problem.rooms.length; r2++) {
+                    taken += Long.bitCount(freeStarts(u, r2, busy) & overlapping);
+                }
+            } else if (r >= problem.firstRoom[u]) {
+                taken = Long.bitCount(freeStarts(u, r, busy) & overlapping);
+            }
+            if (taken >= domainSize[u]) {
+                wipeouts++;
+            }
+        }
+        return wipeouts;
+    }
+
+    /**
+     * @return Score of the bookings made so far, added up booking by booking rather than from scratch
+     */
+    Score score() {
+        int missing = 0;
+        for (int r : room) {
+            if (r < 0) {
+                missing++;
+            }
+        }
+        return new Score(missing, softPenalty);
+    }
+
+    /**
+     * Books the lecture and narrows the domains of the open variables it touches.
+     */
+    private void assign(int v, int r, int slot) {
+        softPenalty += penalty(v, r, slot);
+        room[v] = r;
+        start[v] = slot;
+        long slots = Week.span(slot, problem.hours);
+        int day = Week.day(slot);
+        roomBusy[r] |= slots;
+        Arrays.fill(roomSlots, r * Week.SLOTS + slot, r * Week.SLOTS + slot + problem.hours, v);
+        for (int l : problem.lecturersOf[v]) {
+            lecturerBusy[l] |= slots;
+            Arrays.fill(lecturerSlots, l * Week.SLOTS + slot, l * Week.SLOTS + slot + problem.hours, v);
+            lecturerCampuses[l * Week.DAYS + day] |= 1L << problem.campus[r];
+        }
+        subjectDays[problem.subjectOf[v]] |= 1 << day;
+
+        stampValue++;
+        for (int l : problem.lecturersOf[v]) {
+            for (int u : problem.variablesOf[l]) {
+                if (room[u] < 0 && reason[u] == null && stamp[u] != stampValue) {
+                    stamp[u] = stampValue;
+                    countOptions(u);
+                }
+            }
+        }
+        for (int i = 0; i < openCount; i++) {
+            int u = open[i];
+            if (stamp[u] != stampValue && r >= problem.firstRoom[u]) {
+                int index = r - problem.firstRoom[u];
+                int left = Long.bitCount(freeStarts(u, r, lecturerBusy(u)));
+                domainSize[u] += left - options[u][index];
+                options[u][index] = left;
+            }
+        }
+    }
+
+    /**
+     * Takes the lecture out of the timetable again. Only used once every lecture has been tried, so the domains
+     * of the open variables are not widened.
+     */
+    private void unassign(int v) {
+        int r = room[v];
+        int slot = start[v];
+        long slots = Week.span(slot, problem.hours);
+        int day = Week.day(slot);
+        room[v] = -1;
+        roomBusy[r] &= ~slots;
+        Arrays.fill(roomSlots, r * Week.SLOTS + slot, r * Week.SLOTS + slot + problem.hours, -1);
+        for (int l : problem.lecturersOf[v]) {
+            lecturerBusy[l] &= ~slots;
+            Arrays.fill(lecturerSlots, l * Week.SLOTS + slot, l * Week.SLOTS + slot + problem.hours, -1);
+            long campuses = 0;
+            for (int u : problem.variablesOf[l]) {
+                if (room[u] >= 0 && Week.day(start[u]) == day) {
+                    campuses |= 1L << problem.campus[room[u]];
+                }
+            }
+            lecturerCampuses[l * Week.DAYS + day] = campuses;
+        }
+        int subject = problem.subjectOf[v];
+        int days = 0;
+        for (int u = subject * problem.lecturesPerWeek; u < (subject + 1) * problem.lecturesPerWeek; u++) {
+            if (room[u] >= 0) {
+                days |= 1 << Week.day(start[u]);
+            }
+        }
+        subjectDays[subject] = days;
+        // with the lecture taken out, this is exactly what it added
+        softPenalty -= penalty(v, r, slot);
+    }
+
+    private void countOptions(int v) {
+        long busy = lecturerBusy(v);
+        int size = 0;
+        for (int r = problem.firstRoom[v]; r < problem.rooms.length; r++) {
+            int left = Long.bitCount(freeStarts(v, r, busy));
+            options[v][r - problem.firstRoom[v]] = left;
+            size += left;
+        }
+        domainSize[v] = size;
+    }
+
+    private long lecturerBusy(int v) {
+        long busy = 0;
+        for (int l : problem.lecturersOf[v]) {
+            busy |= lecturerBusy[l];
+        }
+        return busy;
+    }
+
+    private long freeStarts(int v, int r, long lecturerBusy) {
+        return problem.starts[v] & ~Week.clashes(roomBusy[r] | lecturerBusy, problem.hours);
+    }
+
+    /**
+     * Weighs the start slots the lecture's lecturers would lose by booking it in the given slot, so lectures
+     * are packed against each other and the lecturers' windows are not cut into pieces too short for a lecture.
+     * A lecture starting right where a lecturer's free time starts takes fewer of the lecturer's start slots
+     * than one starting an hour into it.
+     */
+    private int startsLost(int v, int slot) {
+        int first = Math.max(0, slot - problem.hours + 1);
+        long overlapping = Week.span(first, slot + problem.hours - first);
+        int lost = 0;
+        for (int l : problem.lecturersOf[v]) {
+            long free = problem.lecturerStarts[l] & ~Week.clashes(lecturerBusy[l], problem.hours);
+            lost += Long.bitCount(free & overlapping);
+        }
+        return LOST_START_WEIGHT * lost;
+    }
+
+    /**
+     * The soft penalty the booking would add to the timetable.
+     *
+     * @see Score
+     */
+    private int penalty(int v, int r, int slot) {
+        int day = Week.day(slot);
+        int penalty = Score.EMPTY_SEAT_PENALTY * (problem.capacity[r] - problem.enrolled[v]);
+        if (Week.hour(slot) + problem.hours > Score.LATE_HOUR) {
+            penalty += Score.LATE_PENALTY;
+        }
+        if ((subjectDays[problem.subjectOf[v]] & 1 << day) != 0) {
+            penalty += Score.SAME_DAY_PENALTY;
+        }
+        long campus = 1L << problem.campus[r];
+        for (int l : problem.lecturersOf[v]) {
+            long campuses = lecturerCampuses[l * Week.DAYS + day];
+            if (campuses != 0 && (campuses & campus) == 0) {
+                penalty += Score.CAMPUS_CHANGE_PENALTY;
+            }
+        }
+        return penalty;
+    }
+
+    private Timetable toTimetable() {
+        List<Lecture> lectures = new ArrayList<>();
+        Map<SubjectDTO, String> unscheduled = new LinkedHashMap<>();
+        int missing = 0;
+        for (int v = 0; v < room.length; v++) {
+            if (room[v] >= 0) {
+                lectures.add(new Lecture(problem.subjects[problem.subjectOf[v]], problem.rooms[room[v]],
+                        Week.day(start[v]), Week.hour(start[v]), problem.hours));
+            } else {
+                missing++;
+                unscheduled.putIfAbsent(problem.subjects[problem.subjectOf[v]], reason[v]);
+            }
+        }
+        return new Timetable(lectures, unscheduled, missing);
+    }
+}
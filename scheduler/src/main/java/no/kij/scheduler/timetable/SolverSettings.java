@@ -0,0 +1,159 @@
+package no.kij.scheduler.timetable;
+
+import java.util.Properties;
+
+/**
+ * SolverSettings holds the configuration for a {@link TimetableSolver} or {@link PortfolioSolver}.
+ * All values have sensible defaults, so only the ones that differ need to be set.
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public class SolverSettings {
+    private int lecturesPerWeek = 1;
+    private int lectureHours = 2;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int runs = 0;
+    private long seed = 1;
+    private long timeLimitMillis = 10000;
+    private int searchSteps = 20000;
+
+    public SolverSettings() {
+    }
+
+    /**
+     * Copies the given settings, so they can be changed without changing the original.
+     */
+    public SolverSettings(SolverSettings other) {
+        this.lecturesPerWeek = other.lecturesPerWeek;
+        this.lectureHours = other.lectureHours;
+        this.threads = other.threads;
+        this.runs = other.runs;
+        this.seed = other.seed;
+        this.timeLimitMillis = other.timeLimitMillis;
+        this.searchSteps = other.searchSteps;
+    }
+
+    public SolverSettings(int lecturesPerWeek, int lectureHours) {
+        setLecturesPerWeek(lecturesPerWeek);
+        setLectureHours(lectureHours);
+    }
+
+    /**
+     * Reads the solver settings from the given properties, using the defaults for any missing keys.
+     *
+     * @param props Properties containing keys prefixed with "solver_"
+     * @return SolverSettings with the values from the properties
+     */
+    public static SolverSettings fromProperties(Properties props) {
+        SolverSettings settings = new SolverSettings();
+        settings.setLecturesPerWeek(Integer.parseInt(
+                props.getProperty("solver_lectures_per_week", String.valueOf(settings.lecturesPerWeek))));
+        settings.setLectureHours(Integer.parseInt(
+                props.getProperty("solver_lecture_hours", String.valueOf(settings.lectureHours))));
+        settings.setThreads(Integer.parseInt(
+                props.getProperty("solver_threads", String.valueOf(settings.threads))));
+        settings.setRuns(Integer.parseInt(
+                props.getProperty("solver_runs", String.valueOf(settings.runs))));
+        settings.setSeed(Long.parseLong(
+                props.getProperty("solver_seed", String.valueOf(settings.seed))));
+        settings.setTimeLimitMillis(Long.parseLong(
+                props.getProperty("solver_time_limit_ms", String.valueOf(settings.timeLimitMillis))));
+        settings.setSearchSteps(Integer.parseInt(
+                props.getProperty("solver_search_steps", String.valueOf(settings.searchSteps))));
+        return settings;
+    }
+
+    public int getLecturesPerWeek() {
+        return lecturesPerWeek;
+    }
+
+    public void setLecturesPerWeek(int lecturesPerWeek) {
+        if (lecturesPerWeek < 1) {
+            throw new IllegalArgumentException("A subject needs at least one lecture per week.");
+        }
+        this.lecturesPerWeek = lecturesPerWeek;
+    }
+
+    public int getLectureHours() {
+        return lectureHours;
+    }
+
+    public void setLectureHours(int lectureHours) {
+        if (lectureHours < 1 || lectureHours > Week.HOURS_PER_DAY) {
+            throw new IllegalArgumentException("A lecture must last between 1 and " + Week.HOURS_PER_DAY + " hours.");
+        }
+        this.lectureHours = lectureHours;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * @param threads Number of threads a portfolio solver runs on, defaults to the number of processors
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("The solver needs at least one thread.");
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * @return Number of runs of a portfolio solver, twice the number of threads if not set
+     */
+    public int getRuns() {
+        return runs > 0 ? runs : 2 * threads;
+    }
+
+    /**
+     * @param runs Number of runs of a portfolio solver, 0 for twice the number of threads
+     */
+    public void setRuns(int runs) {
+        if (runs < 0) {
+            throw new IllegalArgumentException("Number of runs can't be negative.");
+        }
+        this.runs = runs;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @param seed Seed of every random choice of a portfolio solver, the same seed gives the same timetable
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public long getTimeLimitMillis() {
+        return timeLimitMillis;
+    }
+
+    /**
+     * @param timeLimitMillis Time a portfolio solver may take before it stops with the best timetable so far,
+     *                        0 for no limit
+     */
+    public void setTimeLimitMillis(long timeLimitMillis) {
+        if (timeLimitMillis < 0) {
+            throw new IllegalArgumentException("Time limit can't be negative.");
+        }
+        this.timeLimitMillis = timeLimitMillis;
+    }
+
+    public int getSearchSteps() {
+        return searchSteps;
+    }
+
+    /**
+     * @param searchSteps Number of local search steps each run of a portfolio solver takes to improve its timetable
+     */
+    public void setSearchSteps(int searchSteps) {
+        if (searchSteps < 0) {
+            throw new IllegalArgumentException("Number of search steps can't be negative.");
+        }
+        this.searchSteps = searchSteps;
+    }
+}
@@ -0,0 +1,142 @@
+package no.kij.scheduler.timetable;
+
+import no.kij.scheduler.dto.LecturerDTO;
+import no.kij.scheduler.dto.SubjectDTO;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A weekly timetable: the lectures that were scheduled, and the subjects that could not get every lecture
+ * they needed along with the reason why.
+ *
+ * @author Kissor Jeyabalan
+ * @see TimetableSolver
+ * @since 1.1
+ */
+public class Timetable {
+    private final List<Lecture> lectures;
+    private final Map<SubjectDTO, String> unscheduled;
+    private final int missingLectures;
+    private final Score score;
+
+    /**
+     * @param lectures Scheduled lectures, in any order
+     * @param unscheduled Reason a lecture could not be scheduled, by subject
+     * @param missingLectures Number of lectures that could not be scheduled
+     */
+    public Timetable(List<Lecture> lectures, Map<SubjectDTO, String> unscheduled, int missingLectures) {
+        List<Lecture> sorted = new ArrayList<>(lectures);
+        sorted.sort(Comparator.comparingInt(Lecture::getDay).thenComparingInt(Lecture::getStartHour)
+                .thenComparing(lecture -> String.valueOf(lecture.getRoom().getName())));
+        this.lectures = Collections.unmodifiableList(sorted);
+        this.unscheduled = Collections.unmodifiableMap(new LinkedHashMap<>(unscheduled));
+        this.missingLectures = missingLectures;
+        this.score = new Score(missingLectures, softPenalty(sorted));
+    }
+
+    /**
+     * @return Scheduled lectures by day, start time and room
+     */
+    public List<Lecture> getLectures() {
+        return lectures;
+    }
+
+    /**
+     * @return Reason a lecture could not be scheduled, by subject, empty if everything was scheduled
+     */
+    public Map<SubjectDTO, String> getUnscheduled() {
+        return unscheduled;
+    }
+
+    public int getMissingLectures() {
+        return missingLectures;
+    }
+
+    public Score getScore() {
+        return score;
+    }
+
+    /**
+     * Checks the lectures against the hard constraints: every room holds its subject's students, every
+     * lecturer is available for the whole lecture, and no room or lecturer is booked twice at the same time.
+     * A timetable made by the solver never breaks them.
+     *
+     * @return A description of every broken constraint, empty if there are none
+     */
+    public List<String> findViolations() {
+        List<String> violations = new ArrayList<>();
+        Map<Object, Long> roomBusy = new HashMap<>();
+        Map<Object, Long> lecturerBusy = new HashMap<>();
+        for (Lecture lecture : lectures) {
+            long slots = lecture.getSlots();
+            if (lecture.getRoom().getCapacity() < lecture.getSubject().getEnrolled()) {
+                violations.add(lecture + ": room holds " + lecture.getRoom().getCapacity() + " of "
+                        + lecture.getSubject().getEnrolled() + " students");
+            }
+            if (!book(roomBusy, TimetableProblem.key(lecture.getRoom().getId(), lecture.getRoom()), slots)) {
+                violations.add(lecture + ": room is double-booked");
+            }
+            Set<Object> lecturers = new HashSet<>();
+            for (LecturerDTO lecturerDTO : lecture.getLecturers()) {
+                Object key = TimetableProblem.key(lecturerDTO.getId(), lecturerDTO);
+                if (!lecturers.add(key)) {
+                    continue;
+                }
+                if ((Week.availableSlots(lecturerDTO.getAvailable()) & slots) != slots) {
+                    violations.add(lecture + ": " + lecturerDTO.getName() + " is not available");
+                }
+                if (!book(lecturerBusy, key, slots)) {
+                    violations.add(lecture + ": " + lecturerDTO.getName() + " is double-booked");
+                }
+            }
+        }
+        return violations;
+    }
+
+    private static boolean book(Map<Object, Long> busy, Object key, long slots) {
+        long booked = busy.getOrDefault(key, 0L);
+        busy.put(key, booked | slots);
+        return (booked & slots) == 0;
+    }
+
+    /**
+     * Adds up the soft constraint penalties of the given lectures from scratch.
+     *
+     * @see Score
+     */
+    private static long softPenalty(List<Lecture> lectures) {
+        long penalty = 0;
+        Map<Object, Set<String>> campusesByLecturerDay = new HashMap<>();
+        Map<SubjectDTO, int[]> lecturesBySubjectDay = new HashMap<>();
+        for (Lecture lecture : lectures) {
+            penalty += (long) Score.EMPTY_SEAT_PENALTY
+                    * (lecture.getRoom().getCapacity() - lecture.getSubject().getEnrolled());
+            if (lecture.getEndHour() > Score.LATE_HOUR) {
+                penalty += Score.LATE_PENALTY;
+            }
+            int[] days = lecturesBySubjectDay.computeIfAbsent(lecture.getSubject(), s -> new int[Week.DAYS]);
+            if (days[lecture.getDay()]++ > 0) {
+                penalty += Score.SAME_DAY_PENALTY;
+            }
+            for (LecturerDTO lecturerDTO : lecture.getLecturers()) {
+                List<Object> lecturerDay = new ArrayList<>(2);
+                lecturerDay.add(TimetableProblem.key(lecturerDTO.getId(), lecturerDTO));
+                lecturerDay.add(lecture.getDay());
+                campusesByLecturerDay.computeIfAbsent(lecturerDay, key -> new HashSet<>())
+                        .add(String.valueOf(lecture.getRoom().getCampus()));
+            }
+        }
+        for (Set<String> campuses : campusesByLecturerDay.values()) {
+            penalty += (long) Score.CAMPUS_CHANGE_PENALTY * (campuses.size() - 1);
+        }
+        return penalty;
+    }
+}
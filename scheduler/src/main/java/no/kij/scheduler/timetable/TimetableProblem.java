@@ -0,0 +1,186 @@
+package no.kij.scheduler.timetable;
+
+import no.kij.scheduler.dto.LecturerDTO;
+import no.kij.scheduler.dto.RoomDTO;
+import no.kij.scheduler.dto.SubjectDTO;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The scheduling problem compiled into arrays, so a search only works on ints and bit masks.
+ * Every lecture to schedule is a variable, numbered from 0. Rooms are sorted by capacity, so the rooms a
+ * lecture fits in are the rooms from {@link #firstRoom} to the end.
+ * The problem is never changed once built, so any number of searches can share it.
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+final class TimetableProblem {
+    /**
+     * Highest number of campuses that are told apart when scoring campus changes.
+     */
+    private static final int MAX_CAMPUSES = Long.SIZE;
+
+    final int hours;
+    final int lecturesPerWeek;
+    final SubjectDTO[] subjects;
+    final RoomDTO[] rooms;
+    final int[] capacity;
+    final int[] campus;
+    final int lecturerCount;
+
+    // per variable
+    final int[] subjectOf;
+    final int[] enrolled;
+    final int[][] lecturersOf;
+    final long[] starts;
+    final int[] firstRoom;
+
+    // per lecturer
+    final long[] lecturerStarts;
+    final int[][] variablesOf;
+
+    TimetableProblem(List<SubjectDTO> subjects, List<RoomDTO> rooms, SolverSettings settings) {
+        this.hours = settings.getLectureHours();
+        this.lecturesPerWeek = settings.getLecturesPerWeek();
+        this.subjects = subjects.toArray(new SubjectDTO[0]);
+
+        List<RoomDTO> sortedRooms = new ArrayList<>(rooms);
+        sortedRooms.sort(Comparator.comparingInt(RoomDTO::getCapacity)
+                .thenComparing(room -> String.valueOf(room.getName())));
+        this.rooms = sortedRooms.toArray(new RoomDTO[0]);
+        this.capacity = new int[this.rooms.length];
+        this.campus = new int[this.rooms.length];
+        Map<String, Integer> campusIds = new HashMap<>();
+        for (int r = 0; r < this.rooms.length; r++) {
+            capacity[r] = this.rooms[r].getCapacity();
+            int id = campusIds.computeIfAbsent(String.valueOf(this.rooms[r].getCampus()), c -> campusIds.size());
+            campus[r] = Math.min(id, MAX_CAMPUSES - 1);
+        }
+
+        Map<Object, Integer> lecturerIds = new HashMap<>();
+        List<Long> lecturerStarts = new ArrayList<>();
+        int[][] subjectLecturers = new int[this.subjects.length][];
+        for (int s = 0; s < this.subjects.length; s++) {
+            Set<Integer> ids = new LinkedHashSet<>();
+            for (LecturerDTO lecturerDTO : this.subjects[s].getLecturers()) {
+                ids.add(lecturerIds.computeIfAbsent(key(lecturerDTO.getId(), lecturerDTO), key -> {
+                    lecturerStarts.add(Week.starts(Week.availableSlots(lecturerDTO.getAvailable()), hours));
+                    return lecturerStarts.size() - 1;
+                }));
+            }
+            subjectLecturers[s] = ids.stream().mapToInt(Integer::intValue).toArray();
+        }
+        this.lecturerCount = lecturerStarts.size();
+        this.lecturerStarts = lecturerStarts.stream().mapToLong(Long::longValue).toArray();
+
+        int variables = this.subjects.length * settings.getLecturesPerWeek();
+        this.subjectOf = new int[variables];
+        this.enrolled = new int[variables];
+        this.lecturersOf = new int[variables][];
+        this.starts = new long[variables];
+        this.firstRoom = new int[variables];
+        long anyStart = Week.starts(Week.span(0, Week.SLOTS), hours);
+        List<List<Integer>> lecturerVariables = new ArrayList<>();
+        for (int l = 0; l < lecturerCount; l++) {
+            lecturerVariables.add(new ArrayList<>());
+        }
+        for (int v = 0; v < variables; v++) {
+            int s = v / settings.getLecturesPerWeek();
+            subjectOf[v] = s;
+            enrolled[v] = this.subjects[s].getEnrolled();
+            lecturersOf[v] = subjectLecturers[s];
+            long common = anyStart;
+            for (int l : subjectLecturers[s]) {
+                common &= lecturerStarts.get(l);
+                lecturerVariables.get(l).add(v);
+            }
+            starts[v] = common;
+            firstRoom[v] = firstRoomFor(enrolled[v]);
+        }
+        this.variablesOf = new int[lecturerCount][];
+        for (int l = 0; l < lecturerCount; l++) {
+            variablesOf[l] = lecturerVariables.get(l).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    int variableCount() {
+        return subjectOf.length;
+    }
+
+    /**
+     * @return Index of the smallest room holding the given number of students, the number of rooms if none does
+     */
+    private int firstRoomFor(int students) {
+        int low = 0;
+        int high = rooms.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (capacity[mid] < students) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Explains why a lecture can not be scheduled even in an empty week.
+     *
+     * @param v Variable of the lecture
+     * @return The reason, or null if the lecture fits in an empty week
+     */
+    String unsatisfiableReason(int v) {
+        return unsatisfiableReason(enrolled[v], firstRoom[v] < rooms.length, starts[v], hours);
+    }
+
+    /**
+     * Explains why a lecture can not be scheduled even in an empty week.
+     *
+     * @param enrolled Students enrolled in the subject
+     * @param roomFits True if some room holds the students
+     * @param starts Start slots all of the subject's lecturers are available for
+     * @param hours Length of the lecture
+     * @return The reason, or null if the lecture fits in an empty week
+     */
+    static String unsatisfiableReason(int enrolled, boolean roomFits, long starts, int hours) {
+        if (!roomFits) {
+            return "No room holds " + enrolled + " students.";
+        }
+        if (starts == 0) {
+            return "The lecturers have no common " + hours + " hour window.";
+        }
+        return null;
+    }
+
+    /**
+     * The best score any timetable of the problem could get: every lecture that can be scheduled at all is, in
+     * the smallest room it fits in, without any other penalty. A timetable with this score is optimal.
+     */
+    Score lowerBound() {
+        int hard = 0;
+        long soft = 0;
+        for (int v = 0; v < variableCount(); v++) {
+            if (unsatisfiableReason(v) != null) {
+                hard++;
+            } else {
+                soft += (long) Score.EMPTY_SEAT_PENALTY * (capacity[firstRoom[v]] - enrolled[v]);
+            }
+        }
+        return new Score(hard, soft);
+    }
+
+    /**
+     * Builds the key a room or lecturer is told apart by: its ID once saved, the instance itself before that.
+     */
+    static Object key(Integer id, Object dto) {
+        return id != null ? id : dto;
+    }
+}
@@ -0,0 +1,52 @@
+package no.kij.scheduler.timetable;
+
+import no.kij.scheduler.dto.RoomDTO;
+import no.kij.scheduler.dto.SubjectDTO;
+
+import java.util.List;
+
+/**
+ * TimetableSolver books every subject's lectures into rooms over the week.
+ *
+ * <p>The hard constraints are never broken: a room holds every student enrolled in the subject, all of the
+ * subject's lecturers are available for the whole lecture, and no room or lecturer is booked twice at the same
+ * time. A lecture that can not be booked without breaking one of them is left out of the timetable, with the
+ * reason why. Among the bookings that keep to the hard constraints, the solver prefers the ones with the lowest
+ * soft penalty, see {@link Score}.</p>
+ *
+ * <p>Subjects should be loaded with their lecturers, and the lecturers with their available times.</p>
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public class TimetableSolver {
+    private final TimetableProblem problem;
+
+    /**
+     * Creates a solver using the default settings.
+     *
+     * @param subjects Subjects to schedule
+     * @param rooms Rooms to schedule them in
+     */
+    public TimetableSolver(List<SubjectDTO> subjects, List<RoomDTO> rooms) {
+        this(subjects, rooms, new SolverSettings());
+    }
+
+    /**
+     * @param subjects Subjects to schedule
+     * @param rooms Rooms to schedule them in
+     * @param settings Number and length of the lectures each subject gets
+     */
+    public TimetableSolver(List<SubjectDTO> subjects, List<RoomDTO> rooms, SolverSettings settings) {
+        this.problem = new TimetableProblem(subjects, rooms, settings);
+    }
+
+    /**
+     * Builds a timetable.
+     *
+     * @return The timetable, with every lecture that could be scheduled
+     */
+    public Timetable solve() {
+        return new Search(problem).run();
+    }
+}
@@ -0,0 +1,134 @@
+package no.kij.scheduler.timetable;
+
+import no.kij.scheduler.dto.AvailableDTO;
+
+import java.util.List;
+
+/**
+ * This class consists exclusively of static methods and constants describing the teaching week.
+ * The week is cut into one hour slots, from {@value #FIRST_HOUR}:00 to {@value #LAST_HOUR}:00 on each of the
+ * {@value #DAYS} weekdays, and a set of slots is kept as a bit mask in a single long, with bit
+ * <code>day * HOURS_PER_DAY + (hour - FIRST_HOUR)</code> standing for the hour starting at that time.
+ * Bit masks let the solver check a lecture against everything booked in a room, or by a lecturer, with a
+ * handful of bitwise operations.
+ *
+ * <p>Available times are hours of the day without a weekday, so a lecturer is available in the same hours on
+ * every day of the week.</p>
+ *
+ * @author Kissor Jeyabalan
+ * @since 1.1
+ */
+public class Week {
+    public static final int DAYS = 5;
+    public static final int FIRST_HOUR = 8;
+    public static final int LAST_HOUR = 20;
+    public static final int HOURS_PER_DAY = LAST_HOUR - FIRST_HOUR;
+    public static final int SLOTS = DAYS * HOURS_PER_DAY;
+    private static final String[] DAY_NAMES = { "Monday", "Tuesday", "Wednesday", "Thursday", "Friday" };
+
+    private Week() {
+    }
+
+    /**
+     * @param day Day of the week, 0 for Monday
+     * @param hour Hour of the day the slot starts at
+     * @return Index of the slot
+     * @throws IllegalArgumentException If the day or hour is outside the week
+     */
+    public static int slot(int day, int hour) throws IllegalArgumentException {
+        if (day < 0 || day >= DAYS || hour < FIRST_HOUR || hour >= LAST_HOUR) {
+            throw new IllegalArgumentException("No slot on day " + day + " at " + hour + ":00.");
+        }
+        return day * HOURS_PER_DAY + hour - FIRST_HOUR;
+    }
+
+    public static int day(int slot) {
+        return slot / HOURS_PER_DAY;
+    }
+
+    public static int hour(int slot) {
+        return FIRST_HOUR + slot % HOURS_PER_DAY;
+    }
+
+    public static String dayName(int day) {
+        return DAY_NAMES[day];
+    }
+
+    /**
+     * @param slot First slot
+     * @param hours Number of slots
+     * @return Mask of the given number of slots from the given slot
+     */
+    public static long span(int slot, int hours) {
+        return ((1L << hours) - 1) << slot;
+    }
+
+    /**
+     * Builds the mask of the slots covered by the given available times, on every day of the week.
+     * Hours outside the teaching day are left out.
+     *
+     * @param available Available times of a lecturer
+     * @return Mask of the slots the lecturer is available in
+     */
+    public static long availableSlots(List<AvailableDTO> available) {
+        long day = 0;
+        for (AvailableDTO availableDTO : available) {
+            int start = Math.max(availableDTO.getStart(), FIRST_HOUR);
+            int end = Math.min(availableDTO.getEnd(), LAST_HOUR);
+            if (start < end) {
+                day |= span(start - FIRST_HOUR, end - start);
+            }
+        }
+        long week = 0;
+        for (int i = 0; i < DAYS; i++) {
+            week |= day << (i * HOURS_PER_DAY);
+        }
+        return week;
+    }
+
+    /**
+     * Finds the slots a lecture of the given length can start in without leaving the given slots or running
+     * into the next day.
+     *
+     * @param slots Mask of the slots the lecture may take up
+     * @param hours Length of the lecture
+     * @return Mask of the slots the lecture can start in
+     */
+    public static long starts(long slots, int hours) {
+        long starts = slots & sameDayStarts(hours);
+        for (int i = 1; i < hours; i++) {
+            starts &= slots >>> i;
+        }
+        return starts;
+    }
+
+    /**
+     * Finds the start slots of a lecture that would overlap one of the given busy slots.
+     *
+     * @param busy Mask of busy slots
+     * @param hours Length of the lecture
+     * @return Mask of the start slots that clash
+     */
+    public static long clashes(long busy, int hours) {
+        long clashes = busy;
+        for (int i = 1; i < hours; i++) {
+            clashes |= busy >>> i;
+        }
+        return clashes;
+    }
+
+    /**
+     * @param hours Length of a lecture
+     * @return Mask of the slots a lecture of the given length can start in and still end on the same day
+     */
+    private static long sameDayStarts(int hours) {
+        if (hours > HOURS_PER_DAY) {
+            return 0;
+        }
+        long starts = 0;
+        for (int i = 0; i < DAYS; i++) {
+            starts |= span(i * HOURS_PER_DAY, HOURS_PER_DAY - hours + 1);
+        }
+        return starts;
+    }
+}
@@ -0,0 +1,16 @@
+-- Lookups by name, see LecturerDAO.find(String) and LecturerDAO.findIds
+CREATE INDEX idx_lecturer_name ON Lecturer (name);
+
+-- Exact and prefix lookups in SubjectDAO.find(String)
+CREATE INDEX idx_subject_shortname ON Subject (shortname);
+CREATE INDEX idx_subject_name ON Subject (name);
+
+CREATE INDEX idx_room_name ON Room (name);
+
+-- Replace the implicit foreign key indexes with named ones. The availability index covers the columns the
+-- lecturer queries read, so they never touch the table rows.
+CREATE INDEX idx_available_lecturer ON Available (lecturer, start, end);
+CREATE INDEX idx_contact_lecturer ON Contact (lecturer);
+
+-- Subjects by lecturer, see SubjectDAO.findSubject. The primary key only serves lookups by subject.
+CREATE INDEX idx_subject_lecturer_lecturer ON Subject_Lecturer (lecturer, subject);
@@ -0,0 +1,102 @@
+package no.kij.scheduler;
+
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+
+public class ConnectionPoolTest {
+    private final FakeDatabase db = new FakeDatabase();
+    private ConnectionPool pool;
+
+    @Before
+    public void setUp() {
+        PoolSettings settings = new PoolSettings(0, 2);
+        settings.setAcquireTimeoutMillis(100);
+        pool = new ConnectionPool(db.dataSource(), settings);
+    }
+
+    @After
+    public void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    public void testConnectionIsReused() throws SQLException {
+        Connection first = pool.getConnection();
+        first.close();
+        Connection second = pool.getConnection();
+        second.close();
+        assertEquals(1, db.getOpenedCount());
+        assertEquals(2, pool.getStats().getAcquireCount());
+    }
+
+    @Test
+    public void testClosedHandleCanNotBeUsed() throws SQLException {
+        Connection conn = pool.getConnection();
+        conn.close();
+        assertTrue(conn.isClosed());
+        try {
+            conn.getAutoCommit();
+            fail("Expected the returned handle to be unusable.");
+        } catch (SQLException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testExhaustedPoolTimesOut() throws SQLException {
+        Connection first = pool.getConnection();
+        Connection second = pool.getConnection();
+        assertEquals(2, pool.getStats().getActive());
+        try {
+            pool.getConnection();
+            fail("Expected the pool to be exhausted.");
+        } catch (SQLTimeoutException e) {
+            assertEquals(1, pool.getStats().getTimeouts());
+        }
+        first.close();
+        second.close();
+        assertEquals(0, pool.getStats().getActive());
+        assertEquals(2, pool.getStats().getIdle());
+    }
+
+    @Test
+    public void testInvalidConnectionIsReplaced() throws SQLException {
+        pool.getSettings().setValidationBypassMillis(0);
+        pool.getConnection().close();
+        db.setValid(false);
+        pool.getConnection().close();
+        assertEquals(2, db.getOpenedCount());
+        assertEquals(1, pool.getStats().getTotal());
+    }
+
+    @Test
+    public void testStatementCacheCountsAreSummedPerPool() throws SQLException {
+        ConnectionPool other = new ConnectionPool(new FakeDatabase().dataSource(), new PoolSettings(0, 1));
+        try {
+            for (int i = 0; i < 3; i++) {
+                try (Connection conn = pool.getConnection()) {
+                    conn.unwrap(StatementCache.class).prepare("SELECT 1", Statement.NO_GENERATED_KEYS).close();
+                }
+            }
+            assertEquals(2, pool.getStats().getStatementHits());
+            assertEquals(1, pool.getStats().getStatementMisses());
+            assertEquals(0, other.getStats().getStatementHits());
+
+            // the counts of a discarded connection are kept
+            pool.getSettings().setValidationBypassMillis(0);
+            db.setValid(false);
+            pool.getConnection().close();
+            assertEquals(2, pool.getStats().getStatementHits());
+            assertEquals(1, pool.getStats().getStatementMisses());
+        } finally {
+            other.close();
+        }
+    }
+}
@@ -8,14 +8,15 @@ import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
 
+import no.kij.scheduler.migration.Migrator;
+
 import java.io.ByteArrayOutputStream;
-import java.io.File;
-import java.io.IOException;
 import java.io.PrintStream;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
@@ -65,10 +66,14 @@ public class DatabaseInitializerTest {
 
     @Test
     public void testDatabaseTableFirstRunInitialization() {
-        // if first run text file exists, we delete it
-        File file = new File("firstrun.txt");
-        if (file.exists()) {
-            file.delete();
+        // start from an empty database, so every migration is pending
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("SET foreign_key_checks = 0");
+            stmt.executeUpdate("DROP TABLE IF EXISTS " +
+                    "Available, Contact, Lecturer, Room, Subject, Subject_Lecturer, schema_version");
+            stmt.executeUpdate("SET foreign_key_checks = 1");
+        } catch (SQLException e) {
+            fail(e.getMessage());
         }
 
         boolean initSuccess = dbInit.initializeDatabase(false);
@@ -97,18 +102,19 @@ public class DatabaseInitializerTest {
 
     @Test
     public void testDatabaseInitializationDoesNotOverwrite() {
-        File file = new File("firstrun.txt");
-        if (!file.exists()) {
-            try {
-                file.createNewFile();
-            } catch (IOException e) {
-                fail(e.getMessage());
-            }
-        }
+        // the first call brings the schema up to date, whatever state the test database was in
+        dbInit.initializeDatabase(false);
         boolean initSuccess = dbInit.initializeDatabase(false);
         assertFalse(initSuccess);
     }
 
+    @Test
+    public void testSchemaIsAtLatestVersion() throws SQLException {
+        dbInit.initializeDatabase(false);
+        int latest = Migrator.MIGRATIONS.get(Migrator.MIGRATIONS.size() - 1).getVersion();
+        assertEquals(latest, new Migrator(connector).getCurrentVersion());
+    }
+
     private void assertDatabaseTables() {
         List<String> tableNames = new ArrayList<>();
         try {
@@ -126,6 +132,7 @@ public class DatabaseInitializerTest {
         assertTrue(tableNames.contains("lecturer"));
         assertTrue(tableNames.contains("room"));
         assertTrue(tableNames.contains("subject"));
-        assertEquals(6, tableNames.size());
+        assertTrue(tableNames.contains("schema_version"));
+        assertEquals(7, tableNames.size());
     }
 }
@@ -0,0 +1,41 @@
+package no.kij.scheduler;
+
+import static no.kij.scheduler.FakeDatabase.row;
+import static org.junit.Assert.*;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Checks when the initializer seeds the tables, without a MySQL server.
+ */
+public class DatabaseSeedingTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRowsInAnySeededTableSkipTheImport() {
+        // no lecturers, but a room added by hand
+        FakeDatabase db = new FakeDatabase().on("SELECT 1 FROM Room", "1", row(1));
+        new DatabaseInitializer(db.connector()).initializeDatabase(false);
+
+        assertFalse(db.getExecuted().stream().anyMatch(sql -> sql.startsWith("INSERT INTO Lecturer")));
+        assertFalse(db.getExecuted().stream().anyMatch(sql -> sql.startsWith("DELETE")));
+    }
+
+    @Test
+    public void testFailedImportIsRolledBackAndReported() throws IOException {
+        File seeds = folder.newFolder();
+        Files.write(new File(seeds, "rooms.json").toPath(), "[{\"name\": ".getBytes(StandardCharsets.UTF_8));
+        FakeDatabase db = new FakeDatabase();
+
+        assertFalse(new DatabaseInitializer(db.connector(), seeds.getPath()).initializeDatabase(false));
+        assertTrue(db.getExecuted().stream().anyMatch(sql -> sql.startsWith("INSERT INTO Lecturer")));
+        assertTrue(db.getExecuted().contains("DELETE FROM Lecturer"));
+    }
+}
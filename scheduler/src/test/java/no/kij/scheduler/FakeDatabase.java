@@ -0,0 +1,598 @@
+package no.kij.scheduler;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A stand-in for the database in tests, made of JDBC proxies, so the pool, the statement cache and the DAOs can be
+ * tested without a MySQL server.
+ *
+ * <p>Queries are answered with the rows registered for them with {@link #on}, matched by a fragment of their SQL,
+ * the longest matching fragment winning. The SQL is not parsed, so rows for a query with a WHERE clause have to be
+ * filtered on the bound values by the test. Queries without registered rows return no rows and have any column
+ * asked for, updates affect one row, and every inserted row gets the next generated key. Everything that is run is
+ * recorded, so tests can check what went to the database. The indexes of a table in the connection's metadata are
+ * the rows registered for {@code getIndexInfo}, with the table name as the only bound value.</p>
+ */
+public class FakeDatabase {
+    /**
+     * Produces the rows of a query from the values bound to it.
+     */
+    @FunctionalInterface
+    public interface Rows {
+        List<Object[]> select(List<Object> parameters);
+    }
+
+    /**
+     * Runs before every execution, and may block or throw to act like a slow or failing query.
+     */
+    @FunctionalInterface
+    public interface ExecuteHook {
+        void beforeExecute(FakeStatement statement) throws SQLException, InterruptedException;
+    }
+
+    private final Map<String, Result> results = new ConcurrentHashMap<>();
+    private final List<FakeStatement> statements = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> executed = Collections.synchronizedList(new ArrayList<>());
+    private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger keys = new AtomicInteger();
+    private final AtomicInteger opened = new AtomicInteger();
+    private final AtomicInteger open = new AtomicInteger();
+    private final CountDownLatch cancelled = new CountDownLatch(1);
+    private volatile ExecuteHook hook;
+    private volatile boolean valid = true;
+
+    /**
+     * Registers the rows returned by every query containing the given SQL.
+     *
+     * @param sql Fragment of the query
+     * @param columns Comma separated labels of the columns
+     * @param rows Rows, one value per column
+     * @return This database
+     */
+    public FakeDatabase on(String sql, String columns, Object[]... rows) {
+        List<Object[]> all = Arrays.asList(rows);
+        return on(sql, columns, parameters -> all);
+    }
+
+    /**
+     * Registers the rows returned by every query containing the given SQL, worked out from the bound values.
+     *
+     * @param sql Fragment of the query
+     * @param columns Comma separated labels of the columns
+     * @param rows Selects the rows for the values bound to the query
+     * @return This database
+     */
+    public FakeDatabase on(String sql, String columns, Rows rows) {
+        results.put(sql, new Result(columns.split(",\\s*"), rows));
+        return this;
+    }
+
+    public static Object[] row(Object... values) {
+        return values;
+    }
+
+    public void onExecute(ExecuteHook hook) {
+        this.hook = hook;
+    }
+
+    /**
+     * @param valid Whether the connections report themselves as valid from now on
+     */
+    public void setValid(boolean valid) {
+        this.valid = valid;
+    }
+
+    /**
+     * @return A new connection to the database
+     */
+    public Connection connection() {
+        opened.incrementAndGet();
+        open.incrementAndGet();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, new FakeConnection());
+    }
+
+    /**
+     * @return DataSource opening a new connection on every call
+     */
+    public DataSource dataSource() {
+        return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(),
+                new Class<?>[] { DataSource.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getConnection":
+                            return connection();
+                        case "toString":
+                            return "FakeDataSource";
+                        default:
+                            return defaultValue(method.getReturnType());
+                    }
+                });
+    }
+
+    /**
+     * @return Connector opening a new connection on every call, like an unpooled connector
+     */
+    public DatabaseConnector connector() {
+        return new DatabaseConnector(null, null, null, null) {
+            @Override
+            public Connection getConnection() {
+                return connection();
+            }
+        };
+    }
+
+    /**
+     * @param settings Settings for the pool
+     * @return Connector handing out connections from a pool over this database, closing the pool when closed
+     */
+    public DatabaseConnector connector(PoolSettings settings) {
+        ConnectionPool pool = new ConnectionPool(dataSource(), settings);
+        return new DatabaseConnector(null, null, null, null) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return pool.getConnection();
+            }
+
+            @Override
+            public boolean isPooled() {
+                return true;
+            }
+
+            @Override
+            public PoolSettings getPoolSettings() {
+                return pool.getSettings();
+            }
+
+            @Override
+            public PoolStats getPoolStats() {
+                return pool.getStats();
+            }
+
+            @Override
+            public void close() {
+                pool.close();
+            }
+        };
+    }
+
+    /**
+     * @return Every statement prepared so far, in the order they were prepared
+     */
+    public List<FakeStatement> getStatements() {
+        synchronized (statements) {
+            return new ArrayList<>(statements);
+        }
+    }
+
+    /**
+     * @return SQL of every execution so far, with COMMIT and ROLLBACK for the transactions ended
+     */
+    public List<String> getExecuted() {
+        synchronized (executed) {
+            return new ArrayList<>(executed);
+        }
+    }
+
+    /**
+     * @return Number of rows in every batch executed so far
+     */
+    public List<Integer> getBatchSizes() {
+        synchronized (batchSizes) {
+            return new ArrayList<>(batchSizes);
+        }
+    }
+
+    /**
+     * @return Number of connections opened
+     */
+    public int getOpenedCount() {
+        return opened.get();
+    }
+
+    /**
+     * @return Number of connections opened and not closed yet
+     */
+    public int getOpenCount() {
+        return open.get();
+    }
+
+    /**
+     * Waits until a statement has been cancelled.
+     *
+     * @param millis Time to wait
+     * @return True if a statement was cancelled in time
+     * @throws InterruptedException If interrupted while waiting
+     */
+    public boolean awaitCancel(long millis) throws InterruptedException {
+        return cancelled.await(millis, TimeUnit.MILLISECONDS);
+    }
+
+    private Result resultFor(String sql) {
+        Result best = null;
+        int length = -1;
+        for (Map.Entry<String, Result> entry : results.entrySet()) {
+            if (sql.contains(entry.getKey()) && entry.getKey().length() > length) {
+                best = entry.getValue();
+                length = entry.getKey().length();
+            }
+        }
+        return best;
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+
+    private static ResultSet resultSet(String[] columns, List<Object[]> rows) {
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                new Class<?>[] { ResultSet.class }, new FakeResultSet(columns, rows));
+    }
+
+    /**
+     * Columns and rows registered for a query.
+     */
+    private static final class Result {
+        private final String[] columns;
+        private final Rows rows;
+
+        private Result(String[] columns, Rows rows) {
+            this.columns = columns;
+            this.rows = rows;
+        }
+    }
+
+    private final class FakeConnection implements InvocationHandler {
+        private boolean closed;
+        private boolean autoCommit = true;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "prepareStatement":
+                    return statement(proxy, (String) args[0]);
+                case "createStatement":
+                    return statement(proxy, null);
+                case "getMetaData":
+                    return metaData();
+                case "isValid":
+                    return valid;
+                case "isClosed":
+                    return closed;
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        open.decrementAndGet();
+                    }
+                    return null;
+                case "getAutoCommit":
+                    return autoCommit;
+                case "setAutoCommit":
+                    autoCommit = (Boolean) args[0];
+                    return null;
+                case "commit":
+                    executed.add("COMMIT");
+                    return null;
+                case "rollback":
+                    executed.add("ROLLBACK");
+                    return null;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "FakeConnection";
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        }
+
+        private DatabaseMetaData metaData() {
+            return (DatabaseMetaData) Proxy.newProxyInstance(DatabaseMetaData.class.getClassLoader(),
+                    new Class<?>[] { DatabaseMetaData.class }, (proxy, method, args) -> {
+                        if (!method.getName().equals("getIndexInfo")) {
+                            return defaultValue(method.getReturnType());
+                        }
+                        Result result = resultFor("getIndexInfo");
+                        if (result == null) {
+                            return resultSet(new String[0], Collections.emptyList());
+                        }
+                        return resultSet(result.columns,
+                                new ArrayList<>(result.rows.select(Collections.singletonList(args[2]))));
+                    });
+        }
+
+        private Statement statement(Object connection, String sql) {
+            FakeStatement statement = new FakeStatement((Connection) connection, sql);
+            statements.add(statement);
+            return (Statement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[] { PreparedStatement.class }, statement);
+        }
+    }
+
+    /**
+     * A statement prepared on the database, recording what is done with it.
+     */
+    public final class FakeStatement implements InvocationHandler {
+        private final Connection connection;
+        private final String sql;
+        private final Map<Integer, Object> parameters = new TreeMap<>();
+        private final CountDownLatch cancel = new CountDownLatch(1);
+        private List<Object[]> generatedKeys = Collections.emptyList();
+        private int batch;
+        private int fetchSize;
+        private int maxRows;
+        private int queryTimeout;
+        private volatile boolean closed;
+
+        private FakeStatement(Connection connection, String sql) {
+            this.connection = connection;
+            this.sql = sql;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        /**
+         * @return Values currently bound, in parameter order
+         */
+        public synchronized List<Object> getParameters() {
+            return new ArrayList<>(parameters.values());
+        }
+
+        public synchronized int getBatch() {
+            return batch;
+        }
+
+        public synchronized int getFetchSize() {
+            return fetchSize;
+        }
+
+        public synchronized int getMaxRows() {
+            return maxRows;
+        }
+
+        public synchronized int getQueryTimeout() {
+            return queryTimeout;
+        }
+
+        public boolean isClosed() {
+            return closed;
+        }
+
+        public boolean isCancelled() {
+            return cancel.getCount() == 0;
+        }
+
+        /**
+         * Blocks until the statement is cancelled, the way a long running query does.
+         *
+         * @throws InterruptedException If interrupted while waiting
+         */
+        public void awaitCancel() throws InterruptedException {
+            cancel.await();
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "executeQuery":
+                    return executeQuery(args != null ? (String) args[0] : sql);
+                case "executeUpdate":
+                    execute(args != null ? (String) args[0] : sql);
+                    setGeneratedKeys(1);
+                    return 1;
+                case "execute":
+                    execute(args != null ? (String) args[0] : sql);
+                    return false;
+                case "executeBatch":
+                    return executeBatch();
+                case "getGeneratedKeys":
+                    return resultSet(new String[] { "GENERATED_KEY" }, generatedKeys);
+                case "addBatch":
+                    synchronized (this) {
+                        batch++;
+                    }
+                    return null;
+                case "clearBatch":
+                    synchronized (this) {
+                        batch = 0;
+                    }
+                    return null;
+                case "clearParameters":
+                    synchronized (this) {
+                        parameters.clear();
+                    }
+                    return null;
+                case "setFetchSize":
+                    synchronized (this) {
+                        fetchSize = (Integer) args[0];
+                    }
+                    return null;
+                case "getFetchSize":
+                    return getFetchSize();
+                case "setMaxRows":
+                    synchronized (this) {
+                        maxRows = (Integer) args[0];
+                    }
+                    return null;
+                case "getMaxRows":
+                    return getMaxRows();
+                case "setQueryTimeout":
+                    synchronized (this) {
+                        queryTimeout = (Integer) args[0];
+                    }
+                    return null;
+                case "getQueryTimeout":
+                    return getQueryTimeout();
+                case "cancel":
+                    cancel.countDown();
+                    cancelled.countDown();
+                    return null;
+                case "close":
+                    closed = true;
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "getConnection":
+                    return connection;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "FakeStatement[" + sql + "]";
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                synchronized (this) {
+                    parameters.put((Integer) args[0], name.equals("setNull") ? null : args[1]);
+                }
+                return null;
+            }
+            return defaultValue(method.getReturnType());
+        }
+
+        private ResultSet executeQuery(String query) throws SQLException, InterruptedException {
+            execute(query);
+            Result result = resultFor(query);
+            if (result == null) {
+                return resultSet(new String[0], Collections.emptyList());
+            }
+            return resultSet(result.columns, new ArrayList<>(result.rows.select(getParameters())));
+        }
+
+        private int[] executeBatch() throws SQLException, InterruptedException {
+            execute(sql);
+            int rows;
+            synchronized (this) {
+                rows = batch;
+                batch = 0;
+            }
+            batchSizes.add(rows);
+            setGeneratedKeys(rows);
+            int[] affected = new int[rows];
+            Arrays.fill(affected, 1);
+            return affected;
+        }
+
+        private void execute(String query) throws SQLException, InterruptedException {
+            if (closed) {
+                throw new SQLException("Statement is closed.");
+            }
+            ExecuteHook current = hook;
+            if (current != null) {
+                current.beforeExecute(this);
+            }
+            executed.add(query);
+        }
+
+        private synchronized void setGeneratedKeys(int count) {
+            generatedKeys = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                generatedKeys.add(row(keys.incrementAndGet()));
+            }
+        }
+    }
+
+    /**
+     * A result set walking over a list of rows.
+     */
+    private static final class FakeResultSet implements InvocationHandler {
+        private final String[] columns;
+        private final List<Object[]> rows;
+        private int cursor = -1;
+        private boolean wasNull;
+        private boolean closed;
+
+        private FakeResultSet(String[] columns, List<Object[]> rows) {
+            this.columns = columns;
+            this.rows = rows;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next":
+                    return ++cursor < rows.size();
+                case "findColumn":
+                    return findColumn((String) args[0]);
+                case "wasNull":
+                    return wasNull;
+                case "close":
+                    closed = true;
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "getInt":
+                    Object intValue = value(args[0]);
+                    return intValue != null ? ((Number) intValue).intValue() : 0;
+                case "getLong":
+                    Object longValue = value(args[0]);
+                    return longValue != null ? ((Number) longValue).longValue() : 0L;
+                case "getString":
+                    Object stringValue = value(args[0]);
+                    return stringValue != null ? stringValue.toString() : null;
+                case "getObject":
+                    return value(args[0]);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "FakeResultSet" + Arrays.toString(columns);
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        }
+
+        private int findColumn(String label) throws SQLException {
+            if (columns.length == 0) {
+                // a query without registered rows has whatever columns the caller asks for
+                return 1;
+            }
+            for (int i = 0; i < columns.length; i++) {
+                if (columns[i].equalsIgnoreCase(label)) {
+                    return i + 1;
+                }
+            }
+            throw new SQLException("Column '" + label + "' not found.");
+        }
+
+        private Object value(Object column) throws SQLException {
+            if (cursor < 0 || cursor >= rows.size()) {
+                throw new SQLException("The result set is not on a row.");
+            }
+            int index = column instanceof Integer ? (Integer) column : findColumn((String) column);
+            Object value = rows.get(cursor)[index - 1];
+            wasNull = value == null;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package no.kij.scheduler;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import com.google.gson.stream.JsonReader;
+import no.kij.scheduler.dao.DAOException;
+import no.kij.scheduler.dao.memory.InMemoryLecturerRepository;
+import no.kij.scheduler.dao.memory.InMemoryRoomRepository;
+import no.kij.scheduler.dao.memory.InMemoryStore;
+import no.kij.scheduler.dao.memory.InMemorySubjectRepository;
+import no.kij.scheduler.dto.RoomDTO;
+import no.kij.scheduler.dto.SubjectDTO;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+public class JsonImporterTest {
+
+    @Test
+    public void testReadSubjectWithLecturerNames() throws IOException {
+        String json = "{\"name\": \"Avansert Javaprogrammering\", \"shortName\": \"PGR200\", \"enrolled\": 65, " +
+                "\"lecturers\": [{\"name\": \"Felicjan Pawłowski\"}, {\"name\": \"Praskovya Pokrovskaya\"}]}";
+        SubjectDTO subjectDTO = JsonImporter.readSubject(new JsonReader(new StringReader(json)));
+        assertEquals("Avansert Javaprogrammering", subjectDTO.getName());
+        assertEquals("PGR200", subjectDTO.getShortName());
+        assertEquals(65, subjectDTO.getEnrolled());
+        assertEquals(2, subjectDTO.getLecturers().size());
+        assertEquals("Praskovya Pokrovskaya", subjectDTO.getLecturers().get(1).getName());
+        assertNull(subjectDTO.getLecturers().get(0).getId());
+    }
+
+    @Test
+    public void testReadSubjectSkipsUnknownFieldsAndNullNames() throws IOException {
+        String json = "{\"shortName\": \"PG4200\", \"room\": {\"name\": \"101\"}, " +
+                "\"lecturers\": [{\"name\": null, \"email\": \"x@y.no\"}]}";
+        SubjectDTO subjectDTO = JsonImporter.readSubject(new JsonReader(new StringReader(json)));
+        assertEquals("PG4200", subjectDTO.getShortName());
+        assertTrue(subjectDTO.getLecturers().isEmpty());
+    }
+
+    @Test
+    public void testFailedWriteIsReportedAsPartialImport() {
+        InMemoryStore store = new InMemoryStore();
+        InMemoryLecturerRepository lecturers = new InMemoryLecturerRepository(store);
+        InMemoryRoomRepository rooms = new InMemoryRoomRepository(store) {
+            @Override
+            public void createAll(List<RoomDTO> roomDTOs, int batchSize) {
+                throw new DAOException("Lost the connection.");
+            }
+        };
+        JsonImporter importer = new JsonImporter(lecturers, rooms, new InMemorySubjectRepository(store), 50);
+
+        assertFalse(DatabaseInitializer.importSeedFiles(importer, null));
+        // the lecturers were saved before the rooms failed
+        assertFalse(lecturers.list().isEmpty());
+        assertTrue(rooms.list().isEmpty());
+    }
+}
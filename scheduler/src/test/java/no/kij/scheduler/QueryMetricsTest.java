@@ -0,0 +1,106 @@
+package no.kij.scheduler;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import no.kij.scheduler.dao.DAOUtil;
+import no.kij.scheduler.dao.Session;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+public class QueryMetricsTest {
+    private final FakeDatabase db = new FakeDatabase();
+
+    @Test
+    public void testQueryIsTimedFromPrepareToClose() throws SQLException {
+        String sql = "SELECT id FROM Room WHERE capacity = ? -- timed";
+        try (
+            PreparedStatement stmt = DAOUtil.prepareStatement(db.connection(), sql, false, 30);
+            ResultSet rs = stmt.executeQuery()
+        ) {
+            assertFalse(rs.next());
+        }
+        QueryStats stats = QueryMetrics.global().getQuery(sql);
+        assertEquals(1, stats.getPrepareCount());
+        assertEquals(1, stats.getExecuteCount());
+        assertEquals(0, stats.getErrors());
+        assertTrue(stats.getTotalMicros() >= 0);
+    }
+
+    @Test
+    public void testCachedStatementsRecordUnderTheirTemplate() throws SQLException {
+        String sql = "SELECT id FROM Room WHERE name = ? -- cached";
+        StatementCache cache = new StatementCache(db.connection(), 2);
+        for (int i = 0; i < 3; i++) {
+            try (PreparedStatement stmt = cache.prepare(sql, Statement.NO_GENERATED_KEYS)) {
+                stmt.executeQuery();
+            }
+        }
+        assertEquals(3, QueryMetrics.global().getQuery(sql).getExecuteCount());
+    }
+
+    @Test
+    public void testSessionCountsItsQueries() throws SQLException {
+        long operations = QueryMetrics.global().getOperationCount();
+        try (Session session = Session.open()) {
+            for (int i = 0; i < 4; i++) {
+                DAOUtil.prepareStatement(db.connection(), "SELECT 1 -- counted", false).close();
+            }
+            assertEquals(4, session.getQueryCount());
+        }
+        assertEquals(operations + 1, QueryMetrics.global().getOperationCount());
+        assertTrue(QueryMetrics.global().getMaxQueriesPerOperation() >= 4);
+    }
+
+    @Test
+    public void testSlowQueryIsLoggedWithItsParameters() throws SQLException {
+        String sql = "SELECT id FROM Room WHERE campus = ? -- slow";
+        List<QueryWarning> warnings = new ArrayList<>();
+        QueryMetrics metrics = QueryMetrics.global();
+        long threshold = metrics.getSlowQueryThresholdMillis();
+        metrics.setWarningHandler(warnings::add);
+        metrics.setSlowQueryThresholdMillis(0);
+        try (PreparedStatement stmt = DAOUtil.prepareStatement(db.connection(), sql, false, "Fjerdingen")) {
+            stmt.executeQuery();
+        } finally {
+            metrics.setSlowQueryThresholdMillis(threshold);
+            metrics.setWarningHandler(System.err::println);
+        }
+        assertEquals(1, warnings.size());
+        QueryWarning warning = warnings.get(0);
+        assertEquals(QueryWarning.Kind.SLOW_QUERY, warning.getKind());
+        assertEquals(sql, warning.getSql());
+        assertArrayEquals(new Object[] { "Fjerdingen" }, warning.getParameters());
+        assertEquals("testSlowQueryIsLoggedWithItsParameters", warning.getCallSite().getMethodName());
+    }
+
+    @Test
+    public void testTemplatesBeyondTheLimitAreCountedTogether() {
+        QueryMetrics metrics = new QueryMetrics();
+        for (int i = 0; i < QueryMetrics.MAX_TEMPLATES; i++) {
+            metrics.template("SELECT " + i);
+        }
+        assertEquals(QueryMetrics.OTHER_TEMPLATE, metrics.template("SELECT -1").getSql());
+        assertEquals("SELECT 0", metrics.template("SELECT 0").getSql());
+        assertEquals(QueryMetrics.MAX_TEMPLATES, metrics.getTemplateCount());
+    }
+
+    @Test
+    public void testMetricsArePublishedOverJmx() throws Exception {
+        QueryMetrics.registerMBean();
+        QueryMetrics.registerMBean();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(QueryMetrics.OBJECT_NAME);
+        assertTrue(server.isRegistered(name));
+        assertEquals(QueryMetrics.global().getTemplateCount(), server.getAttribute(name, "TemplateCount"));
+        assertNotNull(server.getAttribute(name, "Queries"));
+    }
+}
@@ -0,0 +1,57 @@
+package no.kij.scheduler;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Properties;
+
+public class ResourceFetcherTest {
+
+    @Test
+    public void testGetCredentialsSuccessful() {
+        Properties creds = ResourceFetcher.getCredentials();
+        assertNotNull(creds);
+    }
+
+    @Test
+    public void testGetFileSuccessful() {
+        String sql = ResourceFetcher.getFile("database.sql");
+        assertNotNull(sql);
+    }
+
+    @Test
+    public void testGetFileWhereFileDoesNotExist() {
+        String sql = ResourceFetcher.getFile("doesNotExist.txt");
+        assertNull(sql);
+    }
+
+    @Test
+    public void testGetReaderFromResources() throws IOException {
+        try (Reader in = ResourceFetcher.getReader("rooms.json")) {
+            assertNotNull(in);
+            assertEquals('[', in.read());
+        }
+    }
+
+    @Test
+    public void testGetReaderFromFilesystem() throws IOException {
+        File file = File.createTempFile("rooms", ".json");
+        file.deleteOnExit();
+        Files.write(file.toPath(), Collections.singletonList("[]"), StandardCharsets.UTF_8);
+        try (BufferedReader in = (BufferedReader) ResourceFetcher.getReader(file.getPath())) {
+            assertEquals("[]", in.readLine());
+        }
+    }
+
+    @Test
+    public void testGetReaderWhereFileDoesNotExist() throws IOException {
+        assertNull(ResourceFetcher.getReader("doesNotExist.txt"));
+    }
+}
@@ -0,0 +1,109 @@
+package no.kij.scheduler;
+
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+public class StatementCacheTest {
+    private final FakeDatabase db = new FakeDatabase();
+    private StatementCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new StatementCache(db.connection(), 2);
+    }
+
+    @Test
+    public void testClosedStatementIsReused() throws SQLException {
+        cache.prepare("SELECT 1", Statement.NO_GENERATED_KEYS).close();
+        cache.prepare("SELECT 1", Statement.NO_GENERATED_KEYS).close();
+        assertEquals(1, db.getStatements().size());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testReleasedStatementIsReset() throws SQLException {
+        PreparedStatement first = cache.prepare("SELECT id FROM Room WHERE capacity > ?", Statement.NO_GENERATED_KEYS);
+        first.setInt(1, 30);
+        first.addBatch();
+        first.setFetchSize(100);
+        first.setMaxRows(10);
+        first.setQueryTimeout(5);
+        first.close();
+
+        cache.prepare("SELECT id FROM Room WHERE capacity > ?", Statement.NO_GENERATED_KEYS).close();
+        FakeDatabase.FakeStatement statement = db.getStatements().get(0);
+        assertEquals(1, db.getStatements().size());
+        assertTrue(statement.getParameters().isEmpty());
+        assertEquals(0, statement.getBatch());
+        assertEquals(0, statement.getFetchSize());
+        assertEquals(0, statement.getMaxRows());
+        assertEquals(0, statement.getQueryTimeout());
+    }
+
+    @Test
+    public void testReusedStatementKeepsItsWrapper() throws SQLException {
+        TimedStatement first = cache.prepare("SELECT 1", Statement.NO_GENERATED_KEYS);
+        int lease = first.getLease();
+        first.close();
+        TimedStatement second = cache.prepare("SELECT 1", Statement.NO_GENERATED_KEYS);
+        assertSame(first, second);
+        assertNotEquals(lease, second.getLease());
+    }
+
+    @Test
+    public void testStaleLeaseIsNotCancelled() throws SQLException {
+        TimedStatement first = cache.prepare("SELECT 1", Statement.NO_GENERATED_KEYS);
+        int lease = first.getLease();
+        first.close();
+        try {
+            first.executeQuery();
+            fail("A closed statement should not run");
+        } catch (SQLException e) {
+            // expected
+        }
+
+        TimedStatement second = cache.prepare("SELECT 1", Statement.NO_GENERATED_KEYS);
+        second.cancel(lease);
+        assertFalse(db.getStatements().get(0).isCancelled());
+        second.cancel(second.getLease());
+        assertTrue(db.getStatements().get(0).isCancelled());
+        second.close();
+    }
+
+    @Test
+    public void testGeneratedKeysModeIsPartOfTheKey() throws SQLException {
+        cache.prepare("INSERT INTO Room(name) VALUES (?)", Statement.NO_GENERATED_KEYS).close();
+        cache.prepare("INSERT INTO Room(name) VALUES (?)", Statement.RETURN_GENERATED_KEYS).close();
+        assertEquals(2, db.getStatements().size());
+    }
+
+    @Test
+    public void testStatementInUseIsNotShared() throws SQLException {
+        PreparedStatement first = cache.prepare("SELECT 1", Statement.NO_GENERATED_KEYS);
+        PreparedStatement second = cache.prepare("SELECT 1", Statement.NO_GENERATED_KEYS);
+        assertNotSame(first, second);
+        assertEquals(2, db.getStatements().size());
+        first.close();
+        second.close();
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() throws SQLException {
+        cache.prepare("SELECT 1", Statement.NO_GENERATED_KEYS).close();
+        cache.prepare("SELECT 2", Statement.NO_GENERATED_KEYS).close();
+        cache.prepare("SELECT 1", Statement.NO_GENERATED_KEYS).close();
+        cache.prepare("SELECT 3", Statement.NO_GENERATED_KEYS).close();
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        // "SELECT 2" was the least recently used, so it is the one that got closed
+        assertFalse(db.getStatements().get(0).isClosed());
+        assertTrue(db.getStatements().get(1).isClosed());
+    }
+}
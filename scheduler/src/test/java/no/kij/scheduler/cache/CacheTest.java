@@ -0,0 +1,89 @@
+package no.kij.scheduler.cache;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import no.kij.scheduler.dto.RoomDTO;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class CacheTest {
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private RoomDTO load(String name) {
+        loads.incrementAndGet();
+        return name.startsWith("missing") ? null : new RoomDTO(50, name, "Fjerdingen");
+    }
+
+    @Test
+    public void testValueIsLoadedOnce() {
+        Cache<String, RoomDTO> cache = new Cache<>(10, 60000, 60000, RoomDTO::new);
+        cache.get("301", this::load);
+        RoomDTO roomDTO = cache.get("301", this::load);
+        assertEquals("301", roomDTO.getName());
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getStats().getHits());
+        assertEquals(1, cache.getStats().getMisses());
+    }
+
+    @Test
+    public void testCallersCanNotCorruptCachedValue() {
+        Cache<String, RoomDTO> cache = new Cache<>(10, 60000, 60000, RoomDTO::new);
+        cache.get("301", this::load).setCapacity(1);
+        cache.get("301", this::load).setCapacity(2);
+        assertEquals(50, cache.get("301", this::load).getCapacity());
+    }
+
+    @Test
+    public void testMissesAreCached() {
+        Cache<String, RoomDTO> cache = new Cache<>(10, 60000, 60000, RoomDTO::new);
+        assertNull(cache.get("missing", this::load));
+        assertNull(cache.get("missing", this::load));
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getStats().getNegativeHits());
+    }
+
+    @Test
+    public void testInvalidateDropsCachedMiss() {
+        Cache<String, RoomDTO> cache = new Cache<>(10, 60000, 60000, RoomDTO::new);
+        cache.get("missing", this::load);
+        cache.invalidate("missing");
+        cache.get("missing", this::load);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testExpiredValueIsReloaded() throws InterruptedException {
+        Cache<String, RoomDTO> cache = new Cache<>(10, 1, 1, RoomDTO::new);
+        cache.get("301", this::load);
+        Thread.sleep(5);
+        cache.get("301", this::load);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testSizeIsBounded() {
+        Cache<String, RoomDTO> cache = new Cache<>(20, 60000, 60000, RoomDTO::new);
+        for (int i = 0; i < 100; i++) {
+            cache.get("room" + i, this::load);
+        }
+        assertTrue(cache.size() <= 20);
+        assertEquals(100 - cache.size(), cache.getStats().getEvictions());
+    }
+
+    @Test
+    public void testInvalidateWhileCachingLoadedValueIsNotLost() {
+        AtomicReference<Cache<String, RoomDTO>> cache = new AtomicReference<>();
+        // the copier runs after the load and before the value is stored, the widest window for an invalidation
+        cache.set(new Cache<>(10, 60000, 60000, roomDTO -> {
+            if (loads.get() == 1) {
+                cache.get().invalidate(roomDTO.getName());
+            }
+            return new RoomDTO(roomDTO);
+        }));
+        cache.get().get("301", this::load);
+        cache.get().get("301", this::load);
+        assertEquals(2, loads.get());
+    }
+}
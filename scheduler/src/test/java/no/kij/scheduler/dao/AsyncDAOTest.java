@@ -0,0 +1,150 @@
+package no.kij.scheduler.dao;
+
+import static no.kij.scheduler.FakeDatabase.row;
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import no.kij.scheduler.DatabaseConnector;
+import no.kij.scheduler.FakeDatabase;
+import no.kij.scheduler.PoolSettings;
+import no.kij.scheduler.QueryLogSettings;
+import no.kij.scheduler.QueryWarning;
+import no.kij.scheduler.dto.LecturerDTO;
+import no.kij.scheduler.dto.RoomDTO;
+import no.kij.scheduler.dto.SubjectDTO;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class AsyncDAOTest {
+    private final CountDownLatch running = new CountDownLatch(1);
+    private final PrintStream err = System.err;
+    private final FakeDatabase db = new FakeDatabase();
+    private RoomDAO roomDAO;
+
+    @Before
+    public void setUp() {
+        // the DAO reports the cancelled query on stderr, which is expected here
+        System.setErr(new PrintStream(new ByteArrayOutputStream()));
+        // every query runs until it is cancelled
+        db.onExecute(statement -> {
+            running.countDown();
+            statement.awaitCancel();
+            throw new SQLException("Query execution was interrupted");
+        });
+        roomDAO = new RoomDAO(db.connector());
+    }
+
+    @After
+    public void tearDown() {
+        System.setErr(err);
+    }
+
+    @Test
+    public void testTimeoutCancelsStatement() throws Exception {
+        try (AsyncDAO asyncDAO = new AsyncDAO(null, null, roomDAO, 1, 1, 50)) {
+            CompletableFuture<RoomDTO> room = asyncDAO.findRoom("301");
+            try {
+                room.get(5, TimeUnit.SECONDS);
+                fail("The lookup should have timed out.");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof TimeoutException);
+            }
+            assertTrue(db.awaitCancel(5000));
+        }
+    }
+
+    @Test
+    public void testCancelCancelsStatement() throws Exception {
+        try (AsyncDAO asyncDAO = new AsyncDAO(null, null, roomDAO, 1, 1, 0)) {
+            CompletableFuture<RoomDTO> room = asyncDAO.findRoom("301");
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+            room.cancel(true);
+            assertTrue(db.awaitCancel(5000));
+        }
+    }
+
+    @Test
+    public void testFullQueueRejectsCall() throws Exception {
+        try (AsyncDAO asyncDAO = new AsyncDAO(null, null, roomDAO, 1, 1, 0)) {
+            CompletableFuture<RoomDTO> first = asyncDAO.findRoom("301");
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+            asyncDAO.findRoom("302");
+            CompletableFuture<RoomDTO> third = asyncDAO.findRoom("303");
+            assertTrue(third.isCompletedExceptionally());
+            first.cancel(true);
+        }
+    }
+
+    @Test
+    public void testFanOutWithAsManyThreadsAsConnections() throws Exception {
+        // lecturer N teaches subject N, which is taught by lecturer N
+        FakeDatabase school = new FakeDatabase()
+                .on("FROM Subject_Lecturer sl JOIN Subject s", "lecturer, id, name, shortname, enrolled",
+                        parameters -> Collections.singletonList(
+                                row(parameters.get(0), parameters.get(0), "Subject", "PG", 50)))
+                .on("FROM Subject_Lecturer WHERE subject IN", "subject, lecturer",
+                        parameters -> Collections.singletonList(row(parameters.get(0), parameters.get(0))))
+                .on("FROM Lecturer WHERE id IN", "id, name",
+                        parameters -> Collections.singletonList(row(parameters.get(0), "Lecturer")));
+        // both workers are inside a subject lookup, holding a connection each, before either loads lecturers
+        CountDownLatch lookups = new CountDownLatch(2);
+        school.onExecute(statement -> {
+            if (statement.getSql().contains("JOIN Subject s")) {
+                lookups.countDown();
+                lookups.await(5, TimeUnit.SECONDS);
+            }
+        });
+        PoolSettings settings = new PoolSettings(0, 2);
+        settings.setAcquireTimeoutMillis(1000);
+
+        try (
+            DatabaseConnector connector = school.connector(settings);
+            AsyncDAO asyncDAO = new AsyncDAO(null, new SubjectDAO(connector), null, 2, 10, 0)
+        ) {
+            List<CompletableFuture<List<SubjectDTO>>> subjects = new ArrayList<>();
+            for (int id = 1; id <= 2; id++) {
+                LecturerDTO lecturerDTO = new LecturerDTO("Lecturer");
+                lecturerDTO.setId(id);
+                subjects.add(asyncDAO.findSubjects(lecturerDTO));
+            }
+            for (CompletableFuture<List<SubjectDTO>> future : subjects) {
+                List<SubjectDTO> found = future.get(5, TimeUnit.SECONDS);
+                assertEquals(1, found.size());
+                assertEquals(1, found.get(0).getLecturers().size());
+            }
+            assertEquals(0, connector.getPoolStats().getTimeouts());
+        }
+    }
+
+    @Test
+    public void testCallsCountAgainstTheCallersSession() throws Exception {
+        RoomDAO rooms = new RoomDAO(new FakeDatabase().connector());
+        try (
+            AsyncDAO asyncDAO = new AsyncDAO(null, null, rooms, 2, 10, 0);
+            Session session = Session.open(new QueryLogSettings(2, 0))
+        ) {
+            List<CompletableFuture<RoomDTO>> lookups = new ArrayList<>();
+            for (int i = 1; i <= 3; i++) {
+                lookups.add(asyncDAO.findRoom("30" + i));
+            }
+            for (CompletableFuture<RoomDTO> lookup : lookups) {
+                lookup.get(5, TimeUnit.SECONDS);
+            }
+            assertEquals(3, session.getQueryCount());
+            assertEquals(1, session.getWarnings().size());
+            assertEquals(QueryWarning.Kind.BUDGET_EXCEEDED, session.getWarnings().get(0).getKind());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package no.kij.scheduler.dao;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import no.kij.scheduler.dao.DAOUtil.RowMapper;
+import no.kij.scheduler.dto.RoomDTO;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+public class ColumnMapperTest {
+    private static final List<String> COLUMNS = Arrays.asList("campus", "id", "capacity", "name");
+    private int lookups;
+
+    @Test
+    public void testColumnsAreResolvedOncePerResultSet() throws SQLException {
+        ResultSet rs = fakeResultSet(3);
+        RowMapper<RoomDTO> rows = RowMappers.ROOM.bind(rs);
+        int row = 0;
+        while (rs.next()) {
+            RoomDTO roomDTO = rows.map(rs);
+            row++;
+            assertEquals(Integer.valueOf(row), roomDTO.getId());
+            assertEquals("Room " + row, roomDTO.getName());
+            assertEquals(row * 10, roomDTO.getCapacity());
+            assertEquals("Fjerdingen", roomDTO.getCampus());
+        }
+        assertEquals(3, row);
+        assertEquals(4, lookups);
+    }
+
+    @Test(expected = SQLException.class)
+    public void testMissingColumnFails() throws SQLException {
+        RowMappers.SUBJECT.bind(fakeResultSet(1));
+    }
+
+    /**
+     * Result set whose columns are in a different order than the mapper's labels, and which only answers
+     * reads by index.
+     */
+    private ResultSet fakeResultSet(int rowCount) {
+        final int[] row = { 0 };
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                new Class<?>[] { ResultSet.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "findColumn":
+                            lookups++;
+                            int index = COLUMNS.indexOf(args[0]);
+                            if (index < 0) {
+                                throw new SQLException("Column '" + args[0] + "' not found.");
+                            }
+                            return index + 1;
+                        case "next":
+                            return ++row[0] <= rowCount;
+                        case "getInt":
+                            return (Integer) args[0] == 2 ? row[0] : row[0] * 10;
+                        case "getString":
+                            return (Integer) args[0] == 1 ? "Fjerdingen" : "Room " + row[0];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
@@ -0,0 +1,95 @@
+package no.kij.scheduler.dao;
+
+import static no.kij.scheduler.FakeDatabase.row;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import no.kij.scheduler.FakeDatabase;
+import no.kij.scheduler.dto.RoomDTO;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class DAOUtilTest {
+    private final FakeDatabase db = new FakeDatabase()
+            .on("SELECT id FROM Room", "id", row(1), row(2), row(3));
+
+    @Test
+    public void testPlaceholders() {
+        assertEquals("?", DAOUtil.placeholders(1));
+        assertEquals("?, ?, ?", DAOUtil.placeholders(3));
+    }
+
+    @Test
+    public void testLikePatternsEscapeWildcards() {
+        assertEquals("%100\\%\\_a%", DAOUtil.containsPattern("100%_a"));
+        assertEquals("c\\\\d%", DAOUtil.startsWithPattern("c\\d"));
+    }
+
+    @Test
+    public void testChunk() {
+        List<List<Integer>> chunks = DAOUtil.chunk(Arrays.asList(1, 2, 3, 4, 5), 2);
+        assertEquals(3, chunks.size());
+        assertEquals(Arrays.asList(5), chunks.get(2));
+    }
+
+    @Test
+    public void testBatchesAreSplitAndKeysAssignedInOrder() throws SQLException {
+        List<RoomDTO> rooms = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            rooms.add(new RoomDTO(50, "Room " + i, "Fjerdingen"));
+        }
+        DAOUtil.executeBatch(db.connection(), "INSERT INTO Room(name, capacity, campus) VALUES (?, ?, ?)",
+                rooms, 2, room -> new Object[] { room.getName(), room.getCapacity(), room.getCampus() },
+                RoomDTO::setId);
+        assertEquals(Arrays.asList(2, 2, 1), db.getBatchSizes());
+        for (int i = 0; i < rooms.size(); i++) {
+            assertEquals(Integer.valueOf(i + 1), rooms.get(i).getId());
+        }
+    }
+
+    @Test
+    public void testSetValuesUsesTypedSetters() throws SQLException {
+        List<String> setters = new ArrayList<>();
+        PreparedStatement stmt = (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class }, (proxy, method, args) -> {
+                    setters.add(method.getName() + "(" + args[0] + ")");
+                    return null;
+                });
+        DAOUtil.setValues(stmt, 7, "Room 1", 3L, null);
+        assertEquals(Arrays.asList("setInt(1)", "setString(2)", "setLong(3)", "setNull(4)"), setters);
+    }
+
+    @Test
+    public void testStreamReleasesConnectionWhenExhausted() {
+        Stream<Integer> rows = DAOUtil.stream(db.connection(), "SELECT id FROM Room",
+                DAOUtil.STREAMING_FETCH_SIZE, rs -> rs.getInt("id"));
+        assertEquals(1, db.getOpenCount());
+        assertEquals(Arrays.asList(1, 2, 3), rows.collect(Collectors.toList()));
+        assertEquals(0, db.getOpenCount());
+    }
+
+    @Test
+    public void testClosingStreamEarlyReleasesConnection() {
+        try (Stream<Integer> rows = DAOUtil.stream(db.connection(), "SELECT id FROM Room",
+                DAOUtil.STREAMING_FETCH_SIZE, rs -> rs.getInt("id"))) {
+            assertEquals(Integer.valueOf(1), rows.findFirst().get());
+        }
+        assertEquals(0, db.getOpenCount());
+    }
+
+    @Test
+    public void testBatchedLoadsEachBatchOnce() {
+        List<Integer> loaded = new ArrayList<>();
+        List<Integer> rows = DAOUtil.batched(Stream.of(1, 2, 3, 4, 5), 2, batch -> loaded.add(batch.size()))
+                .collect(Collectors.toList());
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), rows);
+        assertEquals(Arrays.asList(2, 2, 1), loaded);
+    }
+}
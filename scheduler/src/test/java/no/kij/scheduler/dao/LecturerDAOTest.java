@@ -0,0 +1,140 @@
+package no.kij.scheduler.dao;
+
+import static no.kij.scheduler.FakeDatabase.row;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import no.kij.scheduler.DatabaseConnector;
+import no.kij.scheduler.FakeDatabase;
+import no.kij.scheduler.PoolSettings;
+import no.kij.scheduler.dto.AvailableDTO;
+import no.kij.scheduler.dto.LecturerDTO;
+import no.kij.scheduler.index.AvailabilityIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+public class LecturerDAOTest {
+    private static final int LECTURERS = 6;
+
+    // a Lecturer table with IDs 1 to 6, paged like the database would
+    private final FakeDatabase db = new FakeDatabase()
+            .on("FROM Lecturer WHERE id > ? ORDER BY id LIMIT ?", "id, name", parameters -> {
+                List<Object[]> rows = new ArrayList<>();
+                int afterId = (Integer) parameters.get(0);
+                int limit = (Integer) parameters.get(1);
+                for (int id = afterId + 1; id <= LECTURERS && rows.size() < limit; id++) {
+                    rows.add(row(id, "Lecturer " + id));
+                }
+                return rows;
+            })
+            .on("FROM Lecturer WHERE id = ?", "id, name", parameters ->
+                    Arrays.<Object[]>asList(row(parameters.get(0), "Lecturer " + parameters.get(0))));
+    private final LecturerDAO lecturerDAO = new LecturerDAO(db.connector());
+
+    @Test
+    public void testFindIdsMatchesNamesLikeTheCollation() {
+        // the database compares names ignoring case and accents, and returns them as they are stored
+        db.on("SELECT id, name FROM Lecturer WHERE name IN", "id, name",
+                row(3, "Émile Zola"),
+                row(5, "emile zola"),
+                row(7, "Praskovya Pokrovskaya"));
+        Map<String, Integer> ids = lecturerDAO.findIds(Arrays.asList("EMILE ZOLA ", "Émile Zola", "Nobody"));
+
+        assertTrue(db.getStatements().get(0).getSql().endsWith("ORDER BY id"));
+        assertEquals(2, ids.size());
+        assertEquals(Integer.valueOf(3), ids.get("EMILE ZOLA "));
+        assertEquals(Integer.valueOf(3), ids.get("Émile Zola"));
+    }
+
+    @Test
+    public void testPageAfterTheLastLecturerIsEmpty() {
+        assertTrue(lecturerDAO.page(LECTURERS, 10).isEmpty());
+        assertTrue(lecturerDAO.page(LECTURERS + 100, 10).isEmpty());
+    }
+
+    @Test
+    public void testPagesOfOne() {
+        List<LecturerDTO> page = lecturerDAO.page(2, 1);
+        assertEquals(1, page.size());
+        assertEquals(Integer.valueOf(3), page.get(0).getId());
+        assertEquals(1, lecturerDAO.page(LECTURERS - 1, 1).size());
+    }
+
+    @Test
+    public void testLecturerCountIsAMultipleOfTheLimit() {
+        List<Integer> ids = new ArrayList<>();
+        int pages = 0;
+        int afterId = 0;
+        List<LecturerDTO> page;
+        while (!(page = lecturerDAO.page(afterId, 3)).isEmpty()) {
+            assertEquals(3, page.size());
+            pages++;
+            for (LecturerDTO lecturerDTO : page) {
+                ids.add(lecturerDTO.getId());
+            }
+            afterId = page.get(page.size() - 1).getId();
+        }
+        assertEquals(2, pages);
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6), ids);
+    }
+
+    @Test
+    public void testPagesAreAttachedToTheSession() {
+        try (Session session = Session.open()) {
+            LecturerDTO found = lecturerDAO.find(2);
+            assertSame(found, lecturerDAO.page(0, 2).get(1));
+            assertSame(found, session.get(LecturerDTO.class, 2));
+        }
+    }
+
+    @Test
+    public void testCreatedLecturersAreFoundThroughTheIndex() {
+        db.on("FROM Lecturer WHERE id IN", "id, name", parameters -> {
+            List<Object[]> rows = new ArrayList<>();
+            for (Object id : parameters) {
+                rows.add(row(id, "Lecturer " + id));
+            }
+            return rows;
+        });
+        LecturerDAO indexedDAO = new LecturerDAO(db.connector(), null, new AvailabilityIndex());
+        assertTrue(indexedDAO.findAvailable(9, 11).isEmpty());
+
+        LecturerDTO morning = new LecturerDTO("Praskovya Pokrovskaya");
+        morning.addAvailable(new AvailableDTO(8, 12));
+        LecturerDTO afternoon = new LecturerDTO("Felicjan Pawłowski");
+        afternoon.addAvailable(new AvailableDTO(12, 16));
+        indexedDAO.createAll(Arrays.asList(morning, afternoon));
+
+        List<LecturerDTO> available = indexedDAO.findAvailable(9, 11);
+        assertEquals(1, available.size());
+        assertEquals(morning.getId(), available.get(0).getId());
+        assertTrue(indexedDAO.isAvailable(afternoon, 13, 15));
+    }
+
+    @Test
+    public void testCreateAllHandsTheConnectionBackBeforeIndexing() throws Exception {
+        PoolSettings settings = new PoolSettings(0, 1);
+        settings.setAcquireTimeoutMillis(1000);
+        try (DatabaseConnector connector = db.connector(settings)) {
+            LecturerDAO indexedDAO = new LecturerDAO(connector, null, new AvailabilityIndex());
+            // a rebuild starts while the insert holds the only connection, and waits for it under the index's lock
+            Thread rebuild = new Thread(indexedDAO::rebuildIndex);
+            db.onExecute(statement -> {
+                if (statement.getSql().startsWith("INSERT INTO Available") && !rebuild.isAlive()) {
+                    rebuild.start();
+                    Thread.sleep(100);
+                }
+            });
+
+            LecturerDTO lecturerDTO = new LecturerDTO("Praskovya Pokrovskaya");
+            lecturerDTO.addAvailable(new AvailableDTO(8, 12));
+            indexedDAO.createAll(Arrays.asList(lecturerDTO));
+            rebuild.join(5000);
+            assertNotNull(lecturerDTO.getId());
+            assertEquals(0, connector.getPoolStats().getTimeouts());
+        }
+    }
+}
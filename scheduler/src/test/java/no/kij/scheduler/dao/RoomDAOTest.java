@@ -0,0 +1,89 @@
+package no.kij.scheduler.dao;
+
+import static no.kij.scheduler.FakeDatabase.row;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import no.kij.scheduler.FakeDatabase;
+import no.kij.scheduler.dto.RoomDTO;
+import no.kij.scheduler.index.RoomIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class RoomDAOTest {
+    private static final int ROOMS = 4;
+
+    // a Room table with IDs 1 to 4, paged like the database would
+    private final FakeDatabase db = new FakeDatabase()
+            .on("FROM Room WHERE id > ? ORDER BY id LIMIT ?", "id, name, capacity, campus", parameters -> {
+                List<Object[]> rows = new ArrayList<>();
+                int afterId = (Integer) parameters.get(0);
+                int limit = (Integer) parameters.get(1);
+                for (int id = afterId + 1; id <= ROOMS && rows.size() < limit; id++) {
+                    rows.add(row(id, "10" + id, 20 * id, "Fjerdingen"));
+                }
+                return rows;
+            });
+    private final RoomDAO roomDAO = new RoomDAO(db.connector());
+
+    @Test
+    public void testPageAfterTheLastRoomIsEmpty() {
+        assertTrue(roomDAO.page(ROOMS, 10).isEmpty());
+        assertTrue(roomDAO.page(ROOMS + 100, 10).isEmpty());
+    }
+
+    @Test
+    public void testPagesOfOne() {
+        List<Integer> ids = new ArrayList<>();
+        int afterId = 0;
+        List<RoomDTO> page;
+        while (!(page = roomDAO.page(afterId, 1)).isEmpty()) {
+            assertEquals(1, page.size());
+            afterId = page.get(0).getId();
+            ids.add(afterId);
+        }
+        assertEquals(Arrays.asList(1, 2, 3, 4), ids);
+    }
+
+    @Test
+    public void testRoomCountIsAMultipleOfTheLimit() {
+        assertEquals(2, roomDAO.page(0, 2).size());
+        List<RoomDTO> last = roomDAO.page(2, 2);
+        assertEquals(2, last.size());
+        assertEquals(Integer.valueOf(4), last.get(1).getId());
+        // a full last page can not tell that it is the last, so one more, empty, page is read
+        assertTrue(roomDAO.page(4, 2).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLimitMustBePositive() {
+        roomDAO.page(0, 0);
+    }
+
+    @Test
+    public void testPagesAreAttachedToTheSession() {
+        try (Session session = Session.open()) {
+            RoomDTO first = roomDAO.page(0, 2).get(1);
+            assertSame(first, roomDAO.page(1, 1).get(0));
+            assertSame(first, session.get(RoomDTO.class, 2));
+        }
+    }
+
+    @Test
+    public void testIndexedLookupsReturnCopies() {
+        db.on("SELECT id, name, capacity, campus FROM Room", "id, name, capacity, campus",
+                row(1, "101", 40, "Fjerdingen"),
+                row(2, "310", 120, "Fjerdingen"));
+        RoomDAO indexedDAO = new RoomDAO(db.connector(), null, new RoomIndex());
+
+        RoomDTO smallest = indexedDAO.findSmallest(30, null);
+        smallest.setCapacity(10);
+        indexedDAO.findByCapacity(0, 200, "Fjerdingen").get(1).setName("Changed");
+
+        assertEquals(40, indexedDAO.findSmallest(30, null).getCapacity());
+        assertNotSame(smallest, indexedDAO.findSmallest(30, null));
+        assertEquals("310", indexedDAO.findByCapacity(100, 200, null).get(0).getName());
+    }
+}
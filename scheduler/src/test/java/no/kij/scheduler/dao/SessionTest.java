@@ -0,0 +1,103 @@
+package no.kij.scheduler.dao;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import no.kij.scheduler.FakeDatabase;
+import no.kij.scheduler.QueryLogSettings;
+import no.kij.scheduler.QueryWarning;
+import no.kij.scheduler.dto.LecturerDTO;
+import no.kij.scheduler.dto.RoomDTO;
+import no.kij.scheduler.dto.SubjectDTO;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SessionTest {
+    private final FakeDatabase db = new FakeDatabase();
+
+    @Test
+    public void testRegisteredEntityKeepsItsIdentity() {
+        try (Session session = Session.open()) {
+            LecturerDTO first = new LecturerDTO("Praskovya Pokrovskaya");
+            LecturerDTO second = new LecturerDTO("Praskovya Pokrovskaya");
+            assertSame(first, Session.attach(LecturerDTO.class, 1, first));
+            assertSame(first, Session.attach(LecturerDTO.class, 1, second));
+            assertSame(first, session.get(LecturerDTO.class, 1));
+        }
+    }
+
+    @Test
+    public void testEntitiesAreKeyedByType() {
+        try (Session session = Session.open()) {
+            session.register(LecturerDTO.class, 1, new LecturerDTO("Felicjan Pawłowski"));
+            assertNull(session.get(SubjectDTO.class, 1));
+        }
+    }
+
+    @Test
+    public void testNoLookupWithoutSession() {
+        LecturerDTO lecturerDTO = new LecturerDTO("Felicjan Pawłowski");
+        assertNull(Session.current());
+        assertSame(lecturerDTO, Session.attach(LecturerDTO.class, 1, lecturerDTO));
+        assertNull(Session.lookup(LecturerDTO.class, 1));
+    }
+
+    @Test
+    public void testClosingNestedSessionRestoresOuter() {
+        try (Session outer = Session.open()) {
+            try (Session inner = Session.open()) {
+                assertSame(inner, Session.current());
+            }
+            assertSame(outer, Session.current());
+        }
+        assertNull(Session.current());
+    }
+
+    @Test
+    public void testRepeatedQueryIsFlaggedOnceWithItsCallSite() throws SQLException {
+        try (Session session = Session.open(new QueryLogSettings(0, 3))) {
+            for (int id = 1; id <= 5; id++) {
+                DAOUtil.prepareStatement(db.connection(), "SELECT lecturer FROM Subject_Lecturer WHERE subject = ?",
+                        false, id).close();
+            }
+            List<QueryWarning> warnings = session.getWarnings();
+            assertEquals(1, warnings.size());
+            QueryWarning warning = warnings.get(0);
+            assertEquals(QueryWarning.Kind.REPEATED_QUERY, warning.getKind());
+            assertEquals(3, warning.getCount());
+            assertArrayEquals(new Object[] { 3 }, warning.getParameters());
+            assertEquals(SessionTest.class.getName(), warning.getCallSite().getClassName());
+        }
+    }
+
+    @Test
+    public void testBudgetCoversNestedSessions() throws SQLException {
+        try (Session outer = Session.open(new QueryLogSettings(2, 0))) {
+            try (Session inner = Session.open()) {
+                for (int i = 0; i < 3; i++) {
+                    DAOUtil.prepareStatement(db.connection(), "SELECT id FROM Room -- " + i, false).close();
+                }
+                assertEquals(3, inner.getQueryCount());
+            }
+            assertEquals(3, outer.getQueryCount());
+            assertEquals(1, outer.getWarnings().size());
+            assertEquals(QueryWarning.Kind.BUDGET_EXCEEDED, outer.getWarnings().get(0).getKind());
+        }
+    }
+
+    @Test
+    public void testBatchesAreNotFlaggedAsRepeats() throws SQLException {
+        List<RoomDTO> rooms = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            rooms.add(new RoomDTO(50, "Room " + i, "Fjerdingen"));
+        }
+        try (Session session = Session.open(new QueryLogSettings(0, 2))) {
+            DAOUtil.executeBatch(db.connection(), "INSERT INTO Room(name, capacity, campus) VALUES (?, ?, ?)",
+                    rooms, 1, (stmt, room) -> stmt.setString(1, room.getName()), null);
+            assertEquals(4, session.getQueryCount());
+            assertTrue(session.getWarnings().isEmpty());
+        }
+    }
+}
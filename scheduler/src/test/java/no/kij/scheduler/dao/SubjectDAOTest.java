@@ -0,0 +1,173 @@
+package no.kij.scheduler.dao;
+
+import static no.kij.scheduler.FakeDatabase.row;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import no.kij.scheduler.DatabaseConnector;
+import no.kij.scheduler.FakeDatabase;
+import no.kij.scheduler.PoolSettings;
+import no.kij.scheduler.QueryLogSettings;
+import no.kij.scheduler.dto.LecturerDTO;
+import no.kij.scheduler.dto.SubjectDTO;
+import no.kij.scheduler.index.TrigramIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Guards the number of queries the subject DAO issues, so an N+1 query pattern does not creep back in.
+ */
+public class SubjectDAOTest {
+    private final FakeDatabase db = new FakeDatabase()
+            .on("SELECT id, name, shortname, enrolled FROM Subject", "id, name, shortname, enrolled",
+                    row(1, "Programmering", "PG1100", 120),
+                    row(2, "Databaser", "PG3100", 80))
+            .on("FROM Subject_Lecturer sl JOIN Lecturer", "subject, id, name",
+                    row(1, 1, "Praskovya Pokrovskaya"),
+                    row(2, 1, "Praskovya Pokrovskaya"),
+                    row(2, 2, "Felicjan Pawłowski"))
+            .on("FROM Contact c", "id, lecturer, number, email",
+                    row(1, 1, "22334455", "praskovya@example.com"),
+                    row(2, 2, "66778899", "felicjan@example.com"))
+            .on("FROM Available a", "id, lecturer, start, end",
+                    row(1, 1, 8, 12),
+                    row(2, 2, 12, 16))
+            .on("ORDER BY score DESC", "id, name, shortname, enrolled, lecturer",
+                    row(1, "Programmering", "PG1100", 120, 1),
+                    row(2, "Databaser", "PG3100", 80, 1),
+                    row(2, "Databaser", "PG3100", 80, 2))
+            .on("FROM Subject_Lecturer WHERE subject IN", "subject, lecturer",
+                    row(1, 1),
+                    row(2, 1),
+                    row(2, 2))
+            .on("FROM Subject_Lecturer sl JOIN Subject s", "lecturer, id, name, shortname, enrolled",
+                    parameters -> {
+                        List<Object[]> rows = new ArrayList<>();
+                        if (parameters.contains(1)) {
+                            rows.add(row(1, 1, "Programmering", "PG1100", 120));
+                            rows.add(row(1, 2, "Databaser", "PG3100", 80));
+                        }
+                        if (parameters.contains(2)) {
+                            rows.add(row(2, 2, "Databaser", "PG3100", 80));
+                        }
+                        return rows;
+                    })
+            .on("FROM Lecturer WHERE id IN", "id, name",
+                    row(1, "Praskovya Pokrovskaya"),
+                    row(2, "Felicjan Pawłowski"));
+    private final SubjectDAO subjectDAO = new SubjectDAO(db.connector());
+
+    @Test
+    public void testListIssuesFourQueries() {
+        try (Session session = Session.open(new QueryLogSettings(4, 2))) {
+            List<SubjectDTO> subjects = subjectDAO.list();
+            assertEquals(4, session.getQueryCount());
+            assertTrue(session.getWarnings().isEmpty());
+
+            assertEquals(2, subjects.size());
+            assertEquals(1, subjects.get(0).getLecturers().size());
+            assertEquals(2, subjects.get(1).getLecturers().size());
+            LecturerDTO shared = subjects.get(0).getLecturers().get(0);
+            assertSame(shared, subjects.get(1).getLecturers().get(0));
+            assertEquals(1, shared.getContact().size());
+            assertEquals(1, shared.getAvailable().size());
+        }
+    }
+
+    @Test
+    public void testRepeatedListsAreFlagged() {
+        try (Session session = Session.open(new QueryLogSettings(0, 2))) {
+            subjectDAO.list();
+            subjectDAO.list();
+            assertEquals(4, session.getWarnings().size());
+        }
+    }
+
+    @Test
+    public void testFindSubjectOfLecturerIssuesFiveQueries() {
+        LecturerDTO lecturerDTO = new LecturerDTO("Praskovya Pokrovskaya");
+        lecturerDTO.setId(1);
+        try (Session session = Session.open(new QueryLogSettings(5, 2))) {
+            List<SubjectDTO> subjects = subjectDAO.findSubject(lecturerDTO);
+            assertEquals(5, session.getQueryCount());
+            assertTrue(session.getWarnings().isEmpty());
+
+            assertEquals(2, subjects.size());
+            assertEquals(2, subjects.get(1).getLecturers().size());
+            assertSame(subjects.get(0).getLecturers().get(0), subjects.get(1).getLecturers().get(0));
+        }
+    }
+
+    @Test
+    public void testFindSubjectsOfAPageOfLecturersIssuesFiveQueries() {
+        LecturerDTO praskovya = new LecturerDTO("Praskovya Pokrovskaya");
+        praskovya.setId(1);
+        LecturerDTO felicjan = new LecturerDTO("Felicjan Pawłowski");
+        felicjan.setId(2);
+        LecturerDTO unsaved = new LecturerDTO("Unsaved");
+        try (Session session = Session.open(new QueryLogSettings(5, 2))) {
+            Map<Integer, List<SubjectDTO>> subjects =
+                    subjectDAO.findSubjects(Arrays.asList(praskovya, felicjan, unsaved));
+            assertEquals(5, session.getQueryCount());
+            assertTrue(session.getWarnings().isEmpty());
+
+            assertEquals(2, subjects.size());
+            assertEquals(2, subjects.get(1).size());
+            assertEquals(1, subjects.get(2).size());
+            assertSame(subjects.get(1).get(1), subjects.get(2).get(0));
+        }
+    }
+
+    @Test
+    public void testSearchIssuesFourQueries() {
+        try (Session session = Session.open(new QueryLogSettings(4, 2))) {
+            List<SubjectDTO> subjects = subjectDAO.search("PG", 10);
+            assertEquals(4, session.getQueryCount());
+            assertTrue(session.getWarnings().isEmpty());
+
+            assertEquals(2, subjects.size());
+            assertEquals(1, subjects.get(0).getLecturers().size());
+            assertEquals(2, subjects.get(1).getLecturers().size());
+            assertSame(subjects.get(0).getLecturers().get(0), subjects.get(1).getLecturers().get(0));
+        }
+    }
+
+    @Test
+    public void testSearchAndPageNeedOneConnection() {
+        // the lecturers are loaded after the subjects' connection is handed back, so a pool of one is enough
+        PoolSettings settings = new PoolSettings(0, 1);
+        settings.setAcquireTimeoutMillis(200);
+        try (DatabaseConnector connector = db.connector(settings)) {
+            SubjectDAO pooledDAO = new SubjectDAO(connector);
+            assertEquals(2, pooledDAO.search("PG", 10).get(1).getLecturers().size());
+            assertEquals(2, pooledDAO.page(0, 10).get(1).getLecturers().size());
+            assertEquals(0, connector.getPoolStats().getTimeouts());
+        }
+    }
+
+    @Test
+    public void testCreateHandsTheConnectionBackBeforeIndexing() throws Exception {
+        PoolSettings settings = new PoolSettings(0, 1);
+        settings.setAcquireTimeoutMillis(1000);
+        try (DatabaseConnector connector = db.connector(settings)) {
+            SubjectDAO indexedDAO = new SubjectDAO(connector, null, new TrigramIndex());
+            // a rebuild starts while the insert holds the only connection, and waits for it under the index's lock
+            Thread rebuild = new Thread(indexedDAO::rebuildIndex);
+            db.onExecute(statement -> {
+                if (statement.getSql().startsWith("INSERT INTO Subject") && !rebuild.isAlive()) {
+                    rebuild.start();
+                    Thread.sleep(100);
+                }
+            });
+
+            SubjectDTO subjectDTO = new SubjectDTO("Algoritmer", "PG4200", 60);
+            indexedDAO.create(subjectDTO);
+            rebuild.join(5000);
+            assertNotNull(subjectDTO.getId());
+            assertEquals(0, connector.getPoolStats().getTimeouts());
+        }
+    }
+}
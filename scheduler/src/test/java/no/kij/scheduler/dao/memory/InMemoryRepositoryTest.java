@@ -0,0 +1,209 @@
+package no.kij.scheduler.dao.memory;
+
+import no.kij.scheduler.JsonImporter;
+import no.kij.scheduler.dao.DAOException;
+import no.kij.scheduler.dao.Session;
+import no.kij.scheduler.dto.AvailableDTO;
+import no.kij.scheduler.dto.ContactDTO;
+import no.kij.scheduler.dto.LecturerDTO;
+import no.kij.scheduler.dto.RoomDTO;
+import no.kij.scheduler.dto.SubjectDTO;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+public class InMemoryRepositoryTest {
+    private InMemoryStore store;
+    private InMemoryLecturerRepository lecturers;
+    private InMemorySubjectRepository subjects;
+    private InMemoryRoomRepository rooms;
+
+    @Before
+    public void setUp() {
+        store = new InMemoryStore();
+        lecturers = new InMemoryLecturerRepository(store);
+        subjects = new InMemorySubjectRepository(store);
+        rooms = new InMemoryRoomRepository(store);
+    }
+
+    @Test
+    public void testCreateSetsIdsAndFindsByIdAndName() {
+        LecturerDTO lecturer = lecturer("Émile Durand", 8, 12);
+        lecturer.addContact(new ContactDTO("55512345", "emile@example.com"));
+        lecturers.create(lecturer);
+        assertEquals(Integer.valueOf(1), lecturer.getId());
+        assertNotNull(lecturer.getContact().get(0).getId());
+
+        LecturerDTO found = lecturers.find("emile durand");
+        assertEquals(lecturer.getId(), found.getId());
+        assertEquals("emile@example.com", found.getContact().get(0).getEmail());
+        assertNotSame(found, lecturers.find(1));
+        assertNull(lecturers.find("Nobody"));
+        assertNull(lecturers.find(2));
+    }
+
+    @Test
+    public void testReturnedRowsAreCopies() {
+        RoomDTO room = new RoomDTO(30, "F101", "Fjerdingen");
+        rooms.create(room);
+        room.setCapacity(300);
+        rooms.find("F101").setCapacity(200);
+        assertEquals(30, rooms.find("f101").getCapacity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateWithIdIsRejected() {
+        RoomDTO room = new RoomDTO(30, "F101", "Fjerdingen");
+        room.setId(7);
+        rooms.create(room);
+    }
+
+    @Test
+    public void testPagesWalkIdsInOrder() {
+        for (int i = 0; i < 5; i++) {
+            rooms.create(new RoomDTO(10 + i, "R" + i, "Vulkan"));
+        }
+        List<RoomDTO> page = rooms.page(2, 2);
+        assertEquals(2, page.size());
+        assertEquals(Integer.valueOf(3), page.get(0).getId());
+        assertEquals(Integer.valueOf(4), page.get(1).getId());
+        assertEquals(1, rooms.page(4, 10).size());
+        assertTrue(rooms.page(5, 10).isEmpty());
+        assertTrue(rooms.page(Integer.MAX_VALUE, 10).isEmpty());
+        assertEquals(5, rooms.list().size());
+        assertEquals(5, rooms.stream().count());
+    }
+
+    @Test
+    public void testLinksAreReadInBothDirections() {
+        LecturerDTO ola = lecturer("Ola", 8, 10);
+        LecturerDTO kari = lecturer("Kari", 9, 12);
+        lecturers.createAll(Arrays.asList(ola, kari));
+        SubjectDTO java = new SubjectDTO("Avansert Javaprogrammering", "PGR200", 65);
+        SubjectDTO algorithms = new SubjectDTO("Algoritmer og datastrukturer", "PG4200", 80);
+        subjects.createAll(Arrays.asList(java, algorithms));
+
+        subjects.addLecturer(java, kari);
+        subjects.addLecturer(java, ola);
+        subjects.addLecturer(algorithms, kari);
+
+        List<LecturerDTO> javaLecturers = subjects.find(java.getId()).getLecturers();
+        assertEquals(2, javaLecturers.size());
+        assertEquals("Ola", javaLecturers.get(0).getName());
+        assertEquals(2, subjects.findSubject(kari).size());
+        assertEquals("PGR200", subjects.findSubject(ola).get(0).getShortName());
+        assertEquals(2, subjects.findSubjects(Arrays.asList(kari, ola)).get(kari.getId()).size());
+    }
+
+    @Test
+    public void testFailedLinksSaveNothing() {
+        LecturerDTO ola = lecturer("Ola", 8, 10);
+        lecturers.create(ola);
+        SubjectDTO java = new SubjectDTO("Avansert Javaprogrammering", "PGR200", 65);
+        subjects.create(java);
+        LecturerDTO missing = new LecturerDTO("Missing");
+        missing.setId(42);
+
+        try {
+            subjects.addLecturers(Collections.singletonMap(java, Arrays.asList(ola, missing)));
+            fail("Linking a lecturer that does not exist should fail.");
+        } catch (DAOException e) {
+            assertTrue(subjects.find(java.getId()).getLecturers().isEmpty());
+        }
+        subjects.addLecturer(java, ola);
+        try {
+            subjects.addLecturer(java, ola);
+            fail("Linking the same lecturer twice should fail.");
+        } catch (DAOException e) {
+            assertEquals(1, subjects.find(java.getId()).getLecturers().size());
+        }
+    }
+
+    @Test
+    public void testSearchRanksLikeTheDatabase() {
+        subjects.createAll(Arrays.asList(
+                new SubjectDTO("Programmering", "PG1100", 100),
+                new SubjectDTO("Avansert Javaprogrammering", "PGR200", 65),
+                new SubjectDTO("Programmering i C", "PGR100", 30),
+                new SubjectDTO("Prog", "PG2100", 20)));
+
+        assertEquals("PGR200", subjects.find("pgr200").getShortName());
+        assertEquals("PG1100", subjects.find("Programmering").getShortName());
+        List<SubjectDTO> found = subjects.search("programmering", 5);
+        assertEquals(3, found.size());
+        assertEquals("PG1100", found.get(0).getShortName());
+        assertEquals("PGR100", found.get(1).getShortName());
+        assertEquals("PGR200", found.get(2).getShortName());
+        // too short for the trigram index, so every subject is checked
+        assertEquals(1, subjects.search("C", 5).size());
+        assertEquals(1, subjects.search("programmering", 1).size());
+        assertTrue(subjects.search("Fysikk", 5).isEmpty());
+    }
+
+    @Test
+    public void testAvailability() {
+        LecturerDTO ola = lecturer("Ola", 8, 12);
+        LecturerDTO kari = lecturer("Kari", 10, 14);
+        lecturers.createAll(Arrays.asList(ola, kari));
+
+        assertTrue(lecturers.isAvailable(ola, 8, 10));
+        assertFalse(lecturers.isAvailable(ola, 11, 13));
+        assertTrue(lecturers.isAvailable(lecturer("Unsaved", 11, 13), 11, 13));
+        List<LecturerDTO> free = lecturers.findAvailable(10, 12);
+        assertEquals(2, free.size());
+        assertEquals("Kari", lecturers.findAvailable(12, 14).get(0).getName());
+    }
+
+    @Test
+    public void testFindSmallestRoom() {
+        rooms.createAll(Arrays.asList(
+                new RoomDTO(30, "F101", "Fjerdingen"),
+                new RoomDTO(80, "F102", "Fjerdingen"),
+                new RoomDTO(50, "K201", "Kvadraturen")));
+        assertEquals("K201", rooms.findSmallest(31, null).getName());
+        assertEquals("F102", rooms.findSmallest(31, "fjerdingen").getName());
+        assertEquals(2, rooms.findByCapacity(40, 100, null).size());
+        assertNull(rooms.findSmallest(81, null));
+    }
+
+    @Test
+    public void testSessionReturnsSameInstance() {
+        lecturers.create(lecturer("Ola", 8, 10));
+        try (Session session = Session.open()) {
+            assertSame(lecturers.find(1), lecturers.find("Ola"));
+        }
+        assertNotSame(lecturers.find(1), lecturers.find(1));
+    }
+
+    @Test
+    public void testJsonImporterSeedsTheStore() throws IOException {
+        JsonImporter importer = new JsonImporter(lecturers, rooms, subjects, 2);
+        importer.importLecturers(new StringReader(
+                "[{\"name\": \"Ola\", \"contact\": [], \"available\": [{\"start\": 8, \"end\": 10}]}," +
+                "{\"name\": \"Kari\", \"contact\": [], \"available\": []}]"));
+        importer.importRooms(new StringReader("[{\"name\": \"F101\", \"capacity\": 30, \"campus\": \"Fjerdingen\"}]"));
+        importer.importSubjects(new StringReader(
+                "[{\"name\": \"Avansert Javaprogrammering\", \"shortName\": \"PGR200\", \"enrolled\": 65, " +
+                "\"lecturers\": [{\"name\": \"Kari\"}, {\"name\": \"Nobody\"}]}]"));
+
+        assertEquals(2, store.lecturerCount());
+        assertEquals(1, store.roomCount());
+        assertEquals("Kari", subjects.find("PGR200").getLecturers().get(0).getName());
+        Map<String, Integer> unresolved = importer.getUnresolvedLecturers();
+        assertEquals(Integer.valueOf(1), unresolved.get("Nobody"));
+    }
+
+    private static LecturerDTO lecturer(String name, int start, int end) {
+        LecturerDTO lecturerDTO = new LecturerDTO(name);
+        lecturerDTO.addAvailable(new AvailableDTO(start, end));
+        return lecturerDTO;
+    }
+}
@@ -0,0 +1,58 @@
+package no.kij.scheduler.index;
+
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AvailabilityIndexTest {
+    private AvailabilityIndex index;
+
+    @Before
+    public void setUp() {
+        index = new AvailabilityIndex();
+        index.rebuild(idx -> {
+            idx.add(1, 8, 12);
+            idx.add(1, 14, 16);
+            idx.add(2, 10, 18);
+            idx.add(3, 9, 11);
+        });
+    }
+
+    @Test
+    public void testLecturerIsFree() {
+        assertTrue(index.isFree(1, 8, 12));
+        assertTrue(index.isFree(1, 14, 15));
+        assertFalse(index.isFree(1, 11, 13));
+        assertFalse(index.isFree(4, 8, 9));
+        assertFalse(index.isFree(1, 10, 10));
+    }
+
+    @Test
+    public void testFindFreeIntersectsHours() {
+        assertArrayEquals(new int[] { 1, 2 }, index.findFree(10, 12));
+        assertArrayEquals(new int[] { 1, 2, 3 }, index.findFree(10, 11));
+        assertArrayEquals(new int[] { 2 }, index.findFree(12, 14));
+        assertEquals(0, index.findFree(20, 22).length);
+    }
+
+    @Test
+    public void testCommonHours() {
+        assertEquals(AvailabilityIndex.span(10, 12) | AvailabilityIndex.span(14, 16), index.commonHours(1, 2));
+        assertEquals(0, index.commonHours(1, 2, 3) & AvailabilityIndex.span(11, 24));
+    }
+
+    @Test
+    public void testAddGrowsPastOneWord() {
+        index.add(200, 10, 12);
+        index.add(64, 0, 30);
+        assertArrayEquals(new int[] { 1, 2, 64, 200 }, index.findFree(10, 12));
+        assertEquals(AvailabilityIndex.span(0, AvailabilityIndex.HOURS), index.getHours(64));
+    }
+
+    @Test
+    public void testRebuildEmptiesIndex() {
+        index.rebuild(idx -> idx.add(5, 8, 10));
+        assertArrayEquals(new int[] { 5 }, index.findFree(8, 10));
+        assertFalse(index.isFree(1, 8, 10));
+    }
+}
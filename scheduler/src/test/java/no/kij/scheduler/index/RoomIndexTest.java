@@ -0,0 +1,82 @@
+package no.kij.scheduler.index;
+
+import no.kij.scheduler.dto.RoomDTO;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RoomIndexTest {
+    private RoomIndex index;
+
+    @Before
+    public void setUp() {
+        index = new RoomIndex();
+        index.rebuild(idx -> {
+            idx.add(room(1, "F101", 30, "Fjerdingen"));
+            idx.add(room(2, "F102", 80, "Fjerdingen"));
+            idx.add(room(3, "K201", 50, "Kvadraturen"));
+            idx.add(room(4, "K202", 30, "Kvadraturen"));
+            idx.add(room(5, "V301", 120, "Vulkan"));
+        });
+    }
+
+    @Test
+    public void testFindSmallestOnCampus() {
+        assertEquals("F102", index.findSmallest("Fjerdingen", 31).getName());
+        assertEquals("K201", index.findSmallest("Kvadraturen", 31).getName());
+        assertNull(index.findSmallest("Kvadraturen", 51));
+        assertNull(index.findSmallest("Galleriet", 1));
+    }
+
+    @Test
+    public void testFindSmallestOnAnyCampus() {
+        assertEquals("K201", index.findSmallest(null, 31).getName());
+        assertEquals("F101", index.findSmallest(null, 0).getName());
+        assertNull(index.findSmallest(null, 121));
+    }
+
+    @Test
+    public void testCampusIsCaseInsensitive() {
+        assertEquals("F101", index.findSmallest("fjerdingen", 30).getName());
+        assertEquals(2, index.findByCapacity("FJERDINGEN", 0, 100).size());
+    }
+
+    @Test
+    public void testFindByCapacityIsSmallestFirst() {
+        List<RoomDTO> rooms = index.findByCapacity(null, 30, 80);
+        assertEquals(4, rooms.size());
+        assertEquals(30, rooms.get(0).getCapacity());
+        assertEquals(30, rooms.get(1).getCapacity());
+        assertEquals("K201", rooms.get(2).getName());
+        assertEquals("F102", rooms.get(3).getName());
+        assertTrue(index.findByCapacity(null, 81, 119).isEmpty());
+        assertTrue(index.findByCapacity(null, 80, 30).isEmpty());
+    }
+
+    @Test
+    public void testRebuildEmptiesIndex() {
+        index.rebuild(idx -> idx.add(room(6, "G401", 40, "Galleriet")));
+        assertEquals(1, index.size());
+        assertEquals("G401", index.findSmallest(null, 1).getName());
+        assertNull(index.findSmallest("Fjerdingen", 1));
+    }
+
+    @Test
+    public void testAddingARoomAgainReplacesIt() {
+        index.add(room(2, "F102", 80, "Fjerdingen"));
+        index.add(room(4, "K202", 60, "Kvadraturen"));
+        assertEquals(5, index.size());
+        assertEquals(1, index.findByCapacity("Fjerdingen", 80, 80).size());
+        assertEquals("K201", index.findSmallest("Kvadraturen", 1).getName());
+        assertEquals(60, index.findSmallest("Kvadraturen", 51).getCapacity());
+    }
+
+    private static RoomDTO room(int id, String name, int capacity, String campus) {
+        RoomDTO roomDTO = new RoomDTO(capacity, name, campus);
+        roomDTO.setId(id);
+        return roomDTO;
+    }
+}
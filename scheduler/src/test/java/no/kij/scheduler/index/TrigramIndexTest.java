@@ -0,0 +1,133 @@
+package no.kij.scheduler.index;
+
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class TrigramIndexTest {
+    private TrigramIndex index;
+
+    @Before
+    public void setUp() {
+        index = new TrigramIndex();
+        index.rebuild(idx -> {
+            idx.add(1, "Avansert Javaprogrammering");
+            idx.add(1, "PGR200");
+            idx.add(2, "Algoritmer og datastrukturer");
+            idx.add(2, "PG4200");
+            idx.add(3, "Software Design");
+            idx.add(3, "PG3300");
+        });
+    }
+
+    @Test
+    public void testSubstringFindsCandidates() {
+        assertArrayEquals(new int[] { 1 }, index.search("java"));
+        assertArrayEquals(new int[] { 2 }, index.search("struktur"));
+        assertArrayEquals(new int[] { 1, 2 }, index.search("200"));
+    }
+
+    @Test
+    public void testSearchIgnoresCaseAndAccents() {
+        assertArrayEquals(new int[] { 3 }, index.search("DÉSIGN"));
+    }
+
+    @Test
+    public void testNoCandidates() {
+        assertEquals(0, index.search("xyz").length);
+    }
+
+    @Test
+    public void testAddAndRemove() {
+        index.add(0, "Javascript");
+        index.add(5, "Java EE");
+        assertArrayEquals(new int[] { 0, 1, 5 }, index.search("jav"));
+        index.remove(1, "Avansert Javaprogrammering");
+        index.remove(1, "PGR200");
+        assertArrayEquals(new int[] { 0, 5 }, index.search("jav"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testQueryTooShort() {
+        index.search("pg");
+    }
+
+    @Test
+    public void testManyTextsMatchAScan() {
+        // enough trigrams to grow the table several times, and removals that leave holes in probe sequences
+        Random random = new Random(42);
+        List<String> texts = new ArrayList<>();
+        TrigramIndex large = new TrigramIndex();
+        for (int id = 0; id < 2000; id++) {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < 8; i++) {
+                text.append((char) ('a' + random.nextInt(26)));
+            }
+            texts.add(text.toString());
+            large.add(id, text.toString());
+        }
+        for (int id = 0; id < 2000; id += 2) {
+            large.remove(id, texts.get(id));
+        }
+
+        for (String query : new String[] { "abc", "qxz", "mno", "zzz", texts.get(1).substring(2, 6) }) {
+            List<Integer> expected = new ArrayList<>();
+            for (int id = 1; id < 2000; id += 2) {
+                if (texts.get(id).contains(query)) {
+                    expected.add(id);
+                }
+            }
+            int[] candidates = large.search(query);
+            for (int id : candidates) {
+                // the removed rows are gone
+                assertEquals(1, id % 2);
+            }
+            for (int id : expected) {
+                assertTrue(contains(candidates, id));
+            }
+        }
+    }
+
+    @Test
+    public void testAddDuringRebuildIsKept() throws InterruptedException {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread rebuild = new Thread(() -> index.rebuild(idx -> {
+            idx.add(1, "Avansert Javaprogrammering");
+            loading.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        rebuild.start();
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        // saved after the rebuild read the rows, so only the add can put it in the index
+        Thread writer = new Thread(() -> index.add(7, "Javaprosjekt"));
+        writer.start();
+        while (writer.getState() != Thread.State.WAITING && writer.isAlive()) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+        rebuild.join(5000);
+        writer.join(5000);
+        assertArrayEquals(new int[] { 1, 7 }, index.search("java"));
+    }
+
+    private static boolean contains(int[] ids, int id) {
+        for (int candidate : ids) {
+            if (candidate == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,31 @@
+package no.kij.scheduler.migration;
+
+import static no.kij.scheduler.FakeDatabase.row;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import no.kij.scheduler.FakeDatabase;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+public class MigratorTest {
+
+    @Test
+    public void testRetryAfterPartialApplySkipsExistingIndexes() throws SQLException {
+        // an earlier run created the first index and failed on the second
+        FakeDatabase db = new FakeDatabase()
+                .on("getIndexInfo", "INDEX_NAME", parameters ->
+                        parameters.get(0).equals("Lecturer")
+                                ? Collections.singletonList(row("idx_lecturer_name")) : Collections.emptyList());
+        Migration lookupIndexes = Migrator.MIGRATIONS.get(1);
+        Migrator migrator = new Migrator(db.connector(), Collections.singletonList(lookupIndexes));
+
+        assertEquals(1, migrator.migrate().size());
+        List<String> executed = db.getExecuted();
+        assertFalse(executed.stream().anyMatch(sql -> sql.startsWith("CREATE INDEX idx_lecturer_name")));
+        assertTrue(executed.stream().anyMatch(sql -> sql.startsWith("CREATE INDEX idx_subject_name")));
+        assertTrue(executed.stream().anyMatch(sql -> sql.startsWith("INSERT INTO schema_version")));
+    }
+}
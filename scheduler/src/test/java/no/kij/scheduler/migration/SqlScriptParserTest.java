@@ -0,0 +1,71 @@
+package no.kij.scheduler.migration;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import no.kij.scheduler.ResourceFetcher;
+
+import java.util.List;
+
+public class SqlScriptParserTest {
+
+    @Test
+    public void testSplitsOnDelimiter() {
+        List<String> statements = SqlScriptParser.parse("CREATE TABLE a (id int);\n\nCREATE TABLE b (id int);\n");
+        assertEquals(2, statements.size());
+        assertEquals("CREATE TABLE b (id int)", statements.get(1));
+    }
+
+    @Test
+    public void testLastStatementWithoutDelimiter() {
+        List<String> statements = SqlScriptParser.parse("SELECT 1; SELECT 2");
+        assertEquals(2, statements.size());
+        assertEquals("SELECT 2", statements.get(1));
+    }
+
+    @Test
+    public void testSemicolonInQuotesDoesNotSplit() {
+        List<String> statements = SqlScriptParser.parse(
+                "INSERT INTO Room(name) VALUES ('a;b'), ('it''s;'), ('c\\';d');\nSELECT `x;y` FROM \"t;u\";");
+        assertEquals(2, statements.size());
+        assertEquals("INSERT INTO Room(name) VALUES ('a;b'), ('it''s;'), ('c\\';d')", statements.get(0));
+    }
+
+    @Test
+    public void testCommentsAreRemoved() {
+        List<String> statements = SqlScriptParser.parse(
+                "-- first; comment\nSELECT 1; # second; comment\n/* block; comment */ SELECT 2;");
+        assertEquals(2, statements.size());
+        assertEquals("SELECT 1", statements.get(0));
+        assertEquals("SELECT 2", statements.get(1));
+    }
+
+    @Test
+    public void testExecutableCommentIsKept() {
+        List<String> statements = SqlScriptParser.parse("/*!40101 SET NAMES utf8 */;");
+        assertEquals(1, statements.size());
+        assertEquals("/*!40101 SET NAMES utf8 */", statements.get(0));
+    }
+
+    @Test
+    public void testDelimiterCommand() {
+        List<String> statements = SqlScriptParser.parse("DELIMITER //\n" +
+                "CREATE TRIGGER t BEFORE INSERT ON Room FOR EACH ROW BEGIN SET NEW.capacity = 1; END//\n" +
+                "DELIMITER ;\nSELECT 1;");
+        assertEquals(2, statements.size());
+        assertTrue(statements.get(0).endsWith("SET NEW.capacity = 1; END"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnterminatedQuote() {
+        SqlScriptParser.parse("SELECT 'abc;");
+    }
+
+    @Test
+    public void testShippedMigrationsParse() {
+        assertEquals(6, SqlScriptParser.parse(ResourceFetcher.getFile("database.sql")).size());
+        for (Migration migration : Migrator.MIGRATIONS) {
+            assertFalse(migration.getStatements().isEmpty());
+        }
+    }
+}
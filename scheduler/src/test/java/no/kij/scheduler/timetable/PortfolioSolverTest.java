@@ -0,0 +1,111 @@
+package no.kij.scheduler.timetable;
+
+import static no.kij.scheduler.timetable.TimetableSolverTest.*;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import no.kij.scheduler.dto.LecturerDTO;
+import no.kij.scheduler.dto.RoomDTO;
+import no.kij.scheduler.dto.SubjectDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class PortfolioSolverTest {
+    @Test(timeout = 60000)
+    public void testSameSeedGivesSameTimetableOnAnyNumberOfThreads() {
+        Random random = new Random(7);
+        List<SubjectDTO> subjects = randomSubjects(random, 400, 60);
+        List<RoomDTO> rooms = randomRooms(random, 20);
+        SolverSettings settings = settings(1, 8);
+
+        Timetable single = new PortfolioSolver(subjects, rooms, settings).solve();
+        settings.setThreads(3);
+        Timetable parallel = new PortfolioSolver(subjects, rooms, settings).solve();
+
+        assertEquals(single.getScore(), parallel.getScore());
+        assertEquals(describe(single), describe(parallel));
+    }
+
+    @Test(timeout = 60000)
+    public void testPortfolioIsNoWorseThanSingleSearch() {
+        Random random = new Random(11);
+        List<SubjectDTO> subjects = randomSubjects(random, 600, 80);
+        List<RoomDTO> rooms = randomRooms(random, 24);
+
+        Timetable baseline = new TimetableSolver(subjects, rooms).solve();
+        Timetable portfolio = new PortfolioSolver(subjects, rooms, settings(2, 4)).solve();
+
+        assertEquals(Collections.emptyList(), portfolio.findViolations());
+        assertFalse(baseline.getScore().isBetterThan(portfolio.getScore()));
+    }
+
+    @Test(timeout = 60000)
+    public void testPortfolioIsNoWorseThanSingleSearchWhateverTheTimeLimit() {
+        Random random = new Random(13);
+        List<SubjectDTO> subjects = randomSubjects(random, 3000, 400);
+        List<RoomDTO> rooms = randomRooms(random, 120);
+        SolverSettings settings = settings(1, 1);
+        settings.setTimeLimitMillis(1);
+
+        Timetable baseline = new TimetableSolver(subjects, rooms).solve();
+        Timetable portfolio = new PortfolioSolver(subjects, rooms, settings).solve();
+
+        assertEquals(baseline.getMissingLectures(), portfolio.getMissingLectures());
+        assertFalse(baseline.getScore().isBetterThan(portfolio.getScore()));
+    }
+
+    @Test(timeout = 10000)
+    public void testLowerBoundStopsTheSearch() {
+        LecturerDTO lecturer = lecturer("Felicjan Pawłowski", 8, 20);
+        List<SubjectDTO> subjects = Arrays.asList(subject("PGR200", 40, lecturer), subject("PG4200", 120));
+        List<RoomDTO> rooms = Arrays.asList(room("310", 40, "Fjerdingen"), room("101", 120, "Fjerdingen"));
+        PortfolioSolver solver = new PortfolioSolver(subjects, rooms, settings(2, 1000));
+
+        Timetable timetable = solver.solve();
+
+        assertEquals(new Score(0, 0), timetable.getScore());
+        assertEquals(timetable.getScore(), solver.getBestScore());
+        // only the runs already searching when the lower bound was reached go on, the rest stop before starting
+        assertTrue("Ran " + solver.getSearches() + " searches", solver.getSearches() < 50);
+    }
+
+    @Test(timeout = 30000)
+    public void testStopsAtTheTimeLimit() {
+        Random random = new Random(42);
+        List<SubjectDTO> subjects = randomSubjects(random, 3000, 400);
+        List<RoomDTO> rooms = randomRooms(random, 120);
+        SolverSettings settings = settings(2, 64);
+        settings.setSearchSteps(Integer.MAX_VALUE);
+        settings.setTimeLimitMillis(200);
+
+        long started = System.nanoTime();
+        Timetable timetable = new PortfolioSolver(subjects, rooms, settings).solve();
+        long elapsedMillis = (System.nanoTime() - started) / 1000000;
+
+        assertEquals(Collections.emptyList(), timetable.findViolations());
+        assertEquals(3000, timetable.getLectures().size() + timetable.getMissingLectures());
+        assertTrue("Took " + elapsedMillis + " ms", elapsedMillis < 5000);
+    }
+
+    private static SolverSettings settings(int threads, int runs) {
+        SolverSettings settings = new SolverSettings();
+        settings.setThreads(threads);
+        settings.setRuns(runs);
+        settings.setTimeLimitMillis(0);
+        settings.setSearchSteps(2000);
+        return settings;
+    }
+
+    private static List<String> describe(Timetable timetable) {
+        List<String> lectures = new ArrayList<>();
+        for (Lecture lecture : timetable.getLectures()) {
+            lectures.add(lecture.getSubject().getShortName() + " " + lecture.getRoom().getName() + " "
+                    + lecture.getDay() + " " + lecture.getStartHour());
+        }
+        return lectures;
+    }
+}
@@ -0,0 +1,164 @@
+package no.kij.scheduler.timetable;
+
+import static no.kij.scheduler.timetable.TimetableSolverTest.*;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import no.kij.scheduler.dto.AvailableDTO;
+import no.kij.scheduler.dto.LecturerDTO;
+import no.kij.scheduler.dto.RoomDTO;
+import no.kij.scheduler.dto.SubjectDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class ReschedulerTest {
+    private final LecturerDTO pawlowski = lecturer("Felicjan Pawłowski", 8, 12);
+    private final LecturerDTO pokrovskaya = lecturer("Praskovya Pokrovskaya", 8, 20);
+    private final SubjectDTO java = subject("PGR200", 40, pawlowski);
+    private final SubjectDTO algorithms = subject("PG4200", 60, pokrovskaya);
+    private final RoomDTO small = room("310", 40, "Fjerdingen");
+    private final RoomDTO large = room("101", 120, "Fjerdingen");
+    private final List<RoomDTO> rooms = Arrays.asList(small, large);
+
+    @Test
+    public void testAvailabilityChangeMovesOnlyTheLecturersLectures() {
+        Rescheduler rescheduler = rescheduler(Arrays.asList(java, algorithms));
+        Lecture before = lectureOf(rescheduler.getTimetable(), algorithms);
+
+        pawlowski.getAvailable().clear();
+        pawlowski.addAvailable(new AvailableDTO(14, 16));
+        Repair repair = rescheduler.repair(new ScheduleDelta().changeAvailability(pawlowski));
+
+        assertEquals(1, repair.getRemoved().size());
+        assertEquals(1, repair.getAdded().size());
+        assertEquals(14, repair.getAdded().get(0).getStartHour());
+        assertSame(java, repair.getAdded().get(0).getSubject());
+        assertSameLecture(before, lectureOf(rescheduler.getTimetable(), algorithms));
+        assertConsistent(rescheduler);
+    }
+
+    @Test
+    public void testNewSubjectIsBookedWithoutMovingOthers() {
+        Rescheduler rescheduler = rescheduler(Arrays.asList(java, algorithms));
+        SubjectDTO databases = subject("PG3100", 30, pawlowski);
+
+        Repair repair = rescheduler.repair(new ScheduleDelta().addSubject(databases));
+
+        assertEquals(Collections.emptyList(), repair.getRemoved());
+        assertEquals(1, repair.getAdded().size());
+        assertSame(databases, repair.getAdded().get(0).getSubject());
+        assertEquals(3, rescheduler.getTimetable().getLectures().size());
+        assertConsistent(rescheduler);
+    }
+
+    @Test
+    public void testHigherEnrolmentMovesToBiggerRoom() {
+        Rescheduler rescheduler = rescheduler(Arrays.asList(java, algorithms));
+        assertSame(small, lectureOf(rescheduler.getTimetable(), java).getRoom());
+
+        java.setEnrolled(80);
+        Repair repair = rescheduler.repair(new ScheduleDelta().changeEnrolment(java));
+
+        assertEquals(1, repair.getRemoved().size());
+        assertSame(large, lectureOf(rescheduler.getTimetable(), java).getRoom());
+        assertConsistent(rescheduler);
+    }
+
+    @Test
+    public void testShrunkRoomDisplacesLecturesThatNoLongerFit() {
+        SubjectDTO huge = subject("PG6100", 200, pokrovskaya);
+        Rescheduler rescheduler = rescheduler(Arrays.asList(java, huge));
+        assertTrue(rescheduler.getTimetable().getUnscheduled().containsKey(huge));
+
+        large.setCapacity(250);
+        Repair grown = rescheduler.repair(new ScheduleDelta().resizeRoom(large));
+        assertEquals(1, grown.getAdded().size());
+        assertTrue(grown.getUnscheduled().isEmpty());
+        assertConsistent(rescheduler);
+
+        large.setCapacity(100);
+        Repair shrunk = rescheduler.repair(new ScheduleDelta().resizeRoom(large));
+        assertEquals(1, shrunk.getRemoved().size());
+        assertTrue(shrunk.getUnscheduled().get(huge).contains("200"));
+        assertEquals(1, shrunk.getScore().getHard());
+        assertConsistent(rescheduler);
+    }
+
+    @Test
+    public void testBlockingLectureIsMovedToMakeRoom() {
+        // the only room is taken every morning, the only time the new subject's lecturer is available
+        List<Lecture> mornings = new ArrayList<>();
+        for (int day = 0; day < Week.DAYS; day++) {
+            mornings.add(new Lecture(subject("PJ" + day, 30, pokrovskaya), small, day, 8, 2));
+        }
+        LecturerDTO early = lecturer("Marta Jaworska", 8, 10);
+        Rescheduler rescheduler = new Rescheduler(new Timetable(mornings, Collections.emptyMap(), 0),
+                Collections.singletonList(small), new SolverSettings());
+
+        Repair repair = rescheduler.repair(new ScheduleDelta().addSubject(subject("PGR100", 30, early)));
+
+        assertEquals(1, repair.getRemoved().size());
+        assertEquals(2, repair.getAdded().size());
+        assertTrue(repair.getUnscheduled().isEmpty());
+        assertConsistent(rescheduler);
+    }
+
+    @Test(timeout = 30000)
+    public void testRepairOfThousandsOfSubjects() {
+        Random random = new Random(42);
+        List<SubjectDTO> subjects = randomSubjects(random, 3000, 400);
+        List<RoomDTO> rooms = randomRooms(random, 120);
+        Timetable timetable = new TimetableSolver(subjects, rooms).solve();
+        Rescheduler rescheduler = new Rescheduler(timetable, rooms, new SolverSettings());
+        assertEquals(timetable.getScore(), rescheduler.getScore());
+
+        ScheduleDelta delta = new ScheduleDelta();
+        for (SubjectDTO subject : subjects.subList(0, 20)) {
+            for (LecturerDTO lecturer : subject.getLecturers()) {
+                lecturer.getAvailable().clear();
+                lecturer.addAvailable(new AvailableDTO(12, 18));
+                delta.changeAvailability(lecturer);
+            }
+            subject.setEnrolled(subject.getEnrolled() + 20);
+            delta.changeEnrolment(subject);
+        }
+        Repair repair = rescheduler.repair(delta);
+
+        assertTrue("Moved " + repair.getRemoved().size() + " lectures", repair.getRemoved().size() < 200);
+        assertConsistent(rescheduler);
+    }
+
+    private Rescheduler rescheduler(List<SubjectDTO> subjects) {
+        Timetable timetable = new TimetableSolver(subjects, rooms).solve();
+        return new Rescheduler(timetable, rooms, new SolverSettings());
+    }
+
+    /**
+     * Checks the timetable against the hard constraints, and the score kept up to date by the repairs against
+     * the score added up from scratch.
+     */
+    private static void assertConsistent(Rescheduler rescheduler) {
+        Timetable timetable = rescheduler.getTimetable();
+        assertEquals(Collections.emptyList(), timetable.findViolations());
+        assertEquals(timetable.getScore(), rescheduler.getScore());
+    }
+
+    private static Lecture lectureOf(Timetable timetable, SubjectDTO subject) {
+        for (Lecture lecture : timetable.getLectures()) {
+            if (lecture.getSubject() == subject) {
+                return lecture;
+            }
+        }
+        return null;
+    }
+
+    private static void assertSameLecture(Lecture expected, Lecture actual) {
+        assertSame(expected.getRoom(), actual.getRoom());
+        assertEquals(expected.getDay(), actual.getDay());
+        assertEquals(expected.getStartHour(), actual.getStartHour());
+    }
+}
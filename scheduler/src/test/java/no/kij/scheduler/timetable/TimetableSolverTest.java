@@ -0,0 +1,166 @@
+package no.kij.scheduler.timetable;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import no.kij.scheduler.dto.AvailableDTO;
+import no.kij.scheduler.dto.LecturerDTO;
+import no.kij.scheduler.dto.RoomDTO;
+import no.kij.scheduler.dto.SubjectDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class TimetableSolverTest {
+    @Test
+    public void testAvailableSlotsRepeatEveryDay() {
+        long slots = Week.availableSlots(Arrays.asList(new AvailableDTO(10, 12), new AvailableDTO(19, 23)));
+        assertEquals(Week.DAYS * 3, Long.bitCount(slots));
+        long starts = Week.starts(slots, 2);
+        assertEquals(Week.DAYS, Long.bitCount(starts));
+        assertTrue((starts & 1L << Week.slot(4, 10)) != 0);
+    }
+
+    @Test
+    public void testHardConstraintsAreKept() {
+        LecturerDTO lecturer = lecturer("Felicjan Pawłowski", 10, 12);
+        SubjectDTO small = subject("PGR200", 40, lecturer);
+        SubjectDTO large = subject("PG4200", 120);
+        SubjectDTO huge = subject("PG6100", 400);
+        RoomDTO room = room("310", 48, "Fjerdingen");
+        RoomDTO hall = room("101", 250, "Fjerdingen");
+
+        Timetable timetable = new TimetableSolver(Arrays.asList(small, large, huge), Arrays.asList(hall, room))
+                .solve();
+
+        assertEquals(Collections.emptyList(), timetable.findViolations());
+        assertEquals(2, timetable.getLectures().size());
+        assertEquals(1, timetable.getScore().getHard());
+        assertTrue(timetable.getUnscheduled().get(huge).contains("400"));
+        for (Lecture lecture : timetable.getLectures()) {
+            if (lecture.getSubject() == small) {
+                assertSame(room, lecture.getRoom());
+                assertEquals(10, lecture.getStartHour());
+            } else {
+                assertSame(hall, lecture.getRoom());
+            }
+        }
+    }
+
+    @Test
+    public void testLecturerIsNotDoubleBooked() {
+        LecturerDTO lecturer = lecturer("Praskovya Pokrovskaya", 14, 16);
+        List<SubjectDTO> subjects = new ArrayList<>();
+        for (int i = 0; i <= Week.DAYS; i++) {
+            subjects.add(subject("PJ" + i, 30, lecturer));
+        }
+        List<RoomDTO> rooms = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            rooms.add(room("30" + i, 50, "Fjerdingen"));
+        }
+
+        Timetable timetable = new TimetableSolver(subjects, rooms).solve();
+
+        assertEquals(Collections.emptyList(), timetable.findViolations());
+        assertEquals(Week.DAYS, timetable.getLectures().size());
+        assertEquals(1, timetable.getMissingLectures());
+        assertEquals(Search.NO_OPTION_LEFT, timetable.getUnscheduled().values().iterator().next());
+    }
+
+    @Test
+    public void testScarceRoomIsLeftForTheSubjectThatNeedsIt() {
+        // only the hall holds the big subject, and only during one window, so the small one must go elsewhere
+        LecturerDTO lecturer = lecturer("Nisrin Maroun", 8, 10);
+        SubjectDTO big = subject("BIG", 200, lecturer);
+        SubjectDTO small = subject("SMALL", 20);
+        RoomDTO hall = room("101", 250, "Fjerdingen");
+        RoomDTO room = room("41", 25, "Vulkan");
+        SolverSettings settings = new SolverSettings(Week.DAYS, 2);
+
+        Timetable timetable = new TimetableSolver(Arrays.asList(small, big), Arrays.asList(hall, room), settings)
+                .solve();
+
+        assertEquals(Collections.emptyList(), timetable.findViolations());
+        assertTrue(timetable.getScore().isFeasible());
+    }
+
+    @Test
+    public void testPenaltyMatchesTimetable() {
+        TimetableProblem problem = new TimetableProblem(randomSubjects(new Random(7), 200, 40),
+                randomRooms(new Random(7), 20), new SolverSettings(2, 2));
+        for (Search.Strategy strategy : Search.Strategy.values()) {
+            // the local search moves lectures back and forth, so every booking is also taken back a few times
+            Search search = new Search(problem, strategy, 7, () -> false);
+            Timetable timetable = search.run(2000);
+            assertEquals(Collections.emptyList(), timetable.findViolations());
+            // the timetable adds its penalty up from scratch, the search one booking at a time
+            assertEquals(strategy.name(), timetable.getScore(), search.score());
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void testThousandsOfSubjects() {
+        Random random = new Random(42);
+        List<SubjectDTO> subjects = randomSubjects(random, 3000, 400);
+        List<RoomDTO> rooms = randomRooms(random, 120);
+
+        Timetable timetable = new TimetableSolver(subjects, rooms).solve();
+
+        assertEquals(Collections.emptyList(), timetable.findViolations());
+        assertEquals(3000, timetable.getLectures().size() + timetable.getMissingLectures());
+        assertTrue("Only " + timetable.getLectures().size() + " lectures were scheduled",
+                timetable.getLectures().size() > 2990);
+    }
+
+    static List<SubjectDTO> randomSubjects(Random random, int count, int lecturerCount) {
+        List<LecturerDTO> lecturers = new ArrayList<>();
+        for (int i = 0; i < lecturerCount; i++) {
+            int start = Week.FIRST_HOUR + random.nextInt(4);
+            LecturerDTO lecturer = lecturer("Lecturer " + i, start, start + 6 + random.nextInt(3));
+            lecturer.setId(i + 1);
+            lecturers.add(lecturer);
+        }
+        List<SubjectDTO> subjects = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            SubjectDTO subject = subject("S" + i, 10 + random.nextInt(140));
+            subject.setId(i + 1);
+            for (int j = random.nextInt(3); j > 0; j--) {
+                subject.addLecturer(lecturers.get(random.nextInt(lecturers.size())));
+            }
+            subjects.add(subject);
+        }
+        return subjects;
+    }
+
+    static List<RoomDTO> randomRooms(Random random, int count) {
+        List<RoomDTO> rooms = new ArrayList<>();
+        String[] campuses = { "Fjerdingen", "Vulkan", "Kvadraturen" };
+        for (int i = 0; i < count; i++) {
+            RoomDTO room = room("R" + i, 30 + random.nextInt(200), campuses[random.nextInt(campuses.length)]);
+            room.setId(i + 1);
+            rooms.add(room);
+        }
+        return rooms;
+    }
+
+    static LecturerDTO lecturer(String name, int start, int end) {
+        LecturerDTO lecturer = new LecturerDTO(name);
+        lecturer.addAvailable(new AvailableDTO(start, end));
+        return lecturer;
+    }
+
+    static SubjectDTO subject(String shortName, int enrolled, LecturerDTO... lecturers) {
+        SubjectDTO subject = new SubjectDTO("Subject " + shortName, shortName, enrolled);
+        for (LecturerDTO lecturer : lecturers) {
+            subject.addLecturer(lecturer);
+        }
+        return subject;
+    }
+
+    static RoomDTO room(String name, int capacity, String campus) {
+        return new RoomDTO(capacity, name, campus);
+    }
+}